@@ -0,0 +1,101 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.examples.ads;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.ads.ADS;
+import net.automatalib.util.automata.ads.LeeYannakakis;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A small benchmark that compares the original implementation of the {@link LeeYannakakis} algorithm with its
+ * integer-based variant, which is run sequentially as well as in parallel inside {@link ForkJoinPool}s of different
+ * parallelism levels (1, 2, 4, ..., up to the number of available processors).
+ * <p>
+ * The number of states of the (random) Mealy machine can be passed as the first program argument. The machine uses as
+ * many output symbols as it has states, since random Mealy machines with only few outputs rarely admit an ADS (and the
+ * algorithm would terminate after only few iterations).
+ */
+public final class ParallelADSExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelADSExample.class);
+
+    private static final int DEFAULT_SIZE = 5_000;
+    private static final int REPETITIONS = 3;
+
+    private ParallelADSExample() {}
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        final Alphabet<Integer> inputs = Alphabets.integers(0, 1);
+        final Alphabet<Integer> outputs = Alphabets.integers(0, size - 1);
+
+        LOGGER.info("Generating random Mealy machine with {} states", size);
+        final CompactMealy<Integer, Integer> mealy = RandomAutomata.randomMealy(new Random(42), size, inputs, outputs);
+        final Set<Integer> states = new HashSet<>(mealy.getStates());
+
+        long best = Long.MAX_VALUE;
+        boolean exists = false;
+        for (int i = 0; i < REPETITIONS; i++) {
+            final long start = System.nanoTime();
+            exists = ADS.compute(mealy, inputs, states).isPresent();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        LOGGER.info("Original implementation: {} ms (ADS exists: {})", best / 1_000_000, exists);
+
+        best = Long.MAX_VALUE;
+        for (int i = 0; i < REPETITIONS; i++) {
+            final long start = System.nanoTime();
+            exists = ADS.compute(mealy, inputs, states, false).isPresent();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        LOGGER.info("Integer-based implementation: {} ms (ADS exists: {})", best / 1_000_000, exists);
+
+        final int maxParallelism = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; ; parallelism = Math.min(parallelism * 2, maxParallelism)) {
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                best = Long.MAX_VALUE;
+                for (int i = 0; i < REPETITIONS; i++) {
+                    final long start = System.nanoTime();
+                    // parallel streams use the pool of the task that invokes them
+                    exists = pool.submit(() -> ADS.compute(mealy, inputs, states, true).isPresent()).get();
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+            } finally {
+                pool.shutdown();
+            }
+            LOGGER.info("Parallel integer-based implementation ({} cores): {} ms (ADS exists: {})",
+                        parallelism,
+                        best / 1_000_000,
+                        exists);
+
+            if (parallelism == maxParallelism) {
+                break;
+            }
+        }
+    }
+}
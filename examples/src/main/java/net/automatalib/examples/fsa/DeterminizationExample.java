@@ -0,0 +1,83 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.examples.fsa;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.util.automata.fsa.NFAs;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A small benchmark that reports the throughput (in explored subsets per second) of the sequential and the parallel
+ * {@link NFAs#determinize(net.automatalib.automata.fsa.NFA, Alphabet, boolean, boolean, boolean) subset construction}
+ * on NFAs that accept all words whose {@code k}-th last symbol is a {@code 1}. The minimal DFAs of these NFAs have
+ * {@code 2^k} states.
+ * <p>
+ * The maximum value of {@code k} can be passed as the first program argument.
+ */
+public final class DeterminizationExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeterminizationExample.class);
+
+    private static final int DEFAULT_MAX_K = 20;
+
+    private DeterminizationExample() {}
+
+    public static void main(String[] args) {
+        final int maxK = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAX_K;
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+
+        for (int k = Math.min(maxK, 12); k <= maxK; k += 2) {
+            final CompactNFA<Integer> nfa = kthLastSymbol(alphabet, k);
+
+            for (boolean parallel : new boolean[] {false, true}) {
+                final long start = System.nanoTime();
+                final CompactDFA<Integer> dfa = NFAs.determinize(nfa, alphabet, true, false, parallel);
+                final long duration = Math.max(System.nanoTime() - start, 1);
+
+                LOGGER.info("k = {} ({}): {} subsets in {} ms ({} subsets/s)",
+                            k,
+                            parallel ? "parallel" : "sequential",
+                            dfa.size(),
+                            duration / 1_000_000,
+                            dfa.size() * 1_000_000_000L / duration);
+            }
+        }
+    }
+
+    private static CompactNFA<Integer> kthLastSymbol(Alphabet<Integer> alphabet, int k) {
+        final CompactNFA<Integer> nfa = new CompactNFA<>(alphabet, k + 1);
+
+        final int init = nfa.addInitialState(false);
+        nfa.addTransition(init, 0, init);
+        nfa.addTransition(init, 1, init);
+
+        int prev = init;
+        for (int i = 1; i <= k; i++) {
+            final int next = nfa.addState(i == k);
+            nfa.addTransition(prev, i == 1 ? 1 : 0, next);
+            if (i > 1) {
+                nfa.addTransition(prev, 1, next);
+            }
+            prev = next;
+        }
+
+        return nfa;
+    }
+}
@@ -0,0 +1,70 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.examples.fsa;
+
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.util.automata.fsa.NFAs;
+import net.automatalib.util.automata.minimizer.bisimulation.BisimulationMinimization;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A small benchmark that compares the bisimulation-based and the simulation-based {@link NFAs#reduce(CompactNFA)
+ * reduction} of random NFAs (see {@link RandomAutomata#randomNFA(Random, int, Alphabet, double, double)}) of different
+ * transition densities.
+ * <p>
+ * The number of states of the random NFAs can be passed as the first program argument.
+ */
+public final class NFAReductionExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NFAReductionExample.class);
+
+    private static final int DEFAULT_SIZE = 200;
+    private static final double[] TRANSITION_DENSITIES = {1.0, 1.25, 1.5, 2.0, 3.0};
+
+    private NFAReductionExample() {}
+
+    public static void main(String[] args) {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+        final Random random = new Random(42);
+
+        for (double density : TRANSITION_DENSITIES) {
+            final CompactNFA<Integer> nfa = RandomAutomata.randomNFA(random, size, alphabet, density, 0.5);
+
+            long start = System.nanoTime();
+            final CompactNFA<Integer> bisim = BisimulationMinimization.minimizeNFA(nfa, alphabet);
+            final long bisimTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final CompactNFA<Integer> reduced = NFAs.reduce(nfa);
+            final long simTime = System.nanoTime() - start;
+
+            LOGGER.info("Density {}: {} states, bisimulation: {} states ({} ms), simulation: {} states ({} ms)",
+                        density,
+                        nfa.size(),
+                        bisim.size(),
+                        bisimTime / 1_000_000,
+                        reduced.size(),
+                        simTime / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.examples.graph;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import net.automatalib.graphs.base.compact.CompactEdge;
+import net.automatalib.graphs.base.compact.CompactSimpleGraph;
+import net.automatalib.graphs.concepts.EdgeWeights;
+import net.automatalib.util.graphs.Graphs;
+import net.automatalib.util.graphs.concepts.PropertyEdgeWeights;
+import net.automatalib.util.graphs.sssp.DialSSSP;
+import net.automatalib.util.graphs.sssp.DijkstraSSSP;
+import net.automatalib.util.graphs.sssp.IntDijkstraSSSP;
+import net.automatalib.util.graphs.sssp.PointToPointSearch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A small benchmark that compares the different shortest path searches on a (bidirectionally connected) grid graph with
+ * random integer edge weights between 1 and 10. The single-source searches ({@link DijkstraSSSP}, {@link
+ * IntDijkstraSSSP}, {@link DialSSSP}) compute the distances from the upper left corner to all nodes, whereas the
+ * point-to-point searches ({@link PointToPointSearch}) are compared with a full Dijkstra search on random pairs of
+ * nodes. For the A* search, the Manhattan distance of two nodes serves as a consistent heuristic.
+ * <p>
+ * The width (and height) of the grid can be passed as the first program argument.
+ */
+public final class ShortestPathExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShortestPathExample.class);
+
+    private static final int DEFAULT_WIDTH = 1_000;
+    private static final int MAX_WEIGHT = 10;
+    private static final int REPETITIONS = 3;
+    private static final int QUERIES = 20;
+
+    private ShortestPathExample() {}
+
+    public static void main(String[] args) {
+        final int width = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_WIDTH;
+        final Random random = new Random(42);
+
+        LOGGER.info("Generating {}x{} grid graph", width, width);
+        final CompactSimpleGraph<Float> graph = new CompactSimpleGraph<>(width * width);
+        for (int i = 0; i < width * width; i++) {
+            graph.addIntNode();
+        }
+        for (int y = 0; y < width; y++) {
+            for (int x = 0; x < width; x++) {
+                final int node = y * width + x;
+                if (x + 1 < width) {
+                    graph.connect(node, node + 1, Float.valueOf(1 + random.nextInt(MAX_WEIGHT)));
+                    graph.connect(node + 1, node, Float.valueOf(1 + random.nextInt(MAX_WEIGHT)));
+                }
+                if (y + 1 < width) {
+                    graph.connect(node, node + width, Float.valueOf(1 + random.nextInt(MAX_WEIGHT)));
+                    graph.connect(node + width, node, Float.valueOf(1 + random.nextInt(MAX_WEIGHT)));
+                }
+            }
+        }
+
+        final EdgeWeights<CompactEdge<Float>> weights = new PropertyEdgeWeights<>(graph);
+        final int corner = width * width - 1;
+
+        benchmark("DijkstraSSSP",
+                  () -> DijkstraSSSP.findSSSP(graph, 0, weights).getShortestPathDistance(corner));
+        benchmark("IntDijkstraSSSP",
+                  () -> IntDijkstraSSSP.findSSSP(graph, 0, weights).getShortestPathDistance(corner));
+        benchmark("DialSSSP", () -> DialSSSP.findSSSP(graph, 0, weights).getShortestPathDistance(corner));
+
+        final int[] sources = new int[QUERIES];
+        final int[] targets = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            sources[i] = random.nextInt(width * width);
+            targets[i] = random.nextInt(width * width);
+        }
+
+        benchmark("Point-to-point DijkstraSSSP (" + QUERIES + " queries)", () -> {
+            float sum = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                sum += DijkstraSSSP.findSSSP(graph, sources[i], weights).getShortestPathDistance(targets[i]);
+            }
+            return sum;
+        });
+        benchmark("Point-to-point bidirectional Dijkstra (" + QUERIES + " queries)", () -> {
+            float sum = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                sum += pathWeight(weights, Graphs.findShortestPath(graph, sources[i], targets[i], weights));
+            }
+            return sum;
+        });
+        benchmark("Point-to-point A* (" + QUERIES + " queries)", () -> {
+            float sum = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                final int target = targets[i];
+                sum += pathWeight(weights,
+                                  Graphs.findShortestPath(graph,
+                                                          sources[i],
+                                                          target,
+                                                          weights,
+                                                          n -> Math.abs(n % width - target % width) +
+                                                               Math.abs(n / width - target / width)));
+            }
+            return sum;
+        });
+    }
+
+    private static void benchmark(String name, Supplier<Float> search) {
+        long best = Long.MAX_VALUE;
+        float result = 0;
+        for (int i = 0; i < REPETITIONS; i++) {
+            final long start = System.nanoTime();
+            result = search.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        LOGGER.info("{}: {} ms (distance: {})", name, best / 1_000_000, result);
+    }
+
+    private static float pathWeight(EdgeWeights<CompactEdge<Float>> weights, Iterable<CompactEdge<Float>> path) {
+        float sum = 0;
+        for (CompactEdge<Float> e : path) {
+            sum += weights.getEdgeWeight(e);
+        }
+        return sum;
+    }
+}
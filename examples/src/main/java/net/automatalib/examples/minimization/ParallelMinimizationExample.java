@@ -0,0 +1,92 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.examples.minimization;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization.PruningMode;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization.RefinementMode;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A small benchmark that compares the sequential and the parallel {@link RefinementMode refinement modes} of the
+ * {@link HopcroftMinimization} for a growing number of cores. The parallel refinement is run inside {@link
+ * ForkJoinPool}s of different parallelism levels (1, 2, 4, ..., up to the number of available processors).
+ * <p>
+ * The number of states of the (random) DFA to minimize can be passed as the first program argument.
+ */
+public final class ParallelMinimizationExample {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelMinimizationExample.class);
+
+    private static final int DEFAULT_SIZE = 500_000;
+    private static final int REPETITIONS = 3;
+
+    private ParallelMinimizationExample() {}
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+
+        LOGGER.info("Generating random DFA with {} states", size);
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(new Random(42), size, alphabet);
+
+        long best = Long.MAX_VALUE;
+        int minimizedSize = -1;
+        for (int i = 0; i < REPETITIONS; i++) {
+            final long start = System.nanoTime();
+            minimizedSize = minimize(dfa, alphabet, RefinementMode.SEQUENTIAL);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        LOGGER.info("Sequential refinement: {} ms ({} states)", best / 1_000_000, minimizedSize);
+
+        final int maxParallelism = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; ; parallelism = Math.min(parallelism * 2, maxParallelism)) {
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                best = Long.MAX_VALUE;
+                for (int i = 0; i < REPETITIONS; i++) {
+                    final long start = System.nanoTime();
+                    // parallel streams use the pool of the task that invokes them
+                    minimizedSize = pool.submit(() -> minimize(dfa, alphabet, RefinementMode.PARALLEL)).get();
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+            } finally {
+                pool.shutdown();
+            }
+            LOGGER.info("Parallel refinement ({} cores): {} ms ({} states)",
+                        parallelism,
+                        best / 1_000_000,
+                        minimizedSize);
+
+            if (parallelism == maxParallelism) {
+                break;
+            }
+        }
+    }
+
+    private static int minimize(CompactDFA<Integer> dfa, Alphabet<Integer> alphabet, RefinementMode mode) {
+        return HopcroftMinimization.minimizeDFA(dfa, alphabet, PruningMode.PRUNE_AFTER, mode).size();
+    }
+}
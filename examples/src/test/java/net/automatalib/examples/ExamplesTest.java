@@ -21,17 +21,23 @@ import java.awt.Window;
 import java.awt.event.WindowEvent;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.SwingUtilities;
 
 import net.automatalib.commons.util.system.JVMUtil;
 import net.automatalib.examples.ads.ADSExample;
+import net.automatalib.examples.ads.ParallelADSExample;
 import net.automatalib.examples.brics.SimpleBricsExample;
 import net.automatalib.examples.dot.DOTExample;
 import net.automatalib.examples.graph.DFSExample;
+import net.automatalib.examples.graph.ShortestPathExample;
+import net.automatalib.examples.fsa.DeterminizationExample;
+import net.automatalib.examples.fsa.NFAReductionExample;
 import net.automatalib.examples.incremental.IncrementalDFAExample;
 import net.automatalib.examples.incremental.IncrementalMealyExample;
 import net.automatalib.examples.incremental.IncrementalPCDFAExample;
+import net.automatalib.examples.minimization.ParallelMinimizationExample;
 import net.automatalib.examples.modelchecking.LTSminExample;
 import net.automatalib.examples.modelchecking.LTSminMonitorExample;
 import net.automatalib.examples.vpda.OneSEVPAExample;
@@ -124,6 +130,31 @@ public class ExamplesTest {
         LTSminMonitorExample.main(new String[0]);
     }
 
+    @Test
+    public void testParallelMinimizationExample() throws InterruptedException, ExecutionException {
+        ParallelMinimizationExample.main(new String[] {"1000"});
+    }
+
+    @Test
+    public void testParallelADSExample() throws InterruptedException, ExecutionException {
+        ParallelADSExample.main(new String[] {"100"});
+    }
+
+    @Test
+    public void testShortestPathExample() {
+        ShortestPathExample.main(new String[] {"50"});
+    }
+
+    @Test
+    public void testDeterminizationExample() {
+        DeterminizationExample.main(new String[] {"8"});
+    }
+
+    @Test
+    public void testNFAReductionExample() {
+        NFAReductionExample.main(new String[] {"50"});
+    }
+
     @Test
     public void testOneSEVPAExample() throws InvocationTargetException, InterruptedException {
         checkJVMCompatibility();
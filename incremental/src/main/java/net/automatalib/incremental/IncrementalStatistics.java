@@ -0,0 +1,222 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+import net.automatalib.graphs.Graph;
+
+/**
+ * Statistics about the usage and the structure of an {@link IncrementalConstruction}. The usage counters (lookups,
+ * insertions, conflicts) are updated by the instrumented builders (e.g. {@link
+ * net.automatalib.incremental.mealy.InstrumentedIncrementalMealyBuilder}), whereas the structural information (nodes,
+ * edges, estimated memory consumption) is computed on demand from the {@link IncrementalConstruction#asGraph() graph
+ * view} of the observed construction.
+ * <p>
+ * Note that computing the structural information requires a traversal of the complete construction, which may be
+ * expensive for large constructions.
+ */
+public final class IncrementalStatistics {
+
+    // The memory estimates assume a 64-bit JVM with compressed references (i.e. the default for heaps below 32 GB)
+
+    /**
+     * Size of an object header (mark word and compressed class pointer).
+     */
+    private static final int OBJECT_HEADER_BYTES = 12;
+
+    /**
+     * Size of an array header (object header and length field).
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * Size of a (compressed) reference or an {@code int} field.
+     */
+    private static final int FIELD_BYTES = 4;
+
+    /**
+     * Granularity of object sizes.
+     */
+    private static final int OBJECT_ALIGNMENT = 8;
+
+    /**
+     * The number of fields of a typical node, e.g. its successor storage, its output or acceptance, and bookkeeping
+     * information such as the number of incoming edges or a cached hash code.
+     */
+    private static final int NODE_FIELDS = 4;
+
+    /**
+     * The number of fields of a typical edge object, i.e. its target node and (for transducers) its output.
+     */
+    private static final int EDGE_FIELDS = 2;
+
+    /**
+     * Estimated number of bytes of a single node: the node object itself and the header of its successor array.
+     */
+    private static final int NODE_BYTES =
+            align(OBJECT_HEADER_BYTES + NODE_FIELDS * FIELD_BYTES) + ARRAY_HEADER_BYTES;
+
+    /**
+     * Estimated number of bytes of a single edge: its slot in the successor array of the source node and an edge
+     * object carrying additional information such as outputs.
+     */
+    private static final int EDGE_BYTES = FIELD_BYTES + align(OBJECT_HEADER_BYTES + EDGE_FIELDS * FIELD_BYTES);
+
+    private final IncrementalConstruction<?, ?> construction;
+
+    private long lookups;
+    private long hits;
+    private long insertions;
+    private long insertedSymbols;
+    private long conflicts;
+
+    public IncrementalStatistics(IncrementalConstruction<?, ?> construction) {
+        this.construction = construction;
+    }
+
+    /**
+     * Records a lookup.
+     *
+     * @param hit
+     *         whether the construction had definitive information about the looked up word
+     */
+    public void recordLookup(boolean hit) {
+        lookups++;
+        if (hit) {
+            hits++;
+        }
+    }
+
+    /**
+     * Records a (successful) insertion.
+     *
+     * @param length
+     *         the length of the inserted input word
+     */
+    public void recordInsertion(int length) {
+        insertions++;
+        insertedSymbols += length;
+    }
+
+    /**
+     * Records an insertion that has been rejected due to a {@link ConflictException}.
+     */
+    public void recordConflict() {
+        conflicts++;
+    }
+
+    /**
+     * Resets all usage counters. The structural information is not affected, since it is computed from the observed
+     * construction.
+     */
+    public void reset() {
+        lookups = 0;
+        hits = 0;
+        insertions = 0;
+        insertedSymbols = 0;
+        conflicts = 0;
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return lookups - hits;
+    }
+
+    /**
+     * Returns the ratio of lookups that could be answered by the construction.
+     *
+     * @return the hit ratio, or {@code 0} if no lookups have been recorded yet
+     */
+    public double getHitRatio() {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public long getInsertions() {
+        return insertions;
+    }
+
+    public long getInsertedSymbols() {
+        return insertedSymbols;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Returns the number of nodes (states) of the observed construction. For DAG-based constructions this coincides
+     * with the size of their state register.
+     *
+     * @return the number of nodes of the observed construction
+     */
+    public int getNumberOfNodes() {
+        return construction.asGraph().size();
+    }
+
+    /**
+     * Returns the number of edges (transitions) of the observed construction.
+     *
+     * @return the number of edges of the observed construction
+     */
+    public long getNumberOfEdges() {
+        return countEdges(construction.asGraph());
+    }
+
+    /**
+     * Returns a coarse estimate of the heap memory (in bytes) occupied by the observed construction. The estimate only
+     * accounts for the nodes and edges of the construction, not for the stored input and output symbols which are
+     * usually shared with the rest of the application.
+     *
+     * @return the estimated number of bytes occupied by the observed construction
+     */
+    public long getEstimatedHeapBytes() {
+        return estimateHeapBytes(construction.asGraph());
+    }
+
+    private static <N, E> long estimateHeapBytes(Graph<N, E> graph) {
+        long nodes = 0;
+        long edges = 0;
+        for (N n : graph) {
+            nodes++;
+            edges += graph.getOutgoingEdges(n).size();
+        }
+        return nodes * NODE_BYTES + edges * EDGE_BYTES;
+    }
+
+    private static int align(int bytes) {
+        return (bytes + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+    }
+
+    private static <N, E> long countEdges(Graph<N, E> graph) {
+        long result = 0;
+        for (N n : graph) {
+            result += graph.getOutgoingEdges(n).size();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "lookups=" + lookups + ", hits=" + hits + ", misses=" + getMisses() + ", insertions=" + insertions +
+               ", insertedSymbols=" + insertedSymbols + ", conflicts=" + conflicts;
+    }
+}
@@ -0,0 +1,107 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa;
+
+import java.util.Collection;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalStatistics;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link IncrementalDFABuilder} that delegates to another builder and records {@link IncrementalStatistics
+ * statistics} about its usage. Each invocation of {@link #lookup(Word)} counts as a single lookup, which is considered a
+ * hit if the delegate returns an acceptance value other than {@link Acceptance#DONT_KNOW}. Likewise, each invocation of
+ * {@link #hasDefinitiveInformation(Word)} counts as a single lookup, which is considered a hit if it returns {@code
+ * true}.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class InstrumentedIncrementalDFABuilder<I> implements IncrementalDFABuilder<I> {
+
+    private final IncrementalDFABuilder<I> delegate;
+    private final IncrementalStatistics statistics;
+
+    public InstrumentedIncrementalDFABuilder(IncrementalDFABuilder<I> delegate) {
+        this.delegate = delegate;
+        this.statistics = new IncrementalStatistics(delegate);
+    }
+
+    /**
+     * Returns the statistics of this builder. The returned object is backed by this builder, i.e. subsequent lookups
+     * and insertions will be reflected in the returned object.
+     *
+     * @return the statistics of this builder
+     */
+    public IncrementalStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public Acceptance lookup(Word<? extends I> inputWord) {
+        final Acceptance result = delegate.lookup(inputWord);
+        statistics.recordLookup(result != Acceptance.DONT_KNOW);
+        return result;
+    }
+
+    @Override
+    public void insert(Word<? extends I> word, boolean accepting) {
+        try {
+            delegate.insert(word, accepting);
+        } catch (ConflictException ce) {
+            statistics.recordConflict();
+            throw ce;
+        }
+        statistics.recordInsertion(word.length());
+    }
+
+    @Override
+    public void insert(Word<? extends I> word) {
+        insert(word, true);
+    }
+
+    @Override
+    public @Nullable Word<I> findSeparatingWord(DFA<?, I> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        return delegate.findSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        final boolean hit = delegate.hasDefinitiveInformation(word);
+        statistics.recordLookup(hit);
+        return hit;
+    }
+
+    @Override
+    public GraphView<I, ?, ?> asGraph() {
+        return delegate.asGraph();
+    }
+
+    @Override
+    public TransitionSystemView<?, I, ?> asTransitionSystem() {
+        return delegate.asTransitionSystem();
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        delegate.addAlphabetSymbol(symbol);
+    }
+}
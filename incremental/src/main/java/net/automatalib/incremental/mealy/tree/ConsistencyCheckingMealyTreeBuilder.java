@@ -0,0 +1,410 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.common.collect.Iterables;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.incremental.mealy.IncrementalMealyBuilder;
+import net.automatalib.ts.output.MealyTransitionSystem;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link IncrementalMealyBuilder} that delegates to a tree-based builder and checks the consistency of the cache
+ * with a hypothesis <i>incrementally</i>.
+ * <p>
+ * After a successful call to {@link #findSeparatingWord(MealyMachine, Collection, boolean)}, this builder remembers for
+ * every verified tree node the hypothesis state it corresponds to. Subsequent checks against the same hypothesis
+ * (identical object, inputs and {@code omitUndefined} flag) only need to explore
+ * <ul>
+ * <li>the parts of the tree that have been {@link #insert(Word, Word) inserted} since the last check, and</li>
+ * <li>the parts of the tree that pass through hypothesis states which have been reported as changed via {@link
+ * #hypothesisChanged(Collection)}.</li>
+ * </ul>
+ * A check against a different hypothesis object (or after {@link #invalidate()}) explores the complete tree again.
+ * <p>
+ * <b>Note:</b> If the hypothesis is modified in place, all states whose outgoing transitions (successors or outputs)
+ * have been changed <i>must</i> be reported via {@link #hypothesisChanged(Collection)} before the next check.
+ * Otherwise, the results of this builder are unspecified. Tracking the verified regions requires a record per verified
+ * tree node.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class ConsistencyCheckingMealyTreeBuilder<I, O> implements IncrementalMealyBuilder<I, O> {
+
+    private final IncrementalMealyBuilder<I, O> delegate;
+    private final Verifier<?, I, O> verifier;
+
+    public <N> ConsistencyCheckingMealyTreeBuilder(AbstractIncrementalMealyTreeBuilder<N, I, O> delegate) {
+        this.delegate = delegate;
+        this.verifier = new Verifier<>(delegate);
+    }
+
+    /**
+     * Notifies this builder that the outgoing transitions of the given states of the current hypothesis have been
+     * changed. The next check will re-explore exactly those parts of the tree that are reached in one of these states.
+     *
+     * @param changedStates
+     *         the (previously existing) states of the hypothesis whose outgoing transitions have been changed
+     */
+    public void hypothesisChanged(Collection<?> changedStates) {
+        verifier.markChanged(changedStates);
+    }
+
+    /**
+     * Discards all information about previously verified regions, so that the next check explores the complete tree.
+     */
+    public void invalidate() {
+        verifier.invalidate();
+    }
+
+    @Override
+    public Word<O> lookup(Word<? extends I> inputWord) {
+        return delegate.lookup(inputWord);
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> inputWord, List<? super O> output) {
+        return delegate.lookup(inputWord, output);
+    }
+
+    @Override
+    public void insert(Word<? extends I> inputWord, Word<? extends O> outputWord) {
+        delegate.insert(inputWord, outputWord);
+        verifier.markInserted(inputWord);
+    }
+
+    @Override
+    public @Nullable Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        return verifier.findSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        return delegate.hasDefinitiveInformation(word);
+    }
+
+    @Override
+    public GraphView<I, O, ?, ?> asGraph() {
+        return delegate.asGraph();
+    }
+
+    @Override
+    public MealyTransitionSystem<?, I, ?, O> asTransitionSystem() {
+        return delegate.asTransitionSystem();
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        delegate.addAlphabetSymbol(symbol);
+    }
+
+    private static final class Verifier<N, I, O> {
+
+        private final AbstractIncrementalMealyTreeBuilder<N, I, O> tree;
+
+        // the configuration of the last check
+        private @Nullable Object hypothesis;
+        private List<I> inputs;
+        private Set<I> inputSet;
+        private boolean omitUndefined;
+
+        // the verified regions of the tree
+        private final Map<N, Entry<N, I>> entries;
+        private final Map<Object, Set<N>> stateIndex;
+
+        // the regions that need to be (re-)checked
+        private final Set<N> dirtyNodes;
+        private final List<Word<? extends I>> pendingWords;
+
+        Verifier(AbstractIncrementalMealyTreeBuilder<N, I, O> tree) {
+            this.tree = tree;
+            this.inputs = Collections.emptyList();
+            this.inputSet = Collections.emptySet();
+            this.entries = new IdentityHashMap<>();
+            this.stateIndex = new HashMap<>();
+            this.dirtyNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.pendingWords = new ArrayList<>();
+        }
+
+        void invalidate() {
+            this.hypothesis = null;
+            this.entries.clear();
+            this.stateIndex.clear();
+            this.dirtyNodes.clear();
+            this.pendingWords.clear();
+        }
+
+        void markInserted(Word<? extends I> word) {
+            // without a previous check, there is nothing to re-check incrementally
+            if (hypothesis != null) {
+                pendingWords.add(word);
+            }
+        }
+
+        void markChanged(Collection<?> changedStates) {
+            if (hypothesis == null) {
+                return;
+            }
+
+            for (Object s : changedStates) {
+                final Set<N> nodes = stateIndex.get(s);
+                if (nodes != null) {
+                    dirtyNodes.addAll(nodes);
+                }
+            }
+        }
+
+        <S, T> @Nullable Word<I> findSeparatingWord(MealyMachine<S, I, T, O> target,
+                                                    Collection<? extends I> inputs,
+                                                    boolean omitUndefined) {
+
+            if (target != hypothesis || omitUndefined != this.omitUndefined ||
+                !Iterables.elementsEqual(this.inputs, inputs)) {
+                invalidate();
+
+                final S init = target.getInitialState();
+                if (init == null) {
+                    return tree.findSeparatingWord(target, inputs, omitUndefined);
+                }
+
+                this.hypothesis = target;
+                this.inputs = new ArrayList<>(inputs);
+                this.inputSet = new HashSet<>(inputs);
+                this.omitUndefined = omitUndefined;
+
+                register(new Entry<>(tree.root, null, null, init, 0));
+                dirtyNodes.add(tree.root);
+            }
+
+            // re-check the regions affected by hypothesis changes, ancestors first
+            final List<Entry<N, I>> dirtyEntries = new ArrayList<>(dirtyNodes.size());
+            for (N n : dirtyNodes) {
+                final Entry<N, I> e = entries.get(n);
+                if (e != null) {
+                    dirtyEntries.add(e);
+                }
+            }
+            dirtyEntries.sort(Comparator.comparingInt(e -> e.depth));
+
+            for (Entry<N, I> e : dirtyEntries) {
+                // if the entry has been replaced, the node has already been re-checked from one of its ancestors
+                if (entries.get(e.node) == e) {
+                    final Word<I> sepWord = explore(target, e, this.inputs.iterator());
+                    if (sepWord != null) {
+                        return sepWord;
+                    }
+                }
+                dirtyNodes.remove(e.node);
+            }
+            dirtyNodes.clear();
+
+            // check the regions that have been inserted since the last check
+            final Iterator<Word<? extends I>> wordIter = pendingWords.iterator();
+            while (wordIter.hasNext()) {
+                final Word<I> sepWord = checkInsertedWord(target, wordIter.next());
+                if (sepWord != null) {
+                    return sepWord;
+                }
+                wordIter.remove();
+            }
+
+            return null;
+        }
+
+        private <S, T> @Nullable Word<I> checkInsertedWord(MealyMachine<S, I, T, O> target,
+                                                           Word<? extends I> word) {
+            @SuppressWarnings("nullness") // the root is always registered
+            Entry<N, I> curr = entries.get(tree.root);
+
+            for (I sym : word) {
+                if (!inputSet.contains(sym)) {
+                    return null;
+                }
+
+                final Edge<N, O> edge = tree.getEdge(curr.node, sym);
+                if (edge == null) {
+                    return null;
+                }
+
+                final Entry<N, I> succ = entries.get(edge.getTarget());
+                if (succ == null) {
+                    // the first new (or previously omitted) node of the word
+                    return explore(target, curr, Collections.singleton(sym).iterator());
+                }
+                curr = succ;
+            }
+
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <S, T> @Nullable Word<I> explore(MealyMachine<S, I, T, O> target,
+                                                 Entry<N, I> start,
+                                                 Iterator<? extends I> startInputs) {
+            final Deque<Frame<N, I>> stack = new ArrayDeque<>();
+            stack.push(new Frame<>(start, startInputs));
+
+            while (!stack.isEmpty()) {
+                @SuppressWarnings("nullness") // false positive https://github.com/typetools/checker-framework/issues/399
+                final Frame<N, I> frame = stack.peek();
+                if (!frame.inputIt.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+
+                final I input = frame.inputIt.next();
+                final Edge<N, O> edge = tree.getEdge(frame.entry.node, input);
+                if (edge == null) {
+                    continue;
+                }
+
+                final T trans = target.getTransition((S) frame.entry.state, input);
+                if (trans == null && omitUndefined) {
+                    unregisterSubtree(edge.getTarget());
+                    continue;
+                }
+
+                if (trans == null || !Objects.equals(target.getTransitionOutput(trans), edge.getOutput())) {
+                    // the interrupted regions need to be re-checked with the next call
+                    for (Frame<N, I> f : stack) {
+                        dirtyNodes.add(f.entry.node);
+                    }
+                    return getAccessWord(frame.entry).append(input);
+                }
+
+                final S succ = target.getSuccessor(trans);
+                final Entry<N, I> oldEntry = entries.get(edge.getTarget());
+
+                // the subtree has already been verified for the same hypothesis state
+                if (oldEntry != null && Objects.equals(oldEntry.state, succ)) {
+                    continue;
+                }
+
+                final Entry<N, I> newEntry =
+                        new Entry<>(edge.getTarget(), frame.entry, input, succ, frame.entry.depth + 1);
+                register(newEntry);
+                stack.push(new Frame<>(newEntry, inputs.iterator()));
+            }
+
+            return null;
+        }
+
+        private void register(Entry<N, I> entry) {
+            final Entry<N, I> oldEntry = entries.put(entry.node, entry);
+            if (oldEntry != null) {
+                unindex(oldEntry);
+            }
+            stateIndex.computeIfAbsent(entry.state, k -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                      .add(entry.node);
+        }
+
+        private void unindex(Entry<N, I> entry) {
+            final Set<N> nodes = stateIndex.get(entry.state);
+            if (nodes != null) {
+                nodes.remove(entry.node);
+                if (nodes.isEmpty()) {
+                    stateIndex.remove(entry.state);
+                }
+            }
+        }
+
+        private void unregisterSubtree(N node) {
+            final Deque<N> stack = new ArrayDeque<>();
+            stack.push(node);
+
+            while (!stack.isEmpty()) {
+                final N n = stack.pop();
+                final Entry<N, I> entry = entries.remove(n);
+                if (entry == null) {
+                    continue;
+                }
+                unindex(entry);
+                dirtyNodes.remove(n);
+
+                for (I i : inputs) {
+                    final Edge<N, O> edge = tree.getEdge(n, i);
+                    if (edge != null) {
+                        stack.push(edge.getTarget());
+                    }
+                }
+            }
+        }
+
+        private Word<I> getAccessWord(Entry<N, I> entry) {
+            final WordBuilder<I> wb = new WordBuilder<>(entry.depth + 1);
+            Entry<N, I> iter = entry;
+
+            while (iter.parent != null) {
+                wb.append(iter.input);
+                iter = iter.parent;
+            }
+
+            return wb.reverse().toWord();
+        }
+    }
+
+    private static final class Entry<N, I> {
+
+        private final N node;
+        private final @Nullable Entry<N, I> parent;
+        private final I input;
+        private final Object state;
+        private final int depth;
+
+        // input can be null for the root entry, because it is never accessed
+        @SuppressWarnings("nullness")
+        Entry(N node, @Nullable Entry<N, I> parent, @Nullable I input, Object state, int depth) {
+            this.node = node;
+            this.parent = parent;
+            this.input = input;
+            this.state = state;
+            this.depth = depth;
+        }
+    }
+
+    private static final class Frame<N, I> {
+
+        private final Entry<N, I> entry;
+        private final Iterator<? extends I> inputIt;
+
+        Frame(Entry<N, I> entry, Iterator<? extends I> inputIt) {
+            this.entry = entry;
+            this.inputIt = inputIt;
+        }
+    }
+}
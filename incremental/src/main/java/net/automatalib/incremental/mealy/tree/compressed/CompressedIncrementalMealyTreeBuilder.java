@@ -0,0 +1,384 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree.compressed;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.collect.Iterators;
+import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder;
+import net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder;
+import net.automatalib.ts.output.MealyTransitionSystem;
+import net.automatalib.util.graphs.traversal.GraphTraversal;
+import net.automatalib.visualization.VisualizationHelper;
+import net.automatalib.visualization.helper.DelegateVisualizationHelper;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A variation of the normal {@link IncrementalMealyTreeBuilder}, which uses a path-compressed (radix) tree. Unbranched
+ * runs of transitions are stored as a single edge with packed arrays of input symbol indices and output symbols, and
+ * (branching) nodes are only allocated where two stored words diverge. Edges are split on demand, whenever a new word
+ * diverges from the middle of an existing run.
+ * <p>
+ * For long words with little branching (e.g. long queries sharing only a short prefix) this requires significantly
+ * fewer objects than the regular tree. The {@link #asGraph() graph} and {@link #asTransitionSystem() transition system}
+ * views expose the uncompressed structure by means of {@link Position}s, which remain valid across insertions.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class CompressedIncrementalMealyTreeBuilder<I, O> extends AbstractIncrementalMealyBuilder<I, O>
+        implements InputAlphabetHolder<I> {
+
+    private final Node<O> root;
+    private final Alphabet<I> inputAlphabet;
+    private int alphabetSize;
+
+    public CompressedIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet) {
+        this.root = new Node<>();
+        this.inputAlphabet = inputAlphabet;
+        this.alphabetSize = inputAlphabet.size();
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        if (!inputAlphabet.containsSymbol(symbol)) {
+            Alphabets.toGrowingAlphabetOrThrowException(inputAlphabet).addSymbol(symbol);
+        }
+
+        // nodes grow their children arrays lazily, so we only need to track the new size
+        alphabetSize = inputAlphabet.size();
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> word, List<? super O> output) {
+        Edge<O> edge = null;
+        int offset = 0;
+
+        for (I sym : word) {
+            final int idx = inputAlphabet.getSymbolIndex(sym);
+
+            if (edge == null || offset == edge.length()) {
+                final Node<O> node = edge == null ? root : edge.target;
+                if (node == null) {
+                    return false;
+                }
+                edge = node.getChild(idx);
+                if (edge == null) {
+                    return false;
+                }
+                offset = 0;
+            } else if (edge.symbols[offset] != idx) {
+                return false;
+            }
+
+            output.add(edge.outputs[offset++]);
+        }
+
+        return true;
+    }
+
+    @Override
+    public void insert(Word<? extends I> word, Word<? extends O> outputWord) {
+        final int len = word.length();
+
+        Edge<O> edge = null;
+        int offset = 0;
+
+        for (int i = 0; i < len; i++) {
+            final int idx = inputAlphabet.getSymbolIndex(word.getSymbol(i));
+
+            if (edge == null || offset == edge.length()) {
+                final Node<O> node = edge == null ? root : edge.target;
+                if (node == null) {
+                    // we reached a leaf, so we can simply extend the current run
+                    final Edge<O> suffix = createEdge(word, outputWord, i);
+                    edge.append(suffix.symbols, suffix.outputs);
+                    return;
+                }
+                final Edge<O> child = node.getChild(idx);
+                if (child == null) {
+                    node.setChild(idx, alphabetSize, createEdge(word, outputWord, i));
+                    return;
+                }
+                edge = child;
+                offset = 0;
+            } else if (edge.symbols[offset] != idx) {
+                // the word diverges from the middle of the current run
+                final Node<O> node = edge.split(offset, alphabetSize);
+                node.setChild(idx, alphabetSize, createEdge(word, outputWord, i));
+                return;
+            }
+
+            final O out = outputWord.getSymbol(i);
+            if (!Objects.equals(out, edge.outputs[offset])) {
+                throw new ConflictException(
+                        "Error inserting " + word.prefix(i + 1) + " / " + outputWord.prefix(i + 1) +
+                        ": Incompatible output symbols: " + out + " vs " + edge.outputs[offset]);
+            }
+            offset++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Edge<O> createEdge(Word<? extends I> word, Word<? extends O> outputWord, int fromIndex) {
+        final int length = word.length() - fromIndex;
+        final int[] symbols = new int[length];
+        final O[] outputs = (O[]) new Object[length];
+
+        for (int i = 0; i < length; i++) {
+            symbols[i] = inputAlphabet.getSymbolIndex(word.getSymbol(fromIndex + i));
+            outputs[i] = outputWord.getSymbol(fromIndex + i);
+        }
+
+        return new Edge<>(symbols, outputs, null);
+    }
+
+    private @Nullable Position<O> getSuccessorPosition(Position<O> state, int idx) {
+        final Position<O> position = state.resolve();
+        final Edge<O> edge = position.edge;
+
+        if (edge == null || position.offset == edge.length()) {
+            final Node<O> node = edge == null ? root : edge.target;
+            if (node == null) {
+                return null;
+            }
+            final Edge<O> child = node.getChild(idx);
+            return child == null ? null : new Position<>(child, 1);
+        }
+
+        return edge.symbols[position.offset] == idx ? new Position<>(edge, position.offset + 1) : null;
+    }
+
+    @Override
+    public @Nullable Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S, T> @Nullable Word<I> doFindSeparatingWord(MealyMachine<S, I, T, O> target,
+                                                          Collection<? extends I> inputs,
+                                                          boolean omitUndefined) {
+        final S init = target.getInitialState();
+
+        if (init == null) {
+            return omitUndefined ? null : Word.epsilon();
+        }
+
+        // pre-compute the alphabet indices of the inputs to consider (in the order of the given collection) and a
+        // membership lookup for checking the symbols along compressed edges
+        final int[] inputIndices = new int[inputs.size()];
+        final boolean[] considered = new boolean[alphabetSize];
+        int j = 0;
+        for (I i : inputs) {
+            final int idx = inputAlphabet.getSymbolIndex(i);
+            inputIndices[j++] = idx;
+            considered[idx] = true;
+        }
+
+        final WordBuilder<I> path = new WordBuilder<>();
+        final Deque<Record<@Nullable S, O>> dfsStack = new ArrayDeque<>();
+        dfsStack.push(new Record<>(init, root, 0));
+
+        while (!dfsStack.isEmpty()) {
+            @SuppressWarnings("nullness") // false positive https://github.com/typetools/checker-framework/issues/399
+            final Record<@Nullable S, O> rec = dfsStack.peek();
+            if (rec.nextInput == inputIndices.length) {
+                dfsStack.pop();
+                continue;
+            }
+
+            final Edge<O> edge = rec.node.getChild(inputIndices[rec.nextInput++]);
+            if (edge == null) {
+                continue;
+            }
+
+            path.truncate(rec.depth);
+
+            @Nullable S state = rec.automatonState;
+            boolean complete = true;
+
+            for (int k = 0; k < edge.length(); k++) {
+                final int symIdx = edge.symbols[k];
+                if (!considered[symIdx]) {
+                    complete = false;
+                    break;
+                }
+
+                final I sym = inputAlphabet.getSymbol(symIdx);
+                final T trans = state == null ? null : target.getTransition(state, sym);
+                if (omitUndefined && trans == null) {
+                    complete = false;
+                    break;
+                }
+
+                path.append(sym);
+
+                if (trans == null || !Objects.equals(target.getTransitionOutput(trans), edge.outputs[k])) {
+                    return path.toWord();
+                }
+
+                state = target.getSuccessor(trans);
+            }
+
+            if (complete && edge.target != null) {
+                dfsStack.push(new Record<>(state, edge.target, rec.depth + edge.length()));
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Override
+    public TransitionSystemView asTransitionSystem() {
+        return new TransitionSystemView();
+    }
+
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return inputAlphabet;
+    }
+
+    private static final class Record<S, O> {
+
+        private final S automatonState;
+        private final Node<O> node;
+        private final int depth;
+        private int nextInput;
+
+        Record(S automatonState, Node<O> node, int depth) {
+            this.automatonState = automatonState;
+            this.node = node;
+            this.depth = depth;
+        }
+    }
+
+    public class GraphView extends AbstractGraphView<I, O, Position<O>, Position<O>> {
+
+        @Override
+        public Collection<Position<O>> getNodes() {
+            List<Position<O>> result = new ArrayList<>();
+            Iterators.addAll(result, GraphTraversal.dfIterator(this, Collections.singleton(getInitialNode())));
+            return result;
+        }
+
+        @Override
+        public Collection<Position<O>> getOutgoingEdges(Position<O> node) {
+            final Position<O> position = node.resolve();
+            final Edge<O> edge = position.edge;
+
+            if (edge == null || position.offset == edge.length()) {
+                final List<Position<O>> result = new ArrayList<>();
+                for (int i = 0; i < alphabetSize; i++) {
+                    final Position<O> succ = getSuccessorPosition(position, i);
+                    if (succ != null) {
+                        result.add(succ);
+                    }
+                }
+                return result;
+            }
+
+            return Collections.singletonList(new Position<>(edge, position.offset + 1));
+        }
+
+        @Override
+        public Position<O> getTarget(Position<O> edge) {
+            return edge;
+        }
+
+        @Override
+        @SuppressWarnings("nullness") // edges are never the root position
+        public I getInputSymbol(Position<O> edge) {
+            final Position<O> position = edge.resolve();
+            return inputAlphabet.getSymbol(position.edge.symbols[position.offset - 1]);
+        }
+
+        @Override
+        @SuppressWarnings("nullness") // edges are never the root position
+        public O getOutputSymbol(Position<O> edge) {
+            final Position<O> position = edge.resolve();
+            return position.edge.outputs[position.offset - 1];
+        }
+
+        @Override
+        public Position<O> getInitialNode() {
+            return new Position<>(null, 0);
+        }
+
+        @Override
+        public VisualizationHelper<Position<O>, Position<O>> getVisualizationHelper() {
+            return new DelegateVisualizationHelper<Position<O>, Position<O>>(super.getVisualizationHelper()) {
+
+                private int id;
+
+                @Override
+                public boolean getNodeProperties(Position<O> node, Map<String, String> properties) {
+                    if (!super.getNodeProperties(node, properties)) {
+                        return false;
+                    }
+                    properties.put(NodeAttrs.LABEL, "n" + (id++));
+                    return true;
+                }
+            };
+        }
+    }
+
+    public class TransitionSystemView implements MealyTransitionSystem<Position<O>, I, Position<O>, O> {
+
+        @Override
+        public @Nullable Position<O> getTransition(Position<O> state, I input) {
+            return getSuccessorPosition(state, inputAlphabet.getSymbolIndex(input));
+        }
+
+        @Override
+        public Position<O> getSuccessor(Position<O> transition) {
+            return transition;
+        }
+
+        @Override
+        public Position<O> getInitialState() {
+            return new Position<>(null, 0);
+        }
+
+        @Override
+        @SuppressWarnings("nullness") // transitions are never the root position
+        public O getTransitionOutput(Position<O> transition) {
+            final Position<O> position = transition.resolve();
+            return position.edge.outputs[position.offset - 1];
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree.compressed;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A compressed edge of a {@link CompressedIncrementalMealyTreeBuilder}, representing an unbranched run of transitions.
+ * The input symbols (encoded by their alphabet index) and the corresponding output symbols are stored in packed
+ * arrays.
+ *
+ * @param <O>
+ *         output symbol type
+ */
+final class Edge<O> implements Serializable {
+
+    int[] symbols;
+    O[] outputs;
+    /**
+     * The branching node at the end of this run, or {@code null} if the run ends in a leaf.
+     */
+    @Nullable Node<O> target;
+    /**
+     * The edge representing the transitions that have been split off this edge (see {@link #split(int, int)}), or
+     * {@code null} if this edge has never been split. This allows to resolve {@link Position}s that have been created
+     * before the split.
+     */
+    @Nullable Edge<O> next;
+    /**
+     * The edge from which this edge has (transitively) been split off, or {@code null} if this edge has been created
+     * directly. Together with {@link #originOffset}, this provides an identification of the positions on this edge that
+     * is stable across splits.
+     */
+    @Nullable Edge<O> origin;
+    int originOffset;
+
+    Edge(int[] symbols, O[] outputs, @Nullable Node<O> target) {
+        this.symbols = symbols;
+        this.outputs = outputs;
+        this.target = target;
+    }
+
+    int length() {
+        return symbols.length;
+    }
+
+    /**
+     * Appends the given run to this edge. May only be called on edges ending in a leaf.
+     *
+     * @param addSymbols
+     *         the input symbol indices to append
+     * @param addOutputs
+     *         the output symbols to append
+     */
+    void append(int[] addSymbols, O[] addOutputs) {
+        assert target == null;
+        final int oldLength = symbols.length;
+        final int newLength = oldLength + addSymbols.length;
+        symbols = Arrays.copyOf(symbols, newLength);
+        outputs = Arrays.copyOf(outputs, newLength);
+        System.arraycopy(addSymbols, 0, symbols, oldLength, addSymbols.length);
+        System.arraycopy(addOutputs, 0, outputs, oldLength, addOutputs.length);
+    }
+
+    /**
+     * Splits this edge at the given offset. Afterwards, this edge represents the first {@code offset} transitions and
+     * ends in a new branching node, whose only child is an edge representing the remaining transitions. This edge keeps
+     * a reference to the new edge (see {@link #next}).
+     *
+     * @param offset
+     *         the offset at which to split, must be in range {@code (0, length())}
+     * @param alphabetSize
+     *         the size of the input alphabet
+     *
+     * @return the newly created branching node
+     */
+    Node<O> split(int offset, int alphabetSize) {
+        assert offset > 0 && offset < symbols.length;
+        final Edge<O> tail = new Edge<>(Arrays.copyOfRange(symbols, offset, symbols.length),
+                                        Arrays.copyOfRange(outputs, offset, outputs.length),
+                                        target);
+        final Node<O> node = new Node<>();
+        node.setChild(tail.symbols[0], alphabetSize, tail);
+
+        tail.next = next;
+        tail.origin = origin == null ? this : origin;
+        tail.originOffset = originOffset + offset;
+
+        symbols = Arrays.copyOf(symbols, offset);
+        outputs = Arrays.copyOf(outputs, offset);
+        target = node;
+        next = tail;
+
+        return node;
+    }
+}
@@ -0,0 +1,62 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree.compressed;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A branching node of a {@link CompressedIncrementalMealyTreeBuilder}. Nodes are only allocated for the root and for
+ * positions at which the tree branches, all other positions are represented implicitly by the (compressed) {@link
+ * Edge}s.
+ *
+ * @param <O>
+ *         output symbol type
+ */
+final class Node<O> implements Serializable {
+
+    private @Nullable Edge<O>[] children;
+
+    @Nullable Edge<O> getChild(int idx) {
+        if (children == null || idx >= children.length) {
+            return null;
+        }
+        return children[idx];
+    }
+
+    /**
+     * Sets the child for a given index. The children array is allocated (or grown) lazily, so that nodes do not need to
+     * be updated when the alphabet grows.
+     *
+     * @param idx
+     *         the alphabet symbol index
+     * @param alphabetSize
+     *         the overall alphabet size; this is needed if a new children array needs to be created
+     * @param child
+     *         the new child
+     */
+    @SuppressWarnings("unchecked")
+    void setChild(int idx, int alphabetSize, Edge<O> child) {
+        if (children == null) {
+            children = new Edge[Math.max(alphabetSize, idx + 1)];
+        } else if (idx >= children.length) {
+            children = Arrays.copyOf(children, Math.max(alphabetSize, idx + 1));
+        }
+        children[idx] = child;
+    }
+}
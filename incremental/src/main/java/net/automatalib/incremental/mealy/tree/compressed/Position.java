@@ -0,0 +1,91 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree.compressed;
+
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A (virtual) state of a {@link CompressedIncrementalMealyTreeBuilder}, identified by the compressed edge and the number
+ * of transitions of this edge that have been consumed. The root is represented by a {@code null} edge.
+ * <p>
+ * Positions remain valid across modifications of the builder: if the edge of a position is split upon insertion, the
+ * position is {@link #resolve() resolved} along the split-off edges. Equality of positions does not depend on whether
+ * they have been created before or after such a split.
+ *
+ * @param <O>
+ *         output symbol type
+ */
+public final class Position<O> {
+
+    final @Nullable Edge<O> edge;
+    final int offset;
+
+    Position(@Nullable Edge<O> edge, int offset) {
+        this.edge = edge;
+        this.offset = offset;
+    }
+
+    /**
+     * Returns the position that represents the same state as this position with respect to the current (possibly split)
+     * edges.
+     *
+     * @return the resolved position
+     */
+    @SuppressWarnings("nullness") // edges that have been truncated by a split always have a successor
+    Position<O> resolve() {
+        Edge<O> e = edge;
+        int off = offset;
+
+        if (e == null || off <= e.length()) {
+            return this;
+        }
+
+        while (off > e.length()) {
+            off -= e.length();
+            e = e.next;
+        }
+
+        return new Position<>(e, off);
+    }
+
+    private @Nullable Edge<O> originEdge() {
+        return edge == null || edge.origin == null ? edge : edge.origin;
+    }
+
+    private int originOffset() {
+        return edge == null ? offset : edge.originOffset + offset;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Position)) {
+            return false;
+        }
+
+        final Position<?> that = (Position<?>) o;
+        return originOffset() == that.originOffset() && originEdge() == that.originEdge();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(originEdge()) + originOffset();
+    }
+}
@@ -15,9 +15,7 @@
  */
 package net.automatalib.incremental.mealy.tree.dynamic;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 
 import net.automatalib.incremental.mealy.tree.AbstractIncrementalMealyTreeBuilder;
@@ -28,7 +26,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * A variation of the normal {@link IncrementalMealyTreeBuilder}, which stores the successor information of each
- * tree-node in a dynamically allocated {@link Map}.
+ * tree-node dynamically. Nodes with few successors store them in small, linearly searched arrays, whereas nodes with
+ * many successors use a {@link Map}.
  * <p>
  * In a dense tree-structure this may result in higher memory consumption than the regular tree. However, if only sparse
  * information are stored, the overall consumption may be lower. Also, allows to skip the initial alphabet definition as
@@ -76,16 +75,6 @@ public class DynamicIncrementalMealyTreeBuilder<I, O> extends AbstractIncrementa
 
     @Override
     protected Collection<AnnotatedEdge<Node<I, O>, I, O>> getOutgoingEdges(Node<I, O> node) {
-
-        final Map<I, Edge<Node<I, O>, O>> outEdges = node.getOutEdges();
-        final List<AnnotatedEdge<Node<I, O>, I, O>> result = new ArrayList<>(outEdges.size());
-
-        for (Map.Entry<I, Edge<Node<I, O>, O>> e : outEdges.entrySet()) {
-            if (e.getValue() != null) {
-                result.add(new AnnotatedEdge<>(e.getValue(), e.getKey()));
-            }
-        }
-
-        return result;
+        return node.getOutgoingEdges();
     }
 }
@@ -16,34 +16,116 @@
 package net.automatalib.incremental.mealy.tree.dynamic;
 
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import com.google.common.collect.Maps;
+import net.automatalib.incremental.mealy.tree.AnnotatedEdge;
 import net.automatalib.incremental.mealy.tree.Edge;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * A node of the {@link DynamicIncrementalMealyTreeBuilder}. Nodes with only few successors store their outgoing edges
+ * in small (linearly searched) arrays, which avoids the overhead of a hash table and of hashing the input symbols. Once
+ * the number of successors exceeds {@link #ARRAY_THRESHOLD}, the successors are moved to a {@link Map}.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
 final class Node<I, O> implements Serializable {
 
-    private final Map<I, Edge<Node<I, O>, O>> outEdges;
+    /**
+     * The maximum number of successors that are stored in the inline arrays.
+     */
+    static final int ARRAY_THRESHOLD = 8;
 
-    Node(int expectedSize) {
-        this.outEdges = Maps.newHashMapWithExpectedSize(expectedSize);
-    }
+    // inline storage for low-degree nodes
+    private @Nullable Object[] symbols;
+    private @Nullable Edge<Node<I, O>, O>[] edges;
+    private int size;
 
-    Node() {
-        this.outEdges = new HashMap<>();
-    }
+    // storage for high-degree nodes
+    private @Nullable Map<I, Edge<Node<I, O>, O>> outEdges;
 
     @Nullable Edge<Node<I, O>, O> getEdge(I input) {
-        return outEdges.get(input);
+        if (outEdges != null) {
+            return outEdges.get(input);
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(symbols[i], input)) {
+                return edges[i];
+            }
+        }
+
+        return null;
     }
 
+    @SuppressWarnings("unchecked")
     void setEdge(I symbol, Edge<Node<I, O>, O> edge) {
-        outEdges.put(symbol, edge);
+        if (outEdges != null) {
+            outEdges.put(symbol, edge);
+            return;
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(symbols[i], symbol)) {
+                edges[i] = edge;
+                return;
+            }
+        }
+
+        if (size == ARRAY_THRESHOLD) {
+            outEdges = Maps.newHashMapWithExpectedSize(ARRAY_THRESHOLD + 1);
+            for (int i = 0; i < size; i++) {
+                outEdges.put((I) symbols[i], edges[i]);
+            }
+            outEdges.put(symbol, edge);
+            symbols = null;
+            edges = null;
+            size = 0;
+            return;
+        }
+
+        if (symbols == null) {
+            symbols = new Object[1];
+            edges = new Edge[1];
+        } else if (size == symbols.length) {
+            final int newCapacity = Math.min(size * 2, ARRAY_THRESHOLD);
+            symbols = Arrays.copyOf(symbols, newCapacity);
+            edges = Arrays.copyOf(edges, newCapacity);
+        }
+
+        symbols[size] = symbol;
+        edges[size] = edge;
+        size++;
     }
 
-    Map<I, Edge<Node<I, O>, O>> getOutEdges() {
-        return outEdges;
+    @SuppressWarnings("unchecked")
+    Collection<AnnotatedEdge<Node<I, O>, I, O>> getOutgoingEdges() {
+        if (outEdges != null) {
+            final List<AnnotatedEdge<Node<I, O>, I, O>> result = new ArrayList<>(outEdges.size());
+            for (Map.Entry<I, Edge<Node<I, O>, O>> e : outEdges.entrySet()) {
+                result.add(new AnnotatedEdge<>(e.getValue(), e.getKey()));
+            }
+            return result;
+        }
+
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+
+        final List<AnnotatedEdge<Node<I, O>, I, O>> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new AnnotatedEdge<>(edges[i], (I) symbols[i]));
+        }
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore;
+
+import java.util.Collection;
+import java.util.List;
+
+import net.automatalib.automata.transducers.MooreMachine;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalStatistics;
+import net.automatalib.ts.output.MooreTransitionSystem;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link IncrementalMooreBuilder} that delegates to another builder and records {@link IncrementalStatistics
+ * statistics} about its usage. Each invocation of one of the {@code lookup} methods (or of {@link
+ * #hasDefinitiveInformation(Word)}) counts as a single lookup, which is considered a hit if the delegate has definitive
+ * information about the looked up word.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class InstrumentedIncrementalMooreBuilder<I, O> implements IncrementalMooreBuilder<I, O> {
+
+    private final IncrementalMooreBuilder<I, O> delegate;
+    private final IncrementalStatistics statistics;
+
+    public InstrumentedIncrementalMooreBuilder(IncrementalMooreBuilder<I, O> delegate) {
+        this.delegate = delegate;
+        this.statistics = new IncrementalStatistics(delegate);
+    }
+
+    /**
+     * Returns the statistics of this builder. The returned object is backed by this builder, i.e. subsequent lookups
+     * and insertions will be reflected in the returned object.
+     *
+     * @return the statistics of this builder
+     */
+    public IncrementalStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public Word<O> lookup(Word<? extends I> inputWord) {
+        WordBuilder<O> wb = new WordBuilder<>(inputWord.size() + 1);
+        lookup(inputWord, wb);
+        return wb.toWord();
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> inputWord, List<? super O> output) {
+        final boolean hit = delegate.lookup(inputWord, output);
+        statistics.recordLookup(hit);
+        return hit;
+    }
+
+    @Override
+    public void insert(Word<? extends I> inputWord, Word<? extends O> outputWord) {
+        try {
+            delegate.insert(inputWord, outputWord);
+        } catch (ConflictException ce) {
+            statistics.recordConflict();
+            throw ce;
+        }
+        statistics.recordInsertion(inputWord.length());
+    }
+
+    @Override
+    public @Nullable Word<I> findSeparatingWord(MooreMachine<?, I, ?, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        return delegate.findSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        final boolean hit = delegate.hasDefinitiveInformation(word);
+        statistics.recordLookup(hit);
+        return hit;
+    }
+
+    @Override
+    public GraphView<I, O, ?, ?> asGraph() {
+        return delegate.asGraph();
+    }
+
+    @Override
+    public MooreTransitionSystem<?, I, ?, O> asTransitionSystem() {
+        return delegate.asTransitionSystem();
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        delegate.addAlphabetSymbol(symbol);
+    }
+}
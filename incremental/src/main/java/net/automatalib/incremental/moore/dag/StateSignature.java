@@ -0,0 +1,75 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore.dag;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+import net.automatalib.commons.smartcollections.ResizingArrayStorage;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+final class StateSignature<O> implements Serializable {
+
+    public final ResizingArrayStorage<State<O>> successors;
+    public @Nullable O output;
+    private int hashCode;
+
+    StateSignature(int numSuccs, @Nullable O output) {
+        this.successors = new ResizingArrayStorage<>(State.class, numSuccs);
+        this.output = output;
+        updateHashCode();
+    }
+
+    StateSignature(StateSignature<O> other) {
+        this.successors = new ResizingArrayStorage<>(other.successors);
+        this.output = other.output;
+        updateHashCode();
+    }
+
+    public StateSignature<O> duplicate() {
+        return new StateSignature<>(this);
+    }
+
+    public void updateHashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + Objects.hashCode(output);
+        result = prime * result + Arrays.hashCode(successors.array);
+        hashCode = result;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof StateSignature)) {
+            return false;
+        }
+
+        final StateSignature<?> other = (StateSignature<?>) obj;
+
+        return (hashCode == other.hashCode) && Objects.equals(output, other.output) &&
+               Arrays.equals(successors.array, other.successors.array);
+    }
+
+}
@@ -0,0 +1,35 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore.tree;
+
+public final class Edge<I, O> {
+
+    private final Node<O> node;
+    private final I input;
+
+    public Edge(Node<O> node, I input) {
+        this.node = node;
+        this.input = input;
+    }
+
+    public Node<O> getNode() {
+        return node;
+    }
+
+    public I getInput() {
+        return input;
+    }
+}
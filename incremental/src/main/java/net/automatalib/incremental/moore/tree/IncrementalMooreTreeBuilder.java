@@ -0,0 +1,306 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.collect.Iterators;
+import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.automata.transducers.MooreMachine;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.moore.AbstractIncrementalMooreBuilder;
+import net.automatalib.ts.output.MooreTransitionSystem;
+import net.automatalib.util.graphs.traversal.GraphTraversal;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Incrementally builds a tree-shaped Moore machine from a set of input and corresponding output words.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ */
+public class IncrementalMooreTreeBuilder<I, O> extends AbstractIncrementalMooreBuilder<I, O>
+        implements InputAlphabetHolder<I> {
+
+    protected final Node<O> root;
+    private final Alphabet<I> inputAlphabet;
+    private int alphabetSize;
+
+    public IncrementalMooreTreeBuilder(Alphabet<I> inputAlphabet) {
+        this.inputAlphabet = inputAlphabet;
+        this.alphabetSize = inputAlphabet.size();
+        this.root = new Node<>();
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        if (!this.inputAlphabet.containsSymbol(symbol)) {
+            Alphabets.toGrowingAlphabetOrThrowException(this.inputAlphabet).addSymbol(symbol);
+        }
+
+        final int newAlphabetSize = this.inputAlphabet.size();
+        // even if the symbol was already in the alphabet, we need to make sure to be able to store the new symbol
+        if (alphabetSize < newAlphabetSize) {
+            ensureInputCapacity(root, alphabetSize, newAlphabetSize);
+            alphabetSize = newAlphabetSize;
+        }
+    }
+
+    private void ensureInputCapacity(Node<O> node, int oldAlphabetSize, int newAlphabetSize) {
+        node.ensureInputCapacity(newAlphabetSize);
+        for (int i = 0; i < oldAlphabetSize; i++) {
+            final Node<O> child = node.getChild(i);
+            if (child != null) {
+                ensureInputCapacity(child, oldAlphabetSize, newAlphabetSize);
+            }
+        }
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> word, List<? super O> output) {
+        Node<O> curr = root;
+
+        O rootOutput = curr.getOutput();
+        if (rootOutput == null) {
+            return false;
+        }
+        output.add(rootOutput);
+
+        for (I sym : word) {
+            Node<O> succ = curr.getChild(inputAlphabet.getSymbolIndex(sym));
+            if (succ == null) {
+                return false;
+            }
+            output.add(succ.getOutput());
+            curr = succ;
+        }
+
+        return true;
+    }
+
+    @Override
+    public void insert(Word<? extends I> word, Word<? extends O> outputWord) {
+        Node<O> curr = root;
+
+        Iterator<? extends O> outputIt = outputWord.iterator();
+        updateOrCheckOutput(curr, outputIt.next(), word, outputWord);
+
+        for (I sym : word) {
+            int inputIdx = inputAlphabet.getSymbolIndex(sym);
+            O out = outputIt.next();
+            Node<O> succ = curr.getChild(inputIdx);
+            if (succ == null) {
+                succ = new Node<>(out);
+                curr.setChild(inputIdx, alphabetSize, succ);
+            } else {
+                updateOrCheckOutput(succ, out, word, outputWord);
+            }
+            curr = succ;
+        }
+    }
+
+    private void updateOrCheckOutput(Node<O> node,
+                                     O output,
+                                     Word<? extends I> word,
+                                     Word<? extends O> outputWord) {
+        O nodeOutput = node.getOutput();
+        if (nodeOutput == null) {
+            node.setOutput(output);
+        } else if (!Objects.equals(nodeOutput, output)) {
+            throw new ConflictException(
+                    "Error inserting " + word + " / " + outputWord + ": Incompatible output symbols: " + output +
+                    " vs " + nodeOutput);
+        }
+    }
+
+    @Override
+    public @Nullable Word<I> findSeparatingWord(MooreMachine<?, I, ?, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S> @Nullable Word<I> doFindSeparatingWord(MooreMachine<S, I, ?, O> target,
+                                                       Collection<? extends I> inputs,
+                                                       boolean omitUndefined) {
+        O rootOutput = root.getOutput();
+        if (rootOutput == null) {
+            return null;
+        }
+
+        S automatonInit = target.getInitialState();
+        if (automatonInit == null) {
+            return omitUndefined ? null : Word.epsilon();
+        } else if (!Objects.equals(rootOutput, target.getStateOutput(automatonInit))) {
+            return Word.epsilon();
+        }
+
+        // incomingInput can be null here, because we will always skip the bottom stack element below
+        @SuppressWarnings("nullness")
+        Record<S, O, I> init = new Record<>(automatonInit, root, null, inputs.iterator());
+
+        Deque<Record<S, O, I>> dfsStack = new ArrayDeque<>();
+        dfsStack.push(init);
+
+        while (!dfsStack.isEmpty()) {
+            @SuppressWarnings("nullness") // false positive https://github.com/typetools/checker-framework/issues/399
+            @NonNull Record<S, O, I> rec = dfsStack.peek();
+            if (!rec.inputIt.hasNext()) {
+                dfsStack.pop();
+                continue;
+            }
+            I input = rec.inputIt.next();
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+
+            Node<O> succ = rec.treeNode.getChild(inputIdx);
+            if (succ == null) {
+                continue;
+            }
+
+            S automatonSucc = target.getSuccessor(rec.automatonState, input);
+            if (automatonSucc == null && omitUndefined) {
+                continue;
+            }
+
+            if (automatonSucc == null || !Objects.equals(succ.getOutput(), target.getStateOutput(automatonSucc))) {
+                WordBuilder<I> wb = new WordBuilder<>(dfsStack.size());
+                wb.append(input);
+
+                dfsStack.pop();
+                while (!dfsStack.isEmpty()) {
+                    wb.append(rec.incomingInput);
+                    rec = dfsStack.pop();
+                }
+                return wb.reverse().toWord();
+            }
+
+            dfsStack.push(new Record<>(automatonSucc, succ, input, inputs.iterator()));
+        }
+
+        return null;
+    }
+
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Override
+    public TransitionSystemView asTransitionSystem() {
+        return new TransitionSystemView();
+    }
+
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return inputAlphabet;
+    }
+
+    private static final class Record<S, O, I> {
+
+        private final S automatonState;
+        private final Node<O> treeNode;
+        private final I incomingInput;
+        private final Iterator<? extends I> inputIt;
+
+        Record(S automatonState, Node<O> treeNode, I incomingInput, Iterator<? extends I> inputIt) {
+            this.automatonState = automatonState;
+            this.treeNode = treeNode;
+            this.incomingInput = incomingInput;
+            this.inputIt = inputIt;
+        }
+    }
+
+    public class GraphView extends AbstractGraphView<I, O, Node<O>, Edge<I, O>> {
+
+        @Override
+        public Collection<Node<O>> getNodes() {
+            List<Node<O>> result = new ArrayList<>();
+            Iterators.addAll(result, GraphTraversal.dfIterator(this, Collections.singleton(root)));
+            return result;
+        }
+
+        @Override
+        public Collection<Edge<I, O>> getOutgoingEdges(Node<O> node) {
+            List<Edge<I, O>> result = new ArrayList<>(alphabetSize);
+            for (int i = 0; i < alphabetSize; i++) {
+                Node<O> succ = node.getChild(i);
+                if (succ != null) {
+                    result.add(new Edge<>(succ, inputAlphabet.getSymbol(i)));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Node<O> getTarget(Edge<I, O> edge) {
+            return edge.getNode();
+        }
+
+        @Override
+        public I getInputSymbol(Edge<I, O> edge) {
+            return edge.getInput();
+        }
+
+        @Override
+        public @Nullable O getOutputSymbol(Node<O> node) {
+            return node.getOutput();
+        }
+
+        @Override
+        public Node<O> getInitialNode() {
+            return root;
+        }
+    }
+
+    public class TransitionSystemView implements MooreTransitionSystem<Node<O>, I, Node<O>, O> {
+
+        @Override
+        public Node<O> getSuccessor(Node<O> transition) {
+            return transition;
+        }
+
+        @Override
+        public @Nullable Node<O> getTransition(Node<O> state, I input) {
+            int inputIdx = inputAlphabet.getSymbolIndex(input);
+            return state.getChild(inputIdx);
+        }
+
+        @Override
+        public Node<O> getInitialState() {
+            return root;
+        }
+
+        @Override
+        @SuppressWarnings("nullness") // only the root may have an undefined output, if nothing has been inserted yet
+        public O getStateOutput(Node<O> state) {
+            return state.getOutput();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore.tree;
+
+import java.io.Serializable;
+
+import net.automatalib.commons.smartcollections.ResizingArrayStorage;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+public final class Node<O> implements Serializable {
+
+    private @Nullable O output;
+    private @Nullable ResizingArrayStorage<Node<O>> children;
+
+    /**
+     * Constructor. Constructs a new node with no children and an unknown output.
+     */
+    public Node() {
+        this(null);
+    }
+
+    /**
+     * Constructor. Constructs a new node with no children and the specified output.
+     *
+     * @param output
+     *         the output of the node
+     */
+    public Node(@Nullable O output) {
+        this.output = output;
+    }
+
+    /**
+     * Retrieves the output of this node.
+     *
+     * @return the output of this node, or {@code null} if it is unknown
+     */
+    public @Nullable O getOutput() {
+        return output;
+    }
+
+    /**
+     * Sets the output of this node.
+     *
+     * @param output
+     *         the new output of this node
+     */
+    public void setOutput(O output) {
+        this.output = output;
+    }
+
+    /**
+     * Retrieves, for a given index, the respective child of this node.
+     *
+     * @param idx
+     *         the alphabet symbol index
+     *
+     * @return the child for the given index, or {@code null} if there is no such child
+     */
+    public @Nullable Node<O> getChild(int idx) {
+        if (children == null) {
+            return null;
+        }
+        return children.array[idx];
+    }
+
+    /**
+     * Sets the child for a given index.
+     *
+     * @param idx
+     *         the alphabet symbol index
+     * @param alphabetSize
+     *         the overall alphabet size; this is needed if a new children array needs to be created
+     * @param child
+     *         the new child
+     */
+    public void setChild(int idx, int alphabetSize, Node<O> child) {
+        if (children == null) {
+            children = new ResizingArrayStorage<>(Node.class, alphabetSize);
+        }
+        children.array[idx] = child;
+    }
+
+    /**
+     * See {@link ResizingArrayStorage#ensureCapacity(int)}.
+     */
+    boolean ensureInputCapacity(int capacity) {
+        if (this.children == null) {
+            return false;
+        }
+
+        return this.children.ensureCapacity(capacity);
+    }
+}
@@ -0,0 +1,136 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.incremental.dfa.InstrumentedIncrementalDFABuilder;
+import net.automatalib.incremental.dfa.tree.IncrementalDFATreeBuilder;
+import net.automatalib.incremental.mealy.InstrumentedIncrementalMealyBuilder;
+import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
+import net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder;
+import net.automatalib.incremental.moore.InstrumentedIncrementalMooreBuilder;
+import net.automatalib.incremental.moore.tree.IncrementalMooreTreeBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class IncrementalStatisticsTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'c');
+
+    @Test
+    public void testMealyTree() {
+        final InstrumentedIncrementalMealyBuilder<Character, Character> builder =
+                new InstrumentedIncrementalMealyBuilder<>(new IncrementalMealyTreeBuilder<>(ALPHABET));
+        final IncrementalStatistics stats = builder.getStatistics();
+
+        Assert.assertEquals(stats.getNumberOfNodes(), 1);
+        Assert.assertEquals(stats.getNumberOfEdges(), 0);
+
+        builder.insert(Word.fromString("abc"), Word.fromString("xyz"));
+        builder.insert(Word.fromString("ac"), Word.fromString("xw"));
+
+        Assert.assertEquals(stats.getInsertions(), 2);
+        Assert.assertEquals(stats.getInsertedSymbols(), 5);
+        Assert.assertEquals(stats.getNumberOfNodes(), 5);
+        Assert.assertEquals(stats.getNumberOfEdges(), 4);
+        Assert.assertTrue(stats.getEstimatedHeapBytes() > 0);
+
+        Assert.assertEquals(builder.lookup(Word.fromString("ab")), Word.fromString("xy"));
+        Assert.assertEquals(builder.lookup(Word.fromString("aa")), Word.fromString("x"));
+        Assert.assertEquals(builder.lookup(Word.fromString("ac")), Word.fromString("xw"));
+
+        Assert.assertEquals(stats.getLookups(), 3);
+        Assert.assertEquals(stats.getHits(), 2);
+        Assert.assertEquals(stats.getMisses(), 1);
+        Assert.assertEquals(stats.getHitRatio(), 2.0 / 3);
+
+        Assert.assertTrue(builder.hasDefinitiveInformation(Word.fromString("abc")));
+        Assert.assertFalse(builder.hasDefinitiveInformation(Word.fromString("acc")));
+
+        Assert.assertEquals(stats.getLookups(), 5);
+        Assert.assertEquals(stats.getHits(), 3);
+        Assert.assertEquals(stats.getMisses(), 2);
+
+        Assert.assertThrows(ConflictException.class,
+                            () -> builder.insert(Word.fromString("ab"), Word.fromString("xx")));
+        Assert.assertEquals(stats.getConflicts(), 1);
+        Assert.assertEquals(stats.getInsertions(), 2);
+
+        stats.reset();
+        Assert.assertEquals(stats.getLookups(), 0);
+        Assert.assertEquals(stats.getConflicts(), 0);
+        Assert.assertEquals(stats.getHitRatio(), 0.0);
+        Assert.assertEquals(stats.getNumberOfNodes(), 5);
+    }
+
+    @Test
+    public void testMealyDAG() {
+        final InstrumentedIncrementalMealyBuilder<Character, Character> builder =
+                new InstrumentedIncrementalMealyBuilder<>(new IncrementalMealyDAGBuilder<>(ALPHABET));
+        final IncrementalStatistics stats = builder.getStatistics();
+
+        builder.insert(Word.fromString("aaa"), Word.fromString("xxx"));
+        builder.insert(Word.fromString("bba"), Word.fromString("xxx"));
+
+        // the common suffixes are shared in the DAG
+        Assert.assertEquals(stats.getNumberOfNodes(), 5);
+        Assert.assertEquals(stats.getNumberOfEdges(), 5);
+        Assert.assertEquals(stats.getInsertedSymbols(), 6);
+    }
+
+    @Test
+    public void testMoore() {
+        final InstrumentedIncrementalMooreBuilder<Character, Character> builder =
+                new InstrumentedIncrementalMooreBuilder<>(new IncrementalMooreTreeBuilder<>(ALPHABET));
+        final IncrementalStatistics stats = builder.getStatistics();
+
+        Assert.assertEquals(builder.lookup(Word.epsilon()), Word.epsilon());
+        builder.insert(Word.fromString("ab"), Word.fromString("oxy"));
+        Assert.assertEquals(builder.lookup(Word.fromString("ab")), Word.fromString("oxy"));
+
+        Assert.assertEquals(stats.getLookups(), 2);
+        Assert.assertEquals(stats.getHits(), 1);
+        Assert.assertEquals(stats.getNumberOfNodes(), 3);
+    }
+
+    @Test
+    public void testDFA() {
+        final InstrumentedIncrementalDFABuilder<Character> builder =
+                new InstrumentedIncrementalDFABuilder<>(new IncrementalDFATreeBuilder<>(ALPHABET));
+        final IncrementalStatistics stats = builder.getStatistics();
+
+        builder.insert(Word.fromString("ab"));
+        builder.insert(Word.fromString("b"), false);
+
+        Assert.assertEquals(builder.lookup(Word.fromString("ab")), Acceptance.TRUE);
+        Assert.assertEquals(builder.lookup(Word.fromString("a")), Acceptance.DONT_KNOW);
+        Assert.assertEquals(builder.lookup(Word.fromString("b")), Acceptance.FALSE);
+
+        Assert.assertFalse(builder.hasDefinitiveInformation(Word.fromString("bb")));
+
+        Assert.assertThrows(ConflictException.class, () -> builder.insert(Word.fromString("b")));
+
+        Assert.assertEquals(stats.getInsertions(), 2);
+        Assert.assertEquals(stats.getInsertedSymbols(), 3);
+        Assert.assertEquals(stats.getLookups(), 4);
+        Assert.assertEquals(stats.getHits(), 2);
+        Assert.assertEquals(stats.getConflicts(), 1);
+        Assert.assertEquals(stats.getNumberOfNodes(), 4);
+    }
+}
@@ -0,0 +1,150 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder;
+import net.automatalib.incremental.mealy.tree.compressed.CompressedIncrementalMealyTreeBuilder;
+import net.automatalib.incremental.mealy.tree.compressed.Position;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class CompressedIncrementalMealyTreeBuilderTest extends AbstractIncrementalMealyBuilderTest {
+
+    @Override
+    protected <I, O> IncrementalMealyBuilder<I, O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
+        return new CompressedIncrementalMealyTreeBuilder<>(alphabet);
+    }
+
+    /**
+     * Compares the compressed tree with the regular tree on long random words, which exercises extending leaf runs as
+     * well as splitting runs in their middle.
+     */
+    @Test
+    public void testAgainstRegularTree() {
+        final Random random = new Random(42);
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final CompactMealy<Character, Character> mealy =
+                RandomAutomata.randomMealy(random, 20, alphabet, Arrays.asList('x', 'y', 'z'));
+
+        final IncrementalMealyBuilder<Character, Character> compressed = createIncrementalMealyBuilder(alphabet);
+        final IncrementalMealyBuilder<Character, Character> regular = new IncrementalMealyTreeBuilder<>(alphabet);
+
+        final WordBuilder<Character> wb = new WordBuilder<>();
+
+        for (int i = 0; i < 200; i++) {
+            wb.clear();
+            final int length = random.nextInt(100);
+            for (int j = 0; j < length; j++) {
+                wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+            }
+            final Word<Character> input = wb.toWord();
+            final Word<Character> output = mealy.computeOutput(input);
+            compressed.insert(input, output);
+            regular.insert(input, output);
+
+            // prefixes of already stored words must not alter the tree
+            final Word<Character> prefix = input.prefix(random.nextInt(length + 1));
+            compressed.insert(prefix, output.prefix(prefix.length()));
+        }
+
+        Assert.assertNull(compressed.findSeparatingWord(mealy, alphabet, false));
+        Assert.assertEquals(compressed.asGraph().size(), regular.asGraph().size());
+
+        for (int i = 0; i < 500; i++) {
+            wb.clear();
+            final int length = random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+            }
+            final Word<Character> input = wb.toWord();
+            Assert.assertEquals(compressed.hasDefinitiveInformation(input), regular.hasDefinitiveInformation(input));
+            Assert.assertEquals(compressed.lookup(input), regular.lookup(input));
+        }
+
+        // change a single transition of the target and check that both trees find the same counterexample
+        final Integer s = mealy.getSuccessor(mealy.getInitialState(), Word.fromString("abc"));
+        Assert.assertNotNull(s);
+        for (Character in : alphabet) {
+            final Integer succ = mealy.getSuccessor(s, in);
+            mealy.setTransition(s, in, succ, (Character) 'w');
+        }
+
+        final Word<Character> ce = compressed.findSeparatingWord(mealy, alphabet, false);
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(ce, regular.findSeparatingWord(mealy, alphabet, false));
+    }
+
+    /**
+     * Checks that states and transitions of the transition system view remain valid if their edge is split by
+     * subsequent insertions.
+     */
+    @Test
+    public void testPositionsAcrossSplits() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'f');
+        final CompressedIncrementalMealyTreeBuilder<Character, Character> builder =
+                new CompressedIncrementalMealyTreeBuilder<>(alphabet);
+        final CompressedIncrementalMealyTreeBuilder<Character, Character>.TransitionSystemView ts =
+                builder.asTransitionSystem();
+
+        builder.insert(Word.fromString("abcdef"), Word.fromString("uvwxyz"));
+
+        final Position<Character> state = ts.getState(Word.fromString("abcd"));
+        Assert.assertNotNull(state);
+        final Position<Character> transition = ts.getTransition(state, 'e');
+        Assert.assertNotNull(transition);
+
+        // split the (single) edge before the state, and split the split-off edge once more
+        builder.insert(Word.fromString("abf"), Word.fromString("uvx"));
+        builder.insert(Word.fromString("abcf"), Word.fromString("uvwx"));
+
+        Assert.assertEquals(ts.getTransitionOutput(transition), (Character) 'y');
+        Assert.assertEquals(ts.getOutput(state, 'e'), (Character) 'y');
+        Assert.assertEquals(ts.getOutput(ts.getSuccessor(state, 'e'), 'f'), (Character) 'z');
+        Assert.assertNull(ts.getTransition(state, 'f'));
+
+        final Position<Character> fresh = ts.getState(Word.fromString("abcd"));
+        Assert.assertEquals(state, fresh);
+        Assert.assertEquals(state.hashCode(), fresh.hashCode());
+        Assert.assertEquals(ts.getSuccessor(transition), ts.getState(Word.fromString("abcde")));
+        Assert.assertNotEquals(state, ts.getState(Word.fromString("abc")));
+
+        // extending the state itself afterwards must be visible as well
+        builder.insert(Word.fromString("abcdf"), Word.fromString("uvwxv"));
+        Assert.assertEquals(ts.getOutput(state, 'f'), (Character) 'v');
+    }
+
+    @Test
+    public void testFindSeparatingWordWithoutInitialState() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final IncrementalMealyBuilder<Character, Character> builder = createIncrementalMealyBuilder(alphabet);
+        builder.insert(Word.fromString("abc"), Word.fromString("xyz"));
+
+        final CompactMealy<Character, Character> empty = new CompactMealy<>(alphabet);
+
+        Assert.assertEquals(builder.findSeparatingWord(empty, alphabet, false), Word.epsilon());
+        Assert.assertNull(builder.findSeparatingWord(empty, alphabet, true));
+    }
+}
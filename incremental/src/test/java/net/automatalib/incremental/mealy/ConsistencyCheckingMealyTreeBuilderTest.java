@@ -0,0 +1,151 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import net.automatalib.automata.base.compact.CompactTransition;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.incremental.mealy.tree.ConsistencyCheckingMealyTreeBuilder;
+import net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class ConsistencyCheckingMealyTreeBuilderTest extends AbstractIncrementalMealyBuilderTest {
+
+    private static final List<Character> OUTPUTS = Arrays.asList('x', 'y', 'z');
+
+    @Override
+    protected <I, O> IncrementalMealyBuilder<I, O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
+        return new ConsistencyCheckingMealyTreeBuilder<>(new IncrementalMealyTreeBuilder<>(alphabet));
+    }
+
+    @Test
+    public void testIncrementalInsertions() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final CompactMealy<Character, Character> hyp =
+                RandomAutomata.randomMealy(new Random(42), 5, alphabet, OUTPUTS);
+        final ConsistencyCheckingMealyTreeBuilder<Character, Character> builder =
+                new ConsistencyCheckingMealyTreeBuilder<>(new IncrementalMealyTreeBuilder<>(alphabet));
+
+        final Word<Character> w1 = Word.fromString("abca");
+        builder.insert(w1, hyp.computeOutput(w1));
+        Assert.assertNull(builder.findSeparatingWord(hyp, alphabet, false));
+
+        // an inconsistent insertion below an already verified region
+        final Word<Character> w2 = Word.fromString("abcb");
+        final Word<Character> out2 = hyp.computeOutput(w2);
+        final Character wrong = out2.lastSymbol() == 'x' ? 'y' : 'x';
+        builder.insert(w2, out2.prefix(3).append(wrong));
+
+        Assert.assertEquals(builder.findSeparatingWord(hyp, alphabet, false), w2);
+
+        // fixing the hypothesis in place resolves the inconsistency
+        final Integer s = hyp.getState(w2.prefix(3));
+        Assert.assertNotNull(s);
+        hyp.setTransitionOutput(hyp.getTransition(s, (Character) 'b'), wrong);
+        builder.hypothesisChanged(Collections.singleton(s));
+
+        Assert.assertNull(builder.findSeparatingWord(hyp, alphabet, false));
+    }
+
+    @Test
+    public void testRandomAgainstFullCheck() {
+        testRandomAgainstFullCheck(false);
+    }
+
+    @Test
+    public void testRandomAgainstFullCheckOmitUndefined() {
+        testRandomAgainstFullCheck(true);
+    }
+
+    private void testRandomAgainstFullCheck(boolean omitUndefined) {
+        final Random random = new Random(1337);
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final int size = 10;
+
+        final CompactMealy<Character, Character> target =
+                RandomAutomata.randomMealy(new Random(7), size, alphabet, OUTPUTS);
+        final CompactMealy<Character, Character> hyp =
+                RandomAutomata.randomMealy(new Random(7), size, alphabet, OUTPUTS);
+
+        final ConsistencyCheckingMealyTreeBuilder<Character, Character> incremental =
+                new ConsistencyCheckingMealyTreeBuilder<>(new IncrementalMealyTreeBuilder<>(alphabet));
+        final IncrementalMealyBuilder<Character, Character> full = new IncrementalMealyTreeBuilder<>(alphabet);
+
+        final Set<Integer> modified = new HashSet<>();
+        final WordBuilder<Character> wb = new WordBuilder<>();
+
+        for (int i = 0; i < 500; i++) {
+            final int action = random.nextInt(10);
+
+            if (action < 5) {
+                wb.clear();
+                final int length = random.nextInt(8);
+                for (int j = 0; j < length; j++) {
+                    wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+                }
+                final Word<Character> input = wb.toWord();
+                final Word<Character> output = target.computeOutput(input);
+                incremental.insert(input, output);
+                full.insert(input, output);
+            } else if (action < 7) {
+                final int s = random.nextInt(size);
+                final int in = random.nextInt(alphabet.size());
+                if (omitUndefined && random.nextBoolean()) {
+                    hyp.setTransition(s, in, (CompactTransition<Character>) null);
+                } else {
+                    hyp.setTransition(s, in, random.nextInt(size), OUTPUTS.get(random.nextInt(OUTPUTS.size())));
+                }
+                incremental.hypothesisChanged(Collections.singleton(s));
+                modified.add(s);
+            } else {
+                for (Integer s : modified) {
+                    for (int in = 0; in < alphabet.size(); in++) {
+                        hyp.setTransition(s.intValue(), in, target.getTransition(s.intValue(), in));
+                    }
+                }
+                incremental.hypothesisChanged(new ArrayList<>(modified));
+                modified.clear();
+            }
+
+            final Word<Character> expected = full.findSeparatingWord(hyp, alphabet, omitUndefined);
+            final Word<Character> actual = incremental.findSeparatingWord(hyp, alphabet, omitUndefined);
+
+            if (expected == null) {
+                Assert.assertNull(actual);
+            } else {
+                Assert.assertNotNull(actual);
+                Assert.assertTrue(full.hasDefinitiveInformation(actual));
+                final Word<Character> cacheOutput = full.lookup(actual);
+                final Word<Character> hypOutput = hyp.computeOutput(actual);
+                Assert.assertNotEquals(hypOutput, cacheOutput);
+            }
+        }
+    }
+}
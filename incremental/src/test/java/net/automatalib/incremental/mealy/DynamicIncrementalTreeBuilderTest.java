@@ -17,6 +17,9 @@ package net.automatalib.incremental.mealy;
 
 import net.automatalib.incremental.mealy.tree.dynamic.DynamicIncrementalMealyTreeBuilder;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import org.testng.Assert;
+import org.testng.annotations.Test;
 
 /**
  * @author frohme
@@ -27,4 +30,31 @@ public class DynamicIncrementalTreeBuilderTest extends AbstractIncrementalMealyB
     protected <I, O> IncrementalMealyBuilder<I, O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
         return new DynamicIncrementalMealyTreeBuilder<>();
     }
+
+    /**
+     * Inserts enough successors into a single node to exceed the inline array storage of the tree nodes.
+     */
+    @Test
+    public void testHighDegreeNode() {
+        final IncrementalMealyBuilder<Integer, Integer> builder = new DynamicIncrementalMealyTreeBuilder<>();
+        final int degree = 50;
+
+        for (int i = 0; i < degree; i++) {
+            builder.insert(Word.fromSymbols(i, i), Word.fromSymbols(-i, i));
+            // re-inserting must neither duplicate nor overwrite edges
+            builder.insert(Word.fromSymbols(i), Word.fromSymbols(-i));
+
+            for (int j = 0; j <= i; j++) {
+                Assert.assertEquals(builder.lookup(Word.fromSymbols(j, j)), Word.fromSymbols(-j, j));
+            }
+            Assert.assertFalse(builder.hasDefinitiveInformation(Word.fromSymbols(i + 1)));
+        }
+
+        Assert.assertEquals(builder.asGraph().size(), 2 * degree + 1);
+        Assert.assertEquals(getInitialDegree(builder.asGraph()), degree);
+    }
+
+    private static <N> int getInitialDegree(IncrementalMealyBuilder.GraphView<?, ?, N, ?> graph) {
+        return graph.getOutgoingEdges(graph.getInitialNode()).size();
+    }
 }
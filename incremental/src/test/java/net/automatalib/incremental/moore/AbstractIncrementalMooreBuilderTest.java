@@ -0,0 +1,295 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.moore;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import javax.swing.SwingUtilities;
+
+import net.automatalib.automata.transducers.impl.compact.CompactMoore;
+import net.automatalib.commons.util.system.JVMUtil;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.ts.output.MooreTransitionSystem;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.visualization.Visualization;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.GrowingAlphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test
+public abstract class AbstractIncrementalMooreBuilderTest {
+
+    private static final Alphabet<Character> TEST_ALPHABET = Alphabets.characters('a', 'c');
+    private static final Word<Character> W_1 = Word.fromString("abc");
+    private static final Word<Character> W_1_O = Word.fromString("oxyz");
+    private static final Word<Character> W_2 = Word.fromString("ac");
+    private static final Word<Character> W_2_O = Word.fromString("oxw");
+    private static final Word<Character> W_3 = Word.fromString("acb");
+    private static final Word<Character> W_3_O = Word.fromString("oxwu");
+
+    // Confluence Bug
+    private static final Word<Character> W_B_1 = Word.fromString("aaa");
+    private static final Word<Character> W_B_1_O = Word.fromString("xxxx");
+    private static final Word<Character> W_B_2 = Word.fromString("bba");
+    private static final Word<Character> W_B_2_O = Word.fromString("xxxx");
+    private static final Word<Character> W_B_3 = Word.fromString("aabaa");
+    private static final Word<Character> W_B_3_O = Word.fromString("xxxxxx");
+
+    private IncrementalMooreBuilder<Character, Character> incMoore;
+
+    @BeforeClass
+    public void setUp() {
+        this.incMoore = createIncrementalMooreBuilder(TEST_ALPHABET);
+    }
+
+    protected abstract <I, O> IncrementalMooreBuilder<I, O> createIncrementalMooreBuilder(Alphabet<I> alphabet);
+
+    @Test
+    public void testConfluenceBug() {
+        incMoore.insert(W_B_1, W_B_1_O);
+        incMoore.insert(W_B_2, W_B_2_O);
+        incMoore.insert(W_B_3, W_B_3_O);
+
+        Assert.assertFalse(incMoore.lookup(Word.fromString("aababaa"), new ArrayList<>()));
+        // reset for further tests
+        this.incMoore = createIncrementalMooreBuilder(TEST_ALPHABET);
+    }
+
+    @Test(dependsOnMethods = "testConfluenceBug")
+    public void testLookup() {
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(Word.epsilon()));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_1));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_2));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_3));
+
+        incMoore.insert(W_1, W_1_O);
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(Word.epsilon()));
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_1));
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_1.prefix(2)));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_1.append('a')));
+
+        WordBuilder<Character> wb = new WordBuilder<>();
+
+        Assert.assertTrue(incMoore.lookup(W_1, wb));
+        Assert.assertEquals(wb.toWord(), W_1_O);
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_1.prefix(2), wb));
+        Assert.assertEquals(wb.toWord(), W_1_O.prefix(3));
+        wb.clear();
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_2));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_3));
+
+        incMoore.insert(W_2, W_2_O);
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_1));
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_2));
+        Assert.assertFalse(incMoore.hasDefinitiveInformation(W_3));
+
+        Assert.assertTrue(incMoore.lookup(W_2, wb));
+        Assert.assertEquals(wb.toWord(), W_2_O);
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_2.prefix(1), wb));
+        Assert.assertEquals(wb.toWord(), W_2_O.prefix(2));
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_1, wb));
+        Assert.assertEquals(wb.toWord(), W_1_O);
+        wb.clear();
+
+        incMoore.insert(W_3, W_3_O);
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_1));
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_2));
+        Assert.assertTrue(incMoore.hasDefinitiveInformation(W_3));
+
+        Assert.assertTrue(incMoore.lookup(W_3, wb));
+        Assert.assertEquals(wb.toWord(), W_3_O);
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_3.prefix(2), wb));
+        Assert.assertEquals(wb.toWord(), W_3_O.prefix(3));
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_1, wb));
+        Assert.assertEquals(wb.toWord(), W_1_O);
+        wb.clear();
+        Assert.assertTrue(incMoore.lookup(W_2, wb));
+        Assert.assertEquals(wb.toWord(), W_2_O);
+        wb.clear();
+    }
+
+    @Test(dependsOnMethods = "testLookup")
+    public void testInsertSame() {
+        incMoore.insert(W_1, W_1_O);
+    }
+
+    @Test(expectedExceptions = ConflictException.class, dependsOnMethods = "testLookup")
+    public void testConflict() {
+        incMoore.insert(W_1, W_3_O);
+    }
+
+    @Test(expectedExceptions = ConflictException.class, dependsOnMethods = "testLookup")
+    public void testInitialConflict() {
+        incMoore.insert(Word.epsilon(), Word.fromLetter('x'));
+    }
+
+    @Test(dependsOnMethods = "testLookup")
+    public void testFindSeparatingWord() {
+        CompactMoore<Character, Character> testMoore = new CompactMoore<>(TEST_ALPHABET);
+
+        int s0 = testMoore.addInitialState('o');
+        int s1 = testMoore.addState('x');
+        int s2 = testMoore.addState('u');
+        int s3 = testMoore.addState('y');
+        int s4 = testMoore.addState('z');
+        int s5 = testMoore.addState('w');
+
+        testMoore.addTransition(s0, 'a', s1, null);
+        testMoore.addTransition(s0, 'b', s2, null);
+        testMoore.addTransition(s1, 'b', s3, null);
+        testMoore.addTransition(s3, 'c', s4, null);
+        testMoore.addTransition(s1, 'c', s5, null);
+
+        Word<Character> sepWord;
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, true);
+        Assert.assertNull(sepWord);
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, false);
+        Assert.assertEquals(sepWord, Word.fromString("acb"));
+
+        int s6 = testMoore.addState('u');
+        testMoore.addTransition(s5, 'b', s6, null);
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, true);
+        Assert.assertNull(sepWord);
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, false);
+        Assert.assertNull(sepWord);
+
+        testMoore.setStateOutput(s6, 'w');
+
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, true);
+        Assert.assertEquals(sepWord, Word.fromString("acb"));
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, false);
+        Assert.assertEquals(sepWord, Word.fromString("acb"));
+
+        testMoore.setStateOutput(s0, 'x');
+
+        sepWord = incMoore.findSeparatingWord(testMoore, TEST_ALPHABET, true);
+        Assert.assertEquals(sepWord, Word.epsilon());
+    }
+
+    @Test(dependsOnMethods = "testLookup")
+    public void testVisualization() throws InvocationTargetException, InterruptedException {
+        if (JVMUtil.getCanonicalSpecVersion() > 8) {
+            throw new SkipException("The headless AWT environment currently only works with Java 8 and below");
+        }
+
+        // invokeAndWait so that TestNG doesn't kill our GUI thread that we want to check.
+        SwingUtilities.invokeAndWait(() -> Visualization.visualize(incMoore.asGraph(), false));
+    }
+
+    @Test(dependsOnMethods = "testLookup")
+    public void testTSView() {
+        final MooreTransitionSystem<?, Character, ?, Character> tsView = incMoore.asTransitionSystem();
+        final WordBuilder<Character> wb = new WordBuilder<>();
+
+        tsView.trace(W_1, wb);
+        Assert.assertEquals(wb.toWord(), W_1_O);
+        wb.clear();
+
+        tsView.trace(W_2, wb);
+        Assert.assertEquals(wb.toWord(), W_2_O);
+        wb.clear();
+
+        tsView.trace(W_3, wb);
+        Assert.assertEquals(wb.toWord(), W_3_O);
+    }
+
+    @Test
+    public void testCounterexampleOfLengthOne() {
+        final IncrementalMooreBuilder<Character, Character> incMoore = createIncrementalMooreBuilder(TEST_ALPHABET);
+        incMoore.insert(Word.fromCharSequence("a"), Word.fromCharSequence("ox"));
+
+        final CompactMoore<Character, Character> moore = new CompactMoore<>(TEST_ALPHABET);
+        final Integer q0 = moore.addInitialState('o');
+        final Integer q1 = moore.addState('y');
+
+        moore.addTransition(q0, 'a', q1, null);
+
+        final Word<Character> ce = incMoore.findSeparatingWord(moore, TEST_ALPHABET, false);
+        Assert.assertEquals(ce, Word.fromLetter('a'));
+    }
+
+    @Test(dependsOnMethods = "testLookup")
+    public void testNewInputSymbol() {
+        final GrowingAlphabet<Character> alphabet = new GrowingMapAlphabet<>(TEST_ALPHABET);
+        final IncrementalMooreBuilder<Character, Character> growableBuilder = createIncrementalMooreBuilder(alphabet);
+
+        growableBuilder.addAlphabetSymbol('d');
+        growableBuilder.addAlphabetSymbol('d');
+
+        final Word<Character> input1 = Word.fromCharSequence("dcba");
+        final Word<Character> output1 = Word.fromCharSequence("01234");
+
+        growableBuilder.insert(input1, output1);
+
+        Assert.assertTrue(growableBuilder.hasDefinitiveInformation(input1));
+        Assert.assertEquals(growableBuilder.lookup(input1), output1);
+
+        final Word<Character> input2 = Word.fromCharSequence("dddd");
+
+        Assert.assertFalse(growableBuilder.hasDefinitiveInformation(input2));
+        Assert.assertEquals(growableBuilder.lookup(input2), Word.fromCharSequence("01"));
+    }
+
+    @Test
+    public void testRandomMachine() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+        final CompactMoore<Integer, Character> moore = RandomAutomata.randomDeterministic(random,
+                                                                                         50,
+                                                                                         alphabet,
+                                                                                         Arrays.asList('x', 'y', 'z'),
+                                                                                         Collections.singleton(null),
+                                                                                         new CompactMoore<>(alphabet));
+        final IncrementalMooreBuilder<Integer, Character> cache = createIncrementalMooreBuilder(alphabet);
+        final WordBuilder<Integer> wb = new WordBuilder<>();
+
+        for (int i = 0; i < 500; i++) {
+            wb.clear();
+            final int length = random.nextInt(15);
+            for (int j = 0; j < length; j++) {
+                wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+            }
+            final Word<Integer> input = wb.toWord();
+            cache.insert(input, moore.computeOutput(input));
+        }
+
+        Assert.assertNull(cache.findSeparatingWord(moore, alphabet, false));
+
+        for (int i = 0; i < 200; i++) {
+            final Word<Integer> input = Word.fromSymbols(random.nextInt(4), random.nextInt(4), random.nextInt(4));
+            if (cache.hasDefinitiveInformation(input)) {
+                Assert.assertEquals(cache.lookup(input), moore.computeOutput(input));
+            }
+        }
+    }
+
+}
@@ -75,6 +75,45 @@ public final class ADS {
         }
     }
 
+    /**
+     * Compute an adaptive distinguishing sequence for the given automaton and the given set of states. In contrast to
+     * {@link #compute(MealyMachine, Alphabet, Set)}, ADSs for the complete set of states are computed by the
+     * integer-based (and optionally parallel) variant {@link LeeYannakakis#compute(MealyMachine, Alphabet, boolean)}.
+     *
+     * @param automaton
+     *         the automaton for which an ADS should be computed
+     * @param input
+     *         the input alphabet of the automaton
+     * @param states
+     *         the set of states which should be distinguished by the computed ADS
+     * @param parallel
+     *         whether the computation of the split tree should be parallelized
+     * @param <S>
+     *         (hypothesis) state type
+     * @param <I>
+     *         input alphabet type
+     * @param <O>
+     *         output alphabet type
+     *
+     * @return {@code Optional.empty()} if there exists no ADS that distinguishes the given states, a valid ADS
+     * otherwise.
+     */
+    public static <S, I, O> Optional<ADSNode<S, I, O>> compute(final MealyMachine<S, I, ?, O> automaton,
+                                                               final Alphabet<I> input,
+                                                               final Set<S> states,
+                                                               final boolean parallel) {
+
+        if (states.size() > 2 && states.size() == automaton.getStates().size()) {
+            final LYResult<S, I, O> result = LeeYannakakis.compute(automaton, input, parallel);
+            if (result.isPresent()) {
+                return Optional.of(result.get());
+            }
+            return Optional.empty();
+        }
+
+        return compute(automaton, input, states);
+    }
+
     /**
      * See {@link #compute(MealyMachine, Alphabet, Set)}. Internal version that uses a {@link SplitTree} for state
      * tracking.
@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -265,6 +266,58 @@ public final class BacktrackingSearch {
         return Optional.of(constructADS(automaton, initialMapping, searchState.get()));
     }
 
+    /**
+     * Computes an optimal (dependant on the passed optimization function) ADS like {@link #computeOptimal(MealyMachine,
+     * Alphabet, Set, CostAggregator)}, but operates on the integer representation of the automaton and (optionally)
+     * explores the candidate input symbols of the upper levels of the search tree in parallel. The search may be
+     * bounded in time: if the given timeout expires (or the calling thread is interrupted) before the search has
+     * finished, the best ADS that has been completed until then is returned. In this case the returned ADS is valid,
+     * but not necessarily optimal.
+     *
+     * @param automaton
+     *         The automaton for which an ADS should be computed
+     * @param input
+     *         the input alphabet of the automaton
+     * @param states
+     *         the set of states which should be distinguished by the computed ADS
+     * @param costAggregator
+     *         the optimization function by which solutions should be pruned
+     * @param parallel
+     *         whether the search should be parallelized (using the common fork/join pool)
+     * @param timeout
+     *         the maximum amount of time to spend on the search
+     * @param unit
+     *         the unit of the {@code timeout} parameter
+     * @param <S>
+     *         (hypothesis) state type
+     * @param <I>
+     *         input alphabet type
+     * @param <O>
+     *         output alphabet type
+     *
+     * @return {@code Optional.empty()} if there exists no ADS that distinguishes the given states or no ADS could be
+     * completed in time, a valid ADS otherwise.
+     */
+    public static <S, I, O> Optional<ADSNode<S, I, O>> computeOptimal(final MealyMachine<S, I, ?, O> automaton,
+                                                                      final Alphabet<I> input,
+                                                                      final Set<S> states,
+                                                                      final CostAggregator costAggregator,
+                                                                      final boolean parallel,
+                                                                      final long timeout,
+                                                                      final TimeUnit unit) {
+
+        if (states.size() == 1) {
+            return ADS.compute(automaton, input, states);
+        }
+
+        final long now = System.nanoTime();
+        final long nanos = Math.max(unit.toNanos(timeout), 0);
+        // guard against overflows of the deadline for (practically) unbounded timeouts
+        final long deadline = nanos > Long.MAX_VALUE / 2 ? now + Long.MAX_VALUE / 2 : now + nanos;
+
+        return ParallelBacktrackingSearch.computeOptimal(automaton, input, states, costAggregator, parallel, deadline);
+    }
+
     private static <S, I, T, O> Optional<SearchState<S, I, O>> exploreSearchSpace(final MealyMachine<S, I, T, O> automaton,
                                                                                   final Alphabet<I> alphabet,
                                                                                   final Set<S> targets,
@@ -0,0 +1,93 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.ads;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.words.Alphabet;
+
+/**
+ * An integer representation of the transitions of a (complete) {@link MealyMachine}, used by the integer-based ADS
+ * computations. Successors and outputs are stored in flat arrays indexed by {@code stateId * numInputs + inputIdx},
+ * where outputs are represented by the index of their first occurrence.
+ *
+ * @param <S>
+ *         (hypothesis) state type
+ * @param <I>
+ *         input alphabet type
+ * @param <O>
+ *         output alphabet type
+ */
+final class IntMealyTables<S, I, O> {
+
+    final StateIDs<S> stateIds;
+    final Alphabet<I> alphabet;
+    final int numStates;
+    final int numInputs;
+    final int[] successors;
+    final int[] outputs;
+    final List<O> outputSymbols;
+
+    /**
+     * Constructor.
+     *
+     * @throws IllegalArgumentException
+     *         if the given automaton is partial
+     */
+    <T> IntMealyTables(MealyMachine<S, I, T, O> automaton, Alphabet<I> alphabet) {
+        this.stateIds = automaton.stateIDs();
+        this.alphabet = alphabet;
+        this.numStates = automaton.size();
+        this.numInputs = alphabet.size();
+        this.successors = new int[numStates * numInputs];
+        this.outputs = new int[numStates * numInputs];
+        this.outputSymbols = new ArrayList<>();
+
+        final Map<O, Integer> outputIds = new HashMap<>();
+        final List<I> symbols = new ArrayList<>(alphabet);
+
+        for (int s = 0; s < numStates; s++) {
+            final S state = stateIds.getState(s);
+            for (int i = 0; i < numInputs; i++) {
+                final T trans = automaton.getTransition(state, symbols.get(i));
+
+                if (trans == null) {
+                    throw new IllegalArgumentException("Partial automata are not supported");
+                }
+
+                final int idx = s * numInputs + i;
+                successors[idx] = stateIds.getStateId(automaton.getSuccessor(trans));
+                outputs[idx] = outputIds.computeIfAbsent(automaton.getTransitionOutput(trans), o -> {
+                    outputSymbols.add(o);
+                    return outputSymbols.size() - 1;
+                });
+            }
+        }
+    }
+
+    int getSuccessor(int state, int input) {
+        return successors[state * numInputs + input];
+    }
+
+    int getOutput(int state, int input) {
+        return outputs[state * numInputs + input];
+    }
+}
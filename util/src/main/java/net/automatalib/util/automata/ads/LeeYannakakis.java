@@ -90,6 +90,37 @@ public final class LeeYannakakis {
         return new LYResult<>(str.getIndistinguishableStates());
     }
 
+    /**
+     * Computes an ADS using an integer-based implementation of the algorithm of Lee and Yannakakis. The blocks of the
+     * split tree are represented by arrays of state IDs and, if requested, the candidate inputs for all blocks of
+     * maximal cardinality are evaluated (and the blocks refined) in parallel.
+     *
+     * @param automaton
+     *         The automaton for which an ADS should be computed
+     * @param input
+     *         the input alphabet of the automaton
+     * @param parallel
+     *         whether the blocks of the split tree should be processed in parallel (using the common fork/join pool or
+     *         the pool of the calling task)
+     * @param <S>
+     *         (hypothesis) state type
+     * @param <I>
+     *         input alphabet type
+     * @param <O>
+     *         output alphabet type
+     *
+     * @return A {@link LYResult} containing an adaptive distinguishing sequence (if existent) and a possible set of
+     * indistinguishable states.
+     *
+     * @throws IllegalArgumentException
+     *         if the automaton is partial
+     */
+    public static <S, I, O> LYResult<S, I, O> compute(final MealyMachine<S, I, ?, O> automaton,
+                                                      final Alphabet<I> input,
+                                                      final boolean parallel) {
+        return ParallelLeeYannakakis.compute(automaton, input, parallel);
+    }
+
     private static <S, I, O> SplitTreeResult<S, I, O> computeSplitTree(final MealyMachine<S, I, ?, O> automaton,
                                                                        final Alphabet<I> input) {
 
@@ -0,0 +1,528 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.ads;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.graphs.ads.ADSNode;
+import net.automatalib.graphs.ads.impl.ADSLeafNode;
+import net.automatalib.graphs.ads.impl.ADSSymbolNode;
+import net.automatalib.util.automata.ads.BacktrackingSearch.CostAggregator;
+import net.automatalib.words.Alphabet;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An integer-based, optionally parallel implementation of the optimal ADS search of {@link
+ * BacktrackingSearch#computeOptimal(MealyMachine, Alphabet, Set, CostAggregator)}.
+ * <p>
+ * Sets of (current) states are represented by sorted arrays of state IDs and the (optimal) results for these sets are
+ * memoized in a concurrent map that is shared between all branches of the search. The candidate input symbols of the
+ * upper levels of the search tree are evaluated in parallel via fork/join tasks, which share the best costs found so
+ * far for pruning. The search can be bounded by a deadline: once it has passed (or the calling thread has been
+ * interrupted), the search is aborted and the best ADS that has been completed so far is returned.
+ * <p>
+ * In contrast to the original search, results that have been computed under the restriction of a (non-splitting)
+ * trace of their ancestors are not memoized, so that the memoized results (and thus the costs of the computed ADSs)
+ * do not depend on the order of exploration.
+ *
+ * @param <S>
+ *         (hypothesis) state type
+ * @param <I>
+ *         input alphabet type
+ * @param <O>
+ *         output alphabet type
+ */
+final class ParallelBacktrackingSearch<S, I, O> {
+
+    /**
+     * The number of (upper) levels of the search tree whose candidate input symbols are evaluated in parallel.
+     */
+    private static final int PARALLEL_DEPTH = 2;
+
+    private static final Node LEAF = new Node(-1, new int[0], new Node[0], 0);
+    private static final Node NONE = new Node(-1, new int[0], new Node[0], -1);
+
+    private final IntMealyTables<S, I, O> tables;
+    private final CostAggregator costAggregator;
+    private final boolean parallel;
+    private final long deadline;
+    private final Thread caller;
+
+    private final Map<Subset, Node> cache = new ConcurrentHashMap<>();
+
+    private ParallelBacktrackingSearch(IntMealyTables<S, I, O> tables,
+                                       CostAggregator costAggregator,
+                                       boolean parallel,
+                                       long deadline) {
+        this.tables = tables;
+        this.costAggregator = costAggregator;
+        this.parallel = parallel;
+        this.deadline = deadline;
+        this.caller = Thread.currentThread();
+    }
+
+    /**
+     * Computes an optimal ADS (w.r.t. the given cost aggregator) for the given states, or the best ADS found until the
+     * given deadline.
+     *
+     * @param deadline
+     *         the deadline (in terms of {@link System#nanoTime()}) after which the search should be aborted
+     *
+     * @see BacktrackingSearch#computeOptimal(MealyMachine, Alphabet, Set, CostAggregator, boolean, long,
+     * java.util.concurrent.TimeUnit)
+     */
+    static <S, I, O> Optional<ADSNode<S, I, O>> computeOptimal(MealyMachine<S, I, ?, O> automaton,
+                                                               Alphabet<I> alphabet,
+                                                               Set<S> states,
+                                                               CostAggregator costAggregator,
+                                                               boolean parallel,
+                                                               long deadline) {
+
+        final IntMealyTables<S, I, O> tables = new IntMealyTables<>(automaton, alphabet);
+        final StateIDs<S> stateIds = tables.stateIds;
+        final ParallelBacktrackingSearch<S, I, O> search =
+                new ParallelBacktrackingSearch<>(tables, costAggregator, parallel, deadline);
+
+        final int[] targets = new int[states.size()];
+        int idx = 0;
+        for (S s : states) {
+            targets[idx++] = stateIds.getStateId(s);
+        }
+        Arrays.sort(targets);
+
+        final Node root = search.searchRoot(new Subset(targets));
+
+        if (root == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(search.constructADS(stateIds, targets, targets, root));
+    }
+
+    private @Nullable Node searchRoot(Subset targets) {
+        final Best best = new Best(Integer.MAX_VALUE);
+        final int[] minHit = {Integer.MAX_VALUE};
+
+        try {
+            if (parallel) {
+                ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+
+                    @Override
+                    protected void compute() {
+                        search(targets, null, 0, best, 0, minHit);
+                    }
+                });
+            } else {
+                search(targets, null, 0, best, 0, minHit);
+            }
+        } catch (SearchAbortedException e) {
+            // return the best result found so far
+        }
+
+        return best.toNode();
+    }
+
+    /**
+     * Computes the best result for the given set of states.
+     *
+     * @param targets
+     *         the set of states
+     * @param trace
+     *         the (non-splitting) ancestors of the current set of states
+     * @param bound
+     *         the costs which the result needs to undercut
+     * @param level
+     *         the level of the current set of states in the search tree
+     * @param minHit
+     *         an accumulator for the minimal trace index at which the search has been cut off
+     *
+     * @return the (cached) result, or {@code null} if no (sufficiently good) result exists
+     */
+    private @Nullable Node explore(Subset targets, @Nullable Trace trace, int bound, int level, int[] minHit) {
+
+        if (System.nanoTime() - deadline > 0 || caller.isInterrupted()) {
+            throw SearchAbortedException.INSTANCE;
+        }
+
+        final Node cachedValue = cache.get(targets);
+
+        if (cachedValue != null) {
+            return cachedValue == NONE ? null : cachedValue;
+        }
+
+        final int hit = trace == null ? -1 : trace.indexOf(targets);
+        if (hit >= 0) {
+            minHit[0] = Math.min(minHit[0], hit);
+            return null;
+        }
+
+        if (targets.size() == 1) {
+            cache.put(targets, LEAF);
+            return LEAF;
+        }
+
+        // any further expansion would lead to a worse result, hence stop here.
+        if (bound == 0) {
+            return null;
+        }
+
+        final int depth = trace == null ? 0 : trace.index + 1;
+        final Best best = new Best(bound);
+        final int[] ownMinHit = {Integer.MAX_VALUE};
+
+        final boolean convergingStates = search(targets, trace, depth, best, level, ownMinHit);
+
+        // cut-offs at the current set of states (or its non-splitting descendants) do not restrict the result
+        final boolean restricted = ownMinHit[0] < depth;
+        if (restricted) {
+            minHit[0] = Math.min(minHit[0], ownMinHit[0]);
+        }
+
+        if (convergingStates) {
+            cache.put(targets, NONE);
+            return null;
+        }
+
+        final Node result = best.toNode();
+
+        if (result != null && !restricted) {
+            cache.put(targets, result);
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates all input symbols for the given set of states and stores the best one in the given {@link Best}.
+     *
+     * @return {@code true} if all input symbols merge some of the given states, {@code false} otherwise
+     */
+    private boolean search(Subset targets, @Nullable Trace trace, int depth, Best best, int level, int[] minHit) {
+
+        if (parallel && level < PARALLEL_DEPTH) {
+            final List<SymbolTask> tasks = new ArrayList<>(tables.numInputs);
+            for (int i = 0; i < tables.numInputs; i++) {
+                tasks.add(new SymbolTask(targets, trace, depth, i, best, level));
+            }
+
+            ForkJoinTask.invokeAll(tasks);
+
+            boolean convergingStates = true;
+            for (SymbolTask task : tasks) {
+                convergingStates &= !task.valid;
+                minHit[0] = Math.min(minHit[0], task.minHit[0]);
+            }
+            return convergingStates;
+        }
+
+        boolean convergingStates = true;
+        for (int i = 0; i < tables.numInputs; i++) {
+            convergingStates &= !evaluate(targets, trace, depth, i, best, level, minHit);
+        }
+        return convergingStates;
+    }
+
+    /**
+     * Evaluates the given input symbol for the given set of states.
+     *
+     * @return {@code false} if the input symbol merges some of the given states, {@code true} otherwise
+     */
+    private boolean evaluate(Subset targets,
+                             @Nullable Trace trace,
+                             int depth,
+                             int input,
+                             Best best,
+                             int level,
+                             int[] minHit) {
+
+        final int[] states = targets.states;
+        final int size = states.length;
+        final long[] pairs = new long[size];
+
+        for (int j = 0; j < size; j++) {
+            final int state = states[j];
+            pairs[j] = ((long) tables.getOutput(state, input) << Integer.SIZE) | tables.getSuccessor(state, input);
+        }
+
+        Arrays.sort(pairs);
+
+        int numBlocks = 1;
+        for (int j = 1; j < size; j++) {
+            if (pairs[j] == pairs[j - 1]) {
+                // invalid input
+                return false;
+            }
+            if ((pairs[j] >>> Integer.SIZE) != (pairs[j - 1] >>> Integer.SIZE)) {
+                numBlocks++;
+            }
+        }
+
+        final int[] blockOutputs = new int[numBlocks];
+        final Subset[] blocks = new Subset[numBlocks];
+
+        int start = 0;
+        int block = 0;
+        for (int j = 1; j <= size; j++) {
+            if (j == size || (pairs[j] >>> Integer.SIZE) != (pairs[start] >>> Integer.SIZE)) {
+                final int[] blockStates = new int[j - start];
+                for (int k = start; k < j; k++) {
+                    blockStates[k - start] = (int) pairs[k];
+                }
+                blockOutputs[block] = (int) (pairs[start] >>> Integer.SIZE);
+                blocks[block++] = new Subset(blockStates);
+                start = j;
+            }
+        }
+
+        final Node[] children = new Node[numBlocks];
+        final int costs;
+
+        if (numBlocks > 1) {
+            int partitionCosts = 0;
+
+            for (int j = 0; j < numBlocks; j++) {
+                final Node child = explore(blocks[j], null, best.getCosts(), level + 1, minHit);
+
+                if (child == null) {
+                    return true;
+                }
+
+                children[j] = child;
+                partitionCosts = costAggregator.apply(partitionCosts, child.costs);
+
+                if (partitionCosts >= best.getCosts()) {
+                    return true;
+                }
+            }
+
+            costs = partitionCosts;
+        } else {
+            final Node child = explore(blocks[0], new Trace(targets, depth, trace), best.getCosts(), level + 1, minHit);
+
+            if (child == null) {
+                return true;
+            }
+
+            children[0] = child;
+            costs = child.costs;
+        }
+
+        best.offer(costs, input, blockOutputs, children);
+        return true;
+    }
+
+    private ADSNode<S, I, O> constructADS(StateIDs<S> stateIds, int[] current, int[] initial, Node node) {
+
+        if (current.length == 1) {
+            return new ADSLeafNode<>(null, stateIds.getState(initial[0]));
+        }
+
+        final I symbol = tables.alphabet.getSymbol(node.symbol);
+        final ADSNode<S, I, O> result = new ADSSymbolNode<>(null, symbol);
+
+        for (int b = 0; b < node.outputs.length; b++) {
+            final int output = node.outputs[b];
+
+            int blockSize = 0;
+            for (int s : current) {
+                if (tables.getOutput(s, node.symbol) == output) {
+                    blockSize++;
+                }
+            }
+
+            final int[] nextCurrent = new int[blockSize];
+            final int[] nextInitial = new int[blockSize];
+            int j = 0;
+            for (int k = 0; k < current.length; k++) {
+                if (tables.getOutput(current[k], node.symbol) == output) {
+                    nextCurrent[j] = tables.getSuccessor(current[k], node.symbol);
+                    nextInitial[j] = initial[k];
+                    j++;
+                }
+            }
+
+            final ADSNode<S, I, O> successor = constructADS(stateIds, nextCurrent, nextInitial, node.children[b]);
+
+            result.getChildren().put(tables.outputSymbols.get(output), successor);
+            successor.setParent(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * A task that evaluates a single input symbol.
+     */
+    private final class SymbolTask extends RecursiveAction {
+
+        private final Subset targets;
+        private final @Nullable Trace trace;
+        private final int depth;
+        private final int input;
+        private final Best best;
+        private final int level;
+
+        private final int[] minHit = {Integer.MAX_VALUE};
+        private boolean valid;
+
+        SymbolTask(Subset targets, @Nullable Trace trace, int depth, int input, Best best, int level) {
+            this.targets = targets;
+            this.trace = trace;
+            this.depth = depth;
+            this.input = input;
+            this.best = best;
+            this.level = level;
+        }
+
+        @Override
+        protected void compute() {
+            valid = evaluate(targets, trace, depth, input, best, level, minHit);
+        }
+    }
+
+    /**
+     * A (sorted) set of state IDs.
+     */
+    private static final class Subset {
+
+        private final int[] states;
+        private final int hash;
+
+        Subset(int[] states) {
+            this.states = states;
+            this.hash = Arrays.hashCode(states);
+        }
+
+        int size() {
+            return states.length;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Subset)) {
+                return false;
+            }
+            final Subset that = (Subset) o;
+            return hash == that.hash && Arrays.equals(states, that.states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * An immutable (persistent) list of the non-splitting ancestors of a set of states.
+     */
+    private static final class Trace {
+
+        private final Subset subset;
+        private final int index;
+        private final @Nullable Trace next;
+
+        Trace(Subset subset, int index, @Nullable Trace next) {
+            this.subset = subset;
+            this.index = index;
+            this.next = next;
+        }
+
+        int indexOf(Subset s) {
+            for (Trace t = this; t != null; t = t.next) {
+                if (t.subset.equals(s)) {
+                    return t.index;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * A result of the search, i.e. the best input symbol for a set of states and the results of its successor sets.
+     */
+    private static final class Node {
+
+        private final int symbol;
+        private final int[] outputs;
+        private final Node[] children;
+        private final int costs;
+
+        Node(int symbol, int[] outputs, Node[] children, int costs) {
+            this.symbol = symbol;
+            this.outputs = outputs;
+            this.children = children;
+            this.costs = costs;
+        }
+    }
+
+    /**
+     * The best input symbol found so far for a set of states, which may be updated concurrently.
+     */
+    private static final class Best {
+
+        private volatile int costs;
+        private int symbol = -1;
+        private int[] outputs;
+        private Node @Nullable [] children;
+
+        Best(int costs) {
+            this.costs = costs;
+        }
+
+        int getCosts() {
+            return costs;
+        }
+
+        synchronized @Nullable Node toNode() {
+            return children == null ? null : new Node(symbol, outputs, children, costs + 1);
+        }
+
+        synchronized void offer(int costs, int symbol, int[] outputs, Node[] children) {
+            // prefer smaller input symbols for equal costs, to keep the choice stable
+            if (costs < this.costs || (costs == this.costs && this.children != null && symbol < this.symbol)) {
+                this.costs = costs;
+                this.symbol = symbol;
+                this.outputs = outputs;
+                this.children = children;
+            }
+        }
+    }
+
+    /**
+     * Signals that the search has exceeded its deadline or has been cancelled.
+     */
+    private static final class SearchAbortedException extends RuntimeException {
+
+        private static final SearchAbortedException INSTANCE = new SearchAbortedException();
+
+        private SearchAbortedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,546 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.ads;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.commons.util.Pair;
+import net.automatalib.graphs.ads.ADSNode;
+import net.automatalib.graphs.ads.impl.ADSLeafNode;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An integer-based, optionally parallel implementation of the algorithm of {@link LeeYannakakis}.
+ * <p>
+ * The blocks of the split tree are represented by sorted arrays of state IDs (see {@link IntMealyTables}). In each
+ * iteration, the (independent) classification of the blocks of maximal cardinality as well as their subsequent
+ * refinement can be performed in parallel. The implication graph of the c-valid blocks is resolved by a single
+ * (sequential) backwards breadth-first search from all a- and b-valid blocks.
+ *
+ * @param <S>
+ *         (hypothesis) state type
+ * @param <I>
+ *         input alphabet type
+ * @param <O>
+ *         output alphabet type
+ */
+final class ParallelLeeYannakakis<S, I, O> {
+
+    private final IntMealyTables<S, I, O> tables;
+    private final MealyMachine<S, I, ?, O> automaton;
+    private final boolean parallel;
+
+    private ParallelLeeYannakakis(MealyMachine<S, I, ?, O> automaton, Alphabet<I> alphabet, boolean parallel) {
+        this.tables = new IntMealyTables<>(automaton, alphabet);
+        this.automaton = automaton;
+        this.parallel = parallel;
+    }
+
+    /**
+     * See {@link LeeYannakakis#compute(MealyMachine, Alphabet, boolean)}.
+     */
+    static <S, I, O> LYResult<S, I, O> compute(MealyMachine<S, I, ?, O> automaton,
+                                               Alphabet<I> alphabet,
+                                               boolean parallel) {
+
+        if (automaton.size() == 0) {
+            return new LYResult<>();
+        }
+
+        return new ParallelLeeYannakakis<>(automaton, alphabet, parallel).compute();
+    }
+
+    private LYResult<S, I, O> compute() {
+
+        final int numStates = tables.numStates;
+        final int[] allStates = new int[numStates];
+        for (int i = 0; i < numStates; i++) {
+            allStates[i] = i;
+        }
+
+        final Node root = new Node(allStates, null);
+        List<Node> leaves = new ArrayList<>();
+        leaves.add(root);
+
+        final int[] partition = new int[numStates];
+        final Node[] leafOf = new Node[numStates];
+
+        while (true) {
+
+            int maxCardinality = 0;
+            for (int l = 0; l < leaves.size(); l++) {
+                final Node leaf = leaves.get(l);
+                maxCardinality = Math.max(maxCardinality, leaf.block.length);
+                for (int s : leaf.block) {
+                    partition[s] = l;
+                    leafOf[s] = leaf;
+                }
+            }
+
+            if (maxCardinality <= 1) {
+                break;
+            }
+
+            final List<Node> r = new ArrayList<>();
+            for (Node leaf : leaves) {
+                if (leaf.block.length == maxCardinality) {
+                    r.add(leaf);
+                }
+            }
+
+            final Classification[] classifications = new Classification[r.size()];
+            stream(r.size()).forEach(b -> classifications[b] = classify(r.get(b), partition));
+
+            resolveCValidity(leaves.size(), classifications, partition);
+
+            final Set<S> indistinguishableStates = new HashSet<>();
+            for (Classification c : classifications) {
+                if (c.validity == Validity.INVALID) {
+                    for (int s : c.node.block) {
+                        indistinguishableStates.add(tables.stateIds.getState(s));
+                    }
+                }
+            }
+
+            if (!indistinguishableStates.isEmpty()) {
+                return new LYResult<>(indistinguishableStates);
+            }
+
+            // c-valid blocks refer to the refinements of a- and b-valid blocks, hence refine them afterwards
+            stream(classifications.length).filter(b -> classifications[b].validity != Validity.C_VALID)
+                                          .forEach(b -> refine(classifications[b], leafOf));
+            stream(classifications.length).filter(b -> classifications[b].validity == Validity.C_VALID)
+                                          .forEach(b -> refine(classifications[b], leafOf));
+
+            final List<Node> nextLeaves = new ArrayList<>(leaves.size() * 2);
+            for (Node leaf : leaves) {
+                if (leaf.children == null) {
+                    nextLeaves.add(leaf);
+                } else {
+                    nextLeaves.addAll(Arrays.asList(leaf.children));
+                }
+            }
+            leaves = nextLeaves;
+        }
+
+        final int[] initial = allStates.clone();
+        return new LYResult<>(extractADS(allStates, initial, leafOf, null));
+    }
+
+    private IntStream stream(int size) {
+        final IntStream stream = IntStream.range(0, size);
+        return parallel ? stream.parallel() : stream;
+    }
+
+    /**
+     * Determines an a-valid or b-valid input for the given block, or collects the inputs which may make the block
+     * c-valid.
+     */
+    private Classification classify(Node node, int[] partition) {
+
+        final int numInputs = tables.numInputs;
+        final int[] block = node.block;
+        final boolean[] valid = new boolean[numInputs];
+        final long[] table = new long[Integer.highestOneBit(block.length) << 2];
+
+        // a-valid
+        for (int i = 0; i < numInputs; i++) {
+            valid[i] = isValidInput(block, i, table);
+
+            if (valid[i]) {
+                final int output = tables.getOutput(block[0], i);
+                for (int j = 1; j < block.length; j++) {
+                    if (tables.getOutput(block[j], i) != output) {
+                        return new Classification(node, Validity.A_VALID, i);
+                    }
+                }
+            }
+        }
+
+        // b-valid
+        for (int i = 0; i < numInputs; i++) {
+            if (valid[i]) {
+                final int succPartition = partition[tables.getSuccessor(block[0], i)];
+                for (int j = 1; j < block.length; j++) {
+                    if (partition[tables.getSuccessor(block[j], i)] != succPartition) {
+                        return new Classification(node, Validity.B_VALID, i);
+                    }
+                }
+            }
+        }
+
+        // c-valid candidates, which are resolved once all blocks have been classified
+        final int[] candidates = new int[numInputs];
+        final int ownPartition = partition[block[0]];
+        int numCandidates = 0;
+        for (int i = 0; i < numInputs; i++) {
+            if (valid[i] && partition[tables.getSuccessor(block[0], i)] != ownPartition) {
+                candidates[numCandidates++] = i;
+            }
+        }
+
+        final Classification result = new Classification(node, Validity.INVALID, -1);
+        result.cCandidates = Arrays.copyOf(candidates, numCandidates);
+        return result;
+    }
+
+    /**
+     * Checks whether the given input is valid for the given block, i.e. whether no two states of the block produce the
+     * same output and reach the same successor. The (output, successor) pairs are inserted into the given open-addressing
+     * hash table (whose size is a power of two larger than the block) so that collisions are detected early.
+     */
+    private boolean isValidInput(int[] block, int input, long[] table) {
+
+        Arrays.fill(table, -1);
+        final int mask = table.length - 1;
+
+        for (int s : block) {
+            final long key = ((long) tables.getOutput(s, input) << Integer.SIZE) | tables.getSuccessor(s, input);
+            int idx = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+
+            while (table[idx] != -1) {
+                if (table[idx] == key) {
+                    return false;
+                }
+                idx = (idx + 1) & mask;
+            }
+
+            table[idx] = key;
+        }
+
+        return true;
+    }
+
+    /**
+     * Marks all blocks as c-valid that (transitively) lead to an a-valid or b-valid block in the implication graph and
+     * determines the shortest such input word.
+     */
+    private void resolveCValidity(int numLeaves, Classification[] classifications, int[] partition) {
+
+        // reverse implication graph (in adjacency list form) over the indices of the partition
+        final int[] classificationOf = new int[numLeaves];
+        Arrays.fill(classificationOf, -1);
+        final int[] degree = new int[numLeaves + 1];
+
+        for (int b = 0; b < classifications.length; b++) {
+            final Classification c = classifications[b];
+            final int p = partition[c.node.block[0]];
+            classificationOf[p] = b;
+
+            if (c.cCandidates != null) {
+                for (int i : c.cCandidates) {
+                    degree[partition[tables.getSuccessor(c.node.block[0], i)] + 1]++;
+                }
+            }
+        }
+
+        for (int p = 0; p < numLeaves; p++) {
+            degree[p + 1] += degree[p];
+        }
+
+        final int[] sources = new int[degree[numLeaves]];
+        final int[] inputs = new int[degree[numLeaves]];
+        final int[] fill = Arrays.copyOf(degree, numLeaves);
+
+        for (final Classification c : classifications) {
+            if (c.cCandidates != null) {
+                final int p = partition[c.node.block[0]];
+                for (int i : c.cCandidates) {
+                    final int q = partition[tables.getSuccessor(c.node.block[0], i)];
+                    sources[fill[q]] = p;
+                    inputs[fill[q]++] = i;
+                }
+            }
+        }
+
+        // breadth-first search from all a-valid and b-valid blocks
+        final int[] queue = new int[numLeaves];
+        int head = 0;
+        int tail = 0;
+
+        for (final Classification c : classifications) {
+            if (c.validity == Validity.A_VALID || c.validity == Validity.B_VALID) {
+                queue[tail++] = partition[c.node.block[0]];
+            }
+        }
+
+        while (head < tail) {
+            final int q = queue[head++];
+            final Classification target = classifications[classificationOf[q]];
+
+            for (int e = degree[q]; e < degree[q + 1]; e++) {
+                final int p = sources[e];
+                final Classification c = classifications[classificationOf[p]];
+
+                if (c.validity == Validity.INVALID) {
+                    c.validity = Validity.C_VALID;
+                    c.input = inputs[e];
+                    c.target = target;
+                    queue[tail++] = p;
+                }
+            }
+        }
+    }
+
+    private void refine(Classification classification, Node[] leafOf) {
+
+        final Node node = classification.node;
+        final int[] block = node.block;
+        final int input = classification.input;
+
+        if (classification.validity == Validity.A_VALID) {
+            final long[] pairs = new long[block.length];
+            final int[] mapping = new int[block.length];
+
+            for (int j = 0; j < block.length; j++) {
+                pairs[j] = ((long) tables.getOutput(block[j], input) << Integer.SIZE) | block[j];
+                mapping[j] = tables.getSuccessor(block[j], input);
+            }
+
+            node.sequence = new int[] {input};
+            node.mapping = mapping;
+            split(node, pairs, null);
+            return;
+        }
+
+        // b-valid blocks (and chains of c-valid blocks, which lead to an a-valid or b-valid block) continue with the
+        // sequence of the (lowest) node that splits their successors
+        final boolean bValid = classification.validity == Validity.B_VALID;
+        int prefixLength = bValid ? 1 : 0;
+        for (Classification c = classification; c.validity == Validity.C_VALID; c = c.target) {
+            prefixLength++;
+        }
+
+        final int[] prefix = new int[prefixLength];
+        if (bValid) {
+            prefix[0] = input;
+        } else {
+            int k = 0;
+            for (Classification c = classification; c.validity == Validity.C_VALID; c = c.target) {
+                prefix[k++] = c.input;
+            }
+        }
+
+        final int[] successors = new int[block.length];
+        for (int j = 0; j < block.length; j++) {
+            int s = block[j];
+            for (int i : prefix) {
+                s = tables.getSuccessor(s, i);
+            }
+            successors[j] = s;
+        }
+
+        final Node v = findLowestSubsetNode(successors, leafOf);
+        assert v.sequence != null && v.mapping != null && v.children != null;
+
+        final int[] sequence = Arrays.copyOf(prefix, prefixLength + v.sequence.length);
+        System.arraycopy(v.sequence, 0, sequence, prefixLength, v.sequence.length);
+
+        final long[] pairs = new long[block.length];
+        final int[] mapping = new int[block.length];
+
+        for (int j = 0; j < block.length; j++) {
+            final int succ = successors[j];
+            pairs[j] = ((long) v.findChild(succ) << Integer.SIZE) | block[j];
+            mapping[j] = v.mapping[Arrays.binarySearch(v.block, succ)];
+        }
+
+        node.sequence = sequence;
+        node.mapping = mapping;
+        split(node, pairs, v.childOutputs);
+    }
+
+    /**
+     * Splits the block of the given node according to the given (sorted) pairs of (child key, state).
+     */
+    private static void split(Node node, long[] pairs, int @Nullable [] keyOutputs) {
+
+        Arrays.sort(pairs);
+
+        int numChildren = 1;
+        for (int j = 1; j < pairs.length; j++) {
+            if ((pairs[j] >>> Integer.SIZE) != (pairs[j - 1] >>> Integer.SIZE)) {
+                numChildren++;
+            }
+        }
+
+        final Node[] children = new Node[numChildren];
+        final int[] childOutputs = new int[numChildren];
+
+        int start = 0;
+        int child = 0;
+        for (int j = 1; j <= pairs.length; j++) {
+            if (j == pairs.length || (pairs[j] >>> Integer.SIZE) != (pairs[start] >>> Integer.SIZE)) {
+                final int[] childBlock = new int[j - start];
+                for (int k = start; k < j; k++) {
+                    childBlock[k - start] = (int) pairs[k];
+                }
+                final int key = (int) (pairs[start] >>> Integer.SIZE);
+                childOutputs[child] = keyOutputs == null ? key : keyOutputs[key];
+                children[child++] = new Node(childBlock, node);
+                start = j;
+            }
+        }
+
+        node.childOutputs = childOutputs;
+        node.children = children;
+    }
+
+    /**
+     * Returns the lowest node of the split tree whose block contains all the given states.
+     */
+    private static Node findLowestSubsetNode(int[] states, Node[] leafOf) {
+
+        Node result = leafOf[states[0]];
+
+        for (int j = 1; j < states.length && result.parent != null; j++) {
+            Node other = leafOf[states[j]];
+
+            while (other.depth > result.depth) {
+                other = other.parent;
+            }
+            while (result.depth > other.depth) {
+                result = result.parent;
+            }
+            while (result != other) {
+                result = result.parent;
+                other = other.parent;
+            }
+        }
+
+        return result;
+    }
+
+    private ADSNode<S, I, O> extractADS(int[] current,
+                                        int[] initial,
+                                        Node[] leafOf,
+                                        @Nullable ADSNode<S, I, O> predecessor) {
+
+        if (current.length == 1) {
+            return new ADSLeafNode<>(predecessor, tables.stateIds.getState(initial[0]));
+        }
+
+        final Node u = findLowestSubsetNode(current, leafOf);
+        assert u.sequence != null && u.mapping != null && u.children != null;
+
+        final WordBuilder<I> wb = new WordBuilder<>(u.sequence.length);
+        for (int i : u.sequence) {
+            wb.append(tables.alphabet.getSymbol(i));
+        }
+        final Word<I> trace = wb.toWord();
+
+        final Pair<ADSNode<S, I, O>, ADSNode<S, I, O>> ads =
+                ADSUtil.buildFromTrace(automaton, trace, tables.stateIds.getState(current[0]));
+        final ADSNode<S, I, O> head = ads.getFirst();
+        final ADSNode<S, I, O> tail = ads.getSecond();
+
+        head.setParent(predecessor);
+
+        final long[] pairs = new long[current.length];
+        for (int j = 0; j < current.length; j++) {
+            pairs[j] = ((long) u.findChild(current[j]) << Integer.SIZE) | j;
+        }
+        Arrays.sort(pairs);
+
+        int start = 0;
+        for (int j = 1; j <= pairs.length; j++) {
+            if (j == pairs.length || (pairs[j] >>> Integer.SIZE) != (pairs[start] >>> Integer.SIZE)) {
+                final int[] nextCurrent = new int[j - start];
+                final int[] nextInitial = new int[j - start];
+                for (int k = start; k < j; k++) {
+                    final int idx = (int) pairs[k];
+                    nextCurrent[k - start] = u.mapping[Arrays.binarySearch(u.block, current[idx])];
+                    nextInitial[k - start] = initial[idx];
+                }
+
+                final int child = (int) (pairs[start] >>> Integer.SIZE);
+                final O output = tables.outputSymbols.get(u.childOutputs[child]);
+                tail.getChildren().put(output, extractADS(nextCurrent, nextInitial, leafOf, tail));
+                start = j;
+            }
+        }
+
+        return head;
+    }
+
+    /**
+     * A node of the split tree.
+     */
+    private static final class Node {
+
+        private final int[] block;
+        private final @Nullable Node parent;
+        private final int depth;
+
+        private int @Nullable [] sequence;
+        private int @Nullable [] mapping;
+        private int @Nullable [] childOutputs;
+        private Node @Nullable [] children;
+
+        Node(int[] block, @Nullable Node parent) {
+            this.block = block;
+            this.parent = parent;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+
+        /**
+         * Returns the index of the child whose block contains the given state.
+         */
+        int findChild(int state) {
+            assert children != null;
+            for (int c = 0; c < children.length; c++) {
+                if (Arrays.binarySearch(children[c].block, state) >= 0) {
+                    return c;
+                }
+            }
+            throw new IllegalStateException("State is not contained in any child");
+        }
+    }
+
+    /**
+     * The classification of a block of maximal cardinality.
+     */
+    private static final class Classification {
+
+        private final Node node;
+        private Validity validity;
+        private int input;
+        private @Nullable Classification target;
+        private int @Nullable [] cCandidates;
+
+        Classification(Node node, Validity validity, int input) {
+            this.node = node;
+            this.validity = validity;
+            this.input = input;
+        }
+    }
+
+    private enum Validity {
+        A_VALID,
+        B_VALID,
+        C_VALID,
+        INVALID
+    }
+}
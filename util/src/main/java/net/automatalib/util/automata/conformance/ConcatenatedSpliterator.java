@@ -0,0 +1,111 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link Spliterator} that enumerates the elements of several (exactly sized) spliterators one after another. Splits
+ * preferably happen between the individual spliterators, such that both halves contain (nearly) the same number of
+ * elements. Once only a single spliterator remains, splits are delegated to it.
+ *
+ * @param <T>
+ *         element type
+ */
+final class ConcatenatedSpliterator<T> implements Spliterator<T> {
+
+    private final Spliterator<T>[] parts;
+    private int from;
+    private final int to;
+
+    @SuppressWarnings("unchecked")
+    ConcatenatedSpliterator(List<? extends Spliterator<T>> parts) {
+        this(parts.toArray(new Spliterator[0]), 0, parts.size());
+    }
+
+    private ConcatenatedSpliterator(Spliterator<T>[] parts, int from, int to) {
+        this.parts = parts;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (from < to) {
+            if (parts[from].tryAdvance(action)) {
+                return true;
+            }
+            from++;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        while (from < to) {
+            parts[from++].forEachRemaining(action);
+        }
+    }
+
+    @Override
+    public @Nullable Spliterator<T> trySplit() {
+        final int numParts = to - from;
+
+        if (numParts == 0) {
+            return null;
+        } else if (numParts == 1) {
+            return parts[from].trySplit();
+        }
+
+        final long half = estimateSize() / 2;
+
+        // find the first part boundary that covers at least half of the elements, but keep both halves non-empty
+        long size = parts[from].estimateSize();
+        int split = from + 1;
+        while (split < to - 1 && size < half) {
+            size += parts[split++].estimateSize();
+        }
+
+        final Spliterator<T> result = new ConcatenatedSpliterator<>(parts, from, split);
+        from = split;
+        return result;
+    }
+
+    @Override
+    public long estimateSize() {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result += parts[i].estimateSize();
+            if (result < 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int characteristics() {
+        int result = ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        for (int i = from; i < to; i++) {
+            result &= parts[i].characteristics();
+        }
+        return result;
+    }
+}
@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 
 import net.automatalib.automata.UniversalDeterministicAutomaton;
 import net.automatalib.util.automata.Automata;
@@ -109,6 +110,72 @@ public class IncrementalWMethodTestsIterator<I> implements Iterator<Word<I>> {
         return result;
     }
 
+    /**
+     * Returns a {@link Spliterator} over all test words that are currently pending, i.e. that would be returned by
+     * subsequent calls to {@link #next()} until the next {@link #update(UniversalDeterministicAutomaton) update}. The
+     * returned spliterator reports its exact size and can be split for parallel processing, e.g. via {@link
+     * java.util.stream.StreamSupport#stream(Spliterator, boolean)}. Note that the test words may be enumerated in a
+     * different order than by this iterator.
+     * <p>
+     * The pending test words are transferred to the returned spliterator, i.e. this iterator has no further elements
+     * until the next update. Since the spliterator operates on a snapshot of the current prefixes and suffixes, further
+     * updates do not affect the returned spliterator.
+     * <p>
+     * If the pending tests stem from several updates, their ranges of prefixes may overlap and are merged during the
+     * enumeration. In this case, the enumeration is replayed (without constructing the test words) until the remaining
+     * ranges are disjoint, so that the spliterator yields exactly the same tests as this iterator.
+     *
+     * @return a spliterator over all pending test words
+     */
+    public Spliterator<Word<I>> spliterator() {
+        int maxLength = maxDepth;
+        for (Item<I> item : itemQueue) {
+            maxLength = Math.max(maxLength, item.middle.length());
+        }
+
+        final BlockCollector collector = new BlockCollector(maxLength);
+        int checkedSize = -1;
+
+        while (!itemQueue.isEmpty()) {
+            // ranges only change (and become disjoint) by merging, which decreases the size of the queue
+            if (itemQueue.size() != checkedSize) {
+                checkedSize = itemQueue.size();
+                if (hasDisjointPrefixRanges()) {
+                    while (!itemQueue.isEmpty()) {
+                        collector.addRemainder(itemQueue.extractMin());
+                    }
+                    break;
+                }
+            }
+
+            final Item<I> item = itemQueue.extractMin();
+            collector.add(item);
+            final @Nullable Item<I> inc = increment(item);
+            if (inc != null) {
+                itemQueue.insert(inc);
+            }
+        }
+
+        return collector.toSpliterator();
+    }
+
+    /**
+     * Checks whether the prefix ranges of the pending items are pairwise disjoint, in which case no two items can be
+     * merged anymore.
+     */
+    private boolean hasDisjointPrefixRanges() {
+        final List<Item<I>> items = new ArrayList<>(itemQueue);
+        items.sort(Comparator.comparingInt(i -> i.minPrefix));
+
+        for (int i = 1; i < items.size(); i++) {
+            if (items.get(i - 1).maxPrefix > items.get(i).minPrefix) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private Word<I> assembleWord(Item<I> item) {
         Word<I> prefix = prefixes.get(item.prefixIdx);
         Word<I> suffix = suffixes.get(item.suffixIdx);
@@ -134,6 +201,102 @@ public class IncrementalWMethodTestsIterator<I> implements Iterator<Word<I>> {
         return item;
     }
 
+    /**
+     * Collects the (replayed) enumeration of the pending items as blocks of {@link ProductTestsSpliterator}s. Each item
+     * enumerates a contiguous range of indices of the product of its middle parts, prefixes, and suffixes, hence
+     * consecutive tests of the same item are combined into a single block.
+     */
+    private final class BlockCollector {
+
+        private final List<I> inputs;
+        private final List<Word<I>> prefixSnapshot;
+        private final List<Word<I>> suffixSnapshot;
+        private final long[] lengthOffsets;
+        private final long end;
+        private final List<Spliterator<Word<I>>> blocks;
+
+        // the current run of consecutive tests of a single item
+        private @Nullable Item<I> runItem;
+        private int runMinPrefix;
+        private int runMaxPrefix;
+        private int runMinSuffix;
+        private long runStart;
+        private long runEnd;
+
+        BlockCollector(int maxLength) {
+            this.inputs = new ArrayList<>(alphabet);
+            this.prefixSnapshot = new ArrayList<>(prefixes);
+            this.suffixSnapshot = new ArrayList<>(suffixes);
+            this.lengthOffsets = ProductTestsSpliterator.lengthOffsets(inputs.size(), maxLength);
+            this.end = lengthOffsets[maxDepth + 1];
+            this.blocks = new ArrayList<>();
+        }
+
+        /**
+         * Adds the current test of the given item.
+         */
+        void add(Item<I> item) {
+            final long index = index(item);
+
+            if (item != runItem || item.minPrefix != runMinPrefix || item.maxPrefix != runMaxPrefix ||
+                item.minSuffix != runMinSuffix || index != runEnd) {
+                flush();
+                runItem = item;
+                runMinPrefix = item.minPrefix;
+                runMaxPrefix = item.maxPrefix;
+                runMinSuffix = item.minSuffix;
+                runStart = index;
+                runEnd = index;
+            }
+
+            runEnd++;
+        }
+
+        /**
+         * Adds all remaining tests of the given item (including its current one).
+         */
+        void addRemainder(Item<I> item) {
+            flush();
+
+            final long rank = ProductTestsSpliterator.rank(inputs, lengthOffsets, item.middle);
+            final long endIndex = Math.multiplyExact(Math.max(end, rank + 1), blockSize(item));
+            addBlock(item.minPrefix, item.maxPrefix, item.minSuffix, index(item), endIndex);
+        }
+
+        Spliterator<Word<I>> toSpliterator() {
+            flush();
+            return new ConcatenatedSpliterator<>(blocks);
+        }
+
+        private void flush() {
+            if (runItem != null) {
+                addBlock(runMinPrefix, runMaxPrefix, runMinSuffix, runStart, runEnd);
+                runItem = null;
+            }
+        }
+
+        private void addBlock(int minPrefix, int maxPrefix, int minSuffix, long lo, long hi) {
+            blocks.add(new ProductTestsSpliterator<>(inputs,
+                                                     lengthOffsets,
+                                                     0,
+                                                     prefixSnapshot.subList(minPrefix, maxPrefix),
+                                                     suffixSnapshot.subList(minSuffix, suffixSnapshot.size()),
+                                                     lo,
+                                                     hi));
+        }
+
+        private long blockSize(Item<I> item) {
+            return (long) (item.maxPrefix - item.minPrefix) * (suffixSnapshot.size() - item.minSuffix);
+        }
+
+        private long index(Item<I> item) {
+            final long rank = ProductTestsSpliterator.rank(inputs, lengthOffsets, item.middle);
+            final long inBlock = (long) (item.prefixIdx - item.minPrefix) * (suffixSnapshot.size() - item.minSuffix) +
+                                 item.suffixIdx - item.minSuffix;
+            return Math.addExact(Math.multiplyExact(rank, blockSize(item)), inBlock);
+        }
+    }
+
     private static final class Item<I> {
 
         private int prefixIdx;
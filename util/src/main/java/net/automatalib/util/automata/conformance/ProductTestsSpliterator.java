@@ -0,0 +1,266 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link Spliterator} over the tests {@code prefix · middle · suffix} of a cartesian product of a range of middle
+ * parts, a list of prefixes and a list of suffixes. Middle parts are addressed by their rank in the canonical
+ * (length-lexicographical) order of all words over the given inputs (with the first symbol varying fastest, see {@link
+ * Word#canonicalNext(net.automatalib.words.Alphabet)}), so that the product space can be indexed by a single {@code
+ * long}. Splits halve the remaining index range, which gives exact sizes for both halves.
+ * <p>
+ * The tests are enumerated in middle-part major order, then by prefix, then by suffix.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+final class ProductTestsSpliterator<I> implements Spliterator<Word<I>> {
+
+    private final List<? extends I> inputs;
+    private final long[] lengthOffsets;
+    private final long middleStart;
+    private final List<Word<I>> prefixes;
+    private final List<Word<I>> suffixes;
+    private final long blockSize;
+
+    private long lo;
+    private final long hi;
+
+    private long cachedRank = -1;
+    private @Nullable Word<I> cachedMiddle;
+
+    /**
+     * Constructor.
+     *
+     * @param inputs
+     *         the input symbols from which middle parts are constructed
+     * @param lengthOffsets
+     *         the offsets of the middle parts of each length, as computed by {@link #lengthOffsets(int, int)}
+     * @param middleStart
+     *         the rank of the first middle part (inclusive)
+     * @param middleEnd
+     *         the rank of the last middle part (exclusive)
+     * @param prefixes
+     *         the prefixes of the tests
+     * @param suffixes
+     *         the suffixes of the tests
+     */
+    ProductTestsSpliterator(List<? extends I> inputs,
+                            long[] lengthOffsets,
+                            long middleStart,
+                            long middleEnd,
+                            List<Word<I>> prefixes,
+                            List<Word<I>> suffixes) {
+        this(inputs,
+             lengthOffsets,
+             middleStart,
+             prefixes,
+             suffixes,
+             0,
+             Math.multiplyExact(middleEnd - middleStart, Math.multiplyExact(prefixes.size(), (long) suffixes.size())));
+    }
+
+    /**
+     * Constructor for a range of the product space. The tests are indexed in middle-part major order, i.e. the test
+     * with index {@code i} consists of the middle part of rank {@code middleStart + i / (|prefixes| * |suffixes|)}.
+     *
+     * @param inputs
+     *         the input symbols from which middle parts are constructed
+     * @param lengthOffsets
+     *         the offsets of the middle parts of each length, as computed by {@link #lengthOffsets(int, int)}
+     * @param middleStart
+     *         the rank of the middle part of the test with index {@code 0}
+     * @param prefixes
+     *         the prefixes of the tests
+     * @param suffixes
+     *         the suffixes of the tests
+     * @param lo
+     *         the index of the first test (inclusive)
+     * @param hi
+     *         the index of the last test (exclusive)
+     */
+    ProductTestsSpliterator(List<? extends I> inputs,
+                            long[] lengthOffsets,
+                            long middleStart,
+                            List<Word<I>> prefixes,
+                            List<Word<I>> suffixes,
+                            long lo,
+                            long hi) {
+        this.inputs = inputs;
+        this.lengthOffsets = lengthOffsets;
+        this.middleStart = middleStart;
+        this.prefixes = prefixes;
+        this.suffixes = suffixes;
+        this.blockSize = (long) prefixes.size() * suffixes.size();
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    /**
+     * Computes the ranks of the first middle part of each length. The returned array contains {@code maxLength + 2}
+     * entries, where the last entry denotes the total number of middle parts of length at most {@code maxLength}.
+     *
+     * @param numInputs
+     *         the number of input symbols
+     * @param maxLength
+     *         the maximum length of the middle parts
+     *
+     * @return the offsets of the middle parts of each length
+     */
+    static long[] lengthOffsets(int numInputs, int maxLength) {
+        final long[] result = new long[maxLength + 2];
+        long count = 1;
+        for (int l = 0; l <= maxLength; l++) {
+            result[l + 1] = Math.addExact(result[l], count);
+            count = Math.multiplyExact(count, numInputs);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the rank of the given middle part in the canonical order of all words over the given inputs.
+     *
+     * @param inputs
+     *         the input symbols
+     * @param lengthOffsets
+     *         the offsets of the middle parts of each length, as computed by {@link #lengthOffsets(int, int)}
+     * @param middle
+     *         the middle part
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the rank of the given middle part
+     */
+    static <I> long rank(List<? extends I> inputs, long[] lengthOffsets, Word<I> middle) {
+        final int numInputs = inputs.size();
+        long rank = 0;
+        for (int i = middle.length() - 1; i >= 0; i--) {
+            rank = rank * numInputs + inputs.indexOf(middle.getSymbol(i));
+        }
+        return lengthOffsets[middle.length()] + rank;
+    }
+
+    /**
+     * Constructs the middle part of the given rank.
+     *
+     * @param inputs
+     *         the input symbols
+     * @param lengthOffsets
+     *         the offsets of the middle parts of each length, as computed by {@link #lengthOffsets(int, int)}
+     * @param rank
+     *         the rank of the middle part
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the middle part of the given rank
+     */
+    static <I> Word<I> unrank(List<? extends I> inputs, long[] lengthOffsets, long rank) {
+        int length = 0;
+        while (lengthOffsets[length + 1] <= rank) {
+            length++;
+        }
+        return unrank(inputs, length, rank - lengthOffsets[length]);
+    }
+
+    /**
+     * Constructs the middle part of the given length and the given rank among all words of this length.
+     *
+     * @param inputs
+     *         the input symbols
+     * @param length
+     *         the length of the middle part
+     * @param rank
+     *         the rank of the middle part among all words of the given length
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the middle part of the given length and rank
+     */
+    static <I> Word<I> unrank(List<? extends I> inputs, int length, long rank) {
+        final int numInputs = inputs.size();
+        final List<I> symbols = new ArrayList<>(length);
+        long remaining = rank;
+        for (int i = 0; i < length; i++) {
+            symbols.add(inputs.get((int) (remaining % numInputs)));
+            remaining /= numInputs;
+        }
+        return Word.fromList(symbols);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Word<I>> action) {
+        if (lo >= hi) {
+            return false;
+        }
+        action.accept(get(lo++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Word<I>> action) {
+        final long end = hi;
+        for (long i = lo; i < end; i++) {
+            action.accept(get(i));
+        }
+        lo = end;
+    }
+
+    private Word<I> get(long index) {
+        final long rank = middleStart + index / blockSize;
+        final long inBlock = index % blockSize;
+        final int suffixesSize = suffixes.size();
+
+        if (rank != cachedRank) {
+            cachedMiddle = unrank(inputs, lengthOffsets, rank);
+            cachedRank = rank;
+        }
+
+        final Word<I> prefix = prefixes.get((int) (inBlock / suffixesSize));
+        final Word<I> suffix = suffixes.get((int) (inBlock % suffixesSize));
+
+        return prefix.concat(cachedMiddle, suffix);
+    }
+
+    @Override
+    public @Nullable Spliterator<Word<I>> trySplit() {
+        final long mid = (lo + hi) >>> 1;
+        if (mid <= lo) {
+            return null;
+        }
+        final Spliterator<Word<I>> result =
+                new ProductTestsSpliterator<>(inputs, lengthOffsets, middleStart, prefixes, suffixes, lo, mid);
+        lo = mid;
+        return result;
+    }
+
+    @Override
+    public long estimateSize() {
+        return hi - lo;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,327 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.collect.Iterators;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+/**
+ * A reducer for test suites of (reset-based) conformance tests, such as the ones generated by the {@link
+ * WMethodTestsIterator} or the {@link WpMethodTestsIterator}. Executing a test more than once provides no additional
+ * information. Furthermore, if the system under test reveals an output for each input symbol (as, e.g., Mealy
+ * machines do), a test also reveals the outputs of all of its prefixes. In this <i>prefix-closed</i> setting, executing
+ * a test that is a prefix of another executed test provides no additional information either.
+ * <p>
+ * The reducer stores all scheduled tests in a compact, array-based trie over the indices of the input symbols. In its
+ * streaming mode ({@link #schedule(Word)}, {@link #filter(Iterator)}), a test is only scheduled if it is not a
+ * duplicate (or, in the prefix-closed setting, a prefix) of an already scheduled test. Tests that are prefixes of
+ * subsequently scheduled (longer) tests can only be removed if the complete test suite is known in advance, see {@link
+ * #reduce(Alphabet, Iterator)}.
+ * <p>
+ * In order to bound the memory consumption of long-running test generators, the number of nodes of the trie can be
+ * limited. Once this limit would be exceeded, the trie is cleared and the reduction starts anew, i.e. tests may only be
+ * recognized as redundant if they are subsumed by tests that have been scheduled since the last reset. This is a good
+ * fit for the W(p)-method iterators, which enumerate related tests (with the same middle part) consecutively.
+ * <p>
+ * Note: this class is not thread-safe.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class TestSuiteReducer<I> {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 64;
+
+    private final Alphabet<I> alphabet;
+    private final int alphabetSize;
+    private final boolean prefixClosed;
+    private final int maxNodes;
+
+    // children[node * alphabetSize + symbol], 0 denotes a missing child (the root is never a child)
+    private int[] children;
+    private int numNodes;
+    private final BitSet scheduled = new BitSet();
+
+    private long numTests;
+    private long numScheduledTests;
+    private long numResets;
+
+    /**
+     * Constructor for an unbounded reducer in the prefix-closed setting.
+     *
+     * @param alphabet
+     *         the input symbols of the tests
+     */
+    public TestSuiteReducer(Alphabet<I> alphabet) {
+        this(alphabet, true, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param alphabet
+     *         the input symbols of the tests
+     * @param prefixClosed
+     *         whether tests that are prefixes of scheduled tests should be considered redundant (see above)
+     * @param maxNodes
+     *         the maximum number of nodes of the trie (including its root)
+     *
+     * @throws IllegalArgumentException
+     *         if {@code maxNodes} is not positive
+     */
+    public TestSuiteReducer(Alphabet<I> alphabet, boolean prefixClosed, int maxNodes) {
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("The trie needs to contain at least one node, but " + maxNodes +
+                                               " were given");
+        }
+
+        this.alphabet = alphabet;
+        this.alphabetSize = alphabet.size();
+        this.prefixClosed = prefixClosed;
+        this.maxNodes = maxNodes;
+        this.children = new int[Math.max(1, alphabetSize) * Math.min(maxNodes, DEFAULT_INITIAL_CAPACITY)];
+        this.numNodes = 1;
+    }
+
+    /**
+     * Reduces the given test suite to its maximal tests, i.e. removes all tests that are duplicates or prefixes of other
+     * tests of the test suite (prefix-closed setting). The remaining tests are returned in the order of their (first)
+     * occurrence.
+     *
+     * @param alphabet
+     *         the input symbols of the tests
+     * @param tests
+     *         the tests of the test suite
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the maximal tests of the given test suite
+     */
+    public static <I> List<Word<I>> reduce(Alphabet<I> alphabet, Iterator<? extends Word<I>> tests) {
+        final TestSuiteReducer<I> reducer = new TestSuiteReducer<>(alphabet);
+        final List<Word<I>> candidates = new ArrayList<>();
+        final List<Integer> leaves = new ArrayList<>();
+
+        while (tests.hasNext()) {
+            final Word<I> test = tests.next();
+            final int leaf = reducer.insert(test);
+            if (leaf >= 0) {
+                candidates.add(test);
+                leaves.add(leaf);
+            }
+        }
+
+        final List<Word<I>> result = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            // a test that has been extended by a subsequent test is no longer a leaf
+            if (reducer.isLeaf(leaves.get(i))) {
+                result.add(candidates.get(i));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether the given test needs to be executed, i.e. whether it is neither a duplicate nor a prefix of an
+     * already scheduled test. If so, the test is scheduled.
+     *
+     * @param test
+     *         the test
+     *
+     * @return {@code true} if the test has been scheduled, {@code false} if the test is redundant
+     */
+    public boolean schedule(Word<I> test) {
+        numTests++;
+
+        if (numNodes + test.length() > maxNodes) {
+            if (isRedundant(test)) {
+                return false;
+            }
+
+            // only reset if the test is not contained in the current trie
+            clear();
+            numResets++;
+
+            if (1 + test.length() > maxNodes) {
+                // test does not fit into the trie at all
+                numScheduledTests++;
+                return true;
+            }
+        }
+
+        if (insert(test) >= 0) {
+            numScheduledTests++;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns a view on the given tests that only contains the tests that need to be executed, see {@link
+     * #schedule(Word)}. The tests are filtered (and scheduled) lazily, upon iteration.
+     *
+     * @param tests
+     *         the tests
+     *
+     * @return a view on the tests that need to be executed
+     */
+    public Iterator<Word<I>> filter(Iterator<Word<I>> tests) {
+        return Iterators.filter(tests, this::schedule);
+    }
+
+    /**
+     * Returns the number of tests that have been passed to {@link #schedule(Word)}.
+     *
+     * @return the number of tests
+     */
+    public long getNumTests() {
+        return numTests;
+    }
+
+    /**
+     * Returns the number of tests that have been scheduled, i.e. that need to be executed.
+     *
+     * @return the number of scheduled tests
+     */
+    public long getNumScheduledTests() {
+        return numScheduledTests;
+    }
+
+    /**
+     * Returns the number of times the trie has been cleared due to its bounded size.
+     *
+     * @return the number of resets
+     */
+    public long getNumResets() {
+        return numResets;
+    }
+
+    /**
+     * Returns the current number of nodes of the trie (including its root).
+     *
+     * @return the number of nodes of the trie
+     */
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    /**
+     * Returns the ratio of tests that have been identified as redundant, i.e. {@code 1 - (scheduled tests / tests)}.
+     *
+     * @return the reduction ratio, or {@code 0} if no tests have been passed to {@link #schedule(Word)}
+     */
+    public double getReductionRatio() {
+        if (numTests == 0) {
+            return 0;
+        }
+        return 1 - (double) numScheduledTests / numTests;
+    }
+
+    /**
+     * Clears the trie. The statistics are retained.
+     */
+    public void clear() {
+        Arrays.fill(children, 0, numNodes * alphabetSize, 0);
+        numNodes = 1;
+        scheduled.clear();
+    }
+
+    private boolean isRedundant(Word<I> test) {
+        int node = 0;
+        for (I sym : test) {
+            node = children[node * alphabetSize + alphabet.getSymbolIndex(sym)];
+            if (node == 0) {
+                return false;
+            }
+        }
+        return isCovered(node);
+    }
+
+    /**
+     * Checks whether the test of the given (existing) node is covered by the scheduled tests.
+     */
+    private boolean isCovered(int node) {
+        // in the prefix-closed setting, every node (except for the root of an empty trie) belongs to a scheduled test
+        return scheduled.get(node) || (prefixClosed && (node > 0 || numNodes > 1));
+    }
+
+    /**
+     * Inserts the given test into the trie.
+     *
+     * @return the node of the test if the test has not been covered by the trie before, {@code -1} otherwise
+     */
+    private int insert(Word<I> test) {
+        final int length = test.length();
+        int node = 0;
+        int i = 0;
+
+        // skip the existing path
+        while (i < length) {
+            final int child = children[node * alphabetSize + alphabet.getSymbolIndex(test.getSymbol(i))];
+            if (child == 0) {
+                break;
+            }
+            node = child;
+            i++;
+        }
+
+        if (i == length && isCovered(node)) {
+            return -1;
+        }
+
+        ensureCapacity(numNodes + length - i);
+
+        while (i < length) {
+            final int child = numNodes++;
+            children[node * alphabetSize + alphabet.getSymbolIndex(test.getSymbol(i))] = child;
+            node = child;
+            i++;
+        }
+
+        scheduled.set(node);
+        return node;
+    }
+
+    private boolean isLeaf(int node) {
+        final int offset = node * alphabetSize;
+        for (int i = 0; i < alphabetSize; i++) {
+            if (children[offset + i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int nodes) {
+        final long required = (long) nodes * alphabetSize;
+        if (required > children.length) {
+            final long newCapacity = Math.max(required, 2L * children.length);
+            children = Arrays.copyOf(children, Math.toIntExact(Math.min(newCapacity, Integer.MAX_VALUE - 8)));
+            if (children.length < required) {
+                throw new IllegalStateException("The trie exceeds the maximum array size");
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.util.automata.cover.Covers;
+import net.automatalib.util.automata.equivalence.CharacterizingSets;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link Spliterator} that returns the same test words as the {@link WMethodTestsIterator}, but which can be split
+ * for parallel processing, e.g. via {@link java.util.stream.StreamSupport#stream(Spliterator, boolean)}.
+ * <p>
+ * The (middle part &times; prefix &times; suffix) space of the W method is indexed by a single number, so that the
+ * spliterator reports its exact size and splits into halves of equal size. For sequential traversals, the test words
+ * are returned in the same order as the {@link WMethodTestsIterator}.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class WMethodTestsSpliterator<I> implements Spliterator<Word<I>> {
+
+    private final Spliterator<Word<I>> delegate;
+
+    /**
+     * Constructor.
+     *
+     * @param automaton
+     *         the automaton for which the testing sequences should be generated
+     * @param inputs
+     *         the input symbols that should be considered for test sequence generation
+     * @param maxDepth
+     *         the maximum number of symbols that are appended to the transition-cover part of the test sequences
+     */
+    public WMethodTestsSpliterator(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                   Collection<? extends I> inputs,
+                                   int maxDepth) {
+
+        final List<? extends I> inputList = new ArrayList<>(inputs);
+        final List<Word<I>> prefixes = Lists.newArrayList(Covers.transitionCoverIterator(automaton, inputs));
+        final List<Word<I>> suffixes = Lists.newArrayList(CharacterizingSets.characterizingSetIterator(automaton, inputs));
+
+        // Special case: List of characterizing suffixes may be empty,
+        // but in this case we still need to iterate over the prefixes!
+        final List<Word<I>> nonEmptySuffixes = suffixes.isEmpty() ? Collections.singletonList(Word.epsilon()) : suffixes;
+
+        final long[] lengthOffsets = ProductTestsSpliterator.lengthOffsets(inputList.size(), maxDepth);
+
+        this.delegate = new ProductTestsSpliterator<>(inputList,
+                                                      lengthOffsets,
+                                                      0,
+                                                      lengthOffsets[maxDepth + 1],
+                                                      prefixes,
+                                                      nonEmptySuffixes);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Word<I>> action) {
+        return delegate.tryAdvance(action);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Word<I>> action) {
+        delegate.forEachRemaining(action);
+    }
+
+    @Override
+    public @Nullable Spliterator<Word<I>> trySplit() {
+        return delegate.trySplit();
+    }
+
+    @Override
+    public long estimateSize() {
+        return delegate.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return delegate.characteristics();
+    }
+}
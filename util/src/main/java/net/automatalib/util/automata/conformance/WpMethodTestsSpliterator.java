@@ -0,0 +1,358 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.cover.Covers;
+import net.automatalib.util.automata.equivalence.CharacterizingSets;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link Spliterator} that returns the same test words as the {@link WpMethodTestsIterator}, but which can be split
+ * for parallel processing, e.g. via {@link java.util.stream.StreamSupport#stream(Spliterator, boolean)}.
+ * <p>
+ * The first phase (state cover &times; middle part &times; global suffixes) is indexed by a single number and splits
+ * into halves of equal size. For the second phase (remaining transition cover &times; middle part &times; local
+ * suffixes), the number of tests of each combination of prefix and middle part length is pre-computed, so that splits
+ * happen between these combinations and balance the number of tests. In both cases, the spliterator reports its exact
+ * size. Note that the second phase enumerates its tests in a different order than the {@link WpMethodTestsIterator}.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class WpMethodTestsSpliterator<I> implements Spliterator<Word<I>> {
+
+    private final Spliterator<Word<I>> delegate;
+
+    /**
+     * Constructor.
+     *
+     * @param automaton
+     *         the automaton for which the testing sequences should be generated
+     * @param inputs
+     *         the input symbols that should be considered for test sequence generation
+     * @param maxDepth
+     *         the maximum number of symbols that are appended to the transition-cover part of the test sequences
+     */
+    public WpMethodTestsSpliterator(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                    Collection<? extends I> inputs,
+                                    int maxDepth) {
+        this.delegate = createDelegate(automaton, inputs, maxDepth);
+    }
+
+    private static <S, I> Spliterator<Word<I>> createDelegate(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,
+                                                              Collection<? extends I> inputs,
+                                                              int maxDepth) {
+
+        final List<? extends I> inputList = new ArrayList<>(inputs);
+        final Set<Word<I>> stateCover = new LinkedHashSet<>();
+        final Set<Word<I>> transitionCover = Sets.newLinkedHashSetWithExpectedSize(automaton.size() * inputs.size());
+
+        Covers.cover(automaton, inputs, stateCover, transitionCover);
+
+        final List<Word<I>> suffixes = Lists.newArrayList(CharacterizingSets.characterizingSetIterator(automaton, inputs));
+
+        // Special case: List of characterizing suffixes may be empty,
+        // but in this case we still need to iterate over the prefixes!
+        final List<Word<I>> nonEmptySuffixes = suffixes.isEmpty() ? Collections.singletonList(Word.epsilon()) : suffixes;
+
+        final long[] lengthOffsets = ProductTestsSpliterator.lengthOffsets(inputList.size(), maxDepth);
+
+        // Phase 1: state cover * middle part * global suffixes
+        final Spliterator<Word<I>> first = new ProductTestsSpliterator<>(inputList,
+                                                                         lengthOffsets,
+                                                                         0,
+                                                                         lengthOffsets[maxDepth + 1],
+                                                                         new ArrayList<>(stateCover),
+                                                                         nonEmptySuffixes);
+
+        // Phase 2: transitions (not in state cover) * middle part * local suffixes
+        transitionCover.removeAll(stateCover);
+        final Spliterator<Word<I>> second =
+                SecondPhaseSpliterator.create(automaton, inputList, new ArrayList<>(transitionCover), maxDepth);
+
+        return new ConcatenatedSpliterator<>(Arrays.asList(first, second));
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Word<I>> action) {
+        return delegate.tryAdvance(action);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Word<I>> action) {
+        delegate.forEachRemaining(action);
+    }
+
+    @Override
+    public @Nullable Spliterator<Word<I>> trySplit() {
+        return delegate.trySplit();
+    }
+
+    @Override
+    public long estimateSize() {
+        return delegate.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return delegate.characteristics();
+    }
+
+    /**
+     * The spliterator of the second phase. Its elements are grouped in units, each of which comprises the tests of a
+     * single prefix combined with all middle parts of a single length. Units are ordered by the length of the middle
+     * parts first and by the prefix second.
+     */
+    private static final class SecondPhaseSpliterator<S, I> implements Spliterator<Word<I>> {
+
+        private final UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton;
+        private final StateIDs<S> stateIds;
+        private final List<? extends I> inputs;
+        private final List<Word<I>> prefixes;
+        private final S[] prefixStates;
+        private final List<Word<I>>[] localSuffixes;
+        private final long[] cumulativeSizes;
+
+        private int unitLo;
+        private final int unitHi;
+
+        // cursor within the unit unitLo
+        private long consumed;
+        private long middleRank;
+        private int suffixIdx;
+        private @Nullable Word<I> currentWord;
+        private @Nullable List<Word<I>> currentSuffixes;
+
+        private SecondPhaseSpliterator(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,
+                                       StateIDs<S> stateIds,
+                                       List<? extends I> inputs,
+                                       List<Word<I>> prefixes,
+                                       S[] prefixStates,
+                                       List<Word<I>>[] localSuffixes,
+                                       long[] cumulativeSizes,
+                                       int unitLo,
+                                       int unitHi) {
+            this.automaton = automaton;
+            this.stateIds = stateIds;
+            this.inputs = inputs;
+            this.prefixes = prefixes;
+            this.prefixStates = prefixStates;
+            this.localSuffixes = localSuffixes;
+            this.cumulativeSizes = cumulativeSizes;
+            this.unitLo = unitLo;
+            this.unitHi = unitHi;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <S, I> SecondPhaseSpliterator<S, I> create(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,
+                                                          List<? extends I> inputs,
+                                                          List<Word<I>> prefixes,
+                                                          int maxDepth) {
+
+            final StateIDs<S> stateIds = automaton.stateIDs();
+            final int numStates = automaton.size();
+            final int numInputs = inputs.size();
+            final int numPrefixes = prefixes.size();
+
+            final List<Word<I>>[] localSuffixes = new List[numStates];
+            final int[] successors = new int[numStates * numInputs];
+
+            for (S s : automaton.getStates()) {
+                final int id = stateIds.getStateId(s);
+                List<Word<I>> suffixes = Automata.stateCharacterizingSet(automaton, inputs, s);
+                if (suffixes.isEmpty()) {
+                    suffixes = Collections.singletonList(Word.epsilon());
+                }
+                localSuffixes[id] = suffixes;
+
+                for (int i = 0; i < numInputs; i++) {
+                    final S succ = automaton.getSuccessor(s, inputs.get(i));
+                    successors[id * numInputs + i] = succ == null ? -1 : stateIds.getStateId(succ);
+                }
+            }
+
+            // sizes[q] = number of tests of all middle parts of the current length, starting in state q
+            long[] sizes = new long[numStates];
+            for (int q = 0; q < numStates; q++) {
+                sizes[q] = localSuffixes[q].size();
+            }
+
+            final S[] prefixStates = (S[]) new Object[numPrefixes];
+            final int[] prefixIds = new int[numPrefixes];
+            for (int p = 0; p < numPrefixes; p++) {
+                final S state = automaton.getState(prefixes.get(p));
+                assert state != null; // input sequences have been computed on defined transitions
+                prefixStates[p] = state;
+                prefixIds[p] = stateIds.getStateId(state);
+            }
+
+            final int numUnits = Math.multiplyExact(maxDepth + 1, numPrefixes);
+            final long[] cumulativeSizes = new long[numUnits + 1];
+
+            for (int l = 0; l <= maxDepth; l++) {
+                for (int p = 0; p < numPrefixes; p++) {
+                    final int unit = l * numPrefixes + p;
+                    cumulativeSizes[unit + 1] = Math.addExact(cumulativeSizes[unit], sizes[prefixIds[p]]);
+                }
+
+                if (l < maxDepth) {
+                    final long[] nextSizes = new long[numStates];
+                    for (int q = 0; q < numStates; q++) {
+                        long sum = 0;
+                        for (int i = 0; i < numInputs; i++) {
+                            final int succ = successors[q * numInputs + i];
+                            if (succ >= 0) {
+                                sum = Math.addExact(sum, sizes[succ]);
+                            }
+                        }
+                        nextSizes[q] = sum;
+                    }
+                    sizes = nextSizes;
+                }
+            }
+
+            return new SecondPhaseSpliterator<>(automaton,
+                                                stateIds,
+                                                inputs,
+                                                prefixes,
+                                                prefixStates,
+                                                localSuffixes,
+                                                cumulativeSizes,
+                                                0,
+                                                numUnits);
+        }
+
+        @Override
+        @SuppressWarnings("nullness") // the cursor has been initialized by advanceMiddle()
+        public boolean tryAdvance(Consumer<? super Word<I>> action) {
+            while (unitLo < unitHi) {
+                if (currentSuffixes == null && !advanceMiddle()) {
+                    unitLo++;
+                    consumed = 0;
+                    middleRank = 0;
+                    continue;
+                }
+
+                action.accept(currentWord.concat(currentSuffixes.get(suffixIdx)));
+                consumed++;
+
+                if (++suffixIdx == currentSuffixes.size()) {
+                    suffixIdx = 0;
+                    currentSuffixes = null;
+                    middleRank++;
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Moves the cursor to the next middle part (of the current unit) whose transitions are defined.
+         *
+         * @return {@code true} if such a middle part exists, {@code false} if the current unit is exhausted
+         */
+        private boolean advanceMiddle() {
+            final int numPrefixes = prefixes.size();
+            final int length = unitLo / numPrefixes;
+            final int prefixIdx = unitLo % numPrefixes;
+
+            long numMiddles = 1;
+            for (int i = 0; i < length; i++) {
+                numMiddles *= inputs.size();
+            }
+
+            while (middleRank < numMiddles) {
+                final Word<I> middle = ProductTestsSpliterator.unrank(inputs, length, middleRank);
+                final S state = automaton.getSuccessor(prefixStates[prefixIdx], middle);
+
+                if (state != null) {
+                    currentWord = prefixes.get(prefixIdx).concat(middle);
+                    currentSuffixes = localSuffixes[stateIds.getStateId(state)];
+                    return true;
+                }
+
+                middleRank++;
+            }
+
+            return false;
+        }
+
+        @Override
+        public @Nullable Spliterator<Word<I>> trySplit() {
+            if (unitHi - unitLo < 2) {
+                return null;
+            }
+
+            // find the first unit boundary that covers at least half of the remaining tests
+            final long half = (cumulativeSizes[unitLo] + consumed + cumulativeSizes[unitHi]) >>> 1;
+            int split = Arrays.binarySearch(cumulativeSizes, unitLo + 1, unitHi, half);
+            if (split < 0) {
+                split = -split - 1;
+            }
+            split = Math.max(unitLo + 1, Math.min(split, unitHi - 1));
+
+            final SecondPhaseSpliterator<S, I> result = new SecondPhaseSpliterator<>(automaton,
+                                                                                     stateIds,
+                                                                                     inputs,
+                                                                                     prefixes,
+                                                                                     prefixStates,
+                                                                                     localSuffixes,
+                                                                                     cumulativeSizes,
+                                                                                     unitLo,
+                                                                                     split);
+            result.consumed = consumed;
+            result.middleRank = middleRank;
+            result.suffixIdx = suffixIdx;
+            result.currentWord = currentWord;
+            result.currentSuffixes = currentSuffixes;
+
+            unitLo = split;
+            consumed = 0;
+            middleRank = 0;
+            suffixIdx = 0;
+            currentWord = null;
+            currentSuffixes = null;
+
+            return result;
+        }
+
+        @Override
+        public long estimateSize() {
+            return cumulativeSizes[unitHi] - cumulativeSizes[unitLo] - consumed;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+}
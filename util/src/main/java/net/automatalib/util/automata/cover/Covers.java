@@ -25,11 +25,20 @@ import java.util.function.Consumer;
 
 import com.google.common.collect.Sets;
 import net.automatalib.automata.DeterministicAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton.IntAbstraction;
 import net.automatalib.commons.util.mappings.MutableMapping;
 import net.automatalib.words.Word;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
+ * Utility methods for computing state, transition and structural covers of automata.
+ * <p>
+ * If the automaton natively provides integer state IDs (i.e. implements {@link StateIDs}, as e.g. the compact and fast
+ * automaton implementations do), the covers are computed on an array-based breadth-first search tree, which only stores
+ * parent pointers and constructs the cover sequences on request. Otherwise, the access sequences of all reached states
+ * are stored in a state mapping.
+ *
  * @author Malte Isberner
  * @author frohme
  */
@@ -78,7 +87,7 @@ public final class Covers {
      */
     public static <I> Iterator<Word<I>> stateCoverIterator(DeterministicAutomaton<?, I, ?> automaton,
                                                            Collection<? extends I> inputs) {
-        return new IncrementalStateCoverIterator<>(automaton, inputs, Collections.emptyList());
+        return incrementalStateCoverIterator(automaton, inputs, Collections.emptyList());
     }
 
     /**
@@ -178,6 +187,11 @@ public final class Covers {
                                      Consumer<? super Word<I>> states,
                                      Consumer<? super Word<I>> transitions) {
 
+        if (automaton instanceof StateIDs) {
+            intCover(new IntCoverTree<>(automaton, inputs), states, transitions);
+            return;
+        }
+
         S init = automaton.getInitialState();
 
         if (init == null) {
@@ -216,6 +230,40 @@ public final class Covers {
         }
     }
 
+    private static <I> void intCover(IntCoverTree<I> tree,
+                                     Consumer<? super Word<I>> states,
+                                     Consumer<? super Word<I>> transitions) {
+
+        final int init = tree.getInitialState();
+
+        if (init == IntAbstraction.INVALID_STATE) {
+            return;
+        }
+
+        tree.addRoot(init, Word.epsilon());
+        states.accept(Word.epsilon());
+
+        final int numInputs = tree.numInputs();
+        int curr;
+
+        while ((curr = tree.poll()) != IntAbstraction.INVALID_STATE) {
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = tree.getSuccessor(curr, i);
+                if (succ == IntAbstraction.INVALID_STATE) {
+                    continue;
+                }
+
+                final Word<I> succAs = tree.getAccessSequence(curr, i);
+
+                if (!tree.isReached(succ)) {
+                    tree.addChild(succ, curr, i);
+                    states.accept(succAs);
+                }
+                transitions.accept(succAs);
+            }
+        }
+    }
+
     /**
      * Computes an incremental state cover for a given automaton, i.e. a cover that only contains the missing sequences
      * for obtaining a complete state cover.
@@ -239,6 +287,10 @@ public final class Covers {
                                                        Collection<? extends I> inputs,
                                                        Collection<? extends Word<I>> oldStates,
                                                        Collection<? super Word<I>> newStates) {
+        if (automaton instanceof StateIDs) {
+            return intIncrementalStateCover(new IntCoverTree<>(automaton, inputs), oldStates, newStates);
+        }
+
         S init = automaton.getInitialState();
 
         if (init == null) {
@@ -287,6 +339,44 @@ public final class Covers {
         return augmented;
     }
 
+    private static <I> boolean intIncrementalStateCover(IntCoverTree<I> tree,
+                                                        Collection<? extends Word<I>> oldStates,
+                                                        Collection<? super Word<I>> newStates) {
+        final int init = tree.getInitialState();
+
+        if (init == IntAbstraction.INVALID_STATE) {
+            return false;
+        }
+
+        boolean augmented = false;
+
+        tree.addStateCover(oldStates);
+
+        if (!tree.isReached(init)) {
+            // apparently the initial state was not yet covered
+            tree.addRoot(init, Word.epsilon());
+            newStates.add(Word.epsilon());
+            augmented = true;
+        }
+
+        final int numInputs = tree.numInputs();
+        int curr;
+
+        while ((curr = tree.poll()) != IntAbstraction.INVALID_STATE) {
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = tree.getSuccessor(curr, i);
+
+                if (succ != IntAbstraction.INVALID_STATE && !tree.isReached(succ)) {
+                    tree.addChild(succ, curr, i);
+                    newStates.add(tree.getAccessSequence(succ));
+                    augmented = true;
+                }
+            }
+        }
+
+        return augmented;
+    }
+
     /**
      * Returns an iterator for the remaining sequences of a state cover. Sequences are computed lazily (i.e. as
      * requested by the iterators {@link Iterator#next() next} method.
@@ -307,6 +397,9 @@ public final class Covers {
     public static <I> Iterator<Word<I>> incrementalStateCoverIterator(DeterministicAutomaton<?, I, ?> automaton,
                                                                       Collection<? extends I> inputs,
                                                                       Collection<? extends Word<I>> stateCover) {
+        if (automaton instanceof StateIDs) {
+            return new IntStateCoverIterator<>(new IntCoverTree<>(automaton, inputs), stateCover);
+        }
         return new IncrementalStateCoverIterator<>(automaton, inputs, stateCover);
     }
 
@@ -360,6 +453,9 @@ public final class Covers {
     public static <I> Iterator<Word<I>> incrementalTransitionCoverIterator(DeterministicAutomaton<?, I, ?> automaton,
                                                                            Collection<? extends I> inputs,
                                                                            Collection<? extends Word<I>> transitionCover) {
+        if (automaton instanceof StateIDs) {
+            return new IntTransitionCoverIterator<>(new IntCoverTree<>(automaton, inputs), transitionCover);
+        }
         return new IncrementalTransitionCoverIterator<>(automaton, inputs, transitionCover);
     }
 
@@ -437,6 +533,15 @@ public final class Covers {
                                                 Consumer<? super Word<I>> newStateCover,
                                                 Consumer<? super Word<I>> newTransCover) {
 
+        if (automaton instanceof StateIDs) {
+            intIncrementalCover(new IntCoverTree<>(automaton, inputs),
+                                oldStateCover,
+                                oldTransCover,
+                                newStateCover,
+                                newTransCover);
+            return;
+        }
+
         S init = automaton.getInitialState();
 
         if (init == null) {
@@ -520,6 +625,76 @@ public final class Covers {
         }
     }
 
+    private static <I> void intIncrementalCover(IntCoverTree<I> tree,
+                                                Collection<? extends Word<I>> oldStateCover,
+                                                Collection<? extends Word<I>> oldTransCover,
+                                                Consumer<? super Word<I>> newStateCover,
+                                                Consumer<? super Word<I>> newTransCover) {
+
+        final int init = tree.getInitialState();
+
+        if (init == IntAbstraction.INVALID_STATE) {
+            return;
+        }
+
+        // We enforce that the initial state *always* is covered by the empty word,
+        // regardless of whether other sequence in oldCover cover it
+        tree.addRoot(init, Word.epsilon());
+
+        final boolean hasEpsilon = tree.addStateCover(oldStateCover);
+
+        // Add transition cover information from *state covers*
+        for (Word<I> oldStateAs : oldStateCover) {
+            if (oldStateAs.isEmpty()) {
+                continue;
+            }
+
+            final int pred = tree.getState(oldStateAs.prefix(oldStateAs.length() - 1));
+            assert pred != IntAbstraction.INVALID_STATE;
+
+            if (!tree.isReached(pred)) {
+                throw new IllegalArgumentException(
+                        "State cover was not prefix-closed: prefix of " + oldStateAs + " not in set");
+            }
+
+            final int lastSym = tree.getInputIndex(oldStateAs.lastSymbol());
+            if (lastSym >= 0) {
+                tree.cover(pred, lastSym);
+            }
+        }
+
+        // Till now, we haven't augmented any set.
+        if (!hasEpsilon) {
+            newStateCover.accept(Word.epsilon());
+        }
+
+        // Add transition covers
+        tree.addTransitionCover(oldTransCover, newStateCover);
+
+        final int numInputs = tree.numInputs();
+        int curr;
+
+        while ((curr = tree.poll()) != IntAbstraction.INVALID_STATE) {
+            for (int i = 0; i < numInputs; i++) {
+                if (tree.cover(curr, i)) {
+                    final int succ = tree.getSuccessor(curr, i);
+
+                    if (succ != IntAbstraction.INVALID_STATE) {
+                        final Word<I> newAs = tree.getAccessSequence(curr, i);
+
+                        if (!tree.isReached(succ)) {
+                            // new state!
+                            tree.addChild(succ, curr, i);
+                            newStateCover.accept(newAs);
+                        }
+                        // new transition
+                        newTransCover.accept(newAs);
+                    }
+                }
+            }
+        }
+    }
+
     static <S, I> boolean buildReachFromStateCover(MutableMapping<S, @Nullable Record<S, I>> reach,
                                                    Queue<Record<S, I>> bfsQueue,
                                                    DeterministicAutomaton<S, I, ?> automaton,
@@ -577,10 +752,10 @@ public final class Covers {
             Record<S, I> predRec = reach.get(pred);
 
             if (predRec == null) {
-                predRec = recordBuilder.apply(state, oldTransAs);
+                predRec = recordBuilder.apply(pred, predAs);
                 bfsQueue.add(predRec);
                 reach.put(pred, predRec);
-                newStateCallback.accept(oldTransAs);
+                newStateCallback.accept(predAs);
             }
 
             predRec.coveredInputs.add(lastSym);
@@ -0,0 +1,276 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.cover;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import net.automatalib.automata.DeterministicAutomaton;
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton.IntAbstraction;
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton.StateIntAbstraction;
+import net.automatalib.words.Word;
+
+/**
+ * An integer-based representation of the breadth-first search trees that underlie the cover computations of {@link
+ * Covers}. Instead of storing the access sequence of each reached state (or an intermediate {@link Record}), only the
+ * parent pointers of the search tree are stored in arrays indexed by the state IDs of the automaton. Access sequences
+ * are constructed only on request, by following the parent pointers back to a root of the search tree.
+ * <p>
+ * Roots of the search tree are the initial state and (for incremental computations) the states reached by existing
+ * cover sequences. The breadth-first queue is stored in an array as well, as each state is enqueued at most once.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+final class IntCoverTree<I> {
+
+    private static final int UNREACHED = -1;
+    private static final int ROOT = -2;
+
+    private final StateIntAbstraction<I> automaton;
+    private final List<I> inputs;
+    private final int numInputs;
+
+    // parent[s] is UNREACHED, ROOT, or the predecessor in the search tree
+    private final int[] parent;
+    // parentInput[s] is the index of the input symbol (or, for roots, the index of the root word)
+    private final int[] parentInput;
+    private final List<Word<I>> rootWords;
+
+    private final int[] queue;
+    private int head;
+    private int tail;
+
+    // covered[s * numInputs + i] (only used for transition covers)
+    private final BitSet covered;
+    private Map<I, Integer> inputIndices;
+
+    @SuppressWarnings("unchecked")
+    IntCoverTree(DeterministicAutomaton<?, I, ?> automaton, Collection<? extends I> inputs) {
+        this.automaton = automaton.stateIntAbstraction();
+        this.inputs = new ArrayList<>(inputs);
+        this.numInputs = this.inputs.size();
+
+        final int size = this.automaton.size();
+        this.parent = new int[size];
+        this.parentInput = new int[size];
+        this.rootWords = new ArrayList<>();
+        this.queue = new int[size];
+        this.covered = new BitSet();
+
+        Arrays.fill(parent, UNREACHED);
+    }
+
+    int getInitialState() {
+        return automaton.getIntInitialState();
+    }
+
+    int getSuccessor(int state, int input) {
+        return automaton.getSuccessor(state, inputs.get(input));
+    }
+
+    int numInputs() {
+        return numInputs;
+    }
+
+    I getInput(int input) {
+        return inputs.get(input);
+    }
+
+    /**
+     * Returns the index of the given input symbol, or {@code -1} if the symbol is not contained in the inputs.
+     */
+    int getInputIndex(I input) {
+        if (inputIndices == null) {
+            inputIndices = new HashMap<>(2 * numInputs);
+            for (int i = 0; i < numInputs; i++) {
+                inputIndices.putIfAbsent(inputs.get(i), i);
+            }
+        }
+        final Integer idx = inputIndices.get(input);
+        return idx == null ? -1 : idx;
+    }
+
+    /**
+     * Returns the state reached by the given input word, or {@link IntAbstraction#INVALID_STATE} if it is undefined.
+     */
+    int getState(Word<I> word) {
+        int state = automaton.getIntInitialState();
+        for (I sym : word) {
+            if (state == IntAbstraction.INVALID_STATE) {
+                break;
+            }
+            state = automaton.getSuccessor(state, sym);
+        }
+        return state;
+    }
+
+    boolean isReached(int state) {
+        return parent[state] != UNREACHED;
+    }
+
+    /**
+     * Adds the given state as a root of the search tree (with the given access sequence) and enqueues it.
+     */
+    void addRoot(int state, Word<I> accessSequence) {
+        parent[state] = ROOT;
+        parentInput[state] = rootWords.size();
+        rootWords.add(accessSequence);
+        queue[tail++] = state;
+    }
+
+    /**
+     * Adds the given state as a successor of the given predecessor in the search tree and enqueues it.
+     */
+    void addChild(int state, int pred, int input) {
+        parent[state] = pred;
+        parentInput[state] = input;
+        queue[tail++] = state;
+    }
+
+    /**
+     * Returns the next state of the breadth-first queue, or {@link IntAbstraction#INVALID_STATE} if it is empty.
+     */
+    int poll() {
+        return head < tail ? queue[head++] : IntAbstraction.INVALID_STATE;
+    }
+
+    /**
+     * Marks the given transition as covered.
+     *
+     * @return {@code true} if the transition has not been covered before, {@code false} otherwise.
+     */
+    boolean cover(int state, int input) {
+        final int idx = state * numInputs + input;
+        if (covered.get(idx)) {
+            return false;
+        }
+        covered.set(idx);
+        return true;
+    }
+
+    Word<I> getAccessSequence(int state) {
+        return getAccessSequence(state, -1);
+    }
+
+    /**
+     * Constructs the access sequence of the given state, optionally extended by the given input.
+     *
+     * @param state
+     *         the (reached) state
+     * @param input
+     *         the index of the input symbol to append, or {@code -1} if no symbol should be appended
+     *
+     * @return the (extended) access sequence
+     */
+    @SuppressWarnings("unchecked")
+    Word<I> getAccessSequence(int state, int input) {
+        int length = input < 0 ? 0 : 1;
+        int curr = state;
+        while (parent[curr] != ROOT) {
+            length++;
+            curr = parent[curr];
+        }
+
+        final Word<I> root = rootWords.get(parentInput[curr]);
+
+        if (length == 0) {
+            return root;
+        }
+
+        final int rootLength = root.length();
+        final Object[] symbols = new Object[rootLength + length];
+        root.writeToArray(0, symbols, 0, rootLength);
+
+        int pos = symbols.length;
+        if (input >= 0) {
+            symbols[--pos] = inputs.get(input);
+        }
+        curr = state;
+        while (parent[curr] != ROOT) {
+            symbols[--pos] = inputs.get(parentInput[curr]);
+            curr = parent[curr];
+        }
+
+        return Word.fromArray((I[]) symbols, 0, symbols.length);
+    }
+
+    /**
+     * Seeds the search tree with the states reached by the given state cover sequences.
+     *
+     * @return {@code true} if the state cover contains the empty word, {@code false} otherwise.
+     *
+     * @see Covers#buildReachFromStateCover
+     */
+    boolean addStateCover(Collection<? extends Word<I>> stateCover) {
+        boolean hasEpsilon = false;
+
+        for (Word<I> as : stateCover) {
+            final int state = getState(as);
+            if (state == IntAbstraction.INVALID_STATE || isReached(state)) {
+                if (as.isEmpty()) {
+                    hasEpsilon = true;
+                }
+                continue; // strange, but we'll ignore it
+            }
+
+            addRoot(state, as);
+        }
+
+        return hasEpsilon;
+    }
+
+    /**
+     * Marks the transitions of the given transition cover sequences as covered, and seeds the search tree with newly
+     * discovered states.
+     *
+     * @see Covers#buildReachFromTransitionCover
+     */
+    void addTransitionCover(Collection<? extends Word<I>> transitionCover, Consumer<? super Word<I>> newStates) {
+        for (Word<I> transAs : transitionCover) {
+            // Check if this transition now leads to a new state
+            final int state = getState(transAs);
+            if (state != IntAbstraction.INVALID_STATE && !isReached(state)) {
+                addRoot(state, transAs);
+                newStates.accept(transAs);
+            }
+
+            // In any case, mark the transition as covered
+            final Word<I> predAs = transAs.prefix(transAs.length() - 1);
+            final int pred = getState(predAs);
+            if (pred == IntAbstraction.INVALID_STATE) {
+                throw new IllegalArgumentException(
+                        "Invalid transition: prefix of transition " + transAs + " not covered by state cover");
+            }
+
+            if (!isReached(pred)) {
+                addRoot(pred, predAs);
+                newStates.accept(predAs);
+            }
+
+            final int input = getInputIndex(transAs.lastSymbol());
+            if (input >= 0) {
+                cover(pred, input);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.cover;
+
+import java.util.Collection;
+
+import com.google.common.collect.AbstractIterator;
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton.IntAbstraction;
+import net.automatalib.words.Word;
+
+/**
+ * An integer-based version of the {@link IncrementalStateCoverIterator} that operates on an {@link IntCoverTree}.
+ * Words are computed lazily (i.e. only when requested by {@link #next()}.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @see Covers#stateCover(net.automatalib.automata.DeterministicAutomaton, Collection, Collection)
+ */
+class IntStateCoverIterator<I> extends AbstractIterator<Word<I>> {
+
+    private final IntCoverTree<I> tree;
+    private final Collection<? extends Word<I>> oldCover;
+
+    private boolean initialized;
+    private int curr;
+    private int input;
+
+    IntStateCoverIterator(IntCoverTree<I> tree, Collection<? extends Word<I>> oldCover) {
+        this.tree = tree;
+        this.oldCover = oldCover;
+    }
+
+    @Override
+    protected Word<I> computeNext() {
+        // first invocation
+        if (!initialized) {
+            initialized = true;
+
+            final int init = tree.getInitialState();
+
+            if (init == IntAbstraction.INVALID_STATE) {
+                return endOfData();
+            }
+
+            tree.addStateCover(oldCover);
+            curr = IntAbstraction.INVALID_STATE;
+
+            if (!tree.isReached(init)) {
+                // apparently the initial state was not yet covered
+                tree.addRoot(init, Word.epsilon());
+                return Word.epsilon();
+            }
+        }
+
+        final int numInputs = tree.numInputs();
+
+        while (true) {
+            if (curr == IntAbstraction.INVALID_STATE) {
+                curr = tree.poll();
+                input = 0;
+
+                if (curr == IntAbstraction.INVALID_STATE) {
+                    return endOfData();
+                }
+            }
+
+            while (input < numInputs) {
+                final int i = input++;
+                final int succ = tree.getSuccessor(curr, i);
+
+                if (succ != IntAbstraction.INVALID_STATE && !tree.isReached(succ)) {
+                    tree.addChild(succ, curr, i);
+                    return tree.getAccessSequence(succ);
+                }
+            }
+
+            curr = IntAbstraction.INVALID_STATE;
+        }
+    }
+}
@@ -16,7 +16,6 @@
 package net.automatalib.util.automata.cover;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 
 import net.automatalib.automata.DeterministicAutomaton;
@@ -39,7 +38,7 @@ class TransitionCoverIterator<I> extends AbstractTwoLevelIterator<Word<I>, I, Wo
 
     @SuppressWarnings("unchecked")
     TransitionCoverIterator(DeterministicAutomaton<?, I, ?> automaton, Collection<? extends I> inputs) {
-        super(new IncrementalStateCoverIterator<>(automaton, inputs, Collections.emptyList()));
+        super(Covers.stateCoverIterator(automaton, inputs));
         this.inputs = (Collection<I>) inputs;
     }
 
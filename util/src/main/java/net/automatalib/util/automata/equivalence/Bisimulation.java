@@ -15,13 +15,17 @@
  */
 package net.automatalib.util.automata.equivalence;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Objects;
+import java.util.List;
 import java.util.Set;
 
 import com.google.common.collect.Sets;
 import net.automatalib.automata.Automaton;
+import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.commons.util.Pair;
+import net.automatalib.util.partitionrefinement.RelationalPartitionRefinement;
 
 /**
  * @author msc
@@ -32,102 +36,126 @@ public final class Bisimulation {
         // prevent instantiation
     }
 
+    /**
+     * Computes the (strong) bisimulation relation between the states of two (possibly nondeterministic) automata. Only
+     * the transition structure with respect to the given inputs is considered, i.e., state and transition properties
+     * are ignored.
+     * <p>
+     * The relation is computed by means of {@link RelationalPartitionRefinement partition refinement} on the disjoint
+     * union of both automata, so that the computation itself is quasi-linear in the size of the automata. Note,
+     * however, that the size of the returned relation is quadratic in the size of the equivalence classes.
+     *
+     * @param a
+     *         the first automaton
+     * @param b
+     *         the second automaton
+     * @param inputs
+     *         the input symbols to consider
+     * @param <AS>
+     *         state type of the first automaton
+     * @param <I>
+     *         input symbol type
+     * @param <AT>
+     *         transition type of the first automaton
+     * @param <A>
+     *         type of the first automaton
+     * @param <BS>
+     *         state type of the second automaton
+     * @param <BT>
+     *         transition type of the second automaton
+     * @param <B>
+     *         type of the second automaton
+     *
+     * @return the set of pairs of bisimilar states of the first and the second automaton
+     */
     public static <AS, I, AT, A extends Automaton<AS, I, AT>, BS, BT, B extends Automaton<BS, I, BT>> Set<Pair<AS, BS>> bisimulationEquivalenceRelation(
             A a,
             B b,
             Collection<I> inputs) {
 
-        Set<Pair<AS, BS>> bisim = Sets.newHashSetWithExpectedSize(a.size() * b.size());
-        Set<Pair<AS, BS>> change = Sets.newHashSetWithExpectedSize(a.size() * b.size());
+        final int sizeA = a.size();
+        final int sizeB = b.size();
+        final int numStates = sizeA + sizeB;
 
-        boolean empty;
+        final StateIDs<AS> idsA = a.stateIDs();
+        final StateIDs<BS> idsB = b.stateIDs();
 
-        for (AS p : a.getStates()) {
-            for (BS q : b.getStates()) {
+        final TransitionData data = new TransitionData(numStates);
+        for (int i = 0; i < sizeA; i++) {
+            data.addTransitions(a, idsA, idsA.getState(i), inputs, 0);
+        }
+        for (int i = 0; i < sizeB; i++) {
+            data.addTransitions(b, idsB, idsB.getState(i), inputs, sizeA);
+        }
 
-                empty = true;
-                for (I sym : inputs) {
-                    empty &= a.getTransitions(p, sym).isEmpty() && b.getTransitions(q, sym).isEmpty();
-                    if (!a.getTransitions(p, sym).isEmpty() && !b.getTransitions(q, sym).isEmpty()) {
-                        change.add(Pair.of(p, q));
-                        break;
-                    }
-                }
+        final int[] blocks = RelationalPartitionRefinement.computeCoarsestStablePartition(numStates,
+                                                                                          data.offsets,
+                                                                                          data.labels,
+                                                                                          data.targets,
+                                                                                          new int[numStates]);
 
-                if (empty) {
-                    change.add(Pair.of(p, q));
-                }
+        int numBlocks = 0;
+        for (int block : blocks) {
+            numBlocks = Math.max(numBlocks, block + 1);
+        }
+
+        final List<List<BS>> statesOfB = new ArrayList<>(numBlocks);
+        for (int i = 0; i < numBlocks; i++) {
+            statesOfB.add(new ArrayList<>());
+        }
+        for (int i = 0; i < sizeB; i++) {
+            statesOfB.get(blocks[sizeA + i]).add(idsB.getState(i));
+        }
+
+        int size = 0;
+        for (int i = 0; i < sizeA; i++) {
+            size += statesOfB.get(blocks[i]).size();
+        }
+
+        final Set<Pair<AS, BS>> result = Sets.newHashSetWithExpectedSize(size);
+        for (int i = 0; i < sizeA; i++) {
+            final AS p = idsA.getState(i);
+            for (BS q : statesOfB.get(blocks[i])) {
+                result.add(Pair.of(p, q));
             }
         }
 
-        Set<Pair<AS, BS>> swap;
-        boolean forall, exists;
-        while (!bisim.equals(change)) {
-            swap = change;
-            change = bisim;
-            bisim = swap;
-            change.clear();
-
-            for (Pair<AS, BS> p : bisim) {
-
-                forall = true;
-                for (I sym : inputs) {
-                    for (AT t : a.getTransitions(p.getFirst(), sym)) {
-
-                        exists = false;
-                        for (BT f : b.getTransitions(p.getSecond(), sym)) {
-                            for (Pair<AS, BS> s : bisim) {
-                                if (Objects.equals(a.getSuccessor(t), s.getFirst()) &&
-                                    Objects.equals(b.getSuccessor(f), s.getSecond())) {
-                                    exists = true;
-                                    break;
-                                }
-                            }
-                            if (exists) {
-                                break;
-                            }
-                        }
-                        if (!exists) {
-                            forall = false;
-                            break;
-                        }
-                    }
-                }
+        return result;
+    }
 
-                if (!forall) {
-                    continue;
-                }
+    private static final class TransitionData {
 
-                forall = true;
-                for (I sym : inputs) {
-                    for (BT f : b.getTransitions(p.getSecond(), sym)) {
-
-                        exists = false;
-                        for (AT t : a.getTransitions(p.getFirst(), sym)) {
-                            for (Pair<AS, BS> s : bisim) {
-                                if (Objects.equals(b.getSuccessor(f), s.getSecond()) &&
-                                    Objects.equals(a.getSuccessor(t), s.getFirst())) {
-                                    exists = true;
-                                    break;
-                                }
-                            }
-                            if (exists) {
-                                break;
-                            }
-                        }
-                        if (!exists) {
-                            forall = false;
-                            break;
-                        }
-                    }
-                }
+        private final int[] offsets;
+        private int[] labels;
+        private int[] targets;
+        private int numStates;
+        private int numTransitions;
+
+        TransitionData(int numStates) {
+            this.offsets = new int[numStates + 1];
+            this.labels = new int[numStates];
+            this.targets = new int[numStates];
+        }
 
-                if (forall) {
-                    change.add(p);
+        <S, I, T> void addTransitions(Automaton<S, I, T> automaton,
+                                      StateIDs<S> ids,
+                                      S state,
+                                      Collection<I> inputs,
+                                      int idOffset) {
+            int label = 0;
+            for (I sym : inputs) {
+                for (T trans : automaton.getTransitions(state, sym)) {
+                    if (numTransitions == labels.length) {
+                        labels = Arrays.copyOf(labels, Math.max(8, numTransitions * 2));
+                        targets = Arrays.copyOf(targets, Math.max(8, numTransitions * 2));
+                    }
+                    labels[numTransitions] = label;
+                    targets[numTransitions] = idOffset + ids.getStateId(automaton.getSuccessor(trans));
+                    numTransitions++;
                 }
+                label++;
             }
+            offsets[++numStates] = numTransitions;
         }
-
-        return change;
     }
 }
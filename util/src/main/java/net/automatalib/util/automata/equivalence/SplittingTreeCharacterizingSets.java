@@ -0,0 +1,442 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An integer-based alternative to {@link CharacterizingSets#findCharacterizingSet(UniversalDeterministicAutomaton,
+ * Collection, Collection)} for large automata.
+ * <p>
+ * Instead of searching for separating words between pairs of states (and clustering all states by their traces after
+ * each new word), this implementation records the split history of a round-based partition refinement in a
+ * <i>splitting tree</i>: each inner node of the tree stores a single suffix that separates the states of its children.
+ * A block (leaf) of the current partition is split by
+ * <ul>
+ * <li>the empty word, if its states have different state properties,</li>
+ * <li>a single input symbol {@code a}, if its states have different {@code a}-transitions (i.e., different
+ * definedness, transition properties or successor state properties), or</li>
+ * <li>the word {@code a·w}, if the {@code a}-successors of its states lie in different blocks, where {@code w} is the
+ * suffix of the lowest common ancestor of these blocks in the splitting tree.</li>
+ * </ul>
+ * After a split, only the blocks containing predecessors of the split states are re-examined in the next round. The
+ * suffixes of all inner nodes form a characterizing set. Within a round, the splitters of all examined blocks and the
+ * traces of their states may optionally be computed in parallel; the result does not depend on this choice.
+ * <p>
+ * Note that the returned characterizing set generally differs from the one computed by {@link CharacterizingSets}.
+ */
+public final class SplittingTreeCharacterizingSets {
+
+    private static final int[] EPSILON = new int[0];
+
+    /**
+     * The minimum number of (independent) tasks for which a parallel computation is used.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    private SplittingTreeCharacterizingSets() {}
+
+    /**
+     * Computes a characterizing set for the given automaton.
+     *
+     * @param automaton
+     *         the automaton for which to determine the characterizing set
+     * @param inputs
+     *         the input alphabets to consider
+     * @param result
+     *         the collection in which to store the characterizing words
+     */
+    public static <S, I, T> void findCharacterizingSet(UniversalDeterministicAutomaton<S, I, T, ?, ?> automaton,
+                                                       Collection<? extends I> inputs,
+                                                       Collection<? super Word<I>> result) {
+        findCharacterizingSet(automaton, inputs, result, false);
+    }
+
+    /**
+     * Computes a characterizing set for the given automaton.
+     *
+     * @param automaton
+     *         the automaton for which to determine the characterizing set
+     * @param inputs
+     *         the input alphabets to consider
+     * @param result
+     *         the collection in which to store the characterizing words
+     * @param parallel
+     *         whether the splitters and traces of each refinement round should be computed in parallel
+     */
+    public static <S, I, T> void findCharacterizingSet(UniversalDeterministicAutomaton<S, I, T, ?, ?> automaton,
+                                                       Collection<? extends I> inputs,
+                                                       Collection<? super Word<I>> result,
+                                                       boolean parallel) {
+        final List<I> inputList = new ArrayList<>(inputs);
+        final SplittingTree tree = new SplittingTree(toIntSystem(automaton, inputList), parallel);
+        tree.compute();
+
+        final Set<Word<I>> words = new LinkedHashSet<>();
+        for (int[] suffix : tree.getSuffixes()) {
+            final WordBuilder<I> wb = new WordBuilder<>(suffix.length);
+            for (int idx : suffix) {
+                wb.append(inputList.get(idx));
+            }
+            words.add(wb.toWord());
+        }
+        result.addAll(words);
+    }
+
+    private static <S, I, T> IntSystem toIntSystem(UniversalDeterministicAutomaton<S, I, T, ?, ?> automaton,
+                                                   List<I> inputs) {
+        final int numStates = automaton.size();
+        final int numInputs = inputs.size();
+        final StateIDs<S> stateIds = automaton.stateIDs();
+
+        final int[] successors = new int[numStates * numInputs];
+        final int[] transProps = new int[numStates * numInputs];
+        final int[] stateProps = new int[numStates];
+
+        final Map<@Nullable Object, Integer> propIds = new HashMap<>();
+
+        for (int s = 0; s < numStates; s++) {
+            final S state = stateIds.getState(s);
+            stateProps[s] = propIds.computeIfAbsent(automaton.getStateProperty(state), k -> propIds.size());
+
+            for (int i = 0; i < numInputs; i++) {
+                final int idx = s * numInputs + i;
+                final T trans = automaton.getTransition(state, inputs.get(i));
+                if (trans == null) {
+                    successors[idx] = -1;
+                } else {
+                    successors[idx] = stateIds.getStateId(automaton.getSuccessor(trans));
+                    transProps[idx] =
+                            propIds.computeIfAbsent(automaton.getTransitionProperty(trans), k -> propIds.size());
+                }
+            }
+        }
+
+        return new IntSystem(numStates, numInputs, successors, transProps, stateProps);
+    }
+
+    /**
+     * An integer-based representation of a deterministic automaton. Properties are represented by (interned) integer
+     * IDs, undefined transitions by a negative successor.
+     */
+    private static final class IntSystem {
+
+        final int numStates;
+        final int numInputs;
+        final int[] successors;
+        final int[] transProps;
+        final int[] stateProps;
+
+        // predecessors (for all inputs) in CSR format
+        final int[] predOffsets;
+        final int[] predecessors;
+
+        IntSystem(int numStates, int numInputs, int[] successors, int[] transProps, int[] stateProps) {
+            this.numStates = numStates;
+            this.numInputs = numInputs;
+            this.successors = successors;
+            this.transProps = transProps;
+            this.stateProps = stateProps;
+
+            this.predOffsets = new int[numStates + 1];
+            for (int succ : successors) {
+                if (succ >= 0) {
+                    predOffsets[succ + 1]++;
+                }
+            }
+            for (int s = 0; s < numStates; s++) {
+                predOffsets[s + 1] += predOffsets[s];
+            }
+            this.predecessors = new int[predOffsets[numStates]];
+            final int[] fill = Arrays.copyOf(predOffsets, numStates);
+            for (int idx = 0; idx < successors.length; idx++) {
+                final int succ = successors[idx];
+                if (succ >= 0) {
+                    predecessors[fill[succ]++] = idx / numInputs;
+                }
+            }
+        }
+
+        /**
+         * Computes the trace of the given state for the given suffix, analogous to the traces of {@link
+         * CharacterizingSets}: the state property for the empty word, and the alternating transition and successor
+         * state properties (up to the first undefined transition) otherwise.
+         */
+        Trace computeTrace(int state, int[] suffix) {
+            if (suffix.length == 0) {
+                return new Trace(new int[] {stateProps[state]});
+            }
+
+            final int[] trace = new int[2 * suffix.length];
+            int len = 0;
+            int curr = state;
+            for (int i : suffix) {
+                final int idx = curr * numInputs + i;
+                final int succ = successors[idx];
+                if (succ < 0) {
+                    break;
+                }
+                trace[len++] = transProps[idx];
+                curr = succ;
+                trace[len++] = stateProps[curr];
+            }
+
+            return new Trace(len == trace.length ? trace : Arrays.copyOf(trace, len));
+        }
+    }
+
+    private static final class SplittingTree {
+
+        private final IntSystem system;
+        private final boolean parallel;
+
+        // tree structure
+        private int[] parent;
+        private int[] depth;
+        private final List<int @Nullable []> suffixes;
+        private final List<int @Nullable []> blocks;
+        private int numNodes;
+
+        // the leaf (block) of each state
+        private final int[] blockOf;
+
+        SplittingTree(IntSystem system, boolean parallel) {
+            this.system = system;
+            this.parallel = parallel;
+
+            this.parent = new int[16];
+            this.depth = new int[16];
+            this.suffixes = new ArrayList<>();
+            this.blocks = new ArrayList<>();
+            this.blockOf = new int[system.numStates];
+
+            final int[] all = new int[system.numStates];
+            Arrays.setAll(all, i -> i);
+            addNode(-1, all);
+        }
+
+        void compute() {
+            final BitSet dirty = new BitSet();
+            dirty.set(0);
+
+            while (!dirty.isEmpty()) {
+                final int[] candidates = dirty.stream().toArray();
+                dirty.clear();
+
+                // the splitters are computed with respect to the partition at the beginning of the round
+                final int[][] splitters = new int[candidates.length][];
+                range(candidates.length).forEach(j -> splitters[j] = findSplitter(candidates[j]));
+
+                for (int j = 0; j < candidates.length; j++) {
+                    final int[] splitter = splitters[j];
+                    if (splitter != null) {
+                        split(candidates[j], splitter, dirty);
+                    }
+                }
+            }
+        }
+
+        List<int[]> getSuffixes() {
+            final List<int[]> result = new ArrayList<>();
+            for (int[] suffix : suffixes) {
+                if (suffix != null) {
+                    result.add(suffix);
+                }
+            }
+            return result;
+        }
+
+        private int @Nullable [] findSplitter(int node) {
+            final int[] states = blocks.get(node);
+            if (states == null || states.length < 2) {
+                return null;
+            }
+
+            final int numInputs = system.numInputs;
+            final int[] successors = system.successors;
+            final int[] transProps = system.transProps;
+            final int[] stateProps = system.stateProps;
+            final int ref = states[0];
+
+            for (int s : states) {
+                if (stateProps[s] != stateProps[ref]) {
+                    return EPSILON;
+                }
+            }
+
+            for (int i = 0; i < numInputs; i++) {
+                final int refIdx = ref * numInputs + i;
+                final int refSucc = successors[refIdx];
+                for (int s : states) {
+                    final int idx = s * numInputs + i;
+                    final int succ = successors[idx];
+                    if ((succ < 0) != (refSucc < 0) || succ >= 0 && (transProps[idx] != transProps[refIdx] ||
+                                                                      stateProps[succ] != stateProps[refSucc])) {
+                        return new int[] {i};
+                    }
+                }
+            }
+
+            for (int i = 0; i < numInputs; i++) {
+                final int refSucc = successors[ref * numInputs + i];
+                if (refSucc < 0) {
+                    continue;
+                }
+                final int refBlock = blockOf[refSucc];
+                int lca = -1;
+                for (int s : states) {
+                    final int block = blockOf[successors[s * numInputs + i]];
+                    if (block != refBlock) {
+                        lca = lowestCommonAncestor(lca < 0 ? refBlock : lca, block);
+                    }
+                }
+                if (lca >= 0) {
+                    final int[] lcaSuffix = suffixes.get(lca);
+                    assert lcaSuffix != null;
+                    final int[] result = new int[lcaSuffix.length + 1];
+                    result[0] = i;
+                    System.arraycopy(lcaSuffix, 0, result, 1, lcaSuffix.length);
+                    return result;
+                }
+            }
+
+            return null;
+        }
+
+        private void split(int node, int[] suffix, BitSet dirty) {
+            final int[] states = blocks.get(node);
+            assert states != null;
+
+            final Trace[] traces = new Trace[states.length];
+            range(states.length).forEach(j -> traces[j] = system.computeTrace(states[j], suffix));
+
+            final Map<Trace, Integer> classes = new HashMap<>();
+            final int[] classOf = new int[states.length];
+            for (int j = 0; j < states.length; j++) {
+                classOf[j] = classes.computeIfAbsent(traces[j], k -> classes.size());
+            }
+
+            final int numClasses = classes.size();
+            assert numClasses > 1;
+
+            final int[] counts = new int[numClasses];
+            for (int c : classOf) {
+                counts[c]++;
+            }
+            final int[][] children = new int[numClasses][];
+            for (int c = 0; c < numClasses; c++) {
+                children[c] = new int[counts[c]];
+            }
+            Arrays.fill(counts, 0);
+            for (int j = 0; j < states.length; j++) {
+                final int c = classOf[j];
+                children[c][counts[c]++] = states[j];
+            }
+
+            suffixes.set(node, suffix);
+            blocks.set(node, null);
+            for (int[] child : children) {
+                dirty.set(addNode(node, child));
+            }
+
+            for (int s : states) {
+                for (int p = system.predOffsets[s]; p < system.predOffsets[s + 1]; p++) {
+                    dirty.set(blockOf[system.predecessors[p]]);
+                }
+            }
+        }
+
+        private int addNode(int parentNode, int[] states) {
+            final int node = numNodes++;
+            if (node == parent.length) {
+                parent = Arrays.copyOf(parent, node * 2);
+                depth = Arrays.copyOf(depth, node * 2);
+            }
+            parent[node] = parentNode;
+            depth[node] = parentNode < 0 ? 0 : depth[parentNode] + 1;
+            suffixes.add(null);
+            blocks.add(states);
+            for (int s : states) {
+                blockOf[s] = node;
+            }
+            return node;
+        }
+
+        private int lowestCommonAncestor(int node1, int node2) {
+            int n1 = node1;
+            int n2 = node2;
+            while (depth[n1] > depth[n2]) {
+                n1 = parent[n1];
+            }
+            while (depth[n2] > depth[n1]) {
+                n2 = parent[n2];
+            }
+            while (n1 != n2) {
+                n1 = parent[n1];
+                n2 = parent[n2];
+            }
+            return n1;
+        }
+
+        private IntStream range(int endExclusive) {
+            final IntStream result = IntStream.range(0, endExclusive);
+            return parallel && endExclusive >= PARALLEL_THRESHOLD ? result.parallel() : result;
+        }
+    }
+
+    private static final class Trace {
+
+        private final int[] values;
+        private final int hash;
+
+        Trace(int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Trace)) {
+                return false;
+            }
+            final Trace that = (Trace) o;
+            return hash == that.hash && Arrays.equals(values, that.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
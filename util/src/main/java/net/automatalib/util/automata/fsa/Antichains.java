@@ -0,0 +1,368 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Antichain-based language inclusion checks for {@link IntNFA}s.
+ * <p>
+ * The inclusion {@code L(A) ⊆ L(B)} is checked by a breadth-first exploration of pairs {@code (p, S)} of a state
+ * {@code p} of {@code A} and a set {@code S} of states of {@code B} that are reached by the same word. A pair is
+ * <i>rejecting</i> if {@code p} is accepting but no state of {@code S} is. Instead of determinizing {@code B}, only the
+ * pairs that are minimal with respect to a subsumption preorder are kept (and explored): a pair {@code (p, S)} is
+ * subsumed by a pair {@code (p, S')} with {@code S' ⊆ S}, because every word that leads from the former to a rejecting
+ * pair also does so from the latter.
+ * <p>
+ * Optionally, the subsumption is enhanced by the forward simulation preorder of the disjoint union of {@code A} and
+ * {@code B} (see {@link Simulations#computeSimulation(IntNFA)}): a pair {@code (p, S)} is subsumed by {@code (p', S')}
+ * if {@code p'} simulates {@code p} and each state of {@code S'} is simulated by a state of {@code S}. Furthermore,
+ * pairs {@code (p, S)} where {@code p} is simulated by a state of {@code S} are discarded altogether, and the sets
+ * {@code S} are reduced to their simulation-maximal elements.
+ *
+ * @see <a href="https://doi.org/10.1007/11817963_5">Antichains: A New Algorithm for Checking Universality of Finite
+ * Automata (De Wulf, Doyen, Henzinger, Raskin)</a>
+ * @see <a href="https://doi.org/10.1007/978-3-642-12002-2_14">When Simulation Meets Antichains (Abdulla, Chen, Holík,
+ * Mayr, Vojnar)</a>
+ */
+final class Antichains {
+
+    private final IntNFA a;
+    private final IntNFA b;
+    private final int numInputs;
+
+    // simulation matrix of the disjoint union, with the respective state offsets (null if simulations are not used)
+    private final long @Nullable [][] sim;
+    private final int offsetA;
+    private final int offsetB;
+
+    private Antichains(IntNFA a, IntNFA b, long @Nullable [][] sim, int offsetA, int offsetB) {
+        this.a = a;
+        this.b = b;
+        this.numInputs = a.numInputs;
+        this.sim = sim;
+        this.offsetA = offsetA;
+        this.offsetB = offsetB;
+    }
+
+    /**
+     * Searches for a word that is accepted by {@code a} but rejected by {@code b}.
+     *
+     * @return the (input indices of a) word in {@code L(a) \ L(b)}, or {@code null} if {@code L(a) ⊆ L(b)}
+     */
+    static int @Nullable [] findInclusionCounterexample(IntNFA a, IntNFA b, boolean useSimulation) {
+        final long[][] sim = useSimulation ? Simulations.computeSimulation(IntNFA.union(a, b)) : null;
+        return new Antichains(a, b, sim, 0, a.size).check();
+    }
+
+    /**
+     * Searches for a word that is rejected by the given NFA.
+     *
+     * @return the (input indices of a) rejected word, or {@code null} if the given NFA is universal
+     */
+    static int @Nullable [] findRejectedWord(IntNFA nfa, boolean useSimulation) {
+        return findInclusionCounterexample(IntNFA.universal(nfa.numInputs), nfa, useSimulation);
+    }
+
+    /**
+     * Searches for a word that is accepted by exactly one of the two given NFAs.
+     *
+     * @return the (input indices of a) separating word, or {@code null} if both NFAs accept the same language
+     */
+    static int @Nullable [] findSeparatingWord(IntNFA nfa1, IntNFA nfa2, boolean useSimulation) {
+        // compute the simulation only once for both directions
+        final long[][] sim = useSimulation ? Simulations.computeSimulation(IntNFA.union(nfa1, nfa2)) : null;
+        final int[] result = new Antichains(nfa1, nfa2, sim, 0, nfa1.size).check();
+        return result != null ? result : new Antichains(nfa2, nfa1, sim, nfa1.size, 0).check();
+    }
+
+    private int @Nullable [] check() {
+        @SuppressWarnings("unchecked")
+        final List<Node>[] antichains = new List[a.size];
+        final Deque<Node> queue = new ArrayDeque<>();
+
+        final int[] buffer = new int[b.size];
+        final boolean[] marked = new boolean[b.size];
+
+        int len = 0;
+        for (int s = 0; s < b.size; s++) {
+            if (b.initial[s]) {
+                buffer[len++] = s;
+            }
+        }
+        final int[] init = minimize(buffer, len);
+
+        for (int p = 0; p < a.size; p++) {
+            if (a.initial[p]) {
+                final Node node = new Node(p, init, null, -1);
+                if (isRejecting(node)) {
+                    return node.toWord();
+                }
+                if (!isCovered(node) && insert(antichains, node)) {
+                    queue.add(node);
+                }
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            final Node curr = queue.poll();
+            if (curr.removed) {
+                continue;
+            }
+
+            for (int i = 0; i < numInputs; i++) {
+                final int[] aSuccs = a.getSuccessors(curr.state, i);
+                if (aSuccs.length == 0) {
+                    continue;
+                }
+
+                // compute the i-successor set of the B-states
+                len = 0;
+                for (int s : curr.set) {
+                    for (int succ : b.getSuccessors(s, i)) {
+                        if (!marked[succ]) {
+                            marked[succ] = true;
+                            buffer[len++] = succ;
+                        }
+                    }
+                }
+                for (int j = 0; j < len; j++) {
+                    marked[buffer[j]] = false;
+                }
+                Arrays.sort(buffer, 0, len);
+                final int[] succSet = minimize(buffer, len);
+
+                for (int p : aSuccs) {
+                    final Node node = new Node(p, succSet, curr, i);
+                    if (isRejecting(node)) {
+                        return node.toWord();
+                    }
+                    if (!isCovered(node) && insert(antichains, node)) {
+                        queue.add(node);
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private boolean isRejecting(Node node) {
+        if (!a.accepting[node.state]) {
+            return false;
+        }
+        for (int s : node.set) {
+            if (b.accepting[s]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the language of the A-state of the given node is included in the language of one of its B-states,
+     * in which case no counterexample can be found from the given node.
+     */
+    private boolean isCovered(Node node) {
+        if (sim == null) {
+            return false;
+        }
+        final long[] row = sim[offsetA + node.state];
+        for (int s : node.set) {
+            if (Simulations.get(row, offsetB + s)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserts the given node into the antichains unless it is subsumed by an existing node. Existing nodes that are
+     * subsumed by the given node are removed (and marked accordingly, so that they are skipped in the queue).
+     *
+     * @return {@code true} if the node was inserted, {@code false} otherwise
+     */
+    private boolean insert(List<Node>[] antichains, Node node) {
+        final int p = node.state;
+
+        if (sim == null) {
+            final List<Node> antichain = antichains[p];
+            if (antichain == null) {
+                antichains[p] = new ArrayList<>();
+            } else {
+                for (Node other : antichain) {
+                    if (isSubset(other.set, node.set)) {
+                        return false;
+                    }
+                }
+                for (Iterator<Node> iter = antichain.iterator(); iter.hasNext(); ) {
+                    final Node other = iter.next();
+                    if (isSubset(node.set, other.set)) {
+                        other.removed = true;
+                        iter.remove();
+                    }
+                }
+            }
+            antichains[p].add(node);
+            return true;
+        }
+
+        final long[] nodeSet = toBitSet(node.set);
+
+        // node is subsumed by (p', S') if p' simulates p and S' is simulated by S
+        final long[] simP = sim[offsetA + p];
+        for (int q = 0; q < a.size; q++) {
+            final List<Node> antichain = antichains[q];
+            if (antichain != null && Simulations.get(simP, offsetA + q)) {
+                for (Node other : antichain) {
+                    if (isSimulatedBy(other.set, nodeSet)) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        // node subsumes (p', S') if p simulates p' and S is simulated by S'
+        for (int q = 0; q < a.size; q++) {
+            final List<Node> antichain = antichains[q];
+            if (antichain != null && Simulations.get(sim[offsetA + q], offsetA + p)) {
+                for (Iterator<Node> iter = antichain.iterator(); iter.hasNext(); ) {
+                    final Node other = iter.next();
+                    if (isSimulatedBy(node.set, toBitSet(other.set))) {
+                        other.removed = true;
+                        iter.remove();
+                    }
+                }
+            }
+        }
+
+        if (antichains[p] == null) {
+            antichains[p] = new ArrayList<>();
+        }
+        antichains[p].add(node);
+        return true;
+    }
+
+    /**
+     * Returns the given (sorted) B-states as an array. If simulations are used, states that are simulated by another
+     * state of the set are removed, because they do not contribute to the language of the set.
+     */
+    private int[] minimize(int[] states, int length) {
+        if (sim == null || length < 2) {
+            return Arrays.copyOf(states, length);
+        }
+
+        final int[] result = new int[length];
+        int len = 0;
+        for (int j = 0; j < length; j++) {
+            final int s = states[j];
+            final long[] row = sim[offsetB + s];
+            boolean dominated = false;
+            for (int k = 0; k < length && !dominated; k++) {
+                final int t = states[k];
+                // for mutually simulating states, keep the one with the smallest index
+                dominated = t != s && Simulations.get(row, offsetB + t) &&
+                            (t < s || !Simulations.get(sim[offsetB + t], offsetB + s));
+            }
+            if (!dominated) {
+                result[len++] = s;
+            }
+        }
+
+        return Arrays.copyOf(result, len);
+    }
+
+    private long[] toBitSet(int[] states) {
+        final long[] result = new long[sim[0].length];
+        for (int s : states) {
+            Simulations.set(result, offsetB + s);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether each of the given B-states is simulated by a state of the given bit set.
+     */
+    private boolean isSimulatedBy(int[] states, long[] bitSet) {
+        for (int s : states) {
+            if (!intersects(sim[offsetB + s], bitSet)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean intersects(long[] bitSet1, long[] bitSet2) {
+        for (int w = 0; w < bitSet1.length; w++) {
+            if ((bitSet1[w] & bitSet2[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSubset(int[] subset, int[] superset) {
+        if (subset.length > superset.length) {
+            return false;
+        }
+        int j = 0;
+        for (int s : subset) {
+            while (j < superset.length && superset[j] < s) {
+                j++;
+            }
+            if (j == superset.length || superset[j] != s) {
+                return false;
+            }
+            j++;
+        }
+        return true;
+    }
+
+    private static final class Node {
+
+        final int state;
+        final int[] set;
+        final @Nullable Node parent;
+        final int input;
+        boolean removed;
+
+        Node(int state, int[] set, @Nullable Node parent, int input) {
+            this.state = state;
+            this.set = set;
+            this.parent = parent;
+            this.input = input;
+        }
+
+        int[] toWord() {
+            int length = 0;
+            for (Node n = this; n.parent != null; n = n.parent) {
+                length++;
+            }
+            final int[] result = new int[length];
+            for (Node n = this; n.parent != null; n = n.parent) {
+                result[--length] = n.input;
+            }
+            return result;
+        }
+    }
+}
@@ -15,21 +15,20 @@
  */
 package net.automatalib.util.automata.fsa;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.MutableDFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
-import net.automatalib.ts.acceptors.DeterministicAcceptorTS;
 import net.automatalib.util.automata.copy.AutomatonCopyMethod;
 import net.automatalib.util.automata.copy.AutomatonLowLevelCopy;
 import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.util.automata.product.ProductExploration;
 import net.automatalib.util.ts.acceptors.AcceptanceCombiner;
-import net.automatalib.util.ts.acceptors.Acceptors;
-import net.automatalib.util.ts.copy.TSCopy;
-import net.automatalib.util.ts.traversal.TSTraversal;
-import net.automatalib.util.ts.traversal.TSTraversalMethod;
 import net.automatalib.words.Alphabet;
 
 /**
@@ -91,12 +90,86 @@ public final class DFAs {
                                                                Collection<? extends I> inputs,
                                                                A out,
                                                                AcceptanceCombiner combiner) {
-        DeterministicAcceptorTS<?, I> acc = Acceptors.combine(dfa1, dfa2, combiner);
+        return combine(dfa1, dfa2, inputs, out, combiner, false);
+    }
+
+    /**
+     * Most general way of combining two DFAs. The {@link AcceptanceCombiner} specified via the {@code combiner}
+     * parameter specifies how acceptance values of the DFAs will be combined to an acceptance value in the result DFA.
+     * <p>
+     * Only the reachable part of the product is constructed (see {@link ProductExploration}). States are added to
+     * {@code out} in breadth-first order if the product is explored sequentially.
+     *
+     * @param dfa1
+     *         the first DFA
+     * @param dfa2
+     *         the second DFA
+     * @param inputs
+     *         the input symbols to consider
+     * @param out
+     *         the mutable DFA for storing the result
+     * @param combiner
+     *         combination method for acceptance values
+     * @param parallel
+     *         whether to explore the product in parallel
+     *
+     * @return {@code out}, for convenience
+     */
+    public static <I, S, A extends MutableDFA<S, I>> A combine(DFA<?, I> dfa1,
+                                                               DFA<?, I> dfa2,
+                                                               Collection<? extends I> inputs,
+                                                               A out,
+                                                               AcceptanceCombiner combiner,
+                                                               boolean parallel) {
+        final List<? extends I> inputList = new ArrayList<>(inputs);
+        final boolean[] acc1 = acceptance(dfa1);
+        final boolean[] acc2 = acceptance(dfa2);
+        final List<S> states = new ArrayList<>();
+
+        ProductExploration.explore(ProductExploration.successorTable(dfa1, inputList),
+                                   ProductExploration.initialState(dfa1),
+                                   ProductExploration.successorTable(dfa2, inputList),
+                                   ProductExploration.initialState(dfa2),
+                                   inputList.size(),
+                                   new ProductExploration.Listener() {
+
+                                       @Override
+                                       public void addState(int id, int state1, int state2) {
+                                           final boolean accepting =
+                                                   combiner.combine(state1 != ProductExploration.UNDEFINED &&
+                                                                    acc1[state1],
+                                                                    state2 != ProductExploration.UNDEFINED &&
+                                                                    acc2[state2]);
+                                           states.add(id == 0 ?
+                                                              out.addInitialState(accepting) :
+                                                              out.addState(accepting));
+                                       }
+
+                                       @Override
+                                       public void addTransition(int src,
+                                                                 int state1,
+                                                                 int state2,
+                                                                 int input,
+                                                                 int tgt) {
+                                           out.setTransition(states.get(src), inputList.get(input), states.get(tgt));
+                                       }
+                                   },
+                                   parallel);
 
-        TSCopy.copy(TSTraversalMethod.DEPTH_FIRST, acc, TSTraversal.NO_LIMIT, inputs, out);
         return out;
     }
 
+    private static <S> boolean[] acceptance(DFA<S, ?> dfa) {
+        final StateIDs<S> ids = dfa.stateIDs();
+        final boolean[] result = new boolean[dfa.size()];
+
+        for (S s : dfa) {
+            result[ids.getStateId(s)] = dfa.isAccepting(s);
+        }
+
+        return result;
+    }
+
     /**
      * Calculates the conjunction ("and") of two DFA, and returns the result as a new DFA.
      *
@@ -0,0 +1,287 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import net.automatalib.automata.fsa.MutableDFA;
+
+/**
+ * An integer-based implementation of the subset construction for {@link IntNFA}s.
+ * <p>
+ * Subsets are represented as sorted, duplicate-free sequences of state indices which are stored consecutively in a
+ * single (growing) pool array. Each subset is identified by its index, and a hash table (with open addressing) over
+ * the cached hash values of the subsets maps the contents of a subset to its index. Successor subsets are computed
+ * into a re-used buffer and only copied to the pool if they have not been discovered before.
+ * <p>
+ * The subsets are explored level by level in breadth-first order. Optionally, the successor subsets of each level are
+ * computed in parallel, whereas their (sequential) registration in the hash table preserves the order of the
+ * discovered subsets, i.e., both variants yield the same result.
+ */
+final class Determinizer {
+
+    private static final int NO_SUBSET = -1;
+
+    private final IntNFA nfa;
+    private final int numInputs;
+    private final boolean partial;
+
+    // pooled subsets: subset i occupies pool[starts[i]] (inclusive) to pool[starts[i + 1]] (exclusive)
+    private int[] pool;
+    private int poolSize;
+    private int[] starts;
+    private int[] hashes;
+    private boolean[] accepting;
+    private int numSubsets;
+
+    // hash table of subset indices
+    private int[] table;
+
+    // transitions: transitions[s * numInputs + i] is the i-successor of subset s
+    private int[] transitions;
+
+    Determinizer(IntNFA nfa, boolean partial) {
+        this.nfa = nfa;
+        this.numInputs = nfa.numInputs;
+        this.partial = partial;
+
+        this.pool = new int[Math.max(16, nfa.size)];
+        this.starts = new int[17];
+        this.hashes = new int[16];
+        this.accepting = new boolean[16];
+        this.table = new int[32];
+        Arrays.fill(this.table, NO_SUBSET);
+        this.transitions = new int[16 * numInputs];
+    }
+
+    /**
+     * Explores all subsets that are reachable from the initial subset.
+     *
+     * @param parallel
+     *         whether the successor subsets of each breadth-first level should be computed in parallel
+     */
+    void determinize(boolean parallel) {
+        final Workspace workspace = new Workspace(nfa.size);
+
+        int len = 0;
+        for (int s = 0; s < nfa.size; s++) {
+            if (nfa.initial[s]) {
+                workspace.buffer[len++] = s;
+            }
+        }
+        intern(workspace.buffer, len, hash(workspace.buffer, len));
+
+        int levelStart = 0;
+        while (levelStart < numSubsets) {
+            final int levelEnd = numSubsets;
+            if (parallel && levelEnd - levelStart > 1) {
+                expandParallel(levelStart, levelEnd);
+            } else {
+                for (int subset = levelStart; subset < levelEnd; subset++) {
+                    for (int i = 0; i < numInputs; i++) {
+                        len = workspace.computeSuccessors(subset, i);
+                        setTransition(subset, i, len == 0 && partial ?
+                                NO_SUBSET :
+                                intern(workspace.buffer, len, hash(workspace.buffer, len)));
+                    }
+                }
+            }
+            levelStart = levelEnd;
+        }
+    }
+
+    private void expandParallel(int levelStart, int levelEnd) {
+        final int numSuccessors = (levelEnd - levelStart) * numInputs;
+        final int[][] successors = new int[numSuccessors][];
+        final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(() -> new Workspace(nfa.size));
+
+        IntStream.range(0, numSuccessors).parallel().forEach(idx -> {
+            final Workspace workspace = workspaces.get();
+            final int len = workspace.computeSuccessors(levelStart + idx / numInputs, idx % numInputs);
+            successors[idx] = Arrays.copyOf(workspace.buffer, len);
+        });
+
+        for (int idx = 0; idx < numSuccessors; idx++) {
+            final int[] succ = successors[idx];
+            final int subset = levelStart + idx / numInputs;
+            final int input = idx % numInputs;
+            setTransition(subset, input, succ.length == 0 && partial ?
+                    NO_SUBSET :
+                    intern(succ, succ.length, hash(succ, succ.length)));
+        }
+    }
+
+    /**
+     * Writes the explored subsets and their transitions to the given DFA. The initial subset is added as the initial
+     * state.
+     */
+    <S, I> void writeTo(MutableDFA<S, I> out, List<? extends I> inputs) {
+        final List<S> states = new ArrayList<>(numSubsets);
+        states.add(out.addInitialState(accepting[0]));
+        for (int subset = 1; subset < numSubsets; subset++) {
+            states.add(out.addState(accepting[subset]));
+        }
+
+        for (int subset = 0; subset < numSubsets; subset++) {
+            final S state = states.get(subset);
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = transitions[subset * numInputs + i];
+                if (succ != NO_SUBSET) {
+                    out.setTransition(state, inputs.get(i), states.get(succ));
+                }
+            }
+        }
+    }
+
+    int getNumSubsets() {
+        return numSubsets;
+    }
+
+    /**
+     * Returns the index of the subset with the given contents, adding it to the pool if necessary.
+     */
+    private int intern(int[] subset, int length, int hash) {
+        final int mask = table.length - 1;
+        int slot = hash & mask;
+        int idx;
+        while ((idx = table[slot]) != NO_SUBSET) {
+            if (hashes[idx] == hash && contentEquals(idx, subset, length)) {
+                return idx;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        final int id = numSubsets++;
+        ensureCapacity(length);
+
+        final int start = starts[id];
+        System.arraycopy(subset, 0, pool, start, length);
+        poolSize = start + length;
+        starts[id + 1] = poolSize;
+        hashes[id] = hash;
+
+        boolean acc = false;
+        for (int j = 0; j < length && !acc; j++) {
+            acc = nfa.accepting[subset[j]];
+        }
+        accepting[id] = acc;
+
+        table[slot] = id;
+        if (2 * numSubsets > table.length) {
+            rehash();
+        }
+
+        return id;
+    }
+
+    private boolean contentEquals(int idx, int[] subset, int length) {
+        final int start = starts[idx];
+        if (starts[idx + 1] - start != length) {
+            return false;
+        }
+        for (int j = 0; j < length; j++) {
+            if (pool[start + j] != subset[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setTransition(int subset, int input, int succ) {
+        transitions[subset * numInputs + input] = succ;
+    }
+
+    private void ensureCapacity(int length) {
+        if (poolSize + length > pool.length) {
+            pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolSize + length));
+        }
+        if (numSubsets + 1 > hashes.length) {
+            final int newCapacity = hashes.length * 2;
+            hashes = Arrays.copyOf(hashes, newCapacity);
+            accepting = Arrays.copyOf(accepting, newCapacity);
+            starts = Arrays.copyOf(starts, newCapacity + 1);
+            transitions = Arrays.copyOf(transitions, newCapacity * numInputs);
+        }
+    }
+
+    private void rehash() {
+        final int[] newTable = new int[table.length * 2];
+        Arrays.fill(newTable, NO_SUBSET);
+        final int mask = newTable.length - 1;
+
+        for (int id = 0; id < numSubsets; id++) {
+            int slot = hashes[id] & mask;
+            while (newTable[slot] != NO_SUBSET) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = id;
+        }
+
+        table = newTable;
+    }
+
+    private static int hash(int[] subset, int length) {
+        int result = 1;
+        for (int j = 0; j < length; j++) {
+            result = 31 * result + subset[j];
+        }
+        // spread the bits, since the table uses the lower bits only
+        return result ^ (result >>> 16);
+    }
+
+    /**
+     * Per-thread buffers for the computation of successor subsets.
+     */
+    private final class Workspace {
+
+        final int[] buffer;
+        final int[] stamps;
+        int stamp;
+
+        Workspace(int size) {
+            this.buffer = new int[size];
+            this.stamps = new int[size];
+        }
+
+        /**
+         * Computes the (sorted) {@code input}-successors of the given subset into {@link #buffer}.
+         *
+         * @return the size of the successor subset
+         */
+        int computeSuccessors(int subset, int input) {
+            if (++stamp == 0) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+
+            int len = 0;
+            for (int j = starts[subset]; j < starts[subset + 1]; j++) {
+                for (int succ : nfa.getSuccessors(pool[j], input)) {
+                    if (stamps[succ] != stamp) {
+                        stamps[succ] = stamp;
+                        buffer[len++] = succ;
+                    }
+                }
+            }
+
+            Arrays.sort(buffer, 0, len);
+            return len;
+        }
+    }
+}
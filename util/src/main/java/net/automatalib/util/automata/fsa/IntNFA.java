@@ -0,0 +1,337 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.NFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.words.Alphabet;
+
+/**
+ * A compact, integer-based and immutable representation of an NFA, used by the (simulation-based) algorithms on NFAs.
+ * The successors (and predecessors) of each state are stored per input symbol as sorted, duplicate-free arrays.
+ */
+final class IntNFA {
+
+    private static final int[] EMPTY = new int[0];
+
+    final int size;
+    final int numInputs;
+    final boolean[] initial;
+    final boolean[] accepting;
+
+    // successors[s * numInputs + i] are the i-successors of state s
+    final int[][] successors;
+    private int[][] predecessors;
+
+    IntNFA(int size, int numInputs, boolean[] initial, boolean[] accepting, int[][] successors) {
+        this.size = size;
+        this.numInputs = numInputs;
+        this.initial = initial;
+        this.accepting = accepting;
+        this.successors = successors;
+    }
+
+    static <S, I> IntNFA of(NFA<S, I> nfa, Collection<? extends I> inputs) {
+        final int size = nfa.size();
+        final int numInputs = inputs.size();
+        final StateIDs<S> ids = nfa.stateIDs();
+
+        final boolean[] initial = new boolean[size];
+        final boolean[] accepting = new boolean[size];
+        final int[][] successors = new int[size * numInputs][];
+
+        for (S init : nfa.getInitialStates()) {
+            initial[ids.getStateId(init)] = true;
+        }
+
+        for (int s = 0; s < size; s++) {
+            final S state = ids.getState(s);
+            accepting[s] = nfa.isAccepting(state);
+
+            int i = 0;
+            for (I sym : inputs) {
+                final Collection<S> succs = nfa.getSuccessors(state, sym);
+                final int[] succIds = new int[succs.size()];
+                int j = 0;
+                for (S succ : succs) {
+                    succIds[j++] = ids.getStateId(succ);
+                }
+                successors[s * numInputs + i++] = normalize(succIds, j);
+            }
+        }
+
+        return new IntNFA(size, numInputs, initial, accepting, successors);
+    }
+
+    /**
+     * Returns an NFA with a single (initial and accepting) state that has a self-loop for each input symbol, i.e., an
+     * NFA that accepts all words.
+     */
+    static IntNFA universal(int numInputs) {
+        final int[][] successors = new int[numInputs][];
+        Arrays.fill(successors, new int[] {0});
+        return new IntNFA(1, numInputs, new boolean[] {true}, new boolean[] {true}, successors);
+    }
+
+    /**
+     * Returns the disjoint union of the two given NFAs (over the same input symbols). The states of {@code nfa1} keep
+     * their indices, whereas the states of {@code nfa2} are shifted by the size of {@code nfa1}.
+     */
+    static IntNFA union(IntNFA nfa1, IntNFA nfa2) {
+        final int size = nfa1.size + nfa2.size;
+        final int numInputs = nfa1.numInputs;
+        final int offset = nfa1.size;
+
+        final boolean[] initial = Arrays.copyOf(nfa1.initial, size);
+        final boolean[] accepting = Arrays.copyOf(nfa1.accepting, size);
+        System.arraycopy(nfa2.initial, 0, initial, offset, nfa2.size);
+        System.arraycopy(nfa2.accepting, 0, accepting, offset, nfa2.size);
+
+        final int[][] successors = Arrays.copyOf(nfa1.successors, size * numInputs);
+        for (int idx = 0; idx < nfa2.successors.length; idx++) {
+            final int[] succs = nfa2.successors[idx];
+            final int[] shifted = new int[succs.length];
+            for (int j = 0; j < succs.length; j++) {
+                shifted[j] = succs[j] + offset;
+            }
+            successors[offset * numInputs + idx] = shifted;
+        }
+
+        return new IntNFA(size, numInputs, initial, accepting, successors);
+    }
+
+    /**
+     * Returns the successors of the given state for the given input symbol (index).
+     */
+    int[] getSuccessors(int state, int input) {
+        return successors[state * numInputs + input];
+    }
+
+    /**
+     * Returns the predecessors of the given state for the given input symbol (index).
+     */
+    int[] getPredecessors(int state, int input) {
+        return getPredecessorArray()[state * numInputs + input];
+    }
+
+    int numTransitions() {
+        int result = 0;
+        for (int[] succs : successors) {
+            result += succs.length;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the reversed NFA, i.e., the NFA with inverted transitions and swapped initial and accepting states.
+     */
+    IntNFA reverse() {
+        final IntNFA result = new IntNFA(size, numInputs, accepting, initial, getPredecessorArray());
+        result.predecessors = successors;
+        return result;
+    }
+
+    private int[][] getPredecessorArray() {
+        if (predecessors == null) {
+            predecessors = invert();
+        }
+        return predecessors;
+    }
+
+    /**
+     * Returns the quotient of this NFA with respect to the given (dense) classification of its states. A class is
+     * initial (accepting) iff any of its states is initial (accepting), and its transitions are the union of the
+     * transitions of its states.
+     */
+    IntNFA quotient(int[] classes, int numClasses) {
+        final boolean[] newInitial = new boolean[numClasses];
+        final boolean[] newAccepting = new boolean[numClasses];
+        final int[] counts = new int[numClasses * numInputs];
+
+        for (int s = 0; s < size; s++) {
+            final int c = classes[s];
+            newInitial[c] |= initial[s];
+            newAccepting[c] |= accepting[s];
+            for (int i = 0; i < numInputs; i++) {
+                counts[c * numInputs + i] += getSuccessors(s, i).length;
+            }
+        }
+
+        final int[][] newSuccessors = new int[numClasses * numInputs][];
+        for (int idx = 0; idx < newSuccessors.length; idx++) {
+            newSuccessors[idx] = new int[counts[idx]];
+        }
+        Arrays.fill(counts, 0);
+
+        for (int s = 0; s < size; s++) {
+            final int c = classes[s];
+            for (int i = 0; i < numInputs; i++) {
+                final int idx = c * numInputs + i;
+                for (int succ : getSuccessors(s, i)) {
+                    newSuccessors[idx][counts[idx]++] = classes[succ];
+                }
+            }
+        }
+
+        for (int idx = 0; idx < newSuccessors.length; idx++) {
+            newSuccessors[idx] = normalize(newSuccessors[idx], newSuccessors[idx].length);
+        }
+
+        return new IntNFA(numClasses, numInputs, newInitial, newAccepting, newSuccessors);
+    }
+
+    /**
+     * Returns the sub-NFA of all states that are both reachable from an initial state and co-reachable from an
+     * accepting state.
+     */
+    IntNFA trim() {
+        final boolean[] reachable = reach(initial, false);
+        final boolean[] coReachable = reach(accepting, true);
+
+        final int[] classes = new int[size];
+        int numStates = 0;
+        for (int s = 0; s < size; s++) {
+            classes[s] = reachable[s] && coReachable[s] ? numStates++ : -1;
+        }
+
+        if (numStates == size) {
+            return this;
+        }
+
+        final boolean[] newInitial = new boolean[numStates];
+        final boolean[] newAccepting = new boolean[numStates];
+        final int[][] newSuccessors = new int[numStates * numInputs][];
+        final int[] buffer = new int[size];
+
+        for (int s = 0; s < size; s++) {
+            final int c = classes[s];
+            if (c < 0) {
+                continue;
+            }
+            newInitial[c] = initial[s];
+            newAccepting[c] = accepting[s];
+            for (int i = 0; i < numInputs; i++) {
+                int len = 0;
+                for (int succ : getSuccessors(s, i)) {
+                    if (classes[succ] >= 0) {
+                        buffer[len++] = classes[succ];
+                    }
+                }
+                newSuccessors[c * numInputs + i] = len == 0 ? EMPTY : Arrays.copyOf(buffer, len);
+            }
+        }
+
+        return new IntNFA(numStates, numInputs, newInitial, newAccepting, newSuccessors);
+    }
+
+    private boolean[] reach(boolean[] start, boolean backwards) {
+        final boolean[] visited = new boolean[size];
+        final int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+
+        for (int s = 0; s < size; s++) {
+            if (start[s]) {
+                visited[s] = true;
+                queue[tail++] = s;
+            }
+        }
+
+        while (head < tail) {
+            final int s = queue[head++];
+            for (int i = 0; i < numInputs; i++) {
+                for (int succ : backwards ? getPredecessors(s, i) : getSuccessors(s, i)) {
+                    if (!visited[succ]) {
+                        visited[succ] = true;
+                        queue[tail++] = succ;
+                    }
+                }
+            }
+        }
+
+        return visited;
+    }
+
+    <I> CompactNFA<I> toCompactNFA(Alphabet<I> alphabet) {
+        final CompactNFA<I> result = new CompactNFA<>(alphabet, size);
+
+        for (int s = 0; s < size; s++) {
+            result.addIntState(accepting[s]);
+            if (initial[s]) {
+                result.setInitial(s, true);
+            }
+        }
+
+        for (int s = 0; s < size; s++) {
+            for (int i = 0; i < numInputs; i++) {
+                for (int succ : getSuccessors(s, i)) {
+                    result.addTransition(s, i, succ);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private int[][] invert() {
+        final int[][] transitions = successors;
+        final int numEntries = transitions.length;
+        final int[] counts = new int[numEntries];
+
+        for (int idx = 0; idx < numEntries; idx++) {
+            final int i = idx % numInputs;
+            for (int tgt : transitions[idx]) {
+                counts[tgt * numInputs + i]++;
+            }
+        }
+
+        final int[][] result = new int[numEntries][];
+        for (int idx = 0; idx < numEntries; idx++) {
+            result[idx] = counts[idx] == 0 ? EMPTY : new int[counts[idx]];
+        }
+        Arrays.fill(counts, 0);
+
+        // sources are processed in ascending order, so the resulting arrays are sorted
+        for (int idx = 0; idx < numEntries; idx++) {
+            final int src = idx / numInputs;
+            final int i = idx % numInputs;
+            for (int tgt : transitions[idx]) {
+                final int tgtIdx = tgt * numInputs + i;
+                result[tgtIdx][counts[tgtIdx]++] = src;
+            }
+        }
+
+        return result;
+    }
+
+    private static int[] normalize(int[] array, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(array, 0, length);
+        int len = 1;
+        for (int j = 1; j < length; j++) {
+            if (array[j] != array[len - 1]) {
+                array[len++] = array[j];
+            }
+        }
+        return len == array.length ? array : Arrays.copyOf(array, len);
+    }
+}
@@ -0,0 +1,559 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.NFA;
+import net.automatalib.words.Alphabet;
+
+/**
+ * A lazily determinized view of an {@link NFA}. Instead of constructing the complete powerset automaton upfront (see
+ * {@link NFAs#determinize(NFA, Alphabet)}), the subset states of this DFA are only materialized when they are reached
+ * by a transition. This is useful if only a limited number of words needs to be processed by the determinization of a
+ * large NFA.
+ * <p>
+ * Materialized subsets are kept in a cache of bounded size, which also stores the (already computed) transitions
+ * between the cached subsets. Once the cache is full, the least recently used subset is evicted. Internally, cached
+ * subsets are identified by integer slots, and transitions are stored as slot references that are invalidated upon
+ * eviction of their target. Subset states handed out by this view remain valid after their eviction, i.e., they can
+ * still be used to query successors (which re-materializes them).
+ * <p>
+ * The view is complete, i.e., subsets that are left by all NFA runs are represented by an (empty, rejecting) sink
+ * subset. The {@link #getStates() state set} of this view is computed by an (uncached) exploration of all reachable
+ * subsets, which may be exponentially large.
+ * <p>
+ * Note that this class is not thread-safe, even for read-only access.
+ *
+ * @param <I>
+ *         input symbol type
+ */
+public class LazyDeterminizedDFA<I> implements DFA<LazyDeterminizedDFA.Subset, I>, InputAlphabetHolder<I> {
+
+    private static final int NO_SLOT = -1;
+
+    private final IntNFA nfa;
+    private final Alphabet<I> alphabet;
+    private final int numInputs;
+    private final int capacity;
+    private final Subset initial;
+
+    // cache slots
+    private final Subset[] subsets;
+    private final int[] generations;
+    private int numSlots;
+
+    // cached transitions: successors[slot * numInputs + i] is the i-successor slot, valid if its generation matches
+    private final int[] successors;
+    private final int[] successorGenerations;
+
+    // doubly-linked LRU list, from the most recently used (head) to the least recently used (tail) slot
+    private final int[] prev;
+    private final int[] next;
+    private int head = NO_SLOT;
+    private int tail = NO_SLOT;
+
+    // hash buckets (chained via slots)
+    private final int[] buckets;
+    private final int[] chain;
+
+    // workspace for the computation of successor subsets
+    private final int[] buffer;
+    private final int[] stamps;
+    private int stamp;
+
+    private long hits;
+    private long misses;
+    private long materializations;
+    private long evictions;
+
+    /**
+     * Constructor.
+     *
+     * @param nfa
+     *         the NFA to determinize
+     * @param alphabet
+     *         the input alphabet
+     * @param cacheCapacity
+     *         the maximum number of cached subsets, must be at least 2
+     */
+    public LazyDeterminizedDFA(NFA<?, I> nfa, Alphabet<I> alphabet, int cacheCapacity) {
+        if (cacheCapacity < 2) {
+            throw new IllegalArgumentException("The cache capacity must be at least 2, found: " + cacheCapacity);
+        }
+
+        this.nfa = IntNFA.of(nfa, alphabet);
+        this.alphabet = alphabet;
+        this.numInputs = alphabet.size();
+        this.capacity = cacheCapacity;
+
+        this.subsets = new Subset[cacheCapacity];
+        this.generations = new int[cacheCapacity];
+        this.successors = new int[cacheCapacity * numInputs];
+        this.successorGenerations = new int[cacheCapacity * numInputs];
+        this.prev = new int[cacheCapacity];
+        this.next = new int[cacheCapacity];
+        this.buckets = new int[Integer.highestOneBit(Math.min(cacheCapacity - 1, 1 << 28)) << 2];
+        this.chain = new int[cacheCapacity];
+        Arrays.fill(this.successors, NO_SLOT);
+        Arrays.fill(this.buckets, NO_SLOT);
+
+        this.buffer = new int[this.nfa.size];
+        this.stamps = new int[this.nfa.size];
+
+        int len = 0;
+        for (int s = 0; s < this.nfa.size; s++) {
+            if (this.nfa.initial[s]) {
+                buffer[len++] = s;
+            }
+        }
+        this.initial = newSubset(len);
+    }
+
+    @Override
+    public Subset getInitialState() {
+        return initial;
+    }
+
+    @Override
+    public Subset getTransition(Subset state, I input) {
+        return getSuccessor(state, alphabet.getSymbolIndex(input));
+    }
+
+    /**
+     * Returns the successor subset of the given subset for the input symbol with the given index.
+     *
+     * @param state
+     *         the subset state
+     * @param inputIdx
+     *         the index of the input symbol
+     *
+     * @return the successor subset
+     */
+    public Subset getSuccessor(Subset state, int inputIdx) {
+        final int slot = locate(state);
+        final int idx = slot * numInputs + inputIdx;
+        final int succSlot = successors[idx];
+
+        if (succSlot != NO_SLOT && generations[succSlot] == successorGenerations[idx]) {
+            hits++;
+            touch(succSlot);
+            return subsets[succSlot];
+        }
+
+        misses++;
+        final int len = computeSuccessors(state.states, inputIdx);
+        final int hash = hash(buffer, len);
+
+        int newSlot = find(buffer, len, hash);
+        if (newSlot == NO_SLOT) {
+            newSlot = insert(createSubset(buffer, len, hash));
+        } else {
+            touch(newSlot);
+        }
+
+        // the slot of the current subset is more recently used than any other slot, i.e., it has not been evicted
+        successors[idx] = newSlot;
+        successorGenerations[idx] = generations[newSlot];
+
+        return subsets[newSlot];
+    }
+
+    @Override
+    public boolean isAccepting(Subset state) {
+        return state.accepting;
+    }
+
+    /**
+     * Returns all reachable subsets. Note that this requires an exploration of the complete powerset automaton (which
+     * neither uses nor affects the cache) and hence may be very expensive.
+     *
+     * @return all reachable subset states
+     */
+    @Override
+    public Collection<Subset> getStates() {
+        final Set<Subset> visited = new HashSet<>();
+        final List<Subset> result = new ArrayList<>();
+        final Deque<Subset> queue = new ArrayDeque<>();
+
+        visited.add(initial);
+        result.add(initial);
+        queue.add(initial);
+
+        while (!queue.isEmpty()) {
+            final Subset curr = queue.poll();
+            for (int i = 0; i < numInputs; i++) {
+                final int len = computeSuccessors(curr.states, i);
+                final Subset succ = newSubset(len);
+                if (visited.add(succ)) {
+                    result.add(succ);
+                    queue.add(succ);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return alphabet;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the subset cache.
+     *
+     * @return the cache statistics
+     */
+    public CacheStatistics getCacheStatistics() {
+        return new CacheStatistics(hits, misses, materializations, evictions, numSlots, capacity);
+    }
+
+    /**
+     * Resets the counters of the {@link #getCacheStatistics() cache statistics}. The contents of the cache are not
+     * affected.
+     */
+    public void resetCacheStatistics() {
+        hits = 0;
+        misses = 0;
+        materializations = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Returns the (most recently used) slot of the given subset, materializing it if necessary.
+     */
+    private int locate(Subset subset) {
+        int slot = subset.slot;
+        if (slot != NO_SLOT && generations[slot] == subset.generation) {
+            touch(slot);
+            return slot;
+        }
+
+        slot = find(subset.states, subset.states.length, subset.hash);
+        if (slot == NO_SLOT) {
+            return insert(subset);
+        }
+
+        touch(slot);
+        subset.slot = slot;
+        subset.generation = generations[slot];
+        return slot;
+    }
+
+    private int find(int[] states, int length, int hash) {
+        int slot = buckets[hash & (buckets.length - 1)];
+        while (slot != NO_SLOT) {
+            final Subset candidate = subsets[slot];
+            if (candidate.hash == hash && candidate.contentEquals(states, length)) {
+                return slot;
+            }
+            slot = chain[slot];
+        }
+        return NO_SLOT;
+    }
+
+    private int insert(Subset subset) {
+        final int slot;
+        if (numSlots < capacity) {
+            slot = numSlots++;
+        } else {
+            slot = tail;
+            evict(slot);
+        }
+
+        subsets[slot] = subset;
+        subset.slot = slot;
+        subset.generation = generations[slot];
+
+        final int bucket = subset.hash & (buckets.length - 1);
+        chain[slot] = buckets[bucket];
+        buckets[bucket] = slot;
+
+        linkFirst(slot);
+        materializations++;
+        return slot;
+    }
+
+    private void evict(int slot) {
+        unlink(slot);
+
+        final int bucket = subsets[slot].hash & (buckets.length - 1);
+        if (buckets[bucket] == slot) {
+            buckets[bucket] = chain[slot];
+        } else {
+            int iter = buckets[bucket];
+            while (chain[iter] != slot) {
+                iter = chain[iter];
+            }
+            chain[iter] = chain[slot];
+        }
+
+        // invalidates the slot hint of the evicted subset as well as all transitions pointing to this slot
+        generations[slot]++;
+        subsets[slot] = null;
+        Arrays.fill(successors, slot * numInputs, (slot + 1) * numInputs, NO_SLOT);
+        evictions++;
+    }
+
+    private void touch(int slot) {
+        if (head != slot) {
+            unlink(slot);
+            linkFirst(slot);
+        }
+    }
+
+    private void linkFirst(int slot) {
+        prev[slot] = NO_SLOT;
+        next[slot] = head;
+        if (head != NO_SLOT) {
+            prev[head] = slot;
+        }
+        head = slot;
+        if (tail == NO_SLOT) {
+            tail = slot;
+        }
+    }
+
+    private void unlink(int slot) {
+        final int p = prev[slot];
+        final int n = next[slot];
+        if (p == NO_SLOT) {
+            head = n;
+        } else {
+            next[p] = n;
+        }
+        if (n == NO_SLOT) {
+            tail = p;
+        } else {
+            prev[n] = p;
+        }
+    }
+
+    /**
+     * Computes the (sorted) {@code input}-successors of the given NFA states into {@link #buffer}.
+     *
+     * @return the number of successors
+     */
+    private int computeSuccessors(int[] states, int input) {
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+
+        int len = 0;
+        for (int s : states) {
+            for (int succ : nfa.getSuccessors(s, input)) {
+                if (stamps[succ] != stamp) {
+                    stamps[succ] = stamp;
+                    buffer[len++] = succ;
+                }
+            }
+        }
+
+        Arrays.sort(buffer, 0, len);
+        return len;
+    }
+
+    private Subset newSubset(int length) {
+        return createSubset(buffer, length, hash(buffer, length));
+    }
+
+    private Subset createSubset(int[] states, int length, int hash) {
+        final int[] copy = Arrays.copyOf(states, length);
+        boolean accepting = false;
+        for (int s : copy) {
+            if (nfa.accepting[s]) {
+                accepting = true;
+                break;
+            }
+        }
+        return new Subset(copy, hash, accepting);
+    }
+
+    private static int hash(int[] states, int length) {
+        int result = 1;
+        for (int j = 0; j < length; j++) {
+            result = 31 * result + states[j];
+        }
+        return result ^ (result >>> 16);
+    }
+
+    /**
+     * A state of a {@link LazyDeterminizedDFA}, i.e., a set of states of the determinized NFA. Two subsets are equal
+     * iff they contain the same NFA states.
+     */
+    public static final class Subset {
+
+        private final int[] states;
+        private final int hash;
+        private final boolean accepting;
+
+        // hint for the cache slot of this subset
+        private int slot = NO_SLOT;
+        private int generation;
+
+        Subset(int[] states, int hash, boolean accepting) {
+            this.states = states;
+            this.hash = hash;
+            this.accepting = accepting;
+        }
+
+        /**
+         * Returns the {@link net.automatalib.automata.concepts.StateIDs IDs} of the NFA states of this subset.
+         *
+         * @return the (sorted) IDs of the NFA states of this subset
+         */
+        public int[] getStateIds() {
+            return states.clone();
+        }
+
+        boolean contentEquals(int[] other, int length) {
+            if (states.length != length) {
+                return false;
+            }
+            for (int j = 0; j < length; j++) {
+                if (states[j] != other[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Subset)) {
+                return false;
+            }
+            final Subset that = (Subset) o;
+            return hash == that.hash && Arrays.equals(states, that.states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(states);
+        }
+    }
+
+    /**
+     * A snapshot of the statistics of the subset cache of a {@link LazyDeterminizedDFA}.
+     */
+    public static final class CacheStatistics {
+
+        private final long hits;
+        private final long misses;
+        private final long materializations;
+        private final long evictions;
+        private final int size;
+        private final int capacity;
+
+        CacheStatistics(long hits, long misses, long materializations, long evictions, int size, int capacity) {
+            this.hits = hits;
+            this.misses = misses;
+            this.materializations = materializations;
+            this.evictions = evictions;
+            this.size = size;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Returns the number of transitions that could be answered from the cache.
+         *
+         * @return the number of cache hits
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Returns the number of transitions whose successor subsets had to be computed.
+         *
+         * @return the number of cache misses
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Returns the ratio of transitions that could be answered from the cache.
+         *
+         * @return the hit ratio, or {@code 0} if no transitions have been queried yet
+         */
+        public double getHitRatio() {
+            final long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        /**
+         * Returns the number of subsets that have been added to the cache (including re-materialized subsets).
+         *
+         * @return the number of materialized subsets
+         */
+        public long getMaterializations() {
+            return materializations;
+        }
+
+        /**
+         * Returns the number of subsets that have been removed from the cache to make room for new subsets.
+         *
+         * @return the number of evicted subsets
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * Returns the number of currently cached subsets.
+         *
+         * @return the number of currently cached subsets
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the maximum number of subsets that can be cached at the same time.
+         *
+         * @return the capacity of the cache
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", materializations=" + materializations + ", evictions=" +
+                   evictions + ", size=" + size + ", capacity=" + capacity;
+        }
+    }
+}
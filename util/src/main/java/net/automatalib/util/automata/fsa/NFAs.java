@@ -15,22 +15,20 @@
  */
 package net.automatalib.util.automata.fsa;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.Collection;
-import java.util.Deque;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import net.automatalib.automata.concepts.InputAlphabetHolder;
-import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.fsa.MutableDFA;
 import net.automatalib.automata.fsa.NFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
 import net.automatalib.util.automata.Automata;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class NFAs {
 
@@ -44,8 +42,37 @@ public final class NFAs {
                                                 Alphabet<I> inputAlphabet,
                                                 boolean partial,
                                                 boolean minimize) {
+        return determinize(nfa, inputAlphabet, partial, minimize, false);
+    }
+
+    /**
+     * Determinizes the given NFA by means of the subset construction. The result is returned in the form of a {@link
+     * CompactDFA}.
+     *
+     * @param nfa
+     *         the NFA to determinize
+     * @param inputAlphabet
+     *         the input alphabet (this will be the input alphabet of the returned DFA)
+     * @param partial
+     *         whether the returned DFA may be partial, i.e., omit transitions to the empty subset
+     * @param minimize
+     *         whether the returned DFA should be minimized
+     * @param parallel
+     *         whether the successor subsets of each breadth-first level of the subset construction should be computed
+     *         in parallel. This may pay off for large NFAs with large subsets. The returned DFA is the same in both
+     *         cases.
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the determinized NFA
+     */
+    public static <I> CompactDFA<I> determinize(NFA<?, I> nfa,
+                                                Alphabet<I> inputAlphabet,
+                                                boolean partial,
+                                                boolean minimize,
+                                                boolean parallel) {
         CompactDFA<I> result = new CompactDFA<>(inputAlphabet);
-        determinize(nfa, inputAlphabet, result, partial, minimize);
+        determinize(nfa, inputAlphabet, result, partial, minimize, parallel);
         return result;
     }
 
@@ -54,7 +81,39 @@ public final class NFAs {
                                        MutableDFA<?, I> out,
                                        boolean partial,
                                        boolean minimize) {
-        doDeterminize(nfa, inputs, out, partial);
+        determinize(nfa, inputs, out, partial, minimize, false);
+    }
+
+    /**
+     * Determinizes the given NFA by means of the subset construction and writes the result to the given output DFA.
+     * The subset construction operates on an integer-based copy of the given NFA (using its {@link
+     * NFA#stateIDs() state IDs}) and only adds the reachable subsets to the output DFA.
+     *
+     * @param nfa
+     *         the NFA to determinize
+     * @param inputs
+     *         the input symbols to consider
+     * @param out
+     *         the (empty) DFA to write the determinized NFA to
+     * @param partial
+     *         whether the output DFA may be partial, i.e., omit transitions to the empty subset
+     * @param minimize
+     *         whether the output DFA should be minimized
+     * @param parallel
+     *         whether the successor subsets of each breadth-first level of the subset construction should be computed
+     *         in parallel
+     * @param <I>
+     *         input symbol type
+     */
+    public static <I> void determinize(NFA<?, I> nfa,
+                                       Collection<? extends I> inputs,
+                                       MutableDFA<?, I> out,
+                                       boolean partial,
+                                       boolean minimize,
+                                       boolean parallel) {
+        final Determinizer determinizer = new Determinizer(IntNFA.of(nfa, inputs), partial);
+        determinizer.determinize(parallel);
+        determinizer.writeTo(out, new ArrayList<>(inputs));
         if (minimize) {
             Automata.invasiveMinimize(out, inputs);
         }
@@ -74,71 +133,252 @@ public final class NFAs {
         determinize(nfa, inputs, out, false, true);
     }
 
-    private static <I, SI, SO> void doDeterminize(NFA<SI, I> nfa,
-                                                  Collection<? extends I> inputs,
-                                                  MutableDFA<SO, I> out,
-                                                  boolean partial) {
+    /**
+     * Reduces the size of the given NFA without changing its language, e.g., prior to its (potentially exponential)
+     * {@link #determinize(NFA, Alphabet) determinization}. The reduction merges states that are equivalent with
+     * respect to forward or backward simulation, removes transitions to states that are simulated by other successors
+     * of the same state (so-called <i>little brothers</i>), and removes states that are unreachable or cannot reach an
+     * accepting state. These steps are repeated until no further reduction is possible.
+     * <p>
+     * Note that the computation of the simulation relations requires quadratic memory in the number of states (after
+     * an initial bisimulation-based reduction).
+     *
+     * @param nfa
+     *         the NFA to reduce
+     * @param inputAlphabet
+     *         the input symbols to consider
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a (not necessarily minimal) NFA accepting the same language as the given NFA
+     */
+    public static <I> CompactNFA<I> reduce(NFA<?, I> nfa, Alphabet<I> inputAlphabet) {
+        return Simulations.reduce(IntNFA.of(nfa, inputAlphabet)).toCompactNFA(inputAlphabet);
+    }
+
+    /**
+     * Reduces the size of the given NFA without changing its language. Convenience method for {@link #reduce(NFA,
+     * Alphabet)} that uses the input alphabet of the given NFA.
+     *
+     * @param nfa
+     *         the NFA to reduce
+     * @param <I>
+     *         input symbol type
+     * @param <A>
+     *         automaton type
+     *
+     * @return a (not necessarily minimal) NFA accepting the same language as the given NFA
+     */
+    public static <I, A extends NFA<?, I> & InputAlphabetHolder<I>> CompactNFA<I> reduce(A nfa) {
+        return reduce(nfa, nfa.getInputAlphabet());
+    }
+
+    /**
+     * Checks whether the language of the first NFA is included in the language of the second NFA. Convenience method
+     * for {@link #findInclusionCounterexample(NFA, NFA, Collection, boolean)} without simulation-based subsumption.
+     *
+     * @param nfa1
+     *         the first NFA
+     * @param nfa2
+     *         the second NFA
+     * @param inputs
+     *         the input symbols to consider
+     * @param <I>
+     *         input symbol type
+     *
+     * @return {@code true} if every word (over the given inputs) accepted by {@code nfa1} is also accepted by {@code
+     * nfa2}, {@code false} otherwise
+     */
+    public static <I> boolean testInclusion(NFA<?, I> nfa1, NFA<?, I> nfa2, Collection<? extends I> inputs) {
+        return findInclusionCounterexample(nfa1, nfa2, inputs) == null;
+    }
 
-        Map<BitSet, SO> outStateMap = new HashMap<>();
-        StateIDs<SI> stateIds = nfa.stateIDs();
+    /**
+     * Searches for a word that is accepted by the first NFA but rejected by the second NFA. Convenience method for
+     * {@link #findInclusionCounterexample(NFA, NFA, Collection, boolean)} without simulation-based subsumption.
+     *
+     * @param nfa1
+     *         the first NFA
+     * @param nfa2
+     *         the second NFA
+     * @param inputs
+     *         the input symbols to consider
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a word accepted by {@code nfa1} but rejected by {@code nfa2}, or {@code null} if no such word exists
+     */
+    public static <I> @Nullable Word<I> findInclusionCounterexample(NFA<?, I> nfa1,
+                                                                    NFA<?, I> nfa2,
+                                                                    Collection<? extends I> inputs) {
+        return findInclusionCounterexample(nfa1, nfa2, inputs, false);
+    }
 
-        Deque<DeterminizeRecord<SI, SO>> stack = new ArrayDeque<>();
+    /**
+     * Searches for a word that is accepted by the first NFA but rejected by the second NFA. Instead of determinizing
+     * the second NFA, this method lazily explores pairs of states of the first NFA and subsets of states of the second
+     * NFA, and only keeps the pairs that are minimal with respect to a subsumption preorder (so-called
+     * <i>antichains</i>).
+     * <p>
+     * If {@code useSimulation} is set, the subsumption is additionally enhanced by the simulation preorder of the two
+     * NFAs, which often prunes the explored pairs considerably. Note, however, that the computation of the simulation
+     * preorder requires quadratic memory in the total number of states.
+     *
+     * @param nfa1
+     *         the first NFA
+     * @param nfa2
+     *         the second NFA
+     * @param inputs
+     *         the input symbols to consider
+     * @param useSimulation
+     *         whether to use simulation-based subsumption
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a word accepted by {@code nfa1} but rejected by {@code nfa2}, or {@code null} if no such word exists
+     */
+    public static <I> @Nullable Word<I> findInclusionCounterexample(NFA<?, I> nfa1,
+                                                                    NFA<?, I> nfa2,
+                                                                    Collection<? extends I> inputs,
+                                                                    boolean useSimulation) {
+        final int[] result = Antichains.findInclusionCounterexample(IntNFA.of(nfa1, inputs),
+                                                                    IntNFA.of(nfa2, inputs),
+                                                                    useSimulation);
+        return toWord(result, inputs);
+    }
 
-        List<SI> initList = new ArrayList<>(nfa.getInitialStates());
-        BitSet initBs = new BitSet();
-        for (SI init : initList) {
-            initBs.set(stateIds.getStateId(init));
-        }
+    /**
+     * Checks whether the given NFA accepts every word (over the given inputs). Convenience method for {@link
+     * #findRejectedWord(NFA, Collection, boolean)} without simulation-based subsumption.
+     *
+     * @param nfa
+     *         the NFA
+     * @param inputs
+     *         the input symbols to consider
+     * @param <I>
+     *         input symbol type
+     *
+     * @return {@code true} if the given NFA accepts every word, {@code false} otherwise
+     */
+    public static <I> boolean isUniversal(NFA<?, I> nfa, Collection<? extends I> inputs) {
+        return findRejectedWord(nfa, inputs) == null;
+    }
 
-        boolean initAcc = nfa.isAccepting(initList);
-        SO initOut = out.addInitialState(initAcc);
-
-        outStateMap.put(initBs, initOut);
-
-        stack.push(new DeterminizeRecord<>(initList, initOut));
-
-        while (!stack.isEmpty()) {
-            DeterminizeRecord<SI, SO> curr = stack.pop();
-
-            List<SI> inStates = curr.inputStates;
-            SO outState = curr.outputState;
-
-            for (I sym : inputs) {
-                BitSet succBs = new BitSet();
-                List<SI> succList = new ArrayList<>();
-
-                for (SI inState : inStates) {
-                    for (SI succState : nfa.getSuccessors(inState, sym)) {
-                        int succId = stateIds.getStateId(succState);
-                        if (!succBs.get(succId)) {
-                            succBs.set(succId);
-                            succList.add(succState);
-                        }
-                    }
-                }
-
-                if (!partial || !succList.isEmpty()) {
-                    SO outSucc = outStateMap.get(succBs);
-                    if (outSucc == null) {
-                        outSucc = out.addState(nfa.isAccepting(succList));
-                        outStateMap.put(succBs, outSucc);
-                        stack.push(new DeterminizeRecord<>(succList, outSucc));
-                    }
-                    out.setTransition(outState, sym, outSucc);
-                }
-            }
-        }
+    /**
+     * Searches for a word that is rejected by the given NFA. Convenience method for {@link #findRejectedWord(NFA,
+     * Collection, boolean)} without simulation-based subsumption.
+     *
+     * @param nfa
+     *         the NFA
+     * @param inputs
+     *         the input symbols to consider
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a word rejected by the given NFA, or {@code null} if the NFA is universal
+     */
+    public static <I> @Nullable Word<I> findRejectedWord(NFA<?, I> nfa, Collection<? extends I> inputs) {
+        return findRejectedWord(nfa, inputs, false);
+    }
+
+    /**
+     * Searches for a word that is rejected by the given NFA. See {@link #findInclusionCounterexample(NFA,
+     * NFA, Collection, boolean)} for details on the antichain-based exploration.
+     *
+     * @param nfa
+     *         the NFA
+     * @param inputs
+     *         the input symbols to consider
+     * @param useSimulation
+     *         whether to use simulation-based subsumption
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a word rejected by the given NFA, or {@code null} if the NFA is universal
+     */
+    public static <I> @Nullable Word<I> findRejectedWord(NFA<?, I> nfa,
+                                                         Collection<? extends I> inputs,
+                                                         boolean useSimulation) {
+        return toWord(Antichains.findRejectedWord(IntNFA.of(nfa, inputs), useSimulation), inputs);
+    }
 
+    /**
+     * Checks whether the two given NFAs accept the same language. Convenience method for {@link
+     * #findSeparatingWord(NFA, NFA, Collection, boolean)} without simulation-based subsumption.
+     *
+     * @param nfa1
+     *         the first NFA
+     * @param nfa2
+     *         the second NFA
+     * @param inputs
+     *         the input symbols to consider
+     * @param <I>
+     *         input symbol type
+     *
+     * @return {@code true} if both NFAs accept the same language, {@code false} otherwise
+     */
+    public static <I> boolean testEquivalence(NFA<?, I> nfa1, NFA<?, I> nfa2, Collection<? extends I> inputs) {
+        return findSeparatingWord(nfa1, nfa2, inputs) == null;
     }
 
-    private static final class DeterminizeRecord<SI, SO> {
+    /**
+     * Searches for a word that is accepted by exactly one of the two given NFAs. Convenience method for {@link
+     * #findSeparatingWord(NFA, NFA, Collection, boolean)} without simulation-based subsumption.
+     *
+     * @param nfa1
+     *         the first NFA
+     * @param nfa2
+     *         the second NFA
+     * @param inputs
+     *         the input symbols to consider
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a separating word, or {@code null} if both NFAs accept the same language
+     */
+    public static <I> @Nullable Word<I> findSeparatingWord(NFA<?, I> nfa1,
+                                                           NFA<?, I> nfa2,
+                                                           Collection<? extends I> inputs) {
+        return findSeparatingWord(nfa1, nfa2, inputs, false);
+    }
 
-        private final List<SI> inputStates;
-        private final SO outputState;
+    /**
+     * Searches for a word that is accepted by exactly one of the two given NFAs by checking the language inclusion in
+     * both directions. See {@link #findInclusionCounterexample(NFA, NFA, Collection, boolean)} for details on the
+     * antichain-based exploration.
+     *
+     * @param nfa1
+     *         the first NFA
+     * @param nfa2
+     *         the second NFA
+     * @param inputs
+     *         the input symbols to consider
+     * @param useSimulation
+     *         whether to use simulation-based subsumption
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a separating word, or {@code null} if both NFAs accept the same language
+     */
+    public static <I> @Nullable Word<I> findSeparatingWord(NFA<?, I> nfa1,
+                                                           NFA<?, I> nfa2,
+                                                           Collection<? extends I> inputs,
+                                                           boolean useSimulation) {
+        final int[] result =
+                Antichains.findSeparatingWord(IntNFA.of(nfa1, inputs), IntNFA.of(nfa2, inputs), useSimulation);
+        return toWord(result, inputs);
+    }
+
+    private static <I> @Nullable Word<I> toWord(int @Nullable [] inputIndices, Collection<? extends I> inputs) {
+        if (inputIndices == null) {
+            return null;
+        }
 
-        DeterminizeRecord(List<SI> inputStates, SO outputState) {
-            this.inputStates = inputStates;
-            this.outputState = outputState;
+        final List<I> inputList = new ArrayList<>(inputs);
+        final WordBuilder<I> wb = new WordBuilder<>(inputIndices.length);
+        for (int idx : inputIndices) {
+            wb.append(inputList.get(idx));
         }
+        return wb.toWord();
     }
 }
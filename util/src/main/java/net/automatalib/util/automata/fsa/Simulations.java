@@ -0,0 +1,289 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.Arrays;
+
+import net.automatalib.util.partitionrefinement.RelationalPartitionRefinement;
+
+/**
+ * Simulation-based algorithms on {@link IntNFA}s.
+ * <p>
+ * A state {@code q} (forward) simulates a state {@code p} iff {@code q} is accepting whenever {@code p} is accepting
+ * and for each transition {@code p -a-> p'} there exists a transition {@code q -a-> q'} such that {@code q'} simulates
+ * {@code p'}. If {@code q} simulates {@code p}, the language of {@code p} is included in the language of {@code q}.
+ * Backward simulation is the dual notion on the reversed automaton (with initial instead of accepting states).
+ * <p>
+ * The simulation preorder is represented by a bit-matrix, i.e., it requires quadratic memory in the number of states.
+ * To keep the number of states small, automata are reduced with respect to bisimulation first.
+ */
+final class Simulations {
+
+    private Simulations() {}
+
+    /**
+     * Computes the (forward) simulation preorder of the given NFA. The bit {@code q} of the {@code p}-th row of the
+     * returned matrix is set iff {@code q} simulates {@code p}.
+     * <p>
+     * The simulation is computed as a greatest fixed-point by means of a worklist: the row of a state {@code p} is
+     * restricted to the states that, for each transition {@code p -a-> p'}, have an {@code a}-successor in the row of
+     * {@code p'}. Whenever the row of a state changes, the rows of its predecessors are re-examined.
+     */
+    static long[][] computeSimulation(IntNFA nfa) {
+        final int size = nfa.size;
+        final int numInputs = nfa.numInputs;
+        final int words = numWords(size);
+
+        // initial approximation: acceptance and enabled inputs have to be simulated
+        final long[] all = new long[words];
+        final long[] accepting = new long[words];
+        final long[][] enabled = new long[numInputs][words];
+        for (int q = 0; q < size; q++) {
+            set(all, q);
+            if (nfa.accepting[q]) {
+                set(accepting, q);
+            }
+            for (int i = 0; i < numInputs; i++) {
+                if (nfa.getSuccessors(q, i).length > 0) {
+                    set(enabled[i], q);
+                }
+            }
+        }
+
+        final long[][] sim = new long[size][];
+        for (int p = 0; p < size; p++) {
+            final long[] row = (nfa.accepting[p] ? accepting : all).clone();
+            for (int i = 0; i < numInputs; i++) {
+                if (nfa.getSuccessors(p, i).length > 0) {
+                    and(row, enabled[i]);
+                }
+            }
+            sim[p] = row;
+        }
+
+        final int[] worklist = new int[size];
+        final boolean[] inWorklist = new boolean[size];
+        int head = 0;
+        int numPending = size;
+        for (int p = 0; p < size; p++) {
+            worklist[p] = p;
+            inWorklist[p] = true;
+        }
+
+        final long[] preSim = new long[words];
+        final long[] row = new long[words];
+
+        while (numPending > 0) {
+            final int p = worklist[head];
+            head = (head + 1) % size;
+            numPending--;
+            inWorklist[p] = false;
+
+            System.arraycopy(sim[p], 0, row, 0, words);
+            for (int i = 0; i < numInputs; i++) {
+                for (int succ : nfa.getSuccessors(p, i)) {
+                    // compute the states that have an i-successor which simulates succ
+                    Arrays.fill(preSim, 0L);
+                    final long[] succRow = sim[succ];
+                    for (int w = 0; w < words; w++) {
+                        long bits = succRow[w];
+                        while (bits != 0) {
+                            final int q = (w << 6) + Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1;
+                            for (int pred : nfa.getPredecessors(q, i)) {
+                                set(preSim, pred);
+                            }
+                        }
+                    }
+                    and(row, preSim);
+                }
+            }
+
+            if (!Arrays.equals(row, sim[p])) {
+                System.arraycopy(row, 0, sim[p], 0, words);
+                for (int i = 0; i < numInputs; i++) {
+                    for (int pred : nfa.getPredecessors(p, i)) {
+                        if (!inWorklist[pred]) {
+                            inWorklist[pred] = true;
+                            worklist[(head + numPending) % size] = pred;
+                            numPending++;
+                        }
+                    }
+                }
+            }
+        }
+
+        return sim;
+    }
+
+    /**
+     * Reduces the given NFA by quotienting with respect to (forward and backward) simulation equivalence and by
+     * pruning transitions to (from) states that are strictly simulated by other successors (predecessors) of the same
+     * state, until no further reduction is possible.
+     */
+    static IntNFA reduce(IntNFA nfa) {
+        IntNFA current = bisimulationQuotient(nfa).trim();
+
+        while (true) {
+            final IntNFA forward = reduceForward(current);
+            final IntNFA backward = reduceForward(forward.reverse()).reverse();
+            final IntNFA result = backward.trim();
+
+            if (result.size == current.size && result.numTransitions() == current.numTransitions()) {
+                return result;
+            }
+            current = result;
+        }
+    }
+
+    /**
+     * Computes the quotient with respect to (forward) bisimulation, which is a cheap pre-reduction for the
+     * (quadratic) simulation computation.
+     */
+    static IntNFA bisimulationQuotient(IntNFA nfa) {
+        final int size = nfa.size;
+        final int numInputs = nfa.numInputs;
+
+        final int[] offsets = new int[size + 1];
+        for (int s = 0; s < size; s++) {
+            int degree = 0;
+            for (int i = 0; i < numInputs; i++) {
+                degree += nfa.getSuccessors(s, i).length;
+            }
+            offsets[s + 1] = offsets[s] + degree;
+        }
+
+        final int[] labels = new int[offsets[size]];
+        final int[] targets = new int[offsets[size]];
+        final int[] initialClassification = new int[size];
+        for (int s = 0; s < size; s++) {
+            int t = offsets[s];
+            for (int i = 0; i < numInputs; i++) {
+                for (int succ : nfa.getSuccessors(s, i)) {
+                    labels[t] = i;
+                    targets[t++] = succ;
+                }
+            }
+            initialClassification[s] = nfa.accepting[s] ? 1 : 0;
+        }
+
+        final int[] classes = RelationalPartitionRefinement.computeCoarsestStablePartition(size,
+                                                                                           offsets,
+                                                                                           labels,
+                                                                                           targets,
+                                                                                           initialClassification);
+        int numClasses = 0;
+        for (int c : classes) {
+            numClasses = Math.max(numClasses, c + 1);
+        }
+
+        return numClasses == size ? nfa : nfa.quotient(classes, numClasses);
+    }
+
+    private static IntNFA reduceForward(IntNFA nfa) {
+        final int size = nfa.size;
+        final long[][] sim = computeSimulation(nfa);
+
+        // quotient w.r.t. simulation equivalence
+        final int[] classes = new int[size];
+        final int[] representatives = new int[size];
+        Arrays.fill(classes, -1);
+        int numClasses = 0;
+        for (int p = 0; p < size; p++) {
+            if (classes[p] >= 0) {
+                continue;
+            }
+            final int c = numClasses++;
+            classes[p] = c;
+            representatives[c] = p;
+            for (int q = p + 1; q < size; q++) {
+                if (classes[q] < 0 && get(sim[p], q) && get(sim[q], p)) {
+                    classes[q] = c;
+                }
+            }
+        }
+
+        final IntNFA quotient = numClasses == size ? nfa : nfa.quotient(classes, numClasses);
+
+        // the lifted simulation is a partial order on the classes, i.e., simulation is strict for distinct classes
+        final int numInputs = quotient.numInputs;
+        final int[][] pruned = new int[numClasses * numInputs][];
+        final int[] buffer = new int[numClasses];
+
+        for (int c = 0; c < numClasses; c++) {
+            for (int i = 0; i < numInputs; i++) {
+                pruned[c * numInputs + i] =
+                        removeLittleBrothers(quotient.getSuccessors(c, i), sim, representatives, buffer);
+            }
+        }
+
+        final boolean[] initial = quotient.initial.clone();
+        int numInitial = 0;
+        for (int c = 0; c < numClasses; c++) {
+            if (initial[c]) {
+                buffer[numInitial++] = c;
+            }
+        }
+        final int[] initialStates = Arrays.copyOf(buffer, numInitial);
+        Arrays.fill(initial, false);
+        for (int c : removeLittleBrothers(initialStates, sim, representatives, buffer)) {
+            initial[c] = true;
+        }
+
+        return new IntNFA(numClasses, numInputs, initial, quotient.accepting, pruned);
+    }
+
+    private static int[] removeLittleBrothers(int[] states, long[][] sim, int[] representatives, int[] buffer) {
+        if (states.length < 2) {
+            return states;
+        }
+
+        int len = 0;
+        for (int c1 : states) {
+            final long[] row = sim[representatives[c1]];
+            boolean dominated = false;
+            for (int c2 : states) {
+                if (c1 != c2 && get(row, representatives[c2])) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                buffer[len++] = c1;
+            }
+        }
+
+        return len == states.length ? states : Arrays.copyOf(buffer, len);
+    }
+
+    static int numWords(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    static void set(long[] bitset, int bit) {
+        bitset[bit >>> 6] |= 1L << bit;
+    }
+
+    static boolean get(long[] bitset, int bit) {
+        return (bitset[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static void and(long[] target, long[] other) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] &= other[w];
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.minimizer.bisimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.automatalib.automata.AutomatonCreator;
+import net.automatalib.automata.MutableAutomaton;
+import net.automatalib.automata.UniversalAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.MutableNFA;
+import net.automatalib.automata.fsa.NFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.commons.util.Pair;
+import net.automatalib.util.partitionrefinement.RelationalPartitionRefinement;
+import net.automatalib.words.Alphabet;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Minimization of (possibly nondeterministic) automata with respect to (strong) bisimulation.
+ * <p>
+ * Two states are bisimilar if they have the same state property and if, for every transition of one state, the other
+ * state has a transition for the same input symbol and with the same transition property to a bisimilar state. The
+ * quotient of an automaton with respect to bisimulation accepts (or, in general, exhibits) the same behavior as the
+ * original automaton. For NFAs, bisimulation is only an approximation of language equivalence, i.e., the result is not
+ * necessarily a minimal NFA. However, it can be computed efficiently and is therefore a cheap reduction, e.g., prior to
+ * the (potentially exponential) determinization of an NFA.
+ * <p>
+ * The equivalence classes are computed by means of {@link RelationalPartitionRefinement} (the nondeterministic
+ * counterpart of the {@link net.automatalib.util.partitionrefinement.PaigeTarjan} partition refinement). The resulting
+ * automaton only contains classes that are reachable from the initial states.
+ */
+public final class BisimulationMinimization {
+
+    private BisimulationMinimization() {}
+
+    /**
+     * Minimizes the given NFA with respect to bisimulation. The result is returned in the form of a {@link
+     * CompactNFA}.
+     *
+     * @param nfa
+     *         the NFA to minimize
+     * @param alphabet
+     *         the input alphabet to consider
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the bisimulation quotient of the given NFA
+     */
+    public static <I> CompactNFA<I> minimizeNFA(NFA<?, I> nfa, Alphabet<I> alphabet) {
+        return minimizeNFA(nfa, alphabet, new CompactNFA.Creator<>());
+    }
+
+    /**
+     * Minimizes the given NFA with respect to bisimulation. The result is returned in the form of an automaton created
+     * by the given creator.
+     *
+     * @param nfa
+     *         the NFA to minimize
+     * @param alphabet
+     *         the input alphabet to consider
+     * @param creator
+     *         the creator for constructing the automaton instance to return
+     * @param <I>
+     *         input symbol type
+     * @param <A>
+     *         automaton type
+     *
+     * @return the bisimulation quotient of the given NFA
+     */
+    public static <I, A extends MutableNFA<?, I>> A minimizeNFA(NFA<?, I> nfa,
+                                                               Alphabet<I> alphabet,
+                                                               AutomatonCreator<A, I> creator) {
+        return minimizeUniversal(nfa, alphabet, creator);
+    }
+
+    /**
+     * Minimizes the given automaton with respect to bisimulation, taking both state and transition properties into
+     * account. This may be used to minimize, e.g., modal transition systems or labeled transition systems.
+     *
+     * @param automaton
+     *         the automaton to minimize
+     * @param alphabet
+     *         the input alphabet to consider
+     * @param creator
+     *         the creator for constructing the automaton instance to return
+     * @param <S>
+     *         state type
+     * @param <I>
+     *         input symbol type
+     * @param <T>
+     *         transition type
+     * @param <SP>
+     *         state property type
+     * @param <TP>
+     *         transition property type
+     * @param <A>
+     *         automaton type
+     *
+     * @return the bisimulation quotient of the given automaton
+     */
+    public static <S, I, T, SP, TP, A extends MutableAutomaton<?, I, ?, SP, TP>> A minimizeUniversal(UniversalAutomaton<S, I, T, SP, TP> automaton,
+                                                                                                      Alphabet<I> alphabet,
+                                                                                                      AutomatonCreator<A, I> creator) {
+
+        final int numStates = automaton.size();
+        final StateIDs<S> ids = automaton.stateIDs();
+
+        // classify states by their properties and transitions by their (input, property) labels
+        final Map<@Nullable SP, Integer> stateClasses = new HashMap<>();
+        final Map<Pair<Integer, @Nullable TP>, Integer> transitionClasses = new HashMap<>();
+        final List<Pair<Integer, @Nullable TP>> labels = new ArrayList<>();
+
+        final int[] initialClassification = new int[numStates];
+        final int[] offsets = new int[numStates + 1];
+        int[] transitionLabels = new int[Math.max(8, numStates)];
+        int[] transitionTargets = new int[Math.max(8, numStates)];
+        int numTransitions = 0;
+
+        for (int s = 0; s < numStates; s++) {
+            final S state = ids.getState(s);
+            initialClassification[s] =
+                    stateClasses.computeIfAbsent(automaton.getStateProperty(state), k -> stateClasses.size());
+
+            for (int i = 0; i < alphabet.size(); i++) {
+                for (T trans : automaton.getTransitions(state, alphabet.getSymbol(i))) {
+                    final Pair<Integer, @Nullable TP> label = Pair.of(i, automaton.getTransitionProperty(trans));
+                    final Integer labelId = transitionClasses.computeIfAbsent(label, k -> {
+                        labels.add(k);
+                        return labels.size() - 1;
+                    });
+
+                    if (numTransitions == transitionLabels.length) {
+                        transitionLabels = Arrays.copyOf(transitionLabels, numTransitions * 2);
+                        transitionTargets = Arrays.copyOf(transitionTargets, numTransitions * 2);
+                    }
+                    transitionLabels[numTransitions] = labelId;
+                    transitionTargets[numTransitions] = ids.getStateId(automaton.getSuccessor(trans));
+                    numTransitions++;
+                }
+            }
+            offsets[s + 1] = numTransitions;
+        }
+
+        final int[] blocks = RelationalPartitionRefinement.computeCoarsestStablePartition(numStates,
+                                                                                          offsets,
+                                                                                          transitionLabels,
+                                                                                          transitionTargets,
+                                                                                          initialClassification);
+
+        final A result = creator.createAutomaton(alphabet);
+        final MutableAutomaton<?, I, ?, SP, TP> out = result;
+        buildQuotient(automaton, ids, alphabet, labels, offsets, transitionLabels, transitionTargets, blocks, out);
+        return result;
+    }
+
+    private static <S, I, SP, TP, S2> void buildQuotient(UniversalAutomaton<S, I, ?, SP, TP> automaton,
+                                                         StateIDs<S> ids,
+                                                         Alphabet<I> alphabet,
+                                                         List<Pair<Integer, @Nullable TP>> labels,
+                                                         int[] offsets,
+                                                         int[] transitionLabels,
+                                                         int[] transitionTargets,
+                                                         int[] blocks,
+                                                         MutableAutomaton<S2, I, ?, SP, TP> result) {
+
+        final int numStates = blocks.length;
+        int numBlocks = 0;
+        for (int b : blocks) {
+            numBlocks = Math.max(numBlocks, b + 1);
+        }
+
+        // the first state of each block serves as its representative
+        final int[] representatives = new int[numBlocks];
+        Arrays.fill(representatives, -1);
+        for (int s = 0; s < numStates; s++) {
+            if (representatives[blocks[s]] < 0) {
+                representatives[blocks[s]] = s;
+            }
+        }
+
+        final List<@Nullable S2> blockStates = new ArrayList<>(numBlocks);
+        for (int b = 0; b < numBlocks; b++) {
+            blockStates.add(null);
+        }
+
+        final int[] queue = new int[numBlocks];
+        int head = 0;
+        int tail = 0;
+
+        for (S init : automaton.getInitialStates()) {
+            final int block = blocks[ids.getStateId(init)];
+            if (blockStates.get(block) == null) {
+                final S2 state = result.addInitialState(automaton.getStateProperty(init));
+                blockStates.set(block, state);
+                queue[tail++] = block;
+            }
+        }
+
+        final long[] keys = new long[numBlocks == 0 ? 0 : maxDegree(offsets)];
+
+        while (head < tail) {
+            final int block = queue[head++];
+            final int rep = representatives[block];
+            final S2 src = blockStates.get(block);
+            assert src != null;
+
+            // collect the distinct (label, target block) pairs of the representative
+            int numKeys = 0;
+            for (int t = offsets[rep]; t < offsets[rep + 1]; t++) {
+                keys[numKeys++] = ((long) transitionLabels[t] << 32) | blocks[transitionTargets[t]];
+            }
+            Arrays.sort(keys, 0, numKeys);
+
+            for (int k = 0; k < numKeys; k++) {
+                if (k > 0 && keys[k] == keys[k - 1]) {
+                    continue;
+                }
+                final Pair<Integer, @Nullable TP> label = labels.get((int) (keys[k] >>> 32));
+                final int targetBlock = (int) keys[k];
+
+                S2 tgt = blockStates.get(targetBlock);
+                if (tgt == null) {
+                    tgt = result.addState(automaton.getStateProperty(ids.getState(representatives[targetBlock])));
+                    blockStates.set(targetBlock, tgt);
+                    queue[tail++] = targetBlock;
+                }
+
+                result.addTransition(src, alphabet.getSymbol(label.getFirst()), tgt, label.getSecond());
+            }
+        }
+    }
+
+    private static int maxDegree(int[] offsets) {
+        int result = 0;
+        for (int s = 0; s + 1 < offsets.length; s++) {
+            result = Math.max(result, offsets[s + 1] - offsets[s]);
+        }
+        return result;
+    }
+}
@@ -52,6 +52,10 @@ import net.automatalib.words.Alphabet;
  * Otherwise, pruning can be chosen to be performed on the automaton to be minimized ({@link PruningMode#PRUNE_BEFORE}),
  * or on the calculated state partition ({@link PruningMode#PRUNE_AFTER}). For methods that do not provide a {@code
  * pruningMode} parameter, the default is {@link PruningMode#PRUNE_AFTER}.
+ * <p>
+ * Similarly, some methods provide a {@code refinementMode} parameter of type {@link RefinementMode} that controls
+ * whether the equivalence classes are computed sequentially ({@link RefinementMode#SEQUENTIAL}, the default) or in
+ * parallel ({@link RefinementMode#PARALLEL}).
  *
  * @author Malte Isberner
  */
@@ -138,7 +142,57 @@ public final class HopcroftMinimization {
                                                                 Alphabet<I> alphabet,
                                                                 PruningMode pruningMode,
                                                                 AutomatonCreator<A, I> creator) {
-        return minimizeUniversal(dfa, alphabet, creator, AutomatonInitialPartitioning.BY_STATE_PROPERTY, pruningMode);
+        return minimizeDFA(dfa, alphabet, pruningMode, creator, RefinementMode.SEQUENTIAL);
+    }
+
+    /**
+     * Minimizes the given DFA. The result is returned in the form of a {@link CompactDFA}.
+     *
+     * @param dfa
+     *         the DFA to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the returned DFA)
+     * @param pruningMode
+     *         the pruning mode (see above)
+     * @param refinementMode
+     *         the refinement mode (see above)
+     *
+     * @return a minimized version of the specified DFA
+     */
+    public static <I> CompactDFA<I> minimizeDFA(DFA<?, I> dfa,
+                                                Alphabet<I> alphabet,
+                                                PruningMode pruningMode,
+                                                RefinementMode refinementMode) {
+        return minimizeDFA(dfa, alphabet, pruningMode, new CompactDFA.Creator<>(), refinementMode);
+    }
+
+    /**
+     * Minimizes the given DFA. The result is returned in the form of a {@link CompactDFA}.
+     *
+     * @param dfa
+     *         the DFA to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the returned DFA)
+     * @param pruningMode
+     *         the pruning mode (see above)
+     * @param creator
+     *         the creator for constructing the automata instance to return
+     * @param refinementMode
+     *         the refinement mode (see above)
+     *
+     * @return a minimized version of the specified DFA
+     */
+    public static <A extends MutableDFA<?, I>, I> A minimizeDFA(DFA<?, I> dfa,
+                                                                Alphabet<I> alphabet,
+                                                                PruningMode pruningMode,
+                                                                AutomatonCreator<A, I> creator,
+                                                                RefinementMode refinementMode) {
+        return minimizeUniversal(dfa,
+                                 alphabet,
+                                 creator,
+                                 AutomatonInitialPartitioning.BY_STATE_PROPERTY,
+                                 pruningMode,
+                                 refinementMode);
     }
 
     /**
@@ -224,11 +278,57 @@ public final class HopcroftMinimization {
                                                                                     Alphabet<I> alphabet,
                                                                                     PruningMode pruningMode,
                                                                                     AutomatonCreator<A, I> creator) {
+        return minimizeMealy(mealy, alphabet, pruningMode, creator, RefinementMode.SEQUENTIAL);
+    }
+
+    /**
+     * Minimizes the given Mealy machine. The result is returned in the form of a {@link CompactMealy}.
+     *
+     * @param mealy
+     *         the Mealy machine to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the resulting Mealy machine)
+     * @param pruningMode
+     *         the pruning mode (see above)
+     * @param refinementMode
+     *         the refinement mode (see above)
+     *
+     * @return a minimized version of the specified Mealy machine
+     */
+    public static <I, O> CompactMealy<I, O> minimizeMealy(MealyMachine<?, I, ?, O> mealy,
+                                                          Alphabet<I> alphabet,
+                                                          PruningMode pruningMode,
+                                                          RefinementMode refinementMode) {
+        return minimizeMealy(mealy, alphabet, pruningMode, new CompactMealy.Creator<>(), refinementMode);
+    }
+
+    /**
+     * Minimizes the given Mealy machine. The result is returned in the form of a {@link CompactMealy}.
+     *
+     * @param mealy
+     *         the Mealy machine to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the resulting Mealy machine)
+     * @param pruningMode
+     *         the pruning mode (see above)
+     * @param creator
+     *         the creator for constructing the automata instance to return
+     * @param refinementMode
+     *         the refinement mode (see above)
+     *
+     * @return a minimized version of the specified Mealy machine
+     */
+    public static <A extends MutableMealyMachine<?, I, ?, O>, I, O> A minimizeMealy(MealyMachine<?, I, ?, O> mealy,
+                                                                                    Alphabet<I> alphabet,
+                                                                                    PruningMode pruningMode,
+                                                                                    AutomatonCreator<A, I> creator,
+                                                                                    RefinementMode refinementMode) {
         return minimizeUniversal(mealy,
                                  alphabet,
                                  creator,
                                  AutomatonInitialPartitioning.BY_TRANSITION_PROPERTIES,
-                                 pruningMode);
+                                 pruningMode,
+                                 refinementMode);
     }
 
     /**
@@ -255,14 +355,53 @@ public final class HopcroftMinimization {
             AutomatonCreator<A, I> creator,
             AutomatonInitialPartitioning ap,
             PruningMode pruningMode) {
+        return minimizeUniversal(automaton, alphabet, creator, ap, pruningMode, RefinementMode.SEQUENTIAL);
+    }
+
+    /**
+     * Minimizes the given automaton depending on the given partitioning function.
+     *
+     * @param automaton
+     *         the automaton to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the resulting Mealy machine)
+     * @param creator
+     *         the creator for constructing the automata instance to return
+     * @param ap
+     *         the initial partitioning function, determining how states will be distinguished
+     * @param pruningMode
+     *         the pruning mode (see above)
+     * @param refinementMode
+     *         the refinement mode (see above)
+     *
+     * @return the minimized automaton, initially constructed from the given {@code creator}.
+     *
+     * @see AutomatonInitialPartitioning
+     */
+    public static <I, T, SP, TP, A extends MutableDeterministic<?, I, ?, SP, TP>> A minimizeUniversal(
+            UniversalDeterministicAutomaton<?, I, T, SP, TP> automaton,
+            Alphabet<I> alphabet,
+            AutomatonCreator<A, I> creator,
+            AutomatonInitialPartitioning ap,
+            PruningMode pruningMode,
+            RefinementMode refinementMode) {
 
         final PaigeTarjan pt = new PaigeTarjan();
         final FullIntAbstraction<T, SP, TP> abs = automaton.fullIntAbstraction(alphabet);
 
         PaigeTarjanInitializers.initCompleteDeterministic(pt, abs, ap, pruningMode == PruningMode.PRUNE_BEFORE);
 
-        pt.initWorklist(false);
-        pt.computeCoarsestStablePartition();
+        switch (refinementMode) {
+            case PARALLEL:
+                pt.computeCoarsestStablePartitionInParallel();
+                break;
+            case SEQUENTIAL:
+                pt.initWorklist(false);
+                pt.computeCoarsestStablePartition();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown refinement mode: " + refinementMode);
+        }
 
         @SuppressWarnings("nullness") // getTransitionProperty will only be called for defined transitions
         final A result = PaigeTarjanExtractors.toDeterministic(pt,
@@ -304,4 +443,22 @@ public final class HopcroftMinimization {
         DONT_PRUNE
     }
 
+    /**
+     * Allows for controlling how the equivalence classes of states are computed.
+     */
+    public enum RefinementMode {
+        /**
+         * Compute the equivalence classes with the (sequential) worklist-based algorithm. This is the default, and
+         * usually the best choice for small to medium-sized automata.
+         */
+        SEQUENTIAL,
+        /**
+         * Compute the equivalence classes with a parallel, signature-based refinement (see {@link
+         * PaigeTarjan#computeCoarsestStablePartitionInParallel()}). Each round of this refinement processes all states
+         * in parallel, which may pay off for very large automata on machines with many cores. The computed equivalence
+         * classes are the same as for {@link #SEQUENTIAL}.
+         */
+        PARALLEL
+    }
+
 }
@@ -0,0 +1,880 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.minimizer.incremental;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+import net.automatalib.automata.AutomatonCreator;
+import net.automatalib.automata.MutableDeterministic;
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton;
+import net.automatalib.util.partitionrefinement.PaigeTarjan;
+import net.automatalib.util.partitionrefinement.PaigeTarjanInitializers;
+import net.automatalib.words.Alphabet;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An incremental minimizer for (possibly partial) deterministic automata such as DFAs and Mealy machines. The minimizer
+ * keeps the equivalence classes of the states of a (growing) automaton and updates them whenever states are added or
+ * the outgoing transitions (or properties) of states are changed.
+ * <p>
+ * Changes only affect the languages of the modified states and the states that can reach them. On an {@link #update()
+ * update}, only these <i>affected</i> states are re-classified: their coarsest stable partition is computed with the
+ * {@link PaigeTarjan} algorithm, treating the (unchanged) classes of all other states as fixed. Afterwards, each new
+ * block is either identified with an existing equivalence class (candidates are pre-selected by a bounded-depth hash of
+ * the class languages) or registered as a new class. Since the remaining blocks may only have been distinguished by
+ * successors that turned out to be equivalent to existing classes, they are refined once more (with these successors
+ * resolved) and merged accordingly before registering them. Hence, the cost of an update is proportional to the number
+ * of affected states (and their transitions) rather than to the size of the whole automaton. Note, however, that in
+ * strongly connected automata every change affects all states. The IDs of classes that no longer contain any states are
+ * reclaimed for new classes, so that the size of the class data is bounded by the (maximum) number of classes rather
+ * than by the number of updates.
+ * <p>
+ * The minimizer requires that states are never removed from the automaton and that the state IDs (see {@link
+ * UniversalDeterministicAutomaton#stateIDs()}) remain stable across modifications, as is the case for the compact and
+ * fast automaton implementations. New states are detected automatically, whereas changes to existing states need to be
+ * reported via {@link #stateChanged(Object)}.
+ *
+ * @param <S>
+ *         state type
+ * @param <I>
+ *         input symbol type
+ * @param <SP>
+ *         state property type
+ * @param <TP>
+ *         transition property type
+ */
+public class IncrementalMinimizer<S, I, SP, TP> {
+
+    private static final int HASH_DEPTH = 8;
+    private static final int INITIAL_BUCKETS = 16;
+    private static final int UNDEFINED_HASH = 0x5bd1e995;
+    private static final Object UNDEFINED = new Object();
+    private static final Object SINK = new Object();
+    private static final Object INTERNAL = new Object();
+
+    private final UniversalDeterministicAutomaton<S, I, ?, SP, TP> automaton;
+    private final Alphabet<I> alphabet;
+    private final int numInputs;
+
+    // per-state data
+    private int numStates;
+    private int[] stateClass;
+    private int[] successors;
+    private int[][] predecessors;
+    private int[] numPredecessors;
+    private boolean[] dirty;
+    private int[] dirtyStates;
+    private int numDirty;
+
+    // per-class data. Class IDs below numClasses are either in use or contained in freeClasses
+    private int numClasses;
+    private int numLiveClasses;
+    private int[] classSizes;
+    private int[] freeClasses;
+    private int numFreeClasses;
+    private int[] classSuccessors;
+    private @Nullable Object[] classStateProperties;
+    private @Nullable Object[] classTransitionProperties;
+    private int[] classHashes;
+
+    // the live classes indexed by their (full-depth) hashes, stored as separately chained buckets
+    private int[] hashBuckets;
+    private int[] nextInBucket;
+
+    public IncrementalMinimizer(UniversalDeterministicAutomaton<S, I, ?, SP, TP> automaton, Alphabet<I> alphabet) {
+        this.automaton = automaton;
+        this.alphabet = alphabet;
+        this.numInputs = alphabet.size();
+
+        this.stateClass = new int[0];
+        this.successors = new int[0];
+        this.predecessors = new int[0][];
+        this.numPredecessors = new int[0];
+        this.dirty = new boolean[0];
+        this.dirtyStates = new int[0];
+
+        this.classSizes = new int[0];
+        this.freeClasses = new int[0];
+        this.classSuccessors = new int[0];
+        this.classStateProperties = new Object[0];
+        this.classTransitionProperties = new Object[0];
+        this.classHashes = new int[0];
+
+        this.hashBuckets = new int[INITIAL_BUCKETS];
+        this.nextInBucket = new int[0];
+        Arrays.fill(hashBuckets, -1);
+    }
+
+    /**
+     * Notifies the minimizer that the given state has been changed, i.e., its state property or any of its outgoing
+     * transitions (successors or transition properties) have been modified. Newly added states do not need to be
+     * reported.
+     *
+     * @param state
+     *         the changed state
+     */
+    public void stateChanged(S state) {
+        markDirty(automaton.stateIDs().getStateId(state));
+    }
+
+    /**
+     * Returns the number of equivalence classes (including unreachable ones) of the states of the automaton. This
+     * method implicitly {@link #update() updates} the equivalence classes.
+     *
+     * @return the number of (non-empty) equivalence classes
+     */
+    public int getNumberOfClasses() {
+        update();
+        return numLiveClasses;
+    }
+
+    /**
+     * Checks whether the two given states are equivalent. This method implicitly {@link #update() updates} the
+     * equivalence classes.
+     *
+     * @param s1
+     *         the first state
+     * @param s2
+     *         the second state
+     *
+     * @return {@code true} if the two states are equivalent, {@code false} otherwise
+     */
+    public boolean areEquivalent(S s1, S s2) {
+        update();
+        return stateClass[automaton.stateIDs().getStateId(s1)] == stateClass[automaton.stateIDs().getStateId(s2)];
+    }
+
+    /**
+     * Constructs the minimal automaton of the current automaton, containing only the equivalence classes reachable from
+     * the initial state. This method implicitly {@link #update() updates} the equivalence classes.
+     *
+     * @param creator
+     *         the creator for constructing the automaton instance to return
+     * @param <A>
+     *         the automaton type
+     *
+     * @return the minimized automaton
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends MutableDeterministic<?, I, ?, SP, TP>> A getMinimized(AutomatonCreator<A, I> creator) {
+        update();
+
+        final int init = automaton.fullIntAbstraction(alphabet).getIntInitialState();
+        if (init < 0) {
+            return creator.createAutomaton(alphabet);
+        }
+
+        final A result = creator.createAutomaton(alphabet, numLiveClasses);
+        final MutableDeterministic.FullIntAbstraction<?, SP, TP> resultAbs = result.fullIntAbstraction(alphabet);
+
+        final int[] classMap = new int[numClasses];
+        Arrays.fill(classMap, -1);
+        final int[] repClasses = new int[numClasses];
+
+        final int initClass = stateClass[init];
+        classMap[initClass] = resultAbs.addIntInitialState((SP) classStateProperties[initClass]);
+        repClasses[0] = initClass;
+
+        int ptr = 0;
+        int numResultStates = 1;
+        while (ptr < numResultStates) {
+            final int resState = ptr;
+            final int c = repClasses[ptr++];
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = classSuccessors[c * numInputs + i];
+                if (succ >= 0) {
+                    int resSucc = classMap[succ];
+                    if (resSucc < 0) {
+                        resSucc = resultAbs.addIntState((SP) classStateProperties[succ]);
+                        classMap[succ] = resSucc;
+                        repClasses[numResultStates++] = succ;
+                    }
+                    resultAbs.setTransition(resState, i, resSucc, (TP) classTransitionProperties[c * numInputs + i]);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Updates the equivalence classes with respect to the states that have been added or reported as changed since the
+     * last update.
+     */
+    public void update() {
+        final UniversalDeterministicAutomaton.FullIntAbstraction<?, SP, TP> abs =
+                automaton.fullIntAbstraction(alphabet);
+
+        final int newNumStates = abs.size();
+        if (newNumStates > numStates) {
+            ensureStateCapacity(newNumStates);
+            for (int s = numStates; s < newNumStates; s++) {
+                markDirty(s);
+            }
+            numStates = newNumStates;
+        }
+
+        if (numDirty == 0) {
+            return;
+        }
+
+        updatePredecessors(abs);
+        final int[] affected = computeAffectedStates();
+        classify(abs, affected);
+    }
+
+    private void updatePredecessors(SimpleDeterministicAutomaton.FullIntAbstraction abs) {
+        for (int j = 0; j < numDirty; j++) {
+            final int s = dirtyStates[j];
+            dirty[s] = false;
+            for (int i = 0; i < numInputs; i++) {
+                final int idx = s * numInputs + i;
+                final int oldSucc = successors[idx];
+                final int newSucc = abs.getSuccessor(s, i);
+                if (oldSucc != newSucc) {
+                    if (oldSucc >= 0) {
+                        removePredecessor(oldSucc, s);
+                    }
+                    if (newSucc >= 0) {
+                        addPredecessor(newSucc, s);
+                    }
+                    successors[idx] = newSucc;
+                }
+            }
+        }
+    }
+
+    private int[] computeAffectedStates() {
+        // the states that can reach a changed state, including the changed states themselves
+        final boolean[] visited = new boolean[numStates];
+        int[] affected = new int[numDirty];
+        int numAffected = 0;
+
+        for (int j = 0; j < numDirty; j++) {
+            final int s = dirtyStates[j];
+            if (!visited[s]) {
+                visited[s] = true;
+                affected[numAffected++] = s;
+            }
+        }
+        numDirty = 0;
+
+        int ptr = 0;
+        while (ptr < numAffected) {
+            final int s = affected[ptr++];
+            final int[] preds = predecessors[s];
+            for (int j = 0; j < numPredecessors[s]; j++) {
+                final int pred = preds[j];
+                if (!visited[pred]) {
+                    visited[pred] = true;
+                    if (numAffected == affected.length) {
+                        affected = Arrays.copyOf(affected, Math.min(numStates, affected.length * 2));
+                    }
+                    affected[numAffected++] = pred;
+                }
+            }
+        }
+
+        return Arrays.copyOf(affected, numAffected);
+    }
+
+    private void classify(UniversalDeterministicAutomaton.FullIntAbstraction<?, SP, TP> abs, int[] affected) {
+        final int numAffected = affected.length;
+        final int[] affectedIndex = new int[numStates];
+        Arrays.fill(affectedIndex, -1);
+        for (int j = 0; j < numAffected; j++) {
+            affectedIndex[affected[j]] = j;
+        }
+
+        // compute the coarsest stable partition of the affected states, the classes of all other states are fixed
+        final int sink = numAffected;
+        final SimpleDeterministicAutomaton.FullIntAbstraction subsystem =
+                new Subsystem(affected, affectedIndex, sink);
+
+        final PaigeTarjan pt = new PaigeTarjan();
+        PaigeTarjanInitializers.initCompleteDeterministic(pt, subsystem, x -> {
+            if (x == sink) {
+                return SINK;
+            }
+            final int s = affected[x];
+            final List<@Nullable Object> signature = new ArrayList<>(1 + 2 * numInputs);
+            signature.add(abs.getStateProperty(s));
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = successors[s * numInputs + i];
+                if (succ < 0) {
+                    signature.add(UNDEFINED);
+                    signature.add(UNDEFINED);
+                } else {
+                    signature.add(abs.getTransitionProperty(s, i));
+                    signature.add(affectedIndex[succ] < 0 ? (Object) stateClass[succ] : INTERNAL);
+                }
+            }
+            return signature;
+        }, false);
+        pt.initWorklist(false);
+        pt.computeCoarsestStablePartition();
+
+        final int sinkBlock = pt.getBlockForState(sink).id;
+        final int[] blockMap = new int[pt.getNumBlocks()];
+        Arrays.fill(blockMap, -1);
+        final int[] stateBlock = new int[numAffected];
+        int numBlocks = 0;
+        for (int x = 0; x < numAffected; x++) {
+            final int id = pt.getBlockForState(x).id;
+            assert id != sinkBlock;
+            if (blockMap[id] < 0) {
+                blockMap[id] = numBlocks++;
+            }
+            stateBlock[x] = blockMap[id];
+        }
+
+        // collect the signatures of the blocks. Successors are encoded as follows: -1 for undefined transitions, c >= 0
+        // for the (fixed) class c, and -(b + 2) for block b
+        final Blocks blocks = new Blocks(numBlocks);
+        final boolean[] initialized = new boolean[numBlocks];
+        for (int x = 0; x < numAffected; x++) {
+            final int b = stateBlock[x];
+            if (initialized[b]) {
+                continue;
+            }
+            initialized[b] = true;
+
+            final int s = affected[x];
+            blocks.stateProperties[b] = abs.getStateProperty(s);
+            for (int i = 0; i < numInputs; i++) {
+                final int idx = b * numInputs + i;
+                final int succ = successors[s * numInputs + i];
+                if (succ < 0) {
+                    blocks.successors[idx] = -1;
+                } else {
+                    final int succIdx = affectedIndex[succ];
+                    blocks.successors[idx] = succIdx < 0 ? stateClass[succ] : -(stateBlock[succIdx] + 2);
+                    blocks.transitionProperties[idx] = abs.getTransitionProperty(s, i);
+                }
+            }
+        }
+
+        computeBlockHashes(blocks);
+        resolveBlocks(blocks);
+
+        // update the class sizes. Classes are only reclaimed once all states have been assigned, since a class may
+        // lose and gain states at the same time
+        for (int x = 0; x < numAffected; x++) {
+            classSizes[blocks.resolved[stateBlock[x]]]++;
+        }
+        for (int x = 0; x < numAffected; x++) {
+            final int s = affected[x];
+            final int oldClass = stateClass[s];
+            stateClass[s] = blocks.resolved[stateBlock[x]];
+            if (oldClass >= 0 && --classSizes[oldClass] == 0) {
+                freeClass(oldClass);
+            }
+        }
+    }
+
+    private void computeBlockHashes(Blocks blocks) {
+        final int numBlocks = blocks.size;
+        final int stride = HASH_DEPTH + 1;
+
+        for (int b = 0; b < numBlocks; b++) {
+            blocks.hashes[b * stride] = localHash(blocks.stateProperties[b],
+                                                  blocks.transitionProperties,
+                                                  blocks.successors,
+                                                  b * numInputs);
+        }
+
+        for (int d = 1; d <= HASH_DEPTH; d++) {
+            for (int b = 0; b < numBlocks; b++) {
+                int h = blocks.hashes[b * stride];
+                for (int i = 0; i < numInputs; i++) {
+                    final int succ = blocks.successors[b * numInputs + i];
+                    final int succHash;
+                    if (succ == -1) {
+                        succHash = UNDEFINED_HASH;
+                    } else if (succ >= 0) {
+                        succHash = classHashes[succ * stride + d - 1];
+                    } else {
+                        succHash = blocks.hashes[(-succ - 2) * stride + d - 1];
+                    }
+                    h = 31 * h + succHash;
+                }
+                blocks.hashes[b * stride + d] = mix(h);
+            }
+        }
+    }
+
+    private void resolveBlocks(Blocks blocks) {
+        final int numBlocks = blocks.size;
+        final int stride = HASH_DEPTH + 1;
+
+        final int[] resolved = blocks.resolved;
+        Arrays.fill(resolved, -1);
+
+        // identify blocks with existing classes
+        final int[] matching = new int[numBlocks];
+        Arrays.fill(matching, -1);
+        final List<Integer> touched = new ArrayList<>();
+
+        for (int b = 0; b < numBlocks; b++) {
+            if (resolved[b] >= 0) {
+                continue;
+            }
+            final int hash = blocks.hashes[b * stride + HASH_DEPTH];
+            for (int c = hashBuckets[hash & (hashBuckets.length - 1)]; c >= 0; c = nextInBucket[c]) {
+                if (classHashes[c * stride + HASH_DEPTH] != hash) {
+                    continue;
+                }
+                if (tryMatch(blocks, b, c, matching, touched)) {
+                    for (Integer t : touched) {
+                        resolved[t] = matching[t];
+                    }
+                }
+                for (Integer t : touched) {
+                    matching[t] = -1;
+                }
+                touched.clear();
+
+                if (resolved[b] >= 0) {
+                    break;
+                }
+            }
+        }
+
+        // the remaining blocks form new classes. Blocks may only have been distinguished by successors that have now
+        // been identified with existing classes, hence they are merged according to their coarsest stable partition
+        // with respect to the resolved successors
+        final int[] representatives = mergeUnresolvedBlocks(blocks);
+
+        for (final int b : representatives) {
+            final int c = resolved[b];
+
+            classStateProperties[c] = blocks.stateProperties[b];
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = blocks.successors[b * numInputs + i];
+                classSuccessors[c * numInputs + i] = succ < -1 ? resolved[-succ - 2] : succ;
+                classTransitionProperties[c * numInputs + i] = blocks.transitionProperties[b * numInputs + i];
+            }
+            System.arraycopy(blocks.hashes, b * stride, classHashes, c * stride, stride);
+            addToBucket(c);
+        }
+    }
+
+    /**
+     * Merges the unresolved blocks into new classes, allocating a (possibly reclaimed) class ID for each resulting
+     * group of blocks.
+     *
+     * @return a representative block for each new class
+     */
+    private int[] mergeUnresolvedBlocks(Blocks blocks) {
+        final int numBlocks = blocks.size;
+        final int[] resolved = blocks.resolved;
+
+        final int[] unresolved = new int[numBlocks];
+        final int[] unresolvedIndex = new int[numBlocks];
+        Arrays.fill(unresolvedIndex, -1);
+        int numUnresolved = 0;
+        for (int b = 0; b < numBlocks; b++) {
+            if (resolved[b] < 0) {
+                unresolvedIndex[b] = numUnresolved;
+                unresolved[numUnresolved++] = b;
+            }
+        }
+
+        if (numUnresolved == 0) {
+            return new int[0];
+        }
+
+        // the (complete) sub-automaton of the unresolved blocks, in which all other transitions lead to a sink
+        final int sink = numUnresolved;
+        final int[] table = new int[(numUnresolved + 1) * numInputs];
+        Arrays.fill(table, sink);
+        for (int x = 0; x < numUnresolved; x++) {
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = blocks.successors[unresolved[x] * numInputs + i];
+                if (succ < -1 && unresolvedIndex[-succ - 2] >= 0) {
+                    table[x * numInputs + i] = unresolvedIndex[-succ - 2];
+                }
+            }
+        }
+
+        final PaigeTarjan pt = new PaigeTarjan();
+        PaigeTarjanInitializers.initCompleteDeterministic(pt, new TableSubsystem(table, sink), x -> {
+            if (x == sink) {
+                return SINK;
+            }
+            final int b = unresolved[x];
+            final List<@Nullable Object> signature = new ArrayList<>(1 + 2 * numInputs);
+            signature.add(blocks.stateProperties[b]);
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = blocks.successors[b * numInputs + i];
+                if (succ == -1) {
+                    signature.add(UNDEFINED);
+                    signature.add(UNDEFINED);
+                } else {
+                    signature.add(blocks.transitionProperties[b * numInputs + i]);
+                    if (succ >= 0) {
+                        signature.add(succ);
+                    } else {
+                        final int succBlock = -succ - 2;
+                        signature.add(resolved[succBlock] >= 0 ? (Object) resolved[succBlock] : INTERNAL);
+                    }
+                }
+            }
+            return signature;
+        }, false);
+        pt.initWorklist(false);
+        pt.computeCoarsestStablePartition();
+
+        final int[] classMap = new int[pt.getNumBlocks()];
+        Arrays.fill(classMap, -1);
+        final int[] representatives = new int[numUnresolved];
+        int numNew = 0;
+        for (int x = 0; x < numUnresolved; x++) {
+            final int id = pt.getBlockForState(x).id;
+            if (classMap[id] < 0) {
+                classMap[id] = allocateClass();
+                representatives[numNew++] = unresolved[x];
+            }
+            resolved[unresolved[x]] = classMap[id];
+        }
+
+        return Arrays.copyOf(representatives, numNew);
+    }
+
+    /**
+     * Checks whether the given block is equivalent to the given (existing) class, by trying to construct a bisimulation
+     * between the blocks reachable from the given block and the existing classes.
+     */
+    private boolean tryMatch(Blocks blocks, int block, int clazz, int[] matching, List<Integer> touched) {
+        final Deque<Integer> queue = new ArrayDeque<>();
+        matching[block] = clazz;
+        touched.add(block);
+        queue.add(block);
+
+        while (!queue.isEmpty()) {
+            final int b = queue.poll();
+            final int c = matching[b];
+
+            if (!Objects.equals(blocks.stateProperties[b], classStateProperties[c])) {
+                return false;
+            }
+
+            for (int i = 0; i < numInputs; i++) {
+                final int bSucc = blocks.successors[b * numInputs + i];
+                final int cSucc = classSuccessors[c * numInputs + i];
+
+                if (bSucc == -1 || cSucc == -1) {
+                    if (bSucc != cSucc) {
+                        return false;
+                    }
+                    continue;
+                }
+
+                if (!Objects.equals(blocks.transitionProperties[b * numInputs + i],
+                                    classTransitionProperties[c * numInputs + i])) {
+                    return false;
+                }
+
+                if (bSucc >= 0) {
+                    if (bSucc != cSucc) {
+                        return false;
+                    }
+                    continue;
+                }
+
+                final int succBlock = -bSucc - 2;
+                final int known = blocks.resolved[succBlock] >= 0 ? blocks.resolved[succBlock] : matching[succBlock];
+                if (known >= 0) {
+                    if (known != cSucc) {
+                        return false;
+                    }
+                } else {
+                    matching[succBlock] = cSucc;
+                    touched.add(succBlock);
+                    queue.add(succBlock);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private int allocateClass() {
+        final int c;
+        if (numFreeClasses > 0) {
+            c = freeClasses[--numFreeClasses];
+        } else {
+            c = numClasses++;
+            ensureClassCapacity(numClasses);
+        }
+        numLiveClasses++;
+        return c;
+    }
+
+    /**
+     * Releases the given class, which no longer contains any states. Since the successors of the remaining classes are
+     * determined by the successors of their states, no other class refers to the released class.
+     */
+    private void freeClass(int c) {
+        removeFromBucket(c);
+        classStateProperties[c] = null;
+        Arrays.fill(classTransitionProperties, c * numInputs, (c + 1) * numInputs, null);
+
+        if (numFreeClasses == freeClasses.length) {
+            freeClasses = Arrays.copyOf(freeClasses, Math.max(8, freeClasses.length * 2));
+        }
+        freeClasses[numFreeClasses++] = c;
+        numLiveClasses--;
+    }
+
+    private void addToBucket(int c) {
+        // the classes referenced by the buckets are the live classes
+        if (numLiveClasses > hashBuckets.length - (hashBuckets.length >>> 2)) {
+            rehash(hashBuckets.length * 2);
+        }
+        final int bucket = classHashes[c * (HASH_DEPTH + 1) + HASH_DEPTH] & (hashBuckets.length - 1);
+        nextInBucket[c] = hashBuckets[bucket];
+        hashBuckets[bucket] = c;
+    }
+
+    private void removeFromBucket(int c) {
+        final int bucket = classHashes[c * (HASH_DEPTH + 1) + HASH_DEPTH] & (hashBuckets.length - 1);
+        if (hashBuckets[bucket] == c) {
+            hashBuckets[bucket] = nextInBucket[c];
+            return;
+        }
+        int prev = hashBuckets[bucket];
+        while (nextInBucket[prev] != c) {
+            prev = nextInBucket[prev];
+        }
+        nextInBucket[prev] = nextInBucket[c];
+    }
+
+    private void rehash(int numBuckets) {
+        final int[] oldBuckets = hashBuckets;
+        hashBuckets = new int[numBuckets];
+        Arrays.fill(hashBuckets, -1);
+
+        for (int head : oldBuckets) {
+            int c = head;
+            while (c >= 0) {
+                final int next = nextInBucket[c];
+                final int bucket = classHashes[c * (HASH_DEPTH + 1) + HASH_DEPTH] & (numBuckets - 1);
+                nextInBucket[c] = hashBuckets[bucket];
+                hashBuckets[bucket] = c;
+                c = next;
+            }
+        }
+    }
+
+    private int localHash(@Nullable Object stateProperty,
+                          @Nullable Object[] transitionProperties,
+                          int[] succs,
+                          int offset) {
+        int h = Objects.hashCode(stateProperty);
+        for (int i = 0; i < numInputs; i++) {
+            final int idx = offset + i;
+            h = 31 * h + (succs[idx] == -1 ? UNDEFINED_HASH : Objects.hashCode(transitionProperties[idx]));
+        }
+        return mix(h);
+    }
+
+    // finalization mix of MurmurHash3
+    private static int mix(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private void markDirty(int state) {
+        if (state >= dirty.length) {
+            ensureStateCapacity(state + 1);
+        }
+        if (!dirty[state]) {
+            dirty[state] = true;
+            if (numDirty == dirtyStates.length) {
+                dirtyStates = Arrays.copyOf(dirtyStates, Math.max(8, dirtyStates.length * 2));
+            }
+            dirtyStates[numDirty++] = state;
+        }
+    }
+
+    private void addPredecessor(int state, int pred) {
+        int[] preds = predecessors[state];
+        final int num = numPredecessors[state];
+        if (preds == null) {
+            preds = new int[2];
+            predecessors[state] = preds;
+        } else if (num == preds.length) {
+            preds = Arrays.copyOf(preds, num * 2);
+            predecessors[state] = preds;
+        }
+        preds[num] = pred;
+        numPredecessors[state] = num + 1;
+    }
+
+    private void removePredecessor(int state, int pred) {
+        final int[] preds = predecessors[state];
+        final int num = numPredecessors[state];
+        for (int j = 0; j < num; j++) {
+            if (preds[j] == pred) {
+                preds[j] = preds[num - 1];
+                numPredecessors[state] = num - 1;
+                return;
+            }
+        }
+    }
+
+    private void ensureStateCapacity(int capacity) {
+        final int oldCapacity = dirty.length;
+        if (capacity <= oldCapacity) {
+            return;
+        }
+        final int newCapacity = Math.max(capacity, oldCapacity * 2);
+
+        stateClass = Arrays.copyOf(stateClass, newCapacity);
+        // new states are not yet assigned to any class
+        Arrays.fill(stateClass, oldCapacity, newCapacity, -1);
+        successors = Arrays.copyOf(successors, newCapacity * numInputs);
+        Arrays.fill(successors, oldCapacity * numInputs, newCapacity * numInputs, -1);
+        predecessors = Arrays.copyOf(predecessors, newCapacity);
+        numPredecessors = Arrays.copyOf(numPredecessors, newCapacity);
+        dirty = Arrays.copyOf(dirty, newCapacity);
+    }
+
+    private void ensureClassCapacity(int capacity) {
+        final int oldCapacity = classStateProperties.length;
+        if (capacity <= oldCapacity) {
+            return;
+        }
+        final int newCapacity = Math.max(capacity, oldCapacity * 2);
+
+        classSizes = Arrays.copyOf(classSizes, newCapacity);
+        nextInBucket = Arrays.copyOf(nextInBucket, newCapacity);
+        classSuccessors = Arrays.copyOf(classSuccessors, newCapacity * numInputs);
+        classStateProperties = Arrays.copyOf(classStateProperties, newCapacity);
+        classTransitionProperties = Arrays.copyOf(classTransitionProperties, newCapacity * numInputs);
+        classHashes = Arrays.copyOf(classHashes, newCapacity * (HASH_DEPTH + 1));
+    }
+
+    /**
+     * The (complete) sub-automaton of the affected states, in which all transitions to unaffected states (as well as
+     * undefined transitions) lead to an additional sink.
+     */
+    private final class Subsystem implements SimpleDeterministicAutomaton.FullIntAbstraction {
+
+        private final int[] affected;
+        private final int[] affectedIndex;
+        private final int sink;
+
+        Subsystem(int[] affected, int[] affectedIndex, int sink) {
+            this.affected = affected;
+            this.affectedIndex = affectedIndex;
+            this.sink = sink;
+        }
+
+        @Override
+        public int getSuccessor(int state, int input) {
+            if (state == sink) {
+                return sink;
+            }
+            final int succ = successors[affected[state] * numInputs + input];
+            if (succ < 0) {
+                return sink;
+            }
+            final int succIdx = affectedIndex[succ];
+            return succIdx < 0 ? sink : succIdx;
+        }
+
+        @Override
+        public int numInputs() {
+            return numInputs;
+        }
+
+        @Override
+        public int size() {
+            return sink + 1;
+        }
+
+        @Override
+        public int getIntInitialState() {
+            return sink;
+        }
+    }
+
+    /**
+     * A (complete) automaton given by a successor table, whose initial state is the last state.
+     */
+    private final class TableSubsystem implements SimpleDeterministicAutomaton.FullIntAbstraction {
+
+        private final int[] table;
+        private final int sink;
+
+        TableSubsystem(int[] table, int sink) {
+            this.table = table;
+            this.sink = sink;
+        }
+
+        @Override
+        public int getSuccessor(int state, int input) {
+            return table[state * numInputs + input];
+        }
+
+        @Override
+        public int numInputs() {
+            return numInputs;
+        }
+
+        @Override
+        public int size() {
+            return sink + 1;
+        }
+
+        @Override
+        public int getIntInitialState() {
+            return sink;
+        }
+    }
+
+    private final class Blocks {
+
+        private final int size;
+        private final @Nullable Object[] stateProperties;
+        private final @Nullable Object[] transitionProperties;
+        private final int[] successors;
+        private final int[] hashes;
+        private final int[] resolved;
+
+        Blocks(int size) {
+            this.size = size;
+            this.stateProperties = new Object[size];
+            this.transitionProperties = new Object[size * numInputs];
+            this.successors = new int[size * numInputs];
+            this.hashes = new int[size * (HASH_DEPTH + 1)];
+            this.resolved = new int[size];
+        }
+    }
+}
@@ -0,0 +1,426 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.product;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+import net.automatalib.automata.DeterministicAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+
+/**
+ * An integer-based exploration of the reachable part of the (synchronous) product of two deterministic automata.
+ * <p>
+ * The components are given by successor tables over their state IDs and the indices of a common list of inputs. Each
+ * product state is encoded as a single {@code long} (packing the IDs of its component states) and is mapped to its
+ * product state ID via primitive open-addressing hash tables, so that no pair objects need to be allocated. Product
+ * states are numbered and expanded in breadth-first order, and the exploration reports all product states and
+ * transitions to a {@link Listener}.
+ * <p>
+ * As in {@link net.automatalib.ts.comp.DTSComposition}s that allow partiality, a product state may refer to an
+ * undefined ({@link #UNDEFINED}) component state if only one of the components defines a transition. Transitions for
+ * which neither component defines a successor are undefined in the product as well.
+ * <p>
+ * Optionally, the exploration runs in parallel (in the {@link java.util.concurrent.ForkJoinPool} of the invoking
+ * thread or the common pool, like parallel streams). In this case, the hash table is split into shards (selected by
+ * the hash of a product state) that are filled in parallel. The numbering of product states is independent of the
+ * number of threads, but differs between the sequential and the parallel exploration.
+ */
+public final class ProductExploration {
+
+    /**
+     * The ID of undefined (component) states.
+     */
+    public static final int UNDEFINED = -1;
+
+    /**
+     * The number of product states that are expanded at once.
+     */
+    private static final int BLOCK_SIZE = 1 << 14;
+    private static final int CHUNK_SIZE = 1 << 10;
+    private static final int PARALLEL_SHARDS = 16;
+
+    private static final long EMPTY = -1L;
+
+    private ProductExploration() {}
+
+    /**
+     * Computes the successor table of the given automaton, i.e. an array that contains at index {@code s * k + i} the
+     * ID of the successor of the state with ID {@code s} for the {@code i}-th input (or {@link #UNDEFINED}), where
+     * {@code k} denotes the number of inputs.
+     *
+     * @param automaton
+     *         the automaton
+     * @param inputs
+     *         the inputs to consider
+     *
+     * @return the successor table
+     */
+    public static <S, I> int[] successorTable(DeterministicAutomaton<S, I, ?> automaton,
+                                              Collection<? extends I> inputs) {
+        final StateIDs<S> ids = automaton.stateIDs();
+        final int numInputs = inputs.size();
+        final int[] result = new int[automaton.size() * numInputs];
+
+        for (S s : automaton) {
+            int idx = ids.getStateId(s) * numInputs;
+            for (I i : inputs) {
+                final S succ = automaton.getSuccessor(s, i);
+                result[idx++] = succ == null ? UNDEFINED : ids.getStateId(succ);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the ID of the initial state of the given automaton.
+     *
+     * @param automaton
+     *         the automaton
+     *
+     * @return the ID of the initial state, or {@link #UNDEFINED} if the automaton has no initial state
+     */
+    public static <S> int initialState(DeterministicAutomaton<S, ?, ?> automaton) {
+        final S init = automaton.getInitialState();
+        return init == null ? UNDEFINED : automaton.stateIDs().getStateId(init);
+    }
+
+    /**
+     * Explores the reachable product states of two automata.
+     *
+     * @param successors1
+     *         the successor table of the first automaton (see {@link #successorTable(DeterministicAutomaton,
+     *         Collection)})
+     * @param init1
+     *         the ID of the initial state of the first automaton (or {@link #UNDEFINED})
+     * @param successors2
+     *         the successor table of the second automaton
+     * @param init2
+     *         the ID of the initial state of the second automaton (or {@link #UNDEFINED})
+     * @param numInputs
+     *         the number of inputs
+     * @param listener
+     *         the listener, which is invoked from the calling thread only
+     * @param parallel
+     *         whether to explore the product in parallel
+     */
+    public static void explore(int[] successors1,
+                               int init1,
+                               int[] successors2,
+                               int init2,
+                               int numInputs,
+                               Listener listener,
+                               boolean parallel) {
+
+        final StateTable table = new StateTable(parallel ? PARALLEL_SHARDS : 1);
+
+        long[] states = new long[Math.max(16, BLOCK_SIZE)];
+        final long initKey = encode(init1, init2);
+        states[0] = initKey;
+        table.shards[table.shardOf(initKey)].insert(initKey, 0);
+        listener.addState(0, init1, init2);
+        int numStates = 1;
+
+        for (int blockStart = 0; blockStart < numStates; ) {
+            final int blockEnd = Math.min(numStates, blockStart + BLOCK_SIZE);
+            final int blockSize = blockEnd - blockStart;
+
+            if ((long) blockSize * numInputs > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many inputs: " + numInputs);
+            }
+
+            // phase 1: compute the successor pairs
+            final long[] succKeys = new long[blockSize * numInputs];
+            final long[] block = states;
+            final int base = blockStart;
+            chunks(blockSize, parallel).forEach(c -> {
+                final int from = c * CHUNK_SIZE;
+                final int to = Math.min(blockSize, from + CHUNK_SIZE);
+                for (int j = from; j < to; j++) {
+                    final long key = block[base + j];
+                    final int s1 = first(key);
+                    final int s2 = second(key);
+                    int idx = j * numInputs;
+                    for (int i = 0; i < numInputs; i++) {
+                        final int succ1 = s1 == UNDEFINED ? UNDEFINED : successors1[s1 * numInputs + i];
+                        final int succ2 = s2 == UNDEFINED ? UNDEFINED : successors2[s2 * numInputs + i];
+                        succKeys[idx++] = succ1 == UNDEFINED && succ2 == UNDEFINED ? EMPTY : encode(succ1, succ2);
+                    }
+                }
+            });
+
+            // phase 2: insert the new product states (each shard collects its new states in the order of occurrence)
+            final long[][] newKeys = new long[table.shards.length][];
+            shards(table, parallel).forEach(s -> newKeys[s] = table.shards[s].insertAll(succKeys, table, s));
+
+            // number the new states consistently (independent of the number of threads)
+            int numNew = 0;
+            for (long[] keys : newKeys) {
+                numNew += keys.length;
+            }
+            if ((long) numStates + numNew > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Product automaton is too large");
+            }
+            if (numStates + numNew > states.length) {
+                states = Arrays.copyOf(states, (int) Math.min(Integer.MAX_VALUE - 8,
+                                                              Math.max(numStates + numNew, 2L * states.length)));
+            }
+
+            final int[] offsets = new int[newKeys.length];
+            int offset = numStates;
+            for (int s = 0; s < newKeys.length; s++) {
+                offsets[s] = offset;
+                System.arraycopy(newKeys[s], 0, states, offset, newKeys[s].length);
+                offset += newKeys[s].length;
+            }
+            shards(table, parallel).forEach(s -> table.shards[s].assign(newKeys[s], offsets[s]));
+
+            // phase 3: resolve the IDs of the successors
+            final int[] succIds = new int[succKeys.length];
+            chunks(blockSize, parallel).forEach(c -> {
+                final int from = c * CHUNK_SIZE * numInputs;
+                final int to = Math.min(succKeys.length, from + CHUNK_SIZE * numInputs);
+                for (int idx = from; idx < to; idx++) {
+                    final long key = succKeys[idx];
+                    succIds[idx] = key == EMPTY ? UNDEFINED : table.shards[table.shardOf(key)].get(key);
+                }
+            });
+
+            // report the new states and the transitions of the block
+            for (int id = numStates; id < numStates + numNew; id++) {
+                listener.addState(id, first(states[id]), second(states[id]));
+            }
+            for (int j = 0; j < blockSize; j++) {
+                final long key = states[blockStart + j];
+                final int s1 = first(key);
+                final int s2 = second(key);
+                int idx = j * numInputs;
+                for (int i = 0; i < numInputs; i++, idx++) {
+                    if (succIds[idx] != UNDEFINED) {
+                        listener.addTransition(blockStart + j, s1, s2, i, succIds[idx]);
+                    }
+                }
+            }
+
+            numStates += numNew;
+            blockStart = blockEnd;
+        }
+    }
+
+    private static IntStream chunks(int size, boolean parallel) {
+        final IntStream result = IntStream.range(0, (size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        return parallel ? result.parallel() : result;
+    }
+
+    private static IntStream shards(StateTable table, boolean parallel) {
+        final IntStream result = IntStream.range(0, table.shards.length);
+        return parallel ? result.parallel() : result;
+    }
+
+    private static long encode(int s1, int s2) {
+        // shift by one, so that undefined states are representable and no valid key equals EMPTY
+        return ((long) (s1 + 1) << Integer.SIZE) | (s2 + 1);
+    }
+
+    private static int first(long key) {
+        return (int) (key >>> Integer.SIZE) - 1;
+    }
+
+    private static int second(long key) {
+        return (int) key - 1;
+    }
+
+    /**
+     * A listener for the states and transitions of a product automaton.
+     */
+    public interface Listener {
+
+        /**
+         * Reports a new product state. States are reported in the order of their IDs, starting with the initial state
+         * (ID 0).
+         *
+         * @param id
+         *         the ID of the product state
+         * @param state1
+         *         the ID of the first component state (or {@link #UNDEFINED})
+         * @param state2
+         *         the ID of the second component state (or {@link #UNDEFINED})
+         */
+        void addState(int id, int state1, int state2);
+
+        /**
+         * Reports a transition of the product automaton. Transitions are only reported after both their source and
+         * target state have been reported.
+         *
+         * @param src
+         *         the ID of the source state
+         * @param state1
+         *         the ID of the first component of the source state (or {@link #UNDEFINED})
+         * @param state2
+         *         the ID of the second component of the source state (or {@link #UNDEFINED})
+         * @param input
+         *         the index of the input
+         * @param tgt
+         *         the ID of the target state
+         */
+        void addTransition(int src, int state1, int state2, int input, int tgt);
+    }
+
+    private static final class StateTable {
+
+        private final Shard[] shards;
+        private final int shardBits;
+
+        StateTable(int numShards) {
+            this.shards = new Shard[numShards];
+            this.shardBits = Integer.numberOfTrailingZeros(numShards);
+            for (int i = 0; i < numShards; i++) {
+                shards[i] = new Shard();
+            }
+        }
+
+        int shardOf(long key) {
+            return shardBits == 0 ? 0 : (int) (hash(key) >>> (Long.SIZE - shardBits));
+        }
+    }
+
+    /**
+     * An open-addressing (linear probing) hash table from encoded product states to their IDs.
+     */
+    private static final class Shard {
+
+        private static final int PENDING = -1;
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        Shard() {
+            this.keys = new long[16];
+            this.values = new int[16];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int get(long key) {
+            final int mask = keys.length - 1;
+            int idx = (int) hash(key) & mask;
+
+            while (keys[idx] != key) {
+                idx = (idx + 1) & mask;
+            }
+
+            return values[idx];
+        }
+
+        /**
+         * Inserts the given key if absent.
+         *
+         * @return {@code true} if the key has been inserted, {@code false} if the key was already contained
+         */
+        boolean insert(long key, int value) {
+            final int mask = keys.length - 1;
+            int idx = (int) hash(key) & mask;
+
+            while (keys[idx] != EMPTY) {
+                if (keys[idx] == key) {
+                    return false;
+                }
+                idx = (idx + 1) & mask;
+            }
+
+            keys[idx] = key;
+            values[idx] = value;
+
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+
+            return true;
+        }
+
+        /**
+         * Inserts all keys of this shard that are not contained yet, with a pending value.
+         *
+         * @return the inserted keys in the order of their (first) occurrence
+         */
+        long[] insertAll(long[] candidates, StateTable table, int shard) {
+            long[] result = new long[16];
+            int count = 0;
+
+            for (long key : candidates) {
+                if (key != EMPTY && table.shardOf(key) == shard && insert(key, PENDING)) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count * 2);
+                    }
+                    result[count++] = key;
+                }
+            }
+
+            return Arrays.copyOf(result, count);
+        }
+
+        /**
+         * Assigns consecutive IDs (starting with {@code offset}) to the given (pending) keys.
+         */
+        void assign(long[] pending, int offset) {
+            final int mask = keys.length - 1;
+
+            for (int i = 0; i < pending.length; i++) {
+                final long key = pending[i];
+                int idx = (int) hash(key) & mask;
+                while (keys[idx] != key) {
+                    idx = (idx + 1) & mask;
+                }
+                values[idx] = offset + i;
+            }
+        }
+
+        private void resize() {
+            final long[] oldKeys = keys;
+            final int[] oldValues = values;
+
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            Arrays.fill(keys, EMPTY);
+
+            final int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                final long key = oldKeys[i];
+                if (key != EMPTY) {
+                    int idx = (int) hash(key) & mask;
+                    while (keys[idx] != EMPTY) {
+                        idx = (idx + 1) & mask;
+                    }
+                    keys[idx] = key;
+                    values[idx] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    private static long hash(long key) {
+        // finalizer of MurmurHash3
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
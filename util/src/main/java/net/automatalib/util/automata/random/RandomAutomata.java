@@ -17,12 +17,15 @@ package net.automatalib.util.automata.random;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Random;
+import java.util.Set;
 
 import net.automatalib.automata.Automaton;
 import net.automatalib.automata.MutableDeterministic;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
 import net.automatalib.automata.vpda.DefaultOneSEVPA;
 import net.automatalib.automata.vpda.Location;
@@ -256,6 +259,108 @@ public class RandomAutomata {
         return randomMealy(rand, numStates, inputs, outputs, true);
     }
 
+    /**
+     * Randomly generates an NFA using the randomness source of this instance.
+     *
+     * @param numStates
+     *         the number of states of the generated automaton
+     * @param inputs
+     *         the input alphabet
+     * @param transitionDensity
+     *         the (average) number of outgoing transitions per state and input symbol
+     * @param acceptanceDensity
+     *         the ratio of accepting states (between {@code 0} and {@code 1})
+     *
+     * @return a randomly generated NFA
+     *
+     * @see #randomNFA(Random, int, Alphabet, double, double)
+     */
+    public <I> CompactNFA<I> randomNFA(@NonNegative int numStates,
+                                       Alphabet<I> inputs,
+                                       double transitionDensity,
+                                       double acceptanceDensity) {
+        return randomNFA(this.random, numStates, inputs, transitionDensity, acceptanceDensity);
+    }
+
+    /**
+     * Randomly generates an NFA according to the model of Tabakov and Vardi: state {@code 0} is the only initial
+     * state, {@code round(acceptanceDensity * numStates)} (but at least one) randomly chosen states are accepting, and
+     * for each input symbol, {@code round(transitionDensity * numStates)} distinct transitions are chosen randomly.
+     *
+     * @param rand
+     *         the randomness source
+     * @param numStates
+     *         the number of states of the generated automaton
+     * @param inputs
+     *         the input alphabet
+     * @param transitionDensity
+     *         the (average) number of outgoing transitions per state and input symbol
+     * @param acceptanceDensity
+     *         the ratio of accepting states (between {@code 0} and {@code 1})
+     *
+     * @return a randomly generated NFA
+     */
+    public static <I> CompactNFA<I> randomNFA(Random rand,
+                                              @NonNegative int numStates,
+                                              Alphabet<I> inputs,
+                                              double transitionDensity,
+                                              double acceptanceDensity) {
+        if (transitionDensity < 0 || transitionDensity > numStates) {
+            throw new IllegalArgumentException("Transition density must be between 0 and the number of states");
+        }
+        if (acceptanceDensity < 0 || acceptanceDensity > 1) {
+            throw new IllegalArgumentException("Acceptance density must be between 0 and 1");
+        }
+
+        final CompactNFA<I> result = new CompactNFA<>(inputs, numStates);
+        if (numStates == 0) {
+            return result;
+        }
+
+        result.addInitialState(false);
+        for (int i = 1; i < numStates; i++) {
+            result.addState(false);
+        }
+
+        final int numAccepting = Math.max(1, (int) Math.round(acceptanceDensity * numStates));
+        for (int s : randomSample(rand, numStates, numAccepting)) {
+            result.setAccepting(s, true);
+        }
+
+        final long numPairs = (long) numStates * numStates;
+        final int numTransitions = (int) Math.round(transitionDensity * numStates);
+        for (int i = 0; i < inputs.size(); i++) {
+            for (long pair : randomSample(rand, numPairs, numTransitions)) {
+                result.addTransition((int) (pair / numStates), i, (int) (pair % numStates));
+            }
+        }
+
+        return result;
+    }
+
+    private static int[] randomSample(Random rand, int n, int k) {
+        final long[] sample = randomSample(rand, (long) n, k);
+        final int[] result = new int[k];
+        for (int i = 0; i < k; i++) {
+            result[i] = (int) sample[i];
+        }
+        return result;
+    }
+
+    // Floyd's algorithm for sampling k distinct values from [0, n)
+    private static long[] randomSample(Random rand, long n, int k) {
+        final Set<Long> chosen = new HashSet<>();
+        final long[] result = new long[k];
+        int i = 0;
+        for (long j = n - k; j < n; j++) {
+            final long t = (long) (rand.nextDouble() * (j + 1));
+            final long value = chosen.add(t) ? t : j;
+            chosen.add(value);
+            result[i++] = value;
+        }
+        return result;
+    }
+
     private static final class InstanceHolder {
 
         public static final RandomAutomata INSTANCE = new RandomAutomata();
@@ -15,19 +15,19 @@
  */
 package net.automatalib.util.automata.transducers;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
+import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.automata.transducers.MutableMealyMachine;
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
 import net.automatalib.commons.util.Pair;
-import net.automatalib.ts.output.MealyTransitionSystem;
 import net.automatalib.util.automata.copy.AutomatonCopyMethod;
 import net.automatalib.util.automata.copy.AutomatonLowLevelCopy;
-import net.automatalib.util.ts.copy.TSCopy;
-import net.automatalib.util.ts.transducers.Transducers;
-import net.automatalib.util.ts.traversal.TSTraversal;
-import net.automatalib.util.ts.traversal.TSTraversalMethod;
+import net.automatalib.util.automata.product.ProductExploration;
 import net.automatalib.words.Alphabet;
 
 public final class MealyMachines {
@@ -82,16 +82,104 @@ public final class MealyMachines {
                                                                                               MealyMachine<?, I, ?, O2> mealy2,
                                                                                               Collection<? extends I> inputs,
                                                                                               A out) {
-        final MealyTransitionSystem<?, I, ?, Pair<O1, O2>> comb = Transducers.combine(mealy1, mealy2);
+        return combine(mealy1, mealy2, inputs, out, false);
+    }
 
-        TSCopy.copy(TSTraversalMethod.BREADTH_FIRST,
-                    comb,
-                    TSTraversal.NO_LIMIT,
-                    inputs,
-                    (MutableMealyMachine<?, I, ?, Pair<O1, O2>>) out);
+    /**
+     * Constructs the product automaton for two Mealy Machines. Only the reachable part of the product is constructed
+     * (see {@link ProductExploration}). States are added to {@code out} in breadth-first order if the product is
+     * explored sequentially.
+     *
+     * @param mealy1
+     *         the first Mealy Machine
+     * @param mealy2
+     *         the second Mealy Machine
+     * @param inputs
+     *         the input symbols to consider
+     * @param out
+     *         the instance to which the combined automaton should be written
+     * @param parallel
+     *         whether to explore the product in parallel
+     * @param <I>
+     *         input symbol type
+     * @param <O1>
+     *         output symbol type of the first Mealy Machine
+     * @param <O2>
+     *         output symbol type of the second Mealy Machine
+     *
+     * @return {@code out}, for convenience
+     */
+    public static <I, O1, O2, A extends MutableMealyMachine<?, I, ?, Pair<O1, O2>>> A combine(MealyMachine<?, I, ?, O1> mealy1,
+                                                                                              MealyMachine<?, I, ?, O2> mealy2,
+                                                                                              Collection<? extends I> inputs,
+                                                                                              A out,
+                                                                                              boolean parallel) {
+        combineInternal(mealy1,
+                        mealy2,
+                        new ArrayList<>(inputs),
+                        (MutableMealyMachine<?, I, ?, Pair<O1, O2>>) out,
+                        parallel);
         return out;
     }
 
+    private static <S, I, O1, O2> void combineInternal(MealyMachine<?, I, ?, O1> mealy1,
+                                                       MealyMachine<?, I, ?, O2> mealy2,
+                                                       List<? extends I> inputs,
+                                                       MutableMealyMachine<S, I, ?, Pair<O1, O2>> out,
+                                                       boolean parallel) {
+        final int numInputs = inputs.size();
+        final List<O1> outputs1 = outputTable(mealy1, inputs);
+        final List<O2> outputs2 = outputTable(mealy2, inputs);
+        final List<S> states = new ArrayList<>();
+
+        ProductExploration.explore(ProductExploration.successorTable(mealy1, inputs),
+                                   ProductExploration.initialState(mealy1),
+                                   ProductExploration.successorTable(mealy2, inputs),
+                                   ProductExploration.initialState(mealy2),
+                                   numInputs,
+                                   new ProductExploration.Listener() {
+
+                                       @Override
+                                       public void addState(int id, int state1, int state2) {
+                                           states.add(id == 0 ? out.addInitialState() : out.addState());
+                                       }
+
+                                       @Override
+                                       public void addTransition(int src,
+                                                                 int state1,
+                                                                 int state2,
+                                                                 int input,
+                                                                 int tgt) {
+                                           final O1 o1 = state1 == ProductExploration.UNDEFINED ?
+                                                   null :
+                                                   outputs1.get(state1 * numInputs + input);
+                                           final O2 o2 = state2 == ProductExploration.UNDEFINED ?
+                                                   null :
+                                                   outputs2.get(state2 * numInputs + input);
+                                           out.addTransition(states.get(src),
+                                                             inputs.get(input),
+                                                             states.get(tgt),
+                                                             Pair.of(o1, o2));
+                                       }
+                                   },
+                                   parallel);
+    }
+
+    private static <S, I, O> List<O> outputTable(MealyMachine<S, I, ?, O> mealy, List<? extends I> inputs) {
+        final StateIDs<S> ids = mealy.stateIDs();
+        final int numInputs = inputs.size();
+        final List<O> result = new ArrayList<>(Collections.nCopies(mealy.size() * numInputs, null));
+
+        for (S s : mealy) {
+            final int base = ids.getStateId(s) * numInputs;
+            for (int i = 0; i < numInputs; i++) {
+                result.set(base + i, mealy.getOutput(s, inputs.get(i)));
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Constructs a copy of the given Mealy machine in which every transition (with regards to the specified alphabet)
      * is guaranteed to be defined. This includes adding an additional sink state if the original Mealy machine has
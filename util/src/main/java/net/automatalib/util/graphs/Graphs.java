@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 
 import net.automatalib.commons.util.mappings.Mapping;
 import net.automatalib.commons.util.mappings.MutableMapping;
@@ -27,11 +28,12 @@ import net.automatalib.graphs.Graph;
 import net.automatalib.graphs.IndefiniteGraph;
 import net.automatalib.graphs.concepts.EdgeWeights;
 import net.automatalib.util.graphs.apsp.APSPResult;
-import net.automatalib.util.graphs.apsp.FloydWarshallAPSP;
+import net.automatalib.util.graphs.apsp.BlockedFloydWarshallAPSP;
+import net.automatalib.util.graphs.apsp.JohnsonAPSP;
 import net.automatalib.util.graphs.scc.SCCListener;
 import net.automatalib.util.graphs.scc.SCCs;
-import net.automatalib.util.graphs.scc.TarjanSCCVisitor;
-import net.automatalib.util.graphs.sssp.DijkstraSSSP;
+import net.automatalib.util.graphs.sssp.IntDijkstraSSSP;
+import net.automatalib.util.graphs.sssp.PointToPointSearch;
 import net.automatalib.util.graphs.sssp.SSSPResult;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -109,8 +111,9 @@ public final class Graphs {
     }
 
     /**
-     * Computes the shortest paths between all pairs of nodes in a graph, using the Floyd-Warshall dynamic programming
-     * algorithm. Note that the result is only correct if the graph contains no cycles with negative edge weight sums.
+     * Computes the shortest paths between all pairs of nodes in a graph, using the (cache-blocked) Floyd-Warshall
+     * dynamic programming algorithm. Note that the result is only correct if the graph contains no cycles with negative
+     * edge weight sums.
      *
      * @param graph
      *         the graph
@@ -119,10 +122,40 @@ public final class Graphs {
      *
      * @return the all pairs shortest paths result
      *
-     * @see FloydWarshallAPSP
+     * @see BlockedFloydWarshallAPSP
      */
     public static <N, E> APSPResult<N, E> findAPSP(Graph<N, E> graph, EdgeWeights<E> edgeWeights) {
-        return FloydWarshallAPSP.findAPSP(graph, edgeWeights);
+        return BlockedFloydWarshallAPSP.findAPSP(graph, edgeWeights);
+    }
+
+    /**
+     * Computes the shortest paths between all pairs of nodes in a graph, using either the (cache-blocked)
+     * Floyd-Warshall dynamic programming algorithm for dense graphs or Johnson's algorithm for sparse graphs.
+     *
+     * @param graph
+     *         the graph
+     * @param edgeWeights
+     *         the edge weights
+     * @param sparse
+     *         whether the graph is sparse, i.e. whether Johnson's algorithm should be used
+     * @param parallel
+     *         whether the computation should be parallelized
+     *
+     * @return the all pairs shortest paths result
+     *
+     * @throws IllegalArgumentException
+     *         if Johnson's algorithm is used and the graph contains a cycle with a negative edge weight sum
+     * @see BlockedFloydWarshallAPSP
+     * @see JohnsonAPSP
+     */
+    public static <N, E> APSPResult<N, E> findAPSP(Graph<N, E> graph,
+                                                   EdgeWeights<E> edgeWeights,
+                                                   boolean sparse,
+                                                   boolean parallel) {
+        if (sparse) {
+            return JohnsonAPSP.findAPSP(graph, edgeWeights, parallel);
+        }
+        return BlockedFloydWarshallAPSP.findAPSP(graph, edgeWeights, parallel);
     }
 
     /**
@@ -138,44 +171,138 @@ public final class Graphs {
      *
      * @return the single-source shortest paths result
      *
-     * @see DijkstraSSSP
+     * @throws IllegalArgumentException
+     *         if the search encounters an edge with a negative weight
+     * @see IntDijkstraSSSP
      */
     public static <N, E> SSSPResult<N, E> findSSSP(Graph<N, E> graph, N init, EdgeWeights<E> edgeWeights) {
-        return DijkstraSSSP.findSSSP(graph, init, edgeWeights);
+        return IntDijkstraSSSP.findSSSP(graph, init, edgeWeights);
+    }
+
+    /**
+     * Computes a shortest path between two nodes in a graph, using a bidirectional variant of Dijkstra's algorithm.
+     * Note that the graph must not contain edges with negative weights.
+     *
+     * @param graph
+     *         the graph
+     * @param source
+     *         the source node
+     * @param target
+     *         the target node
+     * @param edgeWeights
+     *         the edge weights
+     *
+     * @return a shortest path from {@code source} to {@code target}, or {@code null} if no such path exists
+     *
+     * @throws IllegalArgumentException
+     *         if the search encounters an edge with a negative weight
+     * @see PointToPointSearch#bidirectionalDijkstra(Graph, Object, Object, EdgeWeights)
+     */
+    public static <N, E> @Nullable Path<N, E> findShortestPath(Graph<N, E> graph,
+                                                               N source,
+                                                               N target,
+                                                               EdgeWeights<E> edgeWeights) {
+        final List<E> edges = PointToPointSearch.bidirectionalDijkstra(graph, source, target, edgeWeights);
+        return edges == null ? null : new Path.PathData<N, E>(source, edges).toPath(graph);
+    }
+
+    /**
+     * Computes a shortest path between two nodes in a graph, using the A* algorithm with the given heuristic. Note that
+     * the graph must not contain edges with negative weights and that the heuristic needs to be consistent.
+     *
+     * @param graph
+     *         the graph
+     * @param source
+     *         the source node
+     * @param target
+     *         the target node
+     * @param edgeWeights
+     *         the edge weights
+     * @param heuristic
+     *         the (non-negative and consistent) estimation of the remaining distance of a node to the target
+     *
+     * @return a shortest path from {@code source} to {@code target}, or {@code null} if no such path exists
+     *
+     * @throws IllegalArgumentException
+     *         if the search encounters an edge with a negative weight or a node with a negative heuristic
+     * @see PointToPointSearch#aStar(Graph, Object, Object, EdgeWeights, ToDoubleFunction)
+     */
+    public static <N, E> @Nullable Path<N, E> findShortestPath(Graph<N, E> graph,
+                                                               N source,
+                                                               N target,
+                                                               EdgeWeights<E> edgeWeights,
+                                                               ToDoubleFunction<? super N> heuristic) {
+        final List<E> edges = PointToPointSearch.aStar(graph, source, target, edgeWeights, heuristic);
+        return edges == null ? null : new Path.PathData<N, E>(source, edges).toPath(graph);
     }
 
     /**
      * Collects all strongly-connected components in a graph. The SCCs are returned as a list of lists.
      * <p>
-     * Tarjan's algorithm is used for realizing the SCC search.
+     * An iterative, array-based variant of Tarjan's algorithm (due to Pearce) is used for realizing the SCC search.
      *
      * @param graph
      *         the graph
      *
      * @return a list of all SCCs, each represented as a list of its nodes
      *
-     * @see TarjanSCCVisitor
      * @see SCCs
      */
     public static <N, E> List<List<N>> collectSCCs(Graph<N, E> graph) {
         return SCCs.collectSCCs(graph);
     }
 
+    /**
+     * Collects all strongly-connected components in a graph. The SCCs are returned as a list of lists.
+     *
+     * @param graph
+     *         the graph
+     * @param parallel
+     *         whether to use the (sequential) iterative, array-based variant of Tarjan's algorithm (due to Pearce) or
+     *         the parallel forward-backward algorithm with trimming. In the latter case, the SCCs are not returned in
+     *         topological order
+     *
+     * @return a list of all SCCs, each represented as a list of its nodes
+     *
+     * @see SCCs
+     */
+    public static <N, E> List<List<N>> collectSCCs(Graph<N, E> graph, boolean parallel) {
+        return SCCs.collectSCCs(graph, parallel);
+    }
+
     /**
      * Find all strongly-connected components in a graph. When a new SCC is found, the {@link
      * SCCListener#foundSCC(java.util.Collection)} method is invoked. The listener object may hence not be null.
      * <p>
-     * Tarjan's algorithm is used for realizing the SCC search.
+     * An iterative, array-based variant of Tarjan's algorithm (due to Pearce) is used for realizing the SCC search.
      *
      * @param graph
      *         the graph
      * @param sccListener
      *         the SCC listener
      *
-     * @see TarjanSCCVisitor
      * @see SCCs
      */
     public static <N, E> void findSCCs(Graph<N, E> graph, SCCListener<N> sccListener) {
         SCCs.findSCCs(graph, sccListener);
     }
+
+    /**
+     * Find all strongly-connected components in a graph. When a new SCC is found, the {@link
+     * SCCListener#foundSCC(java.util.Collection)} method is invoked. The listener object may hence not be null.
+     *
+     * @param graph
+     *         the graph
+     * @param sccListener
+     *         the SCC listener
+     * @param parallel
+     *         whether to use the (sequential) iterative, array-based variant of Tarjan's algorithm (due to Pearce) or
+     *         the parallel forward-backward algorithm with trimming. In the latter case, all SCCs are computed first and
+     *         reported afterwards in no particular order
+     *
+     * @see SCCs#findSCCs(Graph, SCCListener, boolean)
+     */
+    public static <N, E> void findSCCs(Graph<N, E> graph, SCCListener<N> sccListener, boolean parallel) {
+        SCCs.findSCCs(graph, sccListener, parallel);
+    }
 }
@@ -0,0 +1,279 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.graphs.apsp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.concepts.EdgeWeights;
+import net.automatalib.graphs.concepts.NodeIDs;
+import net.automatalib.util.graphs.Graphs;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A cache-blocked implementation of the Floyd-Warshall dynamic programming algorithm for the all pairs shortest paths
+ * problem.
+ * <p>
+ * In contrast to {@link FloydWarshallAPSP}, distances are stored in a primitive (row-major) {@code float} matrix and
+ * the only additional information kept per pair of nodes is the intermediate node of its shortest path, from which
+ * paths are reconstructed on request. The matrix is processed in square blocks that fit into the processor caches: for
+ * each block on the diagonal, the block itself, then the blocks of its row and column, and finally all remaining blocks
+ * are updated. The blocks within the latter two phases are independent of each other and may be updated in parallel.
+ * <p>
+ * Like {@link FloydWarshallAPSP}, self-loops are ignored and the shortest path from a node to itself is considered to
+ * be non-existent.
+ *
+ * @param <N>
+ *         node class
+ * @param <E>
+ *         edge class
+ */
+public class BlockedFloydWarshallAPSP<N, E> implements APSPResult<N, E> {
+
+    /**
+     * The side length of the blocks of the distance matrix.
+     */
+    static final int BLOCK_SIZE = 64;
+
+    private static final int NO_MIDDLE = -1;
+
+    private final Graph<N, E> graph;
+    private final EdgeWeights<E> edgeWeights;
+    private final NodeIDs<N> ids;
+    private final int size;
+    private final float[] dist;
+    private final int[] middle;
+
+    /**
+     * Constructor.
+     *
+     * @param graph
+     *         the graph in which to search for shortest paths
+     * @param edgeWeights
+     *         the edge weights
+     *
+     * @throws IllegalArgumentException
+     *         if the graph is too large for its distance matrix to be stored in an array
+     */
+    public BlockedFloydWarshallAPSP(Graph<N, E> graph, EdgeWeights<E> edgeWeights) {
+        this.graph = graph;
+        this.edgeWeights = edgeWeights;
+        this.ids = graph.nodeIDs();
+        this.size = graph.size();
+
+        if ((long) size * size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Graph is too large: " + size + " nodes");
+        }
+
+        this.dist = new float[size * size];
+        this.middle = new int[size * size];
+
+        initialize();
+    }
+
+    private void initialize() {
+        Arrays.fill(dist, Float.POSITIVE_INFINITY);
+        Arrays.fill(middle, NO_MIDDLE);
+
+        for (int i = 0; i < size; i++) {
+            N src = ids.getNode(i);
+            dist[i * size + i] = 0;
+
+            for (E edge : graph.getOutgoingEdges(src)) {
+                N tgt = graph.getTarget(edge);
+                if (Objects.equals(tgt, src)) {
+                    continue;
+                }
+
+                int idx = i * size + ids.getNodeId(tgt);
+                float w = edgeWeights.getEdgeWeight(edge);
+                if (dist[idx] > w) {
+                    dist[idx] = w;
+                }
+            }
+        }
+    }
+
+    public static <N, E> APSPResult<N, E> findAPSP(Graph<N, E> graph, EdgeWeights<E> edgeWeights) {
+        return findAPSP(graph, edgeWeights, false);
+    }
+
+    public static <N, E> APSPResult<N, E> findAPSP(Graph<N, E> graph, EdgeWeights<E> edgeWeights, boolean parallel) {
+        BlockedFloydWarshallAPSP<N, E> fw = new BlockedFloydWarshallAPSP<>(graph, edgeWeights);
+        fw.findAPSP(parallel);
+        return fw;
+    }
+
+    /**
+     * Start the (sequential) search. This method may only be invoked once.
+     */
+    public void findAPSP() {
+        findAPSP(false);
+    }
+
+    /**
+     * Start the search. This method may only be invoked once.
+     *
+     * @param parallel
+     *         whether independent blocks of the distance matrix should be updated in parallel (using the common
+     *         fork/join pool or the pool of the calling task)
+     */
+    public void findAPSP(boolean parallel) {
+        final int numBlocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        for (int kb = 0; kb < numBlocks; kb++) {
+            final int k = kb;
+
+            // phase 1: the diagonal block
+            relax(k, k, k);
+
+            // phase 2: the blocks in the row and column of the diagonal block
+            stream(2 * numBlocks, parallel).forEach(b -> {
+                final int other = b >> 1;
+                if (other != k) {
+                    if ((b & 1) == 0) {
+                        relax(k, k, other);
+                    } else {
+                        relax(k, other, k);
+                    }
+                }
+            });
+
+            // phase 3: all remaining blocks
+            stream(numBlocks, parallel).forEach(ib -> {
+                if (ib != k) {
+                    for (int jb = 0; jb < numBlocks; jb++) {
+                        if (jb != k) {
+                            relax(k, ib, jb);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    private static IntStream stream(int size, boolean parallel) {
+        final IntStream stream = IntStream.range(0, size);
+        return parallel ? stream.parallel() : stream;
+    }
+
+    /**
+     * Relaxes the distances of block {@code (ib, jb)} via the intermediate nodes of block {@code kb}.
+     */
+    private void relax(int kb, int ib, int jb) {
+        final int kEnd = Math.min(size, (kb + 1) * BLOCK_SIZE);
+        final int iEnd = Math.min(size, (ib + 1) * BLOCK_SIZE);
+        final int jStart = jb * BLOCK_SIZE;
+        final int jEnd = Math.min(size, jStart + BLOCK_SIZE);
+
+        for (int k = kb * BLOCK_SIZE; k < kEnd; k++) {
+            final int kRow = k * size;
+
+            for (int i = ib * BLOCK_SIZE; i < iEnd; i++) {
+                final int iRow = i * size;
+                final float dik = dist[iRow + k];
+
+                if (dik == Float.POSITIVE_INFINITY) {
+                    continue;
+                }
+
+                for (int j = jStart; j < jEnd; j++) {
+                    final float total = dik + dist[kRow + j];
+                    if (total < dist[iRow + j]) {
+                        dist[iRow + j] = total;
+                        middle[iRow + j] = k;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public float getShortestPathDistance(N src, N tgt) {
+        int srcId = ids.getNodeId(src), tgtId = ids.getNodeId(tgt);
+
+        if (srcId == tgtId) {
+            return Graphs.INVALID_DISTANCE;
+        }
+
+        float d = dist[srcId * size + tgtId];
+        return d == Float.POSITIVE_INFINITY ? Graphs.INVALID_DISTANCE : d;
+    }
+
+    @Override
+    public @Nullable List<E> getShortestPath(N src, N tgt) {
+        int srcId = ids.getNodeId(src), tgtId = ids.getNodeId(tgt);
+
+        if (srcId == tgtId || dist[srcId * size + tgtId] == Float.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        List<E> result = new ArrayList<>();
+
+        // iteratively expand the (src, tgt) pair along the intermediate nodes, left-most pair first
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = srcId;
+        stack[top++] = tgtId;
+
+        while (top > 0) {
+            int j = stack[--top];
+            int i = stack[--top];
+            int m = middle[i * size + j];
+
+            if (m == NO_MIDDLE) {
+                result.add(findEdge(i, j));
+            } else {
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = m;
+                stack[top++] = j;
+                stack[top++] = i;
+                stack[top++] = m;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the (first) edge of minimal weight between the given nodes.
+     */
+    @SuppressWarnings("nullness") // our initialization ensures that there exists an edge for direct shortest paths
+    private E findEdge(int srcId, int tgtId) {
+        final N tgt = ids.getNode(tgtId);
+
+        E result = null;
+        float best = Float.POSITIVE_INFINITY;
+
+        for (E edge : graph.getOutgoingEdges(ids.getNode(srcId))) {
+            if (Objects.equals(graph.getTarget(edge), tgt)) {
+                float w = edgeWeights.getEdgeWeight(edge);
+                if (result == null || w < best) {
+                    result = edge;
+                    best = w;
+                }
+            }
+        }
+
+        return result;
+    }
+}
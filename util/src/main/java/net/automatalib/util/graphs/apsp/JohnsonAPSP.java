@@ -0,0 +1,335 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.graphs.apsp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.concepts.EdgeWeights;
+import net.automatalib.graphs.concepts.NodeIDs;
+import net.automatalib.util.graphs.Graphs;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Implementation of Johnson's algorithm for the all pairs shortest paths problem, which is preferable to {@link
+ * FloydWarshallAPSP} (and {@link BlockedFloydWarshallAPSP}) for sparse graphs.
+ * <p>
+ * The graph is first transformed into a compact (array-based) adjacency structure. If the graph contains edges with
+ * negative weights, a node potential is computed via the Bellman-Ford algorithm and used to re-weight the edges such
+ * that they are non-negative. Then, Dijkstra's algorithm is run from every node (optionally in parallel), storing only
+ * the distance and the index of the last edge of the shortest path for each pair of nodes. Paths are reconstructed on
+ * request.
+ * <p>
+ * Like {@link FloydWarshallAPSP}, self-loops are ignored and the shortest path from a node to itself is considered to
+ * be non-existent.
+ *
+ * @param <N>
+ *         node class
+ * @param <E>
+ *         edge class
+ */
+public class JohnsonAPSP<N, E> implements APSPResult<N, E> {
+
+    private static final int NO_EDGE = -1;
+
+    private final NodeIDs<N> ids;
+    private final int size;
+
+    // compact adjacency structure: the outgoing edges of node i are stored at indices [offsets[i], offsets[i + 1])
+    private final int[] offsets;
+    private final int[] sources;
+    private final int[] targets;
+    private final float[] weights;
+    private final List<E> edges;
+
+    private final float[][] dist;
+    private final int[][] pred;
+
+    /**
+     * Constructor.
+     *
+     * @param graph
+     *         the graph in which to search for shortest paths
+     * @param edgeWeights
+     *         the edge weights
+     */
+    public JohnsonAPSP(Graph<N, E> graph, EdgeWeights<E> edgeWeights) {
+        this.ids = graph.nodeIDs();
+        this.size = graph.size();
+        this.offsets = new int[size + 1];
+        this.edges = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            N src = ids.getNode(i);
+            for (E edge : graph.getOutgoingEdges(src)) {
+                if (!Objects.equals(graph.getTarget(edge), src)) {
+                    edges.add(edge);
+                }
+            }
+            offsets[i + 1] = edges.size();
+        }
+
+        final int numEdges = edges.size();
+        this.sources = new int[numEdges];
+        this.targets = new int[numEdges];
+        this.weights = new float[numEdges];
+
+        for (int i = 0; i < size; i++) {
+            for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                E edge = edges.get(e);
+                sources[e] = i;
+                targets[e] = ids.getNodeId(graph.getTarget(edge));
+                weights[e] = edgeWeights.getEdgeWeight(edge);
+            }
+        }
+
+        this.dist = new float[size][];
+        this.pred = new int[size][];
+    }
+
+    public static <N, E> APSPResult<N, E> findAPSP(Graph<N, E> graph, EdgeWeights<E> edgeWeights) {
+        return findAPSP(graph, edgeWeights, false);
+    }
+
+    public static <N, E> APSPResult<N, E> findAPSP(Graph<N, E> graph, EdgeWeights<E> edgeWeights, boolean parallel) {
+        JohnsonAPSP<N, E> johnson = new JohnsonAPSP<>(graph, edgeWeights);
+        johnson.findAPSP(parallel);
+        return johnson;
+    }
+
+    /**
+     * Start the (sequential) search. This method may only be invoked once.
+     *
+     * @throws IllegalArgumentException
+     *         if the graph contains a cycle with a negative edge weight sum
+     */
+    public void findAPSP() {
+        findAPSP(false);
+    }
+
+    /**
+     * Start the search. This method may only be invoked once.
+     *
+     * @param parallel
+     *         whether the single-source searches should be performed in parallel (using the common fork/join pool or
+     *         the pool of the calling task)
+     *
+     * @throws IllegalArgumentException
+     *         if the graph contains a cycle with a negative edge weight sum
+     */
+    public void findAPSP(boolean parallel) {
+        final float[] potential = computePotential();
+
+        final IntStream sources = IntStream.range(0, size);
+        (parallel ? sources.parallel() : sources).forEach(s -> dijkstra(s, potential));
+    }
+
+    /**
+     * Computes a node potential {@code h} such that {@code w(u, v) + h(u) - h(v) >= 0} for all edges {@code (u, v)},
+     * using a queue-based variant of the Bellman-Ford algorithm that starts from a virtual node connected to all nodes.
+     */
+    private float[] computePotential() {
+        final float[] potential = new float[size];
+
+        boolean negative = false;
+        for (float w : weights) {
+            if (w < 0) {
+                negative = true;
+                break;
+            }
+        }
+
+        if (!negative) {
+            return potential;
+        }
+
+        // each node is initially reached via the virtual node
+        final int[] queue = new int[size];
+        final boolean[] queued = new boolean[size];
+        final int[] rounds = new int[size];
+        int head = 0;
+        int length = size;
+
+        for (int i = 0; i < size; i++) {
+            queue[i] = i;
+            queued[i] = true;
+        }
+
+        while (length > 0) {
+            final int u = queue[head];
+            head = (head + 1) % size;
+            length--;
+            queued[u] = false;
+
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                final int v = targets[e];
+                final float newDist = potential[u] + weights[e];
+
+                if (newDist < potential[v]) {
+                    potential[v] = newDist;
+
+                    if (!queued[v]) {
+                        // the virtual node adds another node to the (cycle-free) shortest paths
+                        if (++rounds[v] > size) {
+                            throw new IllegalArgumentException("Graph contains a cycle with negative weight");
+                        }
+                        queue[(head + length) % size] = v;
+                        length++;
+                        queued[v] = true;
+                    }
+                }
+            }
+        }
+
+        return potential;
+    }
+
+    private void dijkstra(int source, float[] potential) {
+        final float[] d = new float[size];
+        final int[] p = new int[size];
+        final boolean[] settled = new boolean[size];
+
+        Arrays.fill(d, Float.POSITIVE_INFINITY);
+        Arrays.fill(p, NO_EDGE);
+        d[source] = 0;
+
+        // a binary heap of (distance, node) pairs with lazy deletion of outdated entries. For non-negative floats, the
+        // order of their bit representations coincides with their numerical order.
+        long[] heap = new long[Math.max(16, offsets[source + 1] - offsets[source] + 1)];
+        int heapSize = 0;
+        heap[heapSize++] = source;
+
+        while (heapSize > 0) {
+            final long min = heap[0];
+            final long last = heap[--heapSize];
+            siftDown(heap, heapSize, last);
+
+            final int u = (int) min;
+            if (settled[u]) {
+                continue;
+            }
+            settled[u] = true;
+
+            final float du = d[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                final int v = targets[e];
+
+                if (settled[v]) {
+                    continue;
+                }
+
+                // guard against rounding errors of the re-weighting
+                final float w = Math.max(0, weights[e] + potential[u] - potential[v]);
+                final float newDist = du + w;
+
+                if (newDist < d[v]) {
+                    d[v] = newDist;
+                    p[v] = e;
+
+                    if (heapSize == heap.length) {
+                        heap = Arrays.copyOf(heap, heapSize * 2);
+                    }
+                    siftUp(heap, heapSize++, ((long) Float.floatToIntBits(newDist) << Integer.SIZE) | v);
+                }
+            }
+        }
+
+        // revert the re-weighting
+        for (int v = 0; v < size; v++) {
+            if (d[v] != Float.POSITIVE_INFINITY) {
+                d[v] = d[v] - potential[source] + potential[v];
+            }
+        }
+
+        dist[source] = d;
+        pred[source] = p;
+    }
+
+    private static void siftUp(long[] heap, int idx, long key) {
+        int i = idx;
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    /**
+     * Re-inserts the given key at the root of a heap of the given size (i.e. after its root has been removed).
+     */
+    private static void siftDown(long[] heap, int size, long key) {
+        if (size == 0) {
+            return;
+        }
+
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+    }
+
+    @Override
+    public float getShortestPathDistance(N src, N tgt) {
+        int srcId = ids.getNodeId(src), tgtId = ids.getNodeId(tgt);
+
+        if (srcId == tgtId) {
+            return Graphs.INVALID_DISTANCE;
+        }
+
+        float d = dist[srcId][tgtId];
+        return d == Float.POSITIVE_INFINITY ? Graphs.INVALID_DISTANCE : d;
+    }
+
+    @Override
+    public @Nullable List<E> getShortestPath(N src, N tgt) {
+        int srcId = ids.getNodeId(src), tgtId = ids.getNodeId(tgt);
+
+        if (srcId == tgtId || dist[srcId][tgtId] == Float.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        final int[] p = pred[srcId];
+        final List<E> result = new ArrayList<>();
+
+        for (int e = p[tgtId]; e != NO_EDGE; e = p[sources[e]]) {
+            result.add(edges.get(e));
+        }
+
+        Collections.reverse(result);
+        return result;
+    }
+}
@@ -0,0 +1,356 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.graphs.scc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.concepts.NodeIDs;
+
+/**
+ * A parallel SCC algorithm based on the forward-backward decomposition (see "<a
+ * href="https://doi.org/10.1007/3-540-45591-4_68">On Identifying Strongly Connected Components in Parallel</a>")
+ * with trimming.
+ * <p>
+ * Each sub-problem (a set of nodes that is closed under SCCs) first repeatedly removes nodes without predecessors or
+ * successors in the sub-problem, since these form trivial SCCs. Afterwards, the nodes reachable forwards and backwards
+ * from a pivot node are determined, whose intersection is the SCC of the pivot. The remaining forward-reachable,
+ * backward-reachable and unreached nodes form three independent sub-problems, of which the first two are processed
+ * by forked tasks. Small sub-problems are delegated to the sequential {@link PearceSCC} algorithm. The same holds for
+ * sub-problems that are barely smaller than the sub-problem they originate from (e.g. for graphs with many small
+ * SCCs), since each pivot search has to inspect the whole sub-problem and repeatedly splitting off only a few nodes
+ * would lead to a quadratic runtime.
+ * <p>
+ * The sub-problem of each node is tracked in a shared partition array, whose entries are only written by the task
+ * that owns the respective sub-problem. Since sub-problem IDs are unique, concurrently reading the entries of nodes
+ * owned by other tasks is harmless.
+ * <p>
+ * Note that, contrary to the sequential algorithms, the SCCs are not reported in topological order.
+ */
+final class ParallelSCC {
+
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 10;
+
+    /**
+     * A sub-problem is processed sequentially if it contains more than {@code 1 - 1/MIN_PROGRESS_FACTOR} of the nodes
+     * of the sub-problem it originates from.
+     */
+    private static final int MIN_PROGRESS_FACTOR = 8;
+
+    private static final int INITIAL_BUFFER_SIZE = 16;
+
+    private static final int ASSIGNED = -1;
+    private static final int TRIMMED = -1;
+    private static final int UNASSIGNED = -2;
+
+    private final SuccessorTable succs;
+    private final SuccessorTable preds;
+
+    private final int[] part;
+    private final int[] component;
+    private final int[] inDegree;
+    private final int[] outDegree;
+    private final int[] rindex;
+    private final boolean[] root;
+
+    private final AtomicInteger partIds;
+    private final AtomicInteger componentIds;
+
+    private ParallelSCC(SuccessorTable succs) {
+        this.succs = succs;
+        this.preds = succs.reverse();
+
+        final int size = succs.size;
+        this.part = new int[size];
+        this.component = new int[size];
+        this.inDegree = new int[size];
+        this.outDegree = new int[size];
+        this.rindex = new int[size];
+        this.root = new boolean[size];
+
+        this.partIds = new AtomicInteger(1);
+        this.componentIds = new AtomicInteger();
+
+        Arrays.fill(component, UNASSIGNED);
+    }
+
+    static <N, E> void findSCCs(Graph<N, E> graph, SCCListener<N> listener) {
+        final NodeIDs<N> ids = graph.nodeIDs();
+        final ParallelSCC scc = new ParallelSCC(SuccessorTable.of(graph, ids));
+        final int size = scc.succs.size;
+
+        final int[] nodes = new int[size];
+        Arrays.setAll(nodes, i -> i);
+
+        // uses the pool of the invoking thread or the common pool, like parallel streams
+        new Task(scc, nodes, size, 0).invoke();
+
+        // group the nodes of non-trivial SCCs via a counting sort
+        final int numComponents = scc.componentIds.get();
+        final int[] start = new int[numComponents + 1];
+        final int[] component = scc.component;
+
+        for (int v = 0; v < size; v++) {
+            if (component[v] == TRIMMED) {
+                listener.foundSCC(Collections.singletonList(ids.getNode(v)));
+            } else {
+                start[component[v] + 1]++;
+            }
+        }
+        for (int c = 0; c < numComponents; c++) {
+            start[c + 1] += start[c];
+        }
+
+        final int[] sorted = new int[start[numComponents]];
+        final int[] pos = Arrays.copyOf(start, numComponents);
+        for (int v = 0; v < size; v++) {
+            if (component[v] != TRIMMED) {
+                sorted[pos[component[v]]++] = v;
+            }
+        }
+
+        for (int c = 0; c < numComponents; c++) {
+            final List<N> result = new ArrayList<>(start[c + 1] - start[c]);
+            for (int i = start[c]; i < start[c + 1]; i++) {
+                result.add(ids.getNode(sorted[i]));
+            }
+            listener.foundSCC(result);
+        }
+    }
+
+    /**
+     * Removes all nodes of the given sub-problem that (transitively) have no predecessors or no successors in the
+     * sub-problem.
+     *
+     * @return the number of remaining nodes, which are moved to the beginning of the {@code nodes} array
+     */
+    private int trim(int[] nodes, int size, int id) {
+        final int[] queue = new int[size];
+        int tail = 0;
+
+        for (int i = 0; i < size; i++) {
+            final int v = nodes[i];
+            inDegree[v] = countNeighbors(preds, v, id);
+            outDegree[v] = countNeighbors(succs, v, id);
+            if (inDegree[v] == 0 || outDegree[v] == 0) {
+                queue[tail++] = v;
+            }
+        }
+
+        for (int head = 0; head < tail; head++) {
+            final int v = queue[head];
+            part[v] = ASSIGNED;
+            component[v] = TRIMMED;
+
+            for (int i = succs.start[v]; i < succs.start[v + 1]; i++) {
+                final int w = succs.targets[i];
+                // enqueue each node once, when the first of its degrees drops to zero
+                if (part[w] == id && --inDegree[w] == 0 && outDegree[w] != 0) {
+                    queue[tail++] = w;
+                }
+            }
+            for (int i = preds.start[v]; i < preds.start[v + 1]; i++) {
+                final int u = preds.targets[i];
+                if (part[u] == id && --outDegree[u] == 0 && inDegree[u] != 0) {
+                    queue[tail++] = u;
+                }
+            }
+        }
+
+        if (tail == 0) {
+            return size;
+        }
+
+        int remaining = 0;
+        for (int i = 0; i < size; i++) {
+            if (part[nodes[i]] == id) {
+                nodes[remaining++] = nodes[i];
+            }
+        }
+        return remaining;
+    }
+
+    private int countNeighbors(SuccessorTable table, int v, int id) {
+        int count = 0;
+        for (int i = table.start[v]; i < table.start[v + 1]; i++) {
+            final int w = table.targets[i];
+            if (w != v && part[w] == id) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static final class Task extends RecursiveAction {
+
+        private final ParallelSCC scc;
+        private final int[] nodes;
+        private int size;
+        private final int id;
+        private final boolean sequential;
+
+        Task(ParallelSCC scc, int[] nodes, int size, int id) {
+            this(scc, nodes, size, id, false);
+        }
+
+        Task(ParallelSCC scc, int[] nodes, int size, int id, boolean sequential) {
+            this.scc = scc;
+            this.nodes = nodes;
+            this.size = size;
+            this.id = id;
+            this.sequential = sequential;
+        }
+
+        @Override
+        protected void compute() {
+            if (sequential) {
+                computeSequentially();
+                return;
+            }
+
+            final int[] part = scc.part;
+            final List<Task> forked = new ArrayList<>();
+
+            while (true) {
+                size = scc.trim(nodes, size, id);
+
+                if (size <= SEQUENTIAL_THRESHOLD) {
+                    if (size > 0) {
+                        computeSequentially();
+                    }
+                    break;
+                }
+
+                final int pivot = nodes[0];
+                final int fwId = scc.partIds.getAndIncrement();
+                final int bwId = scc.partIds.getAndIncrement();
+                final int componentId = scc.componentIds.getAndIncrement();
+
+                // forward search
+                int[] fwNodes = new int[Math.min(size, INITIAL_BUFFER_SIZE)];
+                int fwSize = 1;
+                fwNodes[0] = pivot;
+                part[pivot] = fwId;
+
+                for (int head = 0; head < fwSize; head++) {
+                    final int v = fwNodes[head];
+                    for (int i = scc.succs.start[v]; i < scc.succs.start[v + 1]; i++) {
+                        final int w = scc.succs.targets[i];
+                        if (part[w] == id) {
+                            part[w] = fwId;
+                            fwNodes = ensureCapacity(fwNodes, fwSize + 1);
+                            fwNodes[fwSize++] = w;
+                        }
+                    }
+                }
+
+                // backward search, the forward-reachable nodes of which form the SCC of the pivot
+                int[] bwNodes = new int[Math.min(size, INITIAL_BUFFER_SIZE)];
+                int bwSize = 1;
+                bwNodes[0] = pivot;
+                part[pivot] = ASSIGNED;
+                scc.component[pivot] = componentId;
+
+                for (int head = 0; head < bwSize; head++) {
+                    final int v = bwNodes[head];
+                    for (int i = scc.preds.start[v]; i < scc.preds.start[v + 1]; i++) {
+                        final int u = scc.preds.targets[i];
+                        if (part[u] == fwId) {
+                            part[u] = ASSIGNED;
+                            scc.component[u] = componentId;
+                            bwNodes = ensureCapacity(bwNodes, bwSize + 1);
+                            bwNodes[bwSize++] = u;
+                        } else if (part[u] == id) {
+                            part[u] = bwId;
+                            bwNodes = ensureCapacity(bwNodes, bwSize + 1);
+                            bwNodes[bwSize++] = u;
+                        }
+                    }
+                }
+
+                final int maxParallelSize = size - size / MIN_PROGRESS_FACTOR;
+
+                fork(forked, fwNodes, fwSize, fwId, maxParallelSize);
+                fork(forked, bwNodes, bwSize, bwId, maxParallelSize);
+
+                // continue with the unreached nodes
+                size = compact(nodes, size, id);
+
+                if (size > maxParallelSize) {
+                    computeSequentially();
+                    break;
+                }
+            }
+
+            for (Task t : forked) {
+                t.join();
+            }
+        }
+
+        private static int[] ensureCapacity(int[] buffer, int capacity) {
+            if (capacity <= buffer.length) {
+                return buffer;
+            }
+            return Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+
+        private void fork(List<Task> forked, int[] candidates, int numCandidates, int partId, int maxParallelSize) {
+            final int count = compact(candidates, numCandidates, partId);
+
+            if (count > 0) {
+                final Task task = new Task(scc, candidates, count, partId, count > maxParallelSize);
+                task.fork();
+                forked.add(task);
+            }
+        }
+
+        /**
+         * Moves the candidates that (still) belong to the given sub-problem to the beginning of the array.
+         *
+         * @return the number of these candidates
+         */
+        private int compact(int[] candidates, int numCandidates, int partId) {
+            int count = 0;
+            for (int i = 0; i < numCandidates; i++) {
+                if (scc.part[candidates[i]] == partId) {
+                    candidates[count++] = candidates[i];
+                }
+            }
+            return count;
+        }
+
+        private void computeSequentially() {
+            PearceSCC.findSCCs(scc.succs,
+                               nodes,
+                               size,
+                               scc.part,
+                               id,
+                               scc.rindex,
+                               scc.root,
+                               (members, from, to) -> {
+                                   final int componentId = scc.componentIds.getAndIncrement();
+                                   for (int i = from; i < to; i++) {
+                                       scc.component[members[i]] = componentId;
+                                   }
+                               });
+        }
+    }
+}
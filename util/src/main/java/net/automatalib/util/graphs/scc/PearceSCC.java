@@ -0,0 +1,159 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.graphs.scc;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An iterative, array-based implementation of Pearce's space-efficient variant of Tarjan's SCC algorithm (see "<a
+ * href="https://doi.org/10.1016/j.ipl.2015.08.010">A space-efficient algorithm for finding strongly connected
+ * components</a>"). Instead of separate index, low-link and on-stack information, each node only carries a single
+ * integer (its "rindex") and a root flag, and the depth-first search uses explicit stacks, so that arbitrarily deep
+ * graphs can be processed.
+ * <p>
+ * The search may be restricted to a subset of the nodes (identified by a common entry in a partition array), which
+ * allows the {@link ParallelSCC} algorithm to delegate small sub-problems to this implementation. SCCs are reported in
+ * reverse topological order.
+ */
+final class PearceSCC {
+
+    private PearceSCC() {}
+
+    /**
+     * Computes the SCCs of the given nodes.
+     *
+     * @param succs
+     *         the successor relation of the graph
+     * @param nodes
+     *         the nodes whose SCCs should be computed, or {@code null} if all nodes of the graph should be considered
+     * @param numNodes
+     *         the number of nodes to consider
+     * @param part
+     *         the partition array, or {@code null} if all nodes of the graph should be considered. Otherwise, only edges
+     *         to nodes {@code w} with {@code part[w] == partId} are considered
+     * @param partId
+     *         the ID of the considered partition
+     * @param rindex
+     *         the (shared) rindex array, whose entries for the considered nodes need to be {@code 0}
+     * @param root
+     *         the (shared) array of root flags
+     * @param consumer
+     *         the consumer for the found SCCs
+     */
+    static void findSCCs(SuccessorTable succs,
+                         int @Nullable [] nodes,
+                         int numNodes,
+                         int @Nullable [] part,
+                         int partId,
+                         int[] rindex,
+                         boolean[] root,
+                         ComponentConsumer consumer) {
+
+        final int[] start = succs.start;
+        final int[] targets = succs.targets;
+
+        final int[] callStack = new int[numNodes];
+        final int[] edgePos = new int[numNodes];
+        final int[] stack = new int[numNodes];
+        int sp = 0;
+
+        int index = 1;
+        int component = numNodes - 1;
+
+        for (int i = 0; i < numNodes; i++) {
+            final int r = nodes == null ? i : nodes[i];
+            if (rindex[r] != 0) {
+                continue;
+            }
+
+            rindex[r] = index++;
+            root[r] = true;
+            callStack[0] = r;
+            edgePos[0] = start[r];
+            int csp = 1;
+
+            while (csp > 0) {
+                final int v = callStack[csp - 1];
+                final int end = start[v + 1];
+                int pos = edgePos[csp - 1];
+                boolean descended = false;
+
+                while (pos < end) {
+                    final int w = targets[pos++];
+                    if (part != null && part[w] != partId) {
+                        continue;
+                    }
+                    if (rindex[w] == 0) {
+                        edgePos[csp - 1] = pos;
+                        rindex[w] = index++;
+                        root[w] = true;
+                        callStack[csp] = w;
+                        edgePos[csp] = start[w];
+                        csp++;
+                        descended = true;
+                        break;
+                    }
+                    // nodes of completed SCCs have larger rindices than all active nodes
+                    if (rindex[w] < rindex[v]) {
+                        rindex[v] = rindex[w];
+                        root[v] = false;
+                    }
+                }
+
+                if (descended) {
+                    continue;
+                }
+
+                csp--;
+
+                if (root[v]) {
+                    index--;
+                    int from = sp;
+                    while (from > 0 && rindex[v] <= rindex[stack[from - 1]]) {
+                        from--;
+                        rindex[stack[from]] = component;
+                        index--;
+                    }
+                    rindex[v] = component;
+                    component--;
+
+                    stack[sp] = v;
+                    consumer.accept(stack, from, sp + 1);
+                    sp = from;
+                } else {
+                    stack[sp++] = v;
+                }
+
+                if (csp > 0) {
+                    final int u = callStack[csp - 1];
+                    if (rindex[v] < rindex[u]) {
+                        rindex[u] = rindex[v];
+                        root[u] = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A consumer for SCCs, whose node IDs are given by a range of an array.
+     */
+    @FunctionalInterface
+    interface ComponentConsumer {
+
+        void accept(int[] nodes, int from, int to);
+    }
+}
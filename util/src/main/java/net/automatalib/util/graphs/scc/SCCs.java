@@ -15,10 +15,11 @@
  */
 package net.automatalib.util.graphs.scc;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import net.automatalib.graphs.Graph;
-import net.automatalib.util.graphs.traversal.GraphTraversal;
+import net.automatalib.graphs.concepts.NodeIDs;
 
 /**
  * Algorithms for finding strongly-connected components (SCCs) in a graph.
@@ -32,18 +33,36 @@ public final class SCCs {
     /**
      * Collects all strongly-connected components in a graph. The SCCs are returned as a list of lists.
      * <p>
-     * Tarjan's algorithm is used for realizing the SCC search.
+     * An iterative, array-based variant of Tarjan's algorithm (due to Pearce) is used for realizing the SCC search.
      *
      * @param graph
      *         the graph
      *
      * @return a list of all SCCs, each represented as a list of its nodes
      *
-     * @see TarjanSCCVisitor
+     * @see #collectSCCs(Graph, boolean)
      */
     public static <N, E> List<List<N>> collectSCCs(Graph<N, E> graph) {
+        return collectSCCs(graph, false);
+    }
+
+    /**
+     * Collects all strongly-connected components in a graph. The SCCs are returned as a list of lists.
+     *
+     * @param graph
+     *         the graph
+     * @param parallel
+     *         whether to use the (sequential) iterative, array-based variant of Tarjan's algorithm (due to Pearce) or
+     *         the parallel forward-backward algorithm with trimming. In the latter case, the SCCs are not returned in
+     *         topological order
+     *
+     * @return a list of all SCCs, each represented as a list of its nodes
+     *
+     * @see #findSCCs(Graph, SCCListener, boolean)
+     */
+    public static <N, E> List<List<N>> collectSCCs(Graph<N, E> graph, boolean parallel) {
         SCCCollector<N> coll = new SCCCollector<>();
-        findSCCs(graph, coll);
+        findSCCs(graph, coll, parallel);
         return coll.getSCCList();
     }
 
@@ -51,22 +70,52 @@ public final class SCCs {
      * Find all strongly-connected components in a graph. When a new SCC is found, the {@link
      * SCCListener#foundSCC(java.util.Collection)} method is invoked. The listener object may hence not be null.
      * <p>
-     * Tarjan's algorithm is used for realizing the SCC search.
+     * An iterative, array-based variant of Tarjan's algorithm (due to Pearce) is used for realizing the SCC search.
      *
      * @param graph
      *         the graph
      * @param listener
      *         the SCC listener
      *
-     * @see TarjanSCCVisitor
+     * @see #findSCCs(Graph, SCCListener, boolean)
      */
     public static <N, E> void findSCCs(Graph<N, E> graph, SCCListener<N> listener) {
-        TarjanSCCVisitor<N, E> vis = new TarjanSCCVisitor<>(graph, listener);
-        for (N node : graph) {
-            if (!vis.hasVisited(node)) {
-                GraphTraversal.depthFirst(graph, node, vis);
-            }
+        findSCCs(graph, listener, false);
+    }
+
+    /**
+     * Find all strongly-connected components in a graph. When a new SCC is found, the {@link
+     * SCCListener#foundSCC(java.util.Collection)} method is invoked. The listener object may hence not be null.
+     * <p>
+     * The sequential search reports the SCCs in reverse topological order. The parallel search (which runs in the
+     * {@link java.util.concurrent.ForkJoinPool} of the invoking thread or the common pool) computes all SCCs first and
+     * reports them afterwards (from the invoking thread) in no particular order.
+     *
+     * @param graph
+     *         the graph
+     * @param listener
+     *         the SCC listener
+     * @param parallel
+     *         whether to use the (sequential) iterative, array-based variant of Tarjan's algorithm (due to Pearce) or
+     *         the parallel forward-backward algorithm with trimming
+     */
+    public static <N, E> void findSCCs(Graph<N, E> graph, SCCListener<N> listener, boolean parallel) {
+        if (parallel) {
+            ParallelSCC.findSCCs(graph, listener);
+            return;
         }
+
+        final NodeIDs<N> ids = graph.nodeIDs();
+        final SuccessorTable succs = SuccessorTable.of(graph, ids);
+        final int size = succs.size;
+
+        PearceSCC.findSCCs(succs, null, size, null, 0, new int[size], new boolean[size], (nodes, from, to) -> {
+            final List<N> scc = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                scc.add(ids.getNode(nodes[i]));
+            }
+            listener.foundSCC(scc);
+        });
     }
 
 }
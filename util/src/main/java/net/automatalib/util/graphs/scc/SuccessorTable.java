@@ -0,0 +1,83 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.graphs.scc;
+
+import java.util.Arrays;
+
+import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.concepts.NodeIDs;
+
+/**
+ * The successor relation of a graph in compressed sparse row format, i.e. the successors of the node with ID {@code v}
+ * are stored in {@code targets[start[v]]} to {@code targets[start[v + 1] - 1]}.
+ */
+final class SuccessorTable {
+
+    final int size;
+    final int[] start;
+    final int[] targets;
+
+    private SuccessorTable(int[] start, int[] targets) {
+        this.size = start.length - 1;
+        this.start = start;
+        this.targets = targets;
+    }
+
+    static <N, E> SuccessorTable of(Graph<N, E> graph, NodeIDs<N> ids) {
+        final int size = graph.size();
+        final int[] start = new int[size + 1];
+        int[] targets = new int[Math.max(size, 16)];
+        int numEdges = 0;
+
+        for (int i = 0; i < size; i++) {
+            start[i] = numEdges;
+            for (E edge : graph.getOutgoingEdges(ids.getNode(i))) {
+                if (numEdges == targets.length) {
+                    targets = Arrays.copyOf(targets, numEdges + (numEdges >> 1));
+                }
+                targets[numEdges++] = ids.getNodeId(graph.getTarget(edge));
+            }
+        }
+        start[size] = numEdges;
+
+        return new SuccessorTable(start, targets);
+    }
+
+    /**
+     * Returns the predecessor relation, i.e. the successor relation of the graph with all edges reversed.
+     */
+    SuccessorTable reverse() {
+        final int numEdges = start[size];
+        final int[] revStart = new int[size + 1];
+        final int[] revTargets = new int[numEdges];
+
+        for (int i = 0; i < numEdges; i++) {
+            revStart[targets[i] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            revStart[i + 1] += revStart[i];
+        }
+
+        final int[] pos = Arrays.copyOf(revStart, size);
+        for (int v = 0; v < size; v++) {
+            for (int i = start[v]; i < start[v + 1]; i++) {
+                revTargets[pos[targets[i]]++] = v;
+            }
+        }
+
+        return new SuccessorTable(revStart, revTargets);
+    }
+}
@@ -0,0 +1,238 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.graphs.sssp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.concepts.EdgeWeights;
+import net.automatalib.graphs.concepts.NodeIDs;
+import net.automatalib.util.graphs.Graphs;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Implementation of Dial's variant of Dijkstras algorithm for the single-source shortest path problem in graphs with
+ * small, non-negative integer edge weights.
+ * <p>
+ * Instead of a heap, the nodes are kept in a cyclic array of {@code C + 1} buckets (where {@code C} denotes the maximum
+ * edge weight), such that each bucket contains the (unsettled) nodes of a single tentative distance. Buckets are
+ * doubly-linked lists over primitive arrays indexed by the {@link NodeIDs} of the graph, so that all queue operations
+ * take constant time and the search runs in {@code O(m + n * C)}.
+ *
+ * @param <N>
+ *         node class
+ * @param <E>
+ *         edge class
+ */
+public class DialSSSP<N, E> implements SSSPResult<N, E> {
+
+    private static final int NONE = -1;
+
+    private final Graph<N, E> graph;
+    private final N init;
+    private final EdgeWeights<E> edgeWeights;
+    private final NodeIDs<N> ids;
+
+    private final long[] dist;
+    private final int[] parent;
+    private final @Nullable Object[] reach;
+
+    /**
+     * Constructor.
+     *
+     * @param graph
+     *         the graph in which to search for shortest paths
+     * @param init
+     *         the initial node
+     * @param edgeWeights
+     *         the edge weights, which need to be non-negative integers
+     */
+    public DialSSSP(Graph<N, E> graph, N init, EdgeWeights<E> edgeWeights) {
+        this.graph = graph;
+        this.init = init;
+        this.edgeWeights = edgeWeights;
+        this.ids = graph.nodeIDs();
+
+        final int size = graph.size();
+        this.dist = new long[size];
+        this.parent = new int[size];
+        this.reach = new Object[size];
+
+        Arrays.fill(dist, Long.MAX_VALUE);
+        Arrays.fill(parent, NONE);
+    }
+
+    /**
+     * Search for the shortest paths from a single source node in a graph.
+     *
+     * @param graph
+     *         the graph in which to perform the search
+     * @param init
+     *         the initial (source) node
+     * @param edgeWeights
+     *         the edge weights, which need to be non-negative integers
+     *
+     * @return the single-source shortest path results
+     *
+     * @throws IllegalArgumentException
+     *         if the graph contains an edge whose weight is not a non-negative integer
+     */
+    public static <N, E> SSSPResult<N, E> findSSSP(Graph<N, E> graph, N init, EdgeWeights<E> edgeWeights) {
+        DialSSSP<N, E> dial = new DialSSSP<>(graph, init, edgeWeights);
+        dial.findSSSP();
+        return dial;
+    }
+
+    /**
+     * Start the search. This method may only be invoked once.
+     *
+     * @throws IllegalArgumentException
+     *         if the graph contains an edge whose weight is not a non-negative integer
+     */
+    public void findSSSP() {
+        final int initId = ids.getNodeId(init);
+        if (dist[initId] != Long.MAX_VALUE) {
+            throw new IllegalStateException("Search has already been performed!");
+        }
+
+        final int numBuckets = getMaxWeight() + 1;
+        final int size = dist.length;
+
+        final int[] buckets = new int[numBuckets];
+        final int[] next = new int[size];
+        final int[] prev = new int[size];
+        final boolean[] settled = new boolean[size];
+        Arrays.fill(buckets, NONE);
+
+        dist[initId] = 0;
+        next[initId] = NONE;
+        prev[initId] = NONE;
+        buckets[0] = initId;
+
+        int pending = 1;
+        long current = 0;
+
+        while (pending > 0) {
+            int bucket = (int) (current % numBuckets);
+            while (buckets[bucket] == NONE) {
+                current++;
+                bucket = bucket + 1 == numBuckets ? 0 : bucket + 1;
+            }
+
+            final int nodeId = buckets[bucket];
+            unlink(buckets, bucket, next, prev, nodeId);
+            pending--;
+            settled[nodeId] = true;
+
+            // edge scanning
+            for (E edge : graph.getOutgoingEdges(ids.getNode(nodeId))) {
+                final int tgtId = ids.getNodeId(graph.getTarget(edge));
+                final long newDist = current + (long) edgeWeights.getEdgeWeight(edge);
+
+                if (!settled[tgtId] && newDist < dist[tgtId]) {
+                    if (dist[tgtId] == Long.MAX_VALUE) {
+                        pending++;
+                    } else {
+                        unlink(buckets, (int) (dist[tgtId] % numBuckets), next, prev, tgtId);
+                    }
+
+                    dist[tgtId] = newDist;
+                    parent[tgtId] = nodeId;
+                    reach[tgtId] = edge;
+
+                    final int tgtBucket = (int) (newDist % numBuckets);
+                    final int head = buckets[tgtBucket];
+                    next[tgtId] = head;
+                    prev[tgtId] = NONE;
+                    if (head != NONE) {
+                        prev[head] = tgtId;
+                    }
+                    buckets[tgtBucket] = tgtId;
+                }
+            }
+        }
+    }
+
+    private static void unlink(int[] buckets, int bucket, int[] next, int[] prev, int nodeId) {
+        final int n = next[nodeId];
+        final int p = prev[nodeId];
+
+        if (p == NONE) {
+            buckets[bucket] = n;
+        } else {
+            next[p] = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
+        }
+    }
+
+    private int getMaxWeight() {
+        float max = 0;
+
+        for (N node : graph) {
+            for (E edge : graph.getOutgoingEdges(node)) {
+                final float w = edgeWeights.getEdgeWeight(edge);
+                if (w < 0 || w != Math.rint(w) || w >= Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Edge weight is not a non-negative integer: " + w);
+                }
+                max = Math.max(max, w);
+            }
+        }
+
+        return (int) max;
+    }
+
+    @Override
+    public N getInitialNode() {
+        return init;
+    }
+
+    @Override
+    public float getShortestPathDistance(N target) {
+        final long d = dist[ids.getNodeId(target)];
+        return d == Long.MAX_VALUE ? Graphs.INVALID_DISTANCE : d;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable List<E> getShortestPath(N target) {
+        int nodeId = ids.getNodeId(target);
+
+        if (dist[nodeId] == Long.MAX_VALUE) {
+            return null;
+        }
+
+        final List<E> result = new ArrayList<>();
+
+        while (parent[nodeId] != NONE) {
+            result.add((E) reach[nodeId]);
+            nodeId = parent[nodeId];
+        }
+
+        Collections.reverse(result);
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable E getShortestPathEdge(N target) {
+        return (E) reach[ids.getNodeId(target)];
+    }
+}
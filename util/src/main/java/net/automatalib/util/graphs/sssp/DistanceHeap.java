@@ -0,0 +1,107 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.graphs.sssp;
+
+import java.util.Arrays;
+
+/**
+ * A primitive binary min-heap of (distance, node) pairs for Dijkstra-like searches. Instead of supporting decrease-key
+ * operations, a node is simply re-inserted with its improved distance and outdated entries need to be skipped by the
+ * caller (e.g. by tracking settled nodes).
+ * <p>
+ * Each entry is encoded in a single {@code long}, whose upper half contains the bit representation of the
+ * (non-negative) distance and whose lower half contains the node ID. For non-negative {@code float}s, the order of
+ * their bit representations coincides with their numerical order.
+ */
+final class DistanceHeap {
+
+    private long[] heap;
+    private int size;
+
+    DistanceHeap(int initialCapacity) {
+        this.heap = new long[Math.max(initialCapacity, 16)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds the given node with the given (non-negative) distance.
+     */
+    void add(float distance, int node) {
+        assert distance >= 0;
+
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+
+        // normalize -0.0f, whose bit representation is negative
+        final long key = ((long) Float.floatToIntBits(distance + 0.0f) << Integer.SIZE) | node;
+
+        int i = size++;
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    /**
+     * Returns the minimal distance of all entries. The heap must not be empty.
+     */
+    float peekDistance() {
+        return Float.intBitsToFloat((int) (heap[0] >>> Integer.SIZE));
+    }
+
+    /**
+     * Returns the node of an entry with minimal distance. The heap must not be empty.
+     */
+    int peekNode() {
+        return (int) heap[0];
+    }
+
+    /**
+     * Removes an entry with minimal distance and returns its node. The heap must not be empty.
+     */
+    int poll() {
+        final int result = (int) heap[0];
+        final long key = heap[--size];
+
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+
+        return result;
+    }
+}
@@ -0,0 +1,182 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.graphs.sssp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.concepts.EdgeWeights;
+import net.automatalib.graphs.concepts.NodeIDs;
+import net.automatalib.util.graphs.Graphs;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Implementation of Dijkstras algorithm for the single-source shortest path problem, which operates on primitive arrays
+ * indexed by the {@link NodeIDs} of the graph instead of per-node records.
+ * <p>
+ * The priority queue does not support decrease-key operations. Instead, improved distances are re-inserted and
+ * outdated entries are skipped (see {@link DistanceHeap}).
+ *
+ * @param <N>
+ *         node class
+ * @param <E>
+ *         edge class
+ */
+public class IntDijkstraSSSP<N, E> implements SSSPResult<N, E> {
+
+    private static final int NO_PARENT = -1;
+
+    private final Graph<N, E> graph;
+    private final N init;
+    private final EdgeWeights<E> edgeWeights;
+    private final NodeIDs<N> ids;
+
+    private final float[] dist;
+    private final int[] parent;
+    private final @Nullable Object[] reach;
+
+    /**
+     * Constructor.
+     *
+     * @param graph
+     *         the graph in which to search for shortest paths
+     * @param init
+     *         the initial node
+     * @param edgeWeights
+     *         the edge weights
+     */
+    public IntDijkstraSSSP(Graph<N, E> graph, N init, EdgeWeights<E> edgeWeights) {
+        this.graph = graph;
+        this.init = init;
+        this.edgeWeights = edgeWeights;
+        this.ids = graph.nodeIDs();
+
+        final int size = graph.size();
+        this.dist = new float[size];
+        this.parent = new int[size];
+        this.reach = new Object[size];
+
+        Arrays.fill(dist, Float.POSITIVE_INFINITY);
+        Arrays.fill(parent, NO_PARENT);
+    }
+
+    /**
+     * Search for the shortest paths from a single source node in a graph.
+     *
+     * @param graph
+     *         the graph in which to perform the search
+     * @param init
+     *         the initial (source) node
+     * @param edgeWeights
+     *         the edge weights
+     *
+     * @return the single-source shortest path results
+     */
+    public static <N, E> SSSPResult<N, E> findSSSP(Graph<N, E> graph, N init, EdgeWeights<E> edgeWeights) {
+        IntDijkstraSSSP<N, E> dijkstra = new IntDijkstraSSSP<>(graph, init, edgeWeights);
+        dijkstra.findSSSP();
+        return dijkstra;
+    }
+
+    /**
+     * Start the search. This method may only be invoked once.
+     *
+     * @throws IllegalArgumentException
+     *         if the search encounters an edge with a negative weight
+     */
+    public void findSSSP() {
+        final int initId = ids.getNodeId(init);
+        if (dist[initId] != Float.POSITIVE_INFINITY) {
+            throw new IllegalStateException("Search has already been performed!");
+        }
+
+        final boolean[] settled = new boolean[dist.length];
+        final DistanceHeap pq = new DistanceHeap(dist.length);
+
+        dist[initId] = 0.0f;
+        pq.add(0.0f, initId);
+
+        while (!pq.isEmpty()) {
+            final int nodeId = pq.poll();
+
+            // skip outdated entries
+            if (settled[nodeId]) {
+                continue;
+            }
+            settled[nodeId] = true;
+
+            final float d = dist[nodeId];
+
+            // edge scanning
+            for (E edge : graph.getOutgoingEdges(ids.getNode(nodeId))) {
+                final float w = edgeWeights.getEdgeWeight(edge);
+                if (w < 0) {
+                    throw new IllegalArgumentException("Negative edge weights are not supported: " + w);
+                }
+
+                final int tgtId = ids.getNodeId(graph.getTarget(edge));
+                final float newDist = d + w;
+
+                if (newDist < dist[tgtId]) {
+                    dist[tgtId] = newDist;
+                    parent[tgtId] = nodeId;
+                    reach[tgtId] = edge;
+                    pq.add(newDist, tgtId);
+                }
+            }
+        }
+    }
+
+    @Override
+    public N getInitialNode() {
+        return init;
+    }
+
+    @Override
+    public float getShortestPathDistance(N target) {
+        final float d = dist[ids.getNodeId(target)];
+        return d == Float.POSITIVE_INFINITY ? Graphs.INVALID_DISTANCE : d;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable List<E> getShortestPath(N target) {
+        int nodeId = ids.getNodeId(target);
+
+        if (dist[nodeId] == Float.POSITIVE_INFINITY) {
+            return null;
+        }
+
+        final List<E> result = new ArrayList<>();
+
+        while (parent[nodeId] != NO_PARENT) {
+            result.add((E) reach[nodeId]);
+            nodeId = parent[nodeId];
+        }
+
+        Collections.reverse(result);
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable E getShortestPathEdge(N target) {
+        return (E) reach[ids.getNodeId(target)];
+    }
+}
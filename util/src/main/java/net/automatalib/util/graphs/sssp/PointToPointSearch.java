@@ -0,0 +1,400 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.graphs.sssp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import net.automatalib.graphs.BidirectionalGraph;
+import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.concepts.EdgeWeights;
+import net.automatalib.graphs.concepts.NodeIDs;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Searches for shortest paths between a single pair of nodes. Contrary to the single-source searches, these searches
+ * terminate as soon as the shortest path to the target has been determined and therefore usually explore only a
+ * fraction of the graph.
+ * <p>
+ * All searches operate on primitive arrays indexed by the {@link NodeIDs} of the graph and require non-negative edge
+ * weights.
+ */
+public final class PointToPointSearch {
+
+    private static final int NONE = -1;
+
+    private PointToPointSearch() {}
+
+    /**
+     * Computes a shortest path between the given nodes using a bidirectional variant of Dijkstras algorithm, i.e. a
+     * forward search from the source and a backward search from the target are alternated until their frontiers meet.
+     * <p>
+     * Note that the backward search requires the incoming edges of nodes, which are computed up-front unless the graph
+     * is a {@link BidirectionalGraph}.
+     *
+     * @param graph
+     *         the graph
+     * @param source
+     *         the source node
+     * @param target
+     *         the target node
+     * @param edgeWeights
+     *         the (non-negative) edge weights
+     *
+     * @return the list of edges of a shortest path from {@code source} to {@code target}, or {@code null} if no such
+     * path exists
+     *
+     * @throws IllegalArgumentException
+     *         if the search encounters an edge with a negative weight
+     */
+    public static <N, E> @Nullable List<E> bidirectionalDijkstra(Graph<N, E> graph,
+                                                                 N source,
+                                                                 N target,
+                                                                 EdgeWeights<E> edgeWeights) {
+        final NodeIDs<N> ids = graph.nodeIDs();
+        final int sourceId = ids.getNodeId(source);
+        final int targetId = ids.getNodeId(target);
+
+        if (sourceId == targetId) {
+            return Collections.emptyList();
+        }
+
+        final BidirectionalSearch<N, E> search = new BidirectionalSearch<>(graph, ids, edgeWeights);
+        final Frontier fwd = search.fwd;
+        final Frontier bwd = search.bwd;
+
+        fwd.init(sourceId);
+        bwd.init(targetId);
+
+        if (graph instanceof BidirectionalGraph) {
+            final BidirectionalGraph<N, E> bdGraph = (BidirectionalGraph<N, E>) graph;
+
+            while (search.shouldContinue()) {
+                if (search.forward()) {
+                    search.scanForward();
+                } else {
+                    final int nodeId = bwd.next();
+                    for (E edge : bdGraph.getIncomingEdges(ids.getNode(nodeId))) {
+                        search.relax(bwd, fwd, nodeId, ids.getNodeId(bdGraph.getSource(edge)), edge);
+                    }
+                }
+            }
+        } else {
+            final ReverseAdjacency<E> reverse = new ReverseAdjacency<>(graph, ids);
+
+            while (search.shouldContinue()) {
+                if (search.forward()) {
+                    search.scanForward();
+                } else {
+                    final int nodeId = bwd.next();
+                    for (int i = reverse.start[nodeId]; i < reverse.start[nodeId + 1]; i++) {
+                        search.relax(bwd, fwd, nodeId, reverse.sources[i], reverse.getEdge(i));
+                    }
+                }
+            }
+        }
+
+        return search.getPath();
+    }
+
+    /**
+     * Computes a shortest path between the given nodes using the A* algorithm, i.e. a variant of Dijkstras algorithm
+     * that prefers nodes based on their distance from the source plus the estimated remaining distance to the
+     * target.
+     * <p>
+     * The given heuristic must be non-negative and consistent, i.e. for every edge from {@code u} to {@code v} with
+     * weight {@code w} it must hold that {@code h(u) <= w + h(v)} and {@code h(target) == 0}. Otherwise, the returned
+     * path is not guaranteed to be a shortest one.
+     *
+     * @param graph
+     *         the graph
+     * @param source
+     *         the source node
+     * @param target
+     *         the target node
+     * @param edgeWeights
+     *         the (non-negative) edge weights
+     * @param heuristic
+     *         the (consistent) estimation of the remaining distance of a node to the target
+     *
+     * @return the list of edges of a shortest path from {@code source} to {@code target}, or {@code null} if no such
+     * path exists
+     *
+     * @throws IllegalArgumentException
+     *         if the search encounters an edge with a negative weight or a node with a negative heuristic
+     */
+    public static <N, E> @Nullable List<E> aStar(Graph<N, E> graph,
+                                                 N source,
+                                                 N target,
+                                                 EdgeWeights<E> edgeWeights,
+                                                 ToDoubleFunction<? super N> heuristic) {
+        final NodeIDs<N> ids = graph.nodeIDs();
+        final int sourceId = ids.getNodeId(source);
+        final int targetId = ids.getNodeId(target);
+        final int size = graph.size();
+
+        final float[] dist = new float[size];
+        final int[] parent = new int[size];
+        final Object[] reach = new Object[size];
+        final boolean[] settled = new boolean[size];
+        final DistanceHeap pq = new DistanceHeap(size);
+
+        Arrays.fill(dist, Float.POSITIVE_INFINITY);
+        Arrays.fill(parent, NONE);
+
+        dist[sourceId] = 0;
+        pq.add(estimate(heuristic, source), sourceId);
+
+        while (!pq.isEmpty()) {
+            final int nodeId = pq.poll();
+
+            if (nodeId == targetId) {
+                final List<E> result = new ArrayList<>();
+                collectPath(targetId, parent, reach, result);
+                Collections.reverse(result);
+                return result;
+            }
+
+            // skip outdated entries
+            if (settled[nodeId]) {
+                continue;
+            }
+            settled[nodeId] = true;
+
+            final float d = dist[nodeId];
+
+            for (E edge : graph.getOutgoingEdges(ids.getNode(nodeId))) {
+                final float w = checkWeight(edgeWeights.getEdgeWeight(edge));
+                final N tgt = graph.getTarget(edge);
+                final int tgtId = ids.getNodeId(tgt);
+                final float newDist = d + w;
+
+                if (!settled[tgtId] && newDist < dist[tgtId]) {
+                    dist[tgtId] = newDist;
+                    parent[tgtId] = nodeId;
+                    reach[tgtId] = edge;
+                    pq.add(newDist + estimate(heuristic, tgt), tgtId);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static float checkWeight(float weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative edge weights are not supported: " + weight);
+        }
+        return weight;
+    }
+
+    private static <N> float estimate(ToDoubleFunction<? super N> heuristic, N node) {
+        final double h = heuristic.applyAsDouble(node);
+        if (h < 0) {
+            throw new IllegalArgumentException("Negative heuristic for node " + node + ": " + h);
+        }
+        return (float) h;
+    }
+
+    private static <E> void collectPath(int nodeId, int[] parent, Object[] reach, List<E> result) {
+        int curr = nodeId;
+        while (parent[curr] != NONE) {
+            result.add(uncheckedCast(reach[curr]));
+            curr = parent[curr];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E uncheckedCast(@Nullable Object edge) {
+        return (E) edge;
+    }
+
+    private static final class BidirectionalSearch<N, E> {
+
+        private final Graph<N, E> graph;
+        private final NodeIDs<N> ids;
+        private final EdgeWeights<E> edgeWeights;
+
+        private final Frontier fwd;
+        private final Frontier bwd;
+
+        private float best = Float.POSITIVE_INFINITY;
+        private int meetFwd = NONE;
+        private int meetBwd = NONE;
+        private @Nullable Object meetEdge;
+
+        BidirectionalSearch(Graph<N, E> graph, NodeIDs<N> ids, EdgeWeights<E> edgeWeights) {
+            this.graph = graph;
+            this.ids = ids;
+            this.edgeWeights = edgeWeights;
+
+            final int size = graph.size();
+            this.fwd = new Frontier(size);
+            this.bwd = new Frontier(size);
+        }
+
+        /**
+         * Both searches may stop once the sum of their minimal tentative distances reaches the length of the best path
+         * found so far, since every path via an unsettled node is at least this long.
+         */
+        boolean shouldContinue() {
+            return fwd.hasNext() && bwd.hasNext() && fwd.peekDistance() + bwd.peekDistance() < best;
+        }
+
+        boolean forward() {
+            return fwd.peekDistance() <= bwd.peekDistance();
+        }
+
+        void scanForward() {
+            final int nodeId = fwd.next();
+            for (E edge : graph.getOutgoingEdges(ids.getNode(nodeId))) {
+                relax(fwd, bwd, nodeId, ids.getNodeId(graph.getTarget(edge)), edge);
+            }
+        }
+
+        void relax(Frontier frontier, Frontier other, int nodeId, int succId, E edge) {
+            final float newDist = frontier.dist[nodeId] + checkWeight(edgeWeights.getEdgeWeight(edge));
+
+            frontier.relax(succId, nodeId, newDist, edge);
+
+            final float otherDist = other.dist[succId];
+            if (otherDist != Float.POSITIVE_INFINITY && newDist + otherDist < best) {
+                best = newDist + otherDist;
+                meetEdge = edge;
+                if (frontier == fwd) {
+                    meetFwd = nodeId;
+                    meetBwd = succId;
+                } else {
+                    meetFwd = succId;
+                    meetBwd = nodeId;
+                }
+            }
+        }
+
+        @Nullable List<E> getPath() {
+            if (meetEdge == null) {
+                return null;
+            }
+
+            final List<E> result = new ArrayList<>();
+            collectPath(meetFwd, fwd.parent, fwd.reach, result);
+            Collections.reverse(result);
+            result.add(uncheckedCast(meetEdge));
+            collectPath(meetBwd, bwd.parent, bwd.reach, result);
+
+            return result;
+        }
+    }
+
+    /**
+     * The state of one direction of a bidirectional search.
+     */
+    private static final class Frontier {
+
+        private final float[] dist;
+        private final int[] parent;
+        private final Object[] reach;
+        private final boolean[] settled;
+        private final DistanceHeap pq;
+
+        Frontier(int size) {
+            this.dist = new float[size];
+            this.parent = new int[size];
+            this.reach = new Object[size];
+            this.settled = new boolean[size];
+            this.pq = new DistanceHeap(size);
+
+            Arrays.fill(dist, Float.POSITIVE_INFINITY);
+            Arrays.fill(parent, NONE);
+        }
+
+        void init(int nodeId) {
+            dist[nodeId] = 0;
+            pq.add(0, nodeId);
+        }
+
+        boolean hasNext() {
+            // skip outdated entries, so that peekDistance() returns the minimal tentative distance
+            while (!pq.isEmpty() && settled[pq.peekNode()]) {
+                pq.poll();
+            }
+            return !pq.isEmpty();
+        }
+
+        float peekDistance() {
+            return pq.peekDistance();
+        }
+
+        int next() {
+            final int nodeId = pq.poll();
+            settled[nodeId] = true;
+            return nodeId;
+        }
+
+        void relax(int nodeId, int parentId, float newDist, Object edge) {
+            if (newDist < dist[nodeId]) {
+                dist[nodeId] = newDist;
+                parent[nodeId] = parentId;
+                reach[nodeId] = edge;
+                pq.add(newDist, nodeId);
+            }
+        }
+    }
+
+    /**
+     * The incoming edges of a graph in compressed sparse row format.
+     */
+    private static final class ReverseAdjacency<E> {
+
+        private final int[] start;
+        private final int[] sources;
+        private final Object[] edges;
+
+        <N> ReverseAdjacency(Graph<N, E> graph, NodeIDs<N> ids) {
+            final int size = graph.size();
+            this.start = new int[size + 1];
+
+            for (N node : graph) {
+                for (E edge : graph.getOutgoingEdges(node)) {
+                    start[ids.getNodeId(graph.getTarget(edge)) + 1]++;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                start[i + 1] += start[i];
+            }
+
+            this.sources = new int[start[size]];
+            this.edges = new Object[start[size]];
+
+            final int[] pos = Arrays.copyOf(start, size);
+            for (N node : graph) {
+                final int nodeId = ids.getNodeId(node);
+                for (E edge : graph.getOutgoingEdges(node)) {
+                    final int idx = pos[ids.getNodeId(graph.getTarget(edge))]++;
+                    sources[idx] = nodeId;
+                    edges[idx] = edge;
+                }
+            }
+        }
+
+        E getEdge(int idx) {
+            return uncheckedCast(edges[idx]);
+        }
+    }
+}
@@ -271,6 +271,69 @@ public class PaigeTarjan {
         }
     }
 
+    /**
+     * Refines the partition until it stabilizes, using a parallel, signature-based refinement instead of processing
+     * the worklist. The resulting partition is the same as the one computed by {@link
+     * #computeCoarsestStablePartition()}, however, the IDs of the resulting blocks may differ. The worklist is ignored
+     * (and cleared) by this method.
+     * <p>
+     * Note that this method requires the transition structure to be deterministic, i.e., each state must have at most
+     * one successor per input symbol.
+     *
+     * @throws IllegalArgumentException
+     *         if the transition structure is not deterministic
+     */
+    public void computeCoarsestStablePartitionInParallel() {
+        final int[] classes = new int[numStates];
+        final int numClasses = ParallelSignatureRefinement.refine(this, classes);
+
+        // the new blocks occupy the same range of the blockData array as the previous ones
+        int low = Integer.MAX_VALUE;
+        for (Block b = blocklistHead; b != null; b = b.nextBlock) {
+            if (!b.isEmpty()) {
+                low = Math.min(low, b.low);
+            }
+        }
+
+        final Block[] blocks = new Block[numClasses];
+        Block head = null;
+        for (int i = numClasses - 1; i >= 0; i--) {
+            head = new Block(0, 0, i, head);
+            blocks[i] = head;
+        }
+
+        for (int s = 0; s < numStates; s++) {
+            final int c = classes[s];
+            if (c >= 0) {
+                blocks[c].high++;
+            }
+        }
+
+        int curr = low;
+        for (Block b : blocks) {
+            curr += b.high;
+            b.high = curr;
+            b.low = curr;
+        }
+
+        for (int s = numStates - 1; s >= 0; s--) {
+            final int c = classes[s];
+            if (c >= 0) {
+                final Block b = blocks[c];
+                final int pos = --b.low;
+                blockData[pos] = s;
+                posData[posDataLow + s] = pos;
+                blockForState[s] = b;
+            }
+        }
+
+        this.blocklistHead = head;
+        this.numBlocks = numClasses;
+        this.worklistHead = null;
+        this.worklistTail = null;
+        this.touchedHead = null;
+    }
+
     private @Nullable Block poll() {
         if (worklistHead == null) {
             return null;
@@ -0,0 +1,222 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.partitionrefinement;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * A parallel, signature-based partition refinement on the data structures of a {@link PaigeTarjan} instance.
+ * <p>
+ * Instead of processing splitters one after another, each round computes for every state its <i>signature</i>, i.e.,
+ * its current class and the classes of its successors, in parallel. States are then grouped by their signatures using
+ * a lock-free, open-addressing hash table. The refinement stabilizes if a round does not increase the number of
+ * classes, which yields the same (coarsest stable) partition as the sequential algorithm. While the number of rounds
+ * is bounded by the number of states in the worst case, it is usually small in practice.
+ * <p>
+ * The (parallel) computations use the {@link java.util.concurrent.ForkJoinPool#commonPool() common fork-join pool},
+ * unless invoked from within a different {@link java.util.concurrent.ForkJoinPool}.
+ * <p>
+ * This refinement requires the transition structure to be deterministic, i.e., every state must have at most one
+ * successor per input symbol.
+ */
+final class ParallelSignatureRefinement {
+
+    private ParallelSignatureRefinement() {}
+
+    /**
+     * Computes the coarsest stable partition of the states managed by the given {@link PaigeTarjan} instance.
+     *
+     * @param pt
+     *         the (initialized) partition refinement data structure
+     * @param classes
+     *         the array (of size {@link PaigeTarjan#numStates}) to store the class of each state in. States that are
+     *         not contained in any block are assigned the class {@code -1}
+     *
+     * @return the number of classes
+     */
+    static int refine(PaigeTarjan pt, int[] classes) {
+        final int numStates = pt.numStates;
+        final int numInputs = pt.numInputs;
+
+        int[] cls = classes;
+        Arrays.fill(cls, -1);
+
+        int numActive = 0;
+        for (Block b : pt.blockList()) {
+            for (int i = b.low; i < b.high; i++) {
+                cls[pt.blockData[i]] = b.id;
+            }
+            numActive += b.size();
+        }
+
+        if (numActive == 0) {
+            return 0;
+        }
+
+        final int[] succ = computeSuccessors(pt);
+        final int[] reps = new int[numStates];
+        final int[] ids = new int[Math.max(numStates, pt.getNumBlocks())];
+
+        final int tableSize = Integer.highestOneBit(Math.max(numActive, 2) - 1) << 2;
+        final AtomicIntegerArray table = new AtomicIntegerArray(tableSize);
+
+        // normalize the (possibly non-contiguous) block IDs
+        int[] newCls = new int[numStates];
+        int numClasses = renumber(cls, cls, ids, newCls);
+        System.arraycopy(newCls, 0, cls, 0, numStates);
+
+        while (true) {
+            final int[] currCls = cls;
+            final int mask = tableSize - 1;
+
+            IntStream.range(0, numStates).parallel().forEach(s -> {
+                if (currCls[s] < 0) {
+                    return;
+                }
+                int idx = hash(currCls, succ, numStates, numInputs, s) & mask;
+                while (true) {
+                    final int entry = table.get(idx);
+                    if (entry == 0) {
+                        if (table.compareAndSet(idx, 0, s + 1)) {
+                            reps[s] = s;
+                            return;
+                        }
+                        // another thread claimed the slot, re-check it
+                        continue;
+                    }
+                    final int rep = entry - 1;
+                    if (sameSignature(currCls, succ, numStates, numInputs, rep, s)) {
+                        reps[s] = rep;
+                        return;
+                    }
+                    idx = (idx + 1) & mask;
+                }
+            });
+
+            final int newNumClasses = renumber(cls, reps, ids, newCls);
+            if (newNumClasses == numClasses) {
+                break;
+            }
+
+            numClasses = newNumClasses;
+            final int[] tmp = cls;
+            cls = newCls;
+            newCls = tmp;
+
+            IntStream.range(0, tableSize).parallel().forEach(i -> table.set(i, 0));
+        }
+
+        if (cls != classes) {
+            System.arraycopy(cls, 0, classes, 0, numStates);
+        }
+
+        return numClasses;
+    }
+
+    /**
+     * Inverts the predecessor lists of the given {@link PaigeTarjan} instance into a successor array, such that the
+     * {@code j}-successor of state {@code i} is stored at index {@code j * numStates + i} (or {@code -1}, if
+     * undefined).
+     */
+    private static int[] computeSuccessors(PaigeTarjan pt) {
+        final int numStates = pt.numStates;
+        final int numTransitions = numStates * pt.numInputs;
+        final int[] predOfsData = pt.predOfsData;
+        final int[] predData = pt.predData;
+        final int predOfsDataLow = pt.predOfsDataLow;
+
+        final int[] succ = new int[numTransitions];
+        Arrays.fill(succ, -1);
+
+        IntStream.range(0, numTransitions).parallel().forEach(idx -> {
+            final int target = idx % numStates;
+            final int base = idx - target;
+            final int predLow = predOfsData[predOfsDataLow + idx], predHigh = predOfsData[predOfsDataLow + idx + 1];
+            for (int k = predLow; k < predHigh; k++) {
+                succ[base + predData[k]] = target;
+            }
+        });
+
+        final long numPreds = predOfsData[predOfsDataLow + numTransitions] - predOfsData[predOfsDataLow];
+        final long numSuccs = Arrays.stream(succ).parallel().filter(s -> s >= 0).count();
+
+        if (numPreds != numSuccs) {
+            throw new IllegalArgumentException("Parallel refinement requires a deterministic transition structure");
+        }
+
+        return succ;
+    }
+
+    /**
+     * Assigns contiguous class IDs (in the order of the first occurrence of each class) to all states, where two states
+     * belong to the same class iff their {@code keys} are equal.
+     */
+    private static int renumber(int[] cls, int[] keys, int[] ids, int[] result) {
+        Arrays.fill(ids, -1);
+
+        int next = 0;
+        for (int s = 0; s < cls.length; s++) {
+            if (cls[s] < 0) {
+                result[s] = -1;
+            } else {
+                final int key = keys[s];
+                int id = ids[key];
+                if (id < 0) {
+                    id = next++;
+                    ids[key] = id;
+                }
+                result[s] = id;
+            }
+        }
+
+        return next;
+    }
+
+    private static int hash(int[] cls, int[] succ, int numStates, int numInputs, int state) {
+        int h = cls[state];
+        for (int j = 0, idx = state; j < numInputs; j++, idx += numStates) {
+            final int s = succ[idx];
+            h = 31 * h + (s < 0 ? -1 : cls[s]);
+        }
+
+        // finalization mix of MurmurHash3, to spread the bits over the whole table
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static boolean sameSignature(int[] cls, int[] succ, int numStates, int numInputs, int s1, int s2) {
+        if (cls[s1] != cls[s2]) {
+            return false;
+        }
+
+        for (int j = 0, ofs = 0; j < numInputs; j++, ofs += numStates) {
+            final int succ1 = succ[ofs + s1], succ2 = succ[ofs + s2];
+            final int cls1 = succ1 < 0 ? -1 : cls[succ1];
+            final int cls2 = succ2 < 0 ? -1 : cls[succ2];
+            if (cls1 != cls2) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
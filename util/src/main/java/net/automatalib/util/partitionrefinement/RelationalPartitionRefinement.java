@@ -0,0 +1,349 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.partitionrefinement;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An implementation of partition refinement for nondeterministic (labeled) transition systems, i.e., a solution to the
+ * <i>relational coarsest partition problem</i>. Given a transition relation and an initial partition of the states, it
+ * computes the coarsest refinement of the initial partition that is stable with respect to the transition relation,
+ * i.e., in which two states of the same block have transitions (for the same label) to the same set of blocks. Starting
+ * from a partition that contains all states in a single block, the result is the (strong) bisimulation of the system.
+ * <p>
+ * The implementation follows a signature-based approach: whenever a block is split, all but the largest of its parts
+ * are assigned new block IDs, and only the predecessors of the re-assigned states need to be re-classified (by means of
+ * the set of their outgoing (label, target block) pairs). Hence, each state is re-assigned at most a logarithmic number
+ * of times, which makes this approach applicable to transition systems with several hundreds of thousands of states.
+ * <p>
+ * Transition systems are given in a compressed (sparse row) format: the outgoing transitions of state {@code s} are
+ * stored at the indices {@code transitionOffsets[s]} (inclusive) to {@code transitionOffsets[s + 1]} (exclusive) of the
+ * {@code transitionLabels} and {@code transitionTargets} arrays.
+ */
+public final class RelationalPartitionRefinement {
+
+    private final int numStates;
+    private final int[] transitionOffsets;
+    private final int[] transitionLabels;
+    private final int[] transitionTargets;
+
+    private final int[] predecessorOffsets;
+    private final int[] predecessors;
+
+    // the states of each block are stored consecutively in blockData (in the range [blockLow, blockHigh))
+    private final int[] blockData;
+    private final int[] posData;
+    private final int[] blockForState;
+    private final int[] blockLow;
+    private final int[] blockHigh;
+    private int numBlocks;
+
+    // number of touched states per block (touched states are moved to the end of the block)
+    private final int[] touchedInBlock;
+    private final boolean[] touched;
+    private final Signature[] signatures;
+
+    private RelationalPartitionRefinement(int numStates,
+                                          int[] transitionOffsets,
+                                          int[] transitionLabels,
+                                          int[] transitionTargets) {
+        this.numStates = numStates;
+        this.transitionOffsets = transitionOffsets;
+        this.transitionLabels = transitionLabels;
+        this.transitionTargets = transitionTargets;
+
+        final int numTransitions = transitionOffsets[numStates];
+        this.predecessorOffsets = new int[numStates + 1];
+        this.predecessors = new int[numTransitions];
+
+        for (int t = 0; t < numTransitions; t++) {
+            predecessorOffsets[transitionTargets[t] + 1]++;
+        }
+        for (int s = 0; s < numStates; s++) {
+            predecessorOffsets[s + 1] += predecessorOffsets[s];
+        }
+        final int[] ptrs = Arrays.copyOf(predecessorOffsets, numStates);
+        for (int s = 0; s < numStates; s++) {
+            for (int t = transitionOffsets[s]; t < transitionOffsets[s + 1]; t++) {
+                predecessors[ptrs[transitionTargets[t]]++] = s;
+            }
+        }
+
+        this.blockData = new int[numStates];
+        this.posData = new int[numStates];
+        this.blockForState = new int[numStates];
+        this.blockLow = new int[numStates];
+        this.blockHigh = new int[numStates];
+        this.touchedInBlock = new int[numStates];
+        this.touched = new boolean[numStates];
+        this.signatures = new Signature[numStates];
+    }
+
+    /**
+     * Computes the coarsest stable refinement of the given initial partition.
+     *
+     * @param numStates
+     *         the number of states
+     * @param transitionOffsets
+     *         the offsets of the outgoing transitions of each state (of size {@code numStates + 1})
+     * @param transitionLabels
+     *         the (non-negative) labels of the transitions
+     * @param transitionTargets
+     *         the target states of the transitions
+     * @param initialClassification
+     *         the (arbitrary) classification of each state in the initial partition
+     *
+     * @return an array containing for each state the ID of its block in the coarsest stable partition. The block IDs are
+     * consecutive, starting from {@code 0}.
+     */
+    public static int[] computeCoarsestStablePartition(int numStates,
+                                                       int[] transitionOffsets,
+                                                       int[] transitionLabels,
+                                                       int[] transitionTargets,
+                                                       int[] initialClassification) {
+        if (numStates == 0) {
+            return new int[0];
+        }
+
+        final RelationalPartitionRefinement refinement =
+                new RelationalPartitionRefinement(numStates, transitionOffsets, transitionLabels, transitionTargets);
+        refinement.initBlocks(initialClassification);
+        refinement.refine();
+        return refinement.blockForState;
+    }
+
+    private void initBlocks(int[] initialClassification) {
+        final Map<Integer, Integer> classes = new HashMap<>();
+        for (int s = 0; s < numStates; s++) {
+            final int block = classes.computeIfAbsent(initialClassification[s], k -> classes.size());
+            blockForState[s] = block;
+            blockHigh[block]++;
+        }
+        numBlocks = classes.size();
+
+        int low = 0;
+        for (int b = 0; b < numBlocks; b++) {
+            blockLow[b] = low;
+            low += blockHigh[b];
+            blockHigh[b] = blockLow[b];
+        }
+        for (int s = 0; s < numStates; s++) {
+            final int pos = blockHigh[blockForState[s]]++;
+            blockData[pos] = s;
+            posData[s] = pos;
+        }
+    }
+
+    private void refine() {
+        // initially, the signatures of all states need to be compared
+        int[] touchedStates = new int[numStates];
+        for (int s = 0; s < numStates; s++) {
+            touchedStates[s] = s;
+        }
+        int numTouched = numStates;
+
+        int[] moved = new int[numStates];
+        int[] newMoved = new int[numStates];
+
+        while (numTouched > 0) {
+            final int[] touchedBlocks = new int[numTouched];
+            int numTouchedBlocks = 0;
+
+            for (int i = 0; i < numTouched; i++) {
+                final int s = touchedStates[i];
+                final int b = blockForState[s];
+                if (touchedInBlock[b] == 0) {
+                    touchedBlocks[numTouchedBlocks++] = b;
+                }
+                // move the state to the (touched) end of its block
+                final int target = blockHigh[b] - 1 - touchedInBlock[b]++;
+                swap(posData[s], target);
+            }
+
+            // compute all signatures w.r.t. the current partition before splitting any block
+            for (int i = 0; i < numTouched; i++) {
+                final int s = touchedStates[i];
+                signatures[s] = computeSignature(s);
+                touched[s] = false;
+            }
+
+            int numMoved = 0;
+            for (int i = 0; i < numTouchedBlocks; i++) {
+                numMoved = split(touchedBlocks[i], newMoved, numMoved);
+            }
+
+            final int[] swap = moved;
+            moved = newMoved;
+            newMoved = swap;
+
+            // the predecessors of re-assigned states need to be re-classified
+            numTouched = 0;
+            for (int i = 0; i < numMoved; i++) {
+                final int s = moved[i];
+                for (int p = predecessorOffsets[s]; p < predecessorOffsets[s + 1]; p++) {
+                    final int pred = predecessors[p];
+                    if (!touched[pred]) {
+                        touched[pred] = true;
+                        touchedStates[numTouched++] = pred;
+                    }
+                }
+            }
+        }
+    }
+
+    private int split(int block, int[] moved, int numMoved) {
+        final int low = blockLow[block];
+        final int high = blockHigh[block];
+        final int touchedLow = high - touchedInBlock[block];
+        touchedInBlock[block] = 0;
+
+        // group the touched states by their signatures
+        final Map<Signature, Integer> groupIds = new HashMap<>();
+        final int[] groupOfState = new int[high - touchedLow];
+        for (int pos = touchedLow; pos < high; pos++) {
+            final Signature sig = signatures[blockData[pos]];
+            groupOfState[pos - touchedLow] = groupIds.computeIfAbsent(sig, k -> groupIds.size());
+        }
+
+        final int numGroups = groupIds.size();
+        final int numUntouched = touchedLow - low;
+        if (numGroups == 1 && numUntouched == 0) {
+            return numMoved;
+        }
+
+        // sort the touched states by group (counting sort)
+        final int[] groupLow = new int[numGroups + 1];
+        for (int g : groupOfState) {
+            groupLow[g + 1]++;
+        }
+        for (int g = 0; g < numGroups; g++) {
+            groupLow[g + 1] += groupLow[g];
+        }
+        final int[] sorted = new int[high - touchedLow];
+        final int[] ptrs = Arrays.copyOf(groupLow, numGroups);
+        for (int pos = touchedLow; pos < high; pos++) {
+            sorted[ptrs[groupOfState[pos - touchedLow]]++] = blockData[pos];
+        }
+        for (int i = 0; i < sorted.length; i++) {
+            blockData[touchedLow + i] = sorted[i];
+            posData[sorted[i]] = touchedLow + i;
+        }
+
+        // the largest part (untouched states or one of the groups) keeps the ID of the original block
+        int largest = -1;
+        int largestSize = numUntouched;
+        for (int g = 0; g < numGroups; g++) {
+            final int size = groupLow[g + 1] - groupLow[g];
+            if (size > largestSize) {
+                largest = g;
+                largestSize = size;
+            }
+        }
+
+        int result = numMoved;
+        if (largest >= 0) {
+            blockLow[block] = touchedLow + groupLow[largest];
+            blockHigh[block] = touchedLow + groupLow[largest + 1];
+            if (numUntouched > 0) {
+                result = createBlock(low, touchedLow, moved, result);
+            }
+        } else {
+            blockHigh[block] = touchedLow;
+        }
+
+        for (int g = 0; g < numGroups; g++) {
+            if (g != largest) {
+                result = createBlock(touchedLow + groupLow[g], touchedLow + groupLow[g + 1], moved, result);
+            }
+        }
+
+        return result;
+    }
+
+    private int createBlock(int low, int high, int[] moved, int numMoved) {
+        final int block = numBlocks++;
+        blockLow[block] = low;
+        blockHigh[block] = high;
+
+        int result = numMoved;
+        for (int pos = low; pos < high; pos++) {
+            final int s = blockData[pos];
+            blockForState[s] = block;
+            moved[result++] = s;
+        }
+        return result;
+    }
+
+    private Signature computeSignature(int state) {
+        final int low = transitionOffsets[state];
+        final int high = transitionOffsets[state + 1];
+        final long[] data = new long[high - low];
+
+        for (int t = low; t < high; t++) {
+            data[t - low] = ((long) transitionLabels[t] << 32) | blockForState[transitionTargets[t]];
+        }
+        Arrays.sort(data);
+
+        // remove duplicates
+        int len = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (i == 0 || data[i] != data[i - 1]) {
+                data[len++] = data[i];
+            }
+        }
+
+        return new Signature(len == data.length ? data : Arrays.copyOf(data, len));
+    }
+
+    private void swap(int pos1, int pos2) {
+        final int s1 = blockData[pos1];
+        final int s2 = blockData[pos2];
+        blockData[pos1] = s2;
+        blockData[pos2] = s1;
+        posData[s1] = pos2;
+        posData[s2] = pos1;
+    }
+
+    private static final class Signature {
+
+        private final long[] data;
+        private final int hash;
+
+        Signature(long[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Signature)) {
+                return false;
+            }
+            final Signature that = (Signature) o;
+            return hash == that.hash && Arrays.equals(data, that.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
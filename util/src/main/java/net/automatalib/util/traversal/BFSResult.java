@@ -0,0 +1,85 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.traversal;
+
+import java.util.List;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The result of a (level-synchronous) breadth-first search, which comprises the breadth-first layers of the reached
+ * elements as well as a breadth-first search tree.
+ *
+ * @param <S>
+ *         element (node/state) type
+ * @param <L>
+ *         label (edge/input) type
+ *
+ * @see LayeredBFS
+ */
+public interface BFSResult<S, L> {
+
+    /**
+     * The depth of elements that have not been reached by the search.
+     */
+    int UNREACHABLE = -1;
+
+    /**
+     * Returns the number of reached elements.
+     *
+     * @return the number of reached elements
+     */
+    int size();
+
+    /**
+     * Returns the breadth-first layers of the search, i.e. the {@code i}-th list contains exactly the elements that
+     * have a (shortest) distance of {@code i} to the initial elements.
+     *
+     * @return the breadth-first layers
+     */
+    List<List<S>> getLayers();
+
+    /**
+     * Returns whether the given element has been reached by the search.
+     *
+     * @param element
+     *         the element
+     *
+     * @return {@code true} if the element has been reached, {@code false} otherwise
+     */
+    boolean isReachable(S element);
+
+    /**
+     * Returns the depth (i.e. the length of a shortest path from the initial elements) of the given element.
+     *
+     * @param element
+     *         the element
+     *
+     * @return the depth of the given element, or {@link #UNREACHABLE} if the element has not been reached
+     */
+    int getDepth(S element);
+
+    /**
+     * Returns the labels (e.g. edges or inputs) of a shortest path from the initial elements to the given element. For
+     * transition systems, this is a shortest access sequence of the given state.
+     *
+     * @param element
+     *         the element
+     *
+     * @return the labels of a shortest path to the given element, or {@code null} if the element has not been reached
+     */
+    @Nullable List<L> getPath(S element);
+}
@@ -0,0 +1,164 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.traversal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import net.automatalib.util.traversal.LayeredBFS.SuccessorFunction;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A level-synchronous breadth-first search over arbitrary elements, whose visited set is a concurrent hash map.
+ * Elements are claimed by atomically inserting their search tree record into the map.
+ *
+ * @param <S>
+ *         element type
+ * @param <L>
+ *         label type
+ */
+final class HashBFS<S, L> implements BFSResult<S, L> {
+
+    private final Map<S, Record<S, L>> records;
+    private final List<List<S>> layers;
+    private int size;
+
+    HashBFS() {
+        this.records = new ConcurrentHashMap<>();
+        this.layers = new ArrayList<>();
+    }
+
+    void run(Iterable<? extends S> initial, SuccessorFunction<S, L> successors, int maxDepth, boolean parallel) {
+        final List<S> init = new ArrayList<>();
+        for (S s : initial) {
+            if (records.putIfAbsent(s, new Record<>(0, null, null)) == null) {
+                init.add(s);
+            }
+        }
+
+        List<S> frontier = init;
+        int d = 0;
+
+        while (!frontier.isEmpty()) {
+            layers.add(Collections.unmodifiableList(frontier));
+            size += frontier.size();
+
+            if (d == maxDepth) {
+                break;
+            }
+
+            frontier = expand(frontier, ++d, successors, parallel);
+        }
+    }
+
+    private List<S> expand(List<S> frontier, int d, SuccessorFunction<S, L> successors, boolean parallel) {
+        final int numChunks = (frontier.size() + IntBFS.CHUNK_SIZE - 1) / IntBFS.CHUNK_SIZE;
+
+        IntStream chunks = IntStream.range(0, numChunks);
+        if (parallel) {
+            chunks = chunks.parallel();
+        }
+
+        final List<List<S>> next = new ArrayList<>(numChunks);
+        chunks.mapToObj(c -> expandChunk(frontier.subList(c * IntBFS.CHUNK_SIZE,
+                                                          Math.min(frontier.size(), (c + 1) * IntBFS.CHUNK_SIZE)),
+                                         d,
+                                         successors)).forEachOrdered(next::add);
+
+        int length = 0;
+        for (List<S> n : next) {
+            length += n.size();
+        }
+
+        final List<S> result = new ArrayList<>(length);
+        for (List<S> n : next) {
+            result.addAll(n);
+        }
+
+        return result;
+    }
+
+    private List<S> expandChunk(List<S> chunk, int d, SuccessorFunction<S, L> successors) {
+        final List<S> buffer = new ArrayList<>();
+
+        for (S src : chunk) {
+            successors.forEachSuccessor(src, (succ, label) -> {
+                if (!records.containsKey(succ) && records.putIfAbsent(succ, new Record<>(d, src, label)) == null) {
+                    buffer.add(succ);
+                }
+            });
+        }
+
+        return buffer;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<List<S>> getLayers() {
+        return Collections.unmodifiableList(layers);
+    }
+
+    @Override
+    public boolean isReachable(S element) {
+        return records.containsKey(element);
+    }
+
+    @Override
+    public int getDepth(S element) {
+        final Record<S, L> record = records.get(element);
+        return record == null ? UNREACHABLE : record.depth;
+    }
+
+    @Override
+    @SuppressWarnings("nullness") // only initial records have neither a parent nor a label
+    public @Nullable List<L> getPath(S element) {
+        Record<S, L> record = records.get(element);
+
+        if (record == null) {
+            return null;
+        }
+
+        final List<L> result = new ArrayList<>(record.depth);
+        while (record.parent != null) {
+            result.add(record.label);
+            record = records.get(record.parent);
+        }
+
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static final class Record<S, L> {
+
+        final int depth;
+        final @Nullable S parent;
+        final @Nullable L label;
+
+        Record(int depth, @Nullable S parent, @Nullable L label) {
+            this.depth = depth;
+            this.parent = parent;
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.traversal;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+import net.automatalib.util.traversal.LayeredBFS.SuccessorFunction;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A level-synchronous breadth-first search over elements with integer IDs. Elements are claimed by atomically setting
+ * their bit in a visited bitset, so that exactly one thread records the depth and the search tree information of each
+ * element.
+ *
+ * @param <S>
+ *         element type
+ * @param <L>
+ *         label type
+ */
+final class IntBFS<S, L> implements BFSResult<S, L> {
+
+    static final int CHUNK_SIZE = 256;
+
+    private static final int NO_PARENT = -1;
+
+    private final IntFunction<? extends S> elements;
+    private final ToIntFunction<? super S> ids;
+
+    private final AtomicLongArray visited;
+    private final int[] depth;
+    private final int[] parent;
+    private final @Nullable Object[] labels;
+
+    private final List<int[]> layers;
+    private int size;
+
+    IntBFS(int size, IntFunction<? extends S> elements, ToIntFunction<? super S> ids) {
+        this.elements = elements;
+        this.ids = ids;
+        this.visited = new AtomicLongArray((size + Long.SIZE - 1) / Long.SIZE);
+        this.depth = new int[size];
+        this.parent = new int[size];
+        this.labels = new Object[size];
+        this.layers = new ArrayList<>();
+    }
+
+    void run(Iterable<? extends S> initial, SuccessorFunction<S, L> successors, boolean parallel) {
+        final IntBuffer init = new IntBuffer();
+        for (S s : initial) {
+            final int id = ids.applyAsInt(s);
+            if (visit(id)) {
+                parent[id] = NO_PARENT;
+                init.add(id);
+            }
+        }
+
+        int[] frontier = init.toArray();
+        int d = 0;
+
+        while (frontier.length > 0) {
+            layers.add(frontier);
+            size += frontier.length;
+            frontier = expand(frontier, ++d, successors, parallel);
+        }
+    }
+
+    private int[] expand(int[] frontier, int d, SuccessorFunction<S, L> successors, boolean parallel) {
+        final int numChunks = (frontier.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        IntStream chunks = IntStream.range(0, numChunks);
+        if (parallel) {
+            chunks = chunks.parallel();
+        }
+
+        final int[][] next = chunks.mapToObj(c -> expandChunk(frontier,
+                                                              c * CHUNK_SIZE,
+                                                              Math.min(frontier.length, (c + 1) * CHUNK_SIZE),
+                                                              d,
+                                                              successors)).toArray(int[][]::new);
+
+        int length = 0;
+        for (int[] n : next) {
+            length += n.length;
+        }
+
+        final int[] result = new int[length];
+        int pos = 0;
+        for (int[] n : next) {
+            System.arraycopy(n, 0, result, pos, n.length);
+            pos += n.length;
+        }
+
+        return result;
+    }
+
+    private int[] expandChunk(int[] frontier, int from, int to, int d, SuccessorFunction<S, L> successors) {
+        final IntBuffer buffer = new IntBuffer();
+
+        for (int i = from; i < to; i++) {
+            final int src = frontier[i];
+            successors.forEachSuccessor(elements.apply(src), (succ, label) -> {
+                final int id = ids.applyAsInt(succ);
+                if (visit(id)) {
+                    depth[id] = d;
+                    parent[id] = src;
+                    labels[id] = label;
+                    buffer.add(id);
+                }
+            });
+        }
+
+        return buffer.toArray();
+    }
+
+    /**
+     * Atomically marks the given ID as visited.
+     *
+     * @return {@code true} if the ID has not been visited before (i.e. the calling thread claimed it), {@code false}
+     * otherwise
+     */
+    private boolean visit(int id) {
+        final int word = id / Long.SIZE;
+        final long mask = 1L << id;
+
+        long old;
+        do {
+            old = visited.get(word);
+            if ((old & mask) != 0) {
+                return false;
+            }
+        } while (!visited.compareAndSet(word, old, old | mask));
+
+        return true;
+    }
+
+    private boolean isVisited(int id) {
+        return (visited.get(id / Long.SIZE) & (1L << id)) != 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<List<S>> getLayers() {
+        final List<List<S>> result = new ArrayList<>(layers.size());
+        for (int[] layer : layers) {
+            result.add(new AbstractList<S>() {
+
+                @Override
+                public S get(int index) {
+                    return elements.apply(layer[index]);
+                }
+
+                @Override
+                public int size() {
+                    return layer.length;
+                }
+            });
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isReachable(S element) {
+        return isVisited(ids.applyAsInt(element));
+    }
+
+    @Override
+    public int getDepth(S element) {
+        final int id = ids.applyAsInt(element);
+        return isVisited(id) ? depth[id] : UNREACHABLE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable List<L> getPath(S element) {
+        int id = ids.applyAsInt(element);
+
+        if (!isVisited(id)) {
+            return null;
+        }
+
+        final List<L> result = new ArrayList<>(depth[id]);
+        while (parent[id] != NO_PARENT) {
+            result.add((L) labels[id]);
+            id = parent[id];
+        }
+
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static final class IntBuffer {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.traversal;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+import net.automatalib.automata.Automaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.concepts.NodeIDs;
+import net.automatalib.ts.TransitionSystem;
+
+/**
+ * Level-synchronous breadth-first searches for graphs and transition systems. Each layer (frontier) of the search is
+ * split into chunks that are (optionally) expanded in parallel, and the elements of the next layer are determined via
+ * concurrent visited sets.
+ * <p>
+ * For {@link Graph}s and {@link Automaton}s, the visited set is an atomic bitset indexed by the {@link NodeIDs} and
+ * {@link StateIDs}, respectively, and the search tree is stored in primitive arrays. Other transition systems (e.g.
+ * compositions) use a concurrent hash map.
+ * <p>
+ * The parallel searches run in the {@link java.util.concurrent.ForkJoinPool} of the invoking thread or the common pool
+ * (like parallel streams). While the layers of the search are deterministic, the order of elements within a layer and
+ * the computed search tree (i.e. which of several shortest paths is returned) may vary between parallel runs.
+ */
+public final class LayeredBFS {
+
+    /**
+     * Value to signal that the depth of a search should not be limited.
+     */
+    public static final int NO_LIMIT = -1;
+
+    private LayeredBFS() {}
+
+    /**
+     * Performs a breadth-first search on the given graph.
+     *
+     * @param graph
+     *         the graph
+     * @param initialNodes
+     *         the initial nodes of the search
+     * @param parallel
+     *         whether to expand the layers of the search in parallel
+     *
+     * @return the result of the search, whose paths are given by edges
+     */
+    public static <N, E> BFSResult<N, E> search(Graph<N, E> graph,
+                                                Collection<? extends N> initialNodes,
+                                                boolean parallel) {
+        final NodeIDs<N> ids = graph.nodeIDs();
+        final IntBFS<N, E> bfs = new IntBFS<>(graph.size(), ids::getNode, ids::getNodeId);
+
+        bfs.run(initialNodes, (node, consumer) -> {
+            for (E edge : graph.getOutgoingEdges(node)) {
+                consumer.accept(graph.getTarget(edge), edge);
+            }
+        }, parallel);
+
+        return bfs;
+    }
+
+    /**
+     * Performs a breadth-first search on the given automaton, starting from its initial states.
+     *
+     * @param automaton
+     *         the automaton
+     * @param inputs
+     *         the inputs to consider
+     * @param parallel
+     *         whether to expand the layers of the search in parallel
+     *
+     * @return the result of the search, whose paths are given by (shortest) access sequences
+     */
+    public static <S, I, T> BFSResult<S, I> search(Automaton<S, I, T> automaton,
+                                                   Collection<? extends I> inputs,
+                                                   boolean parallel) {
+        final StateIDs<S> ids = automaton.stateIDs();
+        final IntBFS<S, I> bfs = new IntBFS<>(automaton.size(), ids::getState, ids::getStateId);
+
+        bfs.run(automaton.getInitialStates(), successors(automaton, inputs), parallel);
+
+        return bfs;
+    }
+
+    /**
+     * Performs a breadth-first search on the given transition system, starting from its initial states. Since the
+     * states of general transition systems cannot be enumerated up-front, the reached states are stored in a
+     * concurrent hash map. The search terminates once all reachable states (or all states up to the given depth) have
+     * been found.
+     *
+     * @param ts
+     *         the transition system
+     * @param maxDepth
+     *         the maximum depth of the search, or {@link #NO_LIMIT}
+     * @param inputs
+     *         the inputs to consider
+     * @param parallel
+     *         whether to expand the layers of the search in parallel
+     *
+     * @return the result of the search, whose paths are given by (shortest) access sequences
+     */
+    public static <S, I, T> BFSResult<S, I> search(TransitionSystem<S, ? super I, T> ts,
+                                                   int maxDepth,
+                                                   Collection<? extends I> inputs,
+                                                   boolean parallel) {
+        final HashBFS<S, I> bfs = new HashBFS<>();
+
+        bfs.run(ts.getInitialStates(), successors(ts, inputs), maxDepth, parallel);
+
+        return bfs;
+    }
+
+    private static <S, I, T> SuccessorFunction<S, I> successors(TransitionSystem<S, ? super I, T> ts,
+                                                                Collection<? extends I> inputs) {
+        return (state, consumer) -> {
+            for (I input : inputs) {
+                for (T trans : ts.getTransitions(state, input)) {
+                    consumer.accept(ts.getSuccessor(trans), input);
+                }
+            }
+        };
+    }
+
+    /**
+     * Enumerates the (labeled) successors of an element.
+     */
+    @FunctionalInterface
+    interface SuccessorFunction<S, L> {
+
+        void forEachSuccessor(S element, BiConsumer<? super S, ? super L> consumer);
+    }
+}
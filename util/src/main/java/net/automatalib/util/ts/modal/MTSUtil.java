@@ -95,17 +95,7 @@ public final class MTSUtil {
                                                      ModalTransitionSystem<BS, I, ?, ?> b,
                                                      Collection<I> input) {
 
-        final Set<Pair<AS, BS>> refinement = ModalRefinement.refinementRelation(a, b, input);
-
-        final Set<AS> statesA = new HashSet<>(a.getInitialStates());
-        final Set<BS> statesB = new HashSet<>(b.getInitialStates());
-
-        for (Pair<AS, BS> p : refinement) {
-            statesA.remove(p.getFirst());
-            statesB.remove(p.getSecond());
-        }
-
-        return statesA.isEmpty() && statesB.isEmpty();
+        return ModalRefinement.refinesInitialStates(a, b, input);
     }
 
     public static <S, I> Set<S> reachableSubset(UniversalFiniteAlphabetAutomaton<S, I, ?, ?, ?> ts,
@@ -15,122 +15,555 @@
  */
 package net.automatalib.util.ts.modal;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.Set;
-import java.util.function.BiPredicate;
 
 import com.google.common.collect.Sets;
+import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.commons.util.Pair;
 import net.automatalib.ts.modal.ModalTransitionSystem;
 import net.automatalib.ts.modal.transition.ModalEdgeProperty;
-import net.automatalib.ts.modal.transition.ModalEdgeProperty.ModalType;
 
+/**
+ * Computes the (modal) refinement relation between two {@link ModalTransitionSystem}s. A pair of states {@code (p, q)}
+ * of an implementation and a specification is contained in the refinement relation iff
+ * <ul>
+ * <li>every may (or must) transition {@code p -a-> p'} can be matched by a may (or must) transition {@code q -a-> q'}
+ * such that {@code (p', q')} is contained in the refinement relation, and</li>
+ * <li>every must transition {@code q -a-> q'} can be matched by a must transition {@code p -a-> p'} such that {@code
+ * (p', q')} is contained in the refinement relation.</li>
+ * </ul>
+ * <p>
+ * The relation is computed as a greatest fixed-point by means of a worklist algorithm: for every pair and every
+ * transition that needs to be matched, the number of (still) eligible partner transitions is counted. Whenever a pair
+ * is removed from the relation, only the counters of the pairs that can reach it via a single (pair of) transition(s)
+ * are updated, which are determined by means of pre-computed predecessor indices.
+ */
 public final class ModalRefinement {
 
     private ModalRefinement() {
         // do not instantiate
     }
 
-    private static <BS, I, BT, BTP extends ModalEdgeProperty> Set<BT> partnerTransitions(ModalTransitionSystem<BS, I, BT, BTP> b,
-                                                                                         BS source,
-                                                                                         I input,
-                                                                                         Set<ModalType> acceptableValues) {
+    public static <AS, BS, I> Set<Pair<AS, BS>> refinementRelation(ModalTransitionSystem<AS, I, ?, ?> implementation,
+                                                                   ModalTransitionSystem<BS, I, ?, ?> specification,
+                                                                   Collection<I> inputs) {
+
+        final Structure<AS> impl = new Structure<>(implementation, inputs);
+        final Structure<BS> spec = new Structure<>(specification, inputs);
+        final Solver solver = new Solver(impl, spec);
+
+        // lower approximation only correct if automaton is finite (image-finite)
+        for (int p = 0; p < impl.size; p++) {
+            for (int q = 0; q < spec.size; q++) {
+                solver.addPair(p, q);
+            }
+        }
+
+        solver.solve();
+
+        final Set<Pair<AS, BS>> refinement = Sets.newHashSetWithExpectedSize(solver.numAlive);
+        for (int k = 0; k < solver.numPairs; k++) {
+            if (solver.alive[k]) {
+                final long pair = solver.pairs[k];
+                refinement.add(Pair.of(impl.ids.getState(first(pair)), spec.ids.getState(second(pair))));
+            }
+        }
+
+        return refinement;
+    }
+
+    /**
+     * Checks whether every initial state of the implementation refines some state of the specification and every
+     * initial state of the specification is refined by some state of the implementation. Only the pairs of states
+     * that are relevant for the initial states are explored.
+     */
+    static <AS, BS, I> boolean refinesInitialStates(ModalTransitionSystem<AS, I, ?, ?> implementation,
+                                                    ModalTransitionSystem<BS, I, ?, ?> specification,
+                                                    Collection<I> inputs) {
+
+        final Structure<AS> impl = new Structure<>(implementation, inputs);
+        final Structure<BS> spec = new Structure<>(specification, inputs);
+        final Solver solver = new Solver(impl, spec);
 
-        Set<BT> coTransitions = Sets.newHashSetWithExpectedSize(b.getInputAlphabet().size());
+        final int[] initImpl = impl.getInitialStates(implementation.getInitialStates());
+        final int[] initSpec = spec.getInitialStates(specification.getInitialStates());
 
-        for (BT candidateTransition : b.getTransitions(source, input)) {
-            BTP property = b.getTransitionProperty(candidateTransition);
+        for (int p : initImpl) {
+            for (int q = 0; q < spec.size; q++) {
+                solver.addPair(p, q);
+            }
+        }
+        for (int q : initSpec) {
+            for (int p = 0; p < impl.size; p++) {
+                solver.addPair(p, q);
+            }
+        }
+
+        solver.solve();
 
-            if (property != null && acceptableValues.contains(property.getType())) {
-                coTransitions.add(candidateTransition);
+        final boolean[] coveredImpl = new boolean[impl.size];
+        final boolean[] coveredSpec = new boolean[spec.size];
+        for (int k = 0; k < solver.numPairs; k++) {
+            if (solver.alive[k]) {
+                final long pair = solver.pairs[k];
+                coveredImpl[first(pair)] = true;
+                coveredSpec[second(pair)] = true;
+            }
+        }
+
+        for (int p : initImpl) {
+            if (!coveredImpl[p]) {
+                return false;
+            }
+        }
+        for (int q : initSpec) {
+            if (!coveredSpec[q]) {
+                return false;
             }
         }
 
-        return coTransitions;
+        return true;
     }
 
-    private static <AS, I, AT, BS, BT> boolean eligiblePartner(ModalTransitionSystem<AS, I, AT, ?> a,
-                                                               ModalTransitionSystem<BS, I, BT, ?> b,
-                                                               Collection<I> inputs,
-                                                               BiPredicate<AS, BS> inRefinementRelation,
-                                                               AS source,
-                                                               BS coSource,
-                                                               Set<ModalType> acceptableValues) {
-
-        for (I label : inputs) {
-            for (AT transition : a.getTransitions(source, label)) {
-                if (!acceptableValues.contains(a.getTransitionProperty(transition).getType())) {
-                    continue;
+    private static long pair(int p, int q) {
+        return ((long) p << 32) | (q & 0xFFFFFFFFL);
+    }
+
+    private static int first(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    private static int second(long pair) {
+        return (int) pair;
+    }
+
+    /**
+     * An integer-based representation of the (may and must) transitions of a modal transition system, including
+     * predecessor indices that are sorted by transition labels.
+     */
+    private static final class Structure<S> {
+
+        private final StateIDs<S> ids;
+        private final int size;
+
+        private final Transitions may;
+        private final Transitions must;
+
+        <I> Structure(ModalTransitionSystem<S, I, ?, ?> mts, Collection<I> inputs) {
+            this.ids = mts.stateIDs();
+            this.size = mts.size();
+
+            final TransitionCollector mayCollector = new TransitionCollector(size);
+            final TransitionCollector mustCollector = new TransitionCollector(size);
+
+            for (int s = 0; s < size; s++) {
+                collectTransitions(mts, ids.getState(s), inputs, mayCollector, mustCollector);
+                mayCollector.finishState();
+                mustCollector.finishState();
+            }
+
+            this.may = mayCollector.toTransitions(inputs.size());
+            this.must = mustCollector.toTransitions(inputs.size());
+        }
+
+        private <I, T> void collectTransitions(ModalTransitionSystem<S, I, T, ?> mts,
+                                               S state,
+                                               Collection<I> inputs,
+                                               TransitionCollector mayCollector,
+                                               TransitionCollector mustCollector) {
+            int label = 0;
+            for (I sym : inputs) {
+                for (T trans : mts.getTransitions(state, sym)) {
+                    final ModalEdgeProperty property = mts.getTransitionProperty(trans);
+                    if (property == null) {
+                        continue;
+                    }
+                    final int target = ids.getStateId(mts.getSuccessor(trans));
+                    mayCollector.add(label, target);
+                    if (property.isMust()) {
+                        mustCollector.add(label, target);
+                    }
                 }
+                label++;
+            }
+        }
+
+        int[] getInitialStates(Collection<S> initialStates) {
+            final int[] result = new int[initialStates.size()];
+            int i = 0;
+            for (S s : initialStates) {
+                result[i++] = ids.getStateId(s);
+            }
+            return result;
+        }
+    }
+
+    private static final class TransitionCollector {
+
+        private final int[] offsets;
+        private int[] labels;
+        private int[] targets;
+        private int numStates;
+        private int numTransitions;
+
+        TransitionCollector(int numStates) {
+            this.offsets = new int[numStates + 1];
+            this.labels = new int[Math.max(8, numStates)];
+            this.targets = new int[Math.max(8, numStates)];
+        }
+
+        void add(int label, int target) {
+            if (numTransitions == labels.length) {
+                labels = Arrays.copyOf(labels, numTransitions * 2);
+                targets = Arrays.copyOf(targets, numTransitions * 2);
+            }
+            labels[numTransitions] = label;
+            targets[numTransitions] = target;
+            numTransitions++;
+        }
+
+        void finishState() {
+            offsets[++numStates] = numTransitions;
+        }
+
+        Transitions toTransitions(int numLabels) {
+            final int[] sources = new int[numTransitions];
+            for (int s = 0; s < numStates; s++) {
+                Arrays.fill(sources, offsets[s], offsets[s + 1], s);
+            }
+
+            // sort the transitions by label (stable), so that the predecessor lists are sorted by label as well
+            final int[] labelOffsets = new int[numLabels + 1];
+            for (int t = 0; t < numTransitions; t++) {
+                labelOffsets[labels[t] + 1]++;
+            }
+            for (int l = 0; l < numLabels; l++) {
+                labelOffsets[l + 1] += labelOffsets[l];
+            }
+            final int[] byLabel = new int[numTransitions];
+            for (int t = 0; t < numTransitions; t++) {
+                byLabel[labelOffsets[labels[t]]++] = t;
+            }
+
+            final int[] inOffsets = new int[numStates + 1];
+            for (int t = 0; t < numTransitions; t++) {
+                inOffsets[targets[t] + 1]++;
+            }
+            for (int s = 0; s < numStates; s++) {
+                inOffsets[s + 1] += inOffsets[s];
+            }
+            final int[] ptrs = Arrays.copyOf(inOffsets, numStates);
+            final int[] incoming = new int[numTransitions];
+            for (int t : byLabel) {
+                incoming[ptrs[targets[t]]++] = t;
+            }
+
+            return new Transitions(offsets,
+                                   Arrays.copyOf(labels, numTransitions),
+                                   Arrays.copyOf(targets, numTransitions),
+                                   sources,
+                                   inOffsets,
+                                   incoming);
+        }
+    }
 
-                Set<BT> partnerTransitions = partnerTransitions(b, coSource, label, acceptableValues);
+    private static final class Transitions {
 
-                AS target = a.getTarget(transition);
-                final boolean eligablePartner = partnerTransitions.stream()
-                                                                  .map(b::getSuccessor)
-                                                                  .anyMatch(s -> inRefinementRelation.test(target, s));
+        // outgoing transitions of state s are stored in [offsets[s], offsets[s + 1]), sorted by label
+        private final int[] offsets;
+        private final int[] labels;
+        private final int[] targets;
+        private final int[] sources;
 
-                if (!eligablePartner) {
-                    return false;
+        // incoming transitions (indices) of state s are stored in [inOffsets[s], inOffsets[s + 1]), sorted by label
+        private final int[] inOffsets;
+        private final int[] incoming;
+
+        Transitions(int[] offsets, int[] labels, int[] targets, int[] sources, int[] inOffsets, int[] incoming) {
+            this.offsets = offsets;
+            this.labels = labels;
+            this.targets = targets;
+            this.sources = sources;
+            this.inOffsets = inOffsets;
+            this.incoming = incoming;
+        }
+
+        int degree(int state) {
+            return offsets[state + 1] - offsets[state];
+        }
+
+        int countLabel(int state, int label) {
+            int result = 0;
+            for (int t = offsets[state]; t < offsets[state + 1]; t++) {
+                if (labels[t] == label) {
+                    result++;
+                } else if (labels[t] > label) {
+                    break;
                 }
             }
+            return result;
         }
+    }
 
-        return true;
+    private static final class Solver {
+
+        private final Structure<?> impl;
+        private final Structure<?> spec;
+
+        private final PairMap pairIds;
+        private long[] pairs;
+        private int numPairs;
+
+        private boolean[] alive;
+        private int numAlive;
+        private int[] counterOffsets;
+        private int[] counters;
+
+        Solver(Structure<?> impl, Structure<?> spec) {
+            this.impl = impl;
+            this.spec = spec;
+            this.pairIds = new PairMap();
+            this.pairs = new long[16];
+            this.alive = new boolean[0];
+            this.counterOffsets = new int[0];
+            this.counters = new int[0];
+        }
+
+        void addPair(int p, int q) {
+            final long pair = pair(p, q);
+            if (pairIds.get(pair) < 0) {
+                if (numPairs == pairs.length) {
+                    pairs = Arrays.copyOf(pairs, numPairs * 2);
+                }
+                pairIds.put(pair, numPairs);
+                pairs[numPairs++] = pair;
+            }
+        }
+
+        void solve() {
+            explore();
+            final int[] worklist = initCounters();
+            int size = 0;
+            for (int k = 0; k < numPairs; k++) {
+                if (!alive[k]) {
+                    worklist[size++] = k;
+                }
+            }
+
+            while (size > 0) {
+                final int k = worklist[--size];
+                final long pair = pairs[k];
+                final int p = first(pair);
+                final int q = second(pair);
+
+                // impl transitions into p that were (potentially) matched by spec transitions into q
+                size = propagate(impl.may, spec.may, p, q, false, worklist, size);
+                // spec must transitions into q that were (potentially) matched by impl must transitions into p
+                size = propagate(spec.must, impl.must, q, p, true, worklist, size);
+            }
+        }
+
+        /**
+         * Computes the closure of the initial pairs under the (label-matching) successor pairs.
+         */
+        private void explore() {
+            final Transitions a = impl.may;
+            final Transitions b = spec.may;
+
+            for (int k = 0; k < numPairs; k++) {
+                final long pair = pairs[k];
+                final int p = first(pair);
+                final int q = second(pair);
+
+                int i = a.offsets[p];
+                int j = b.offsets[q];
+                final int iEnd = a.offsets[p + 1];
+                final int jEnd = b.offsets[q + 1];
+
+                while (i < iEnd && j < jEnd) {
+                    final int labelA = a.labels[i];
+                    final int labelB = b.labels[j];
+                    if (labelA < labelB) {
+                        i++;
+                    } else if (labelA > labelB) {
+                        j++;
+                    } else {
+                        int jj = j;
+                        while (jj < jEnd && b.labels[jj] == labelA) {
+                            addPair(a.targets[i], b.targets[jj]);
+                            jj++;
+                        }
+                        i++;
+                    }
+                }
+            }
+        }
+
+        private int[] initCounters() {
+            alive = new boolean[numPairs];
+            counterOffsets = new int[numPairs + 1];
+
+            for (int k = 0; k < numPairs; k++) {
+                final long pair = pairs[k];
+                counterOffsets[k + 1] =
+                        counterOffsets[k] + impl.may.degree(first(pair)) + spec.must.degree(second(pair));
+            }
+
+            counters = new int[counterOffsets[numPairs]];
+            numAlive = 0;
+
+            for (int k = 0; k < numPairs; k++) {
+                final long pair = pairs[k];
+                final int p = first(pair);
+                final int q = second(pair);
+
+                boolean matched = true;
+                int c = counterOffsets[k];
+
+                for (int t = impl.may.offsets[p]; t < impl.may.offsets[p + 1]; t++) {
+                    final int count = spec.may.countLabel(q, impl.may.labels[t]);
+                    counters[c++] = count;
+                    matched &= count > 0;
+                }
+                for (int t = spec.must.offsets[q]; t < spec.must.offsets[q + 1]; t++) {
+                    final int count = impl.must.countLabel(p, spec.must.labels[t]);
+                    counters[c++] = count;
+                    matched &= count > 0;
+                }
+
+                alive[k] = matched;
+                if (matched) {
+                    numAlive++;
+                }
+            }
+
+            return new int[numPairs];
+        }
+
+        /**
+         * Decrements the counters of all pairs of predecessors of the removed pair ({@code state}, {@code coState})
+         * whose obligation is given by a transition of {@code obliged} and whose partner transitions are given by
+         * {@code partner}.
+         */
+        private int propagate(Transitions obliged,
+                              Transitions partner,
+                              int state,
+                              int coState,
+                              boolean swapped,
+                              int[] worklist,
+                              int size) {
+            int result = size;
+
+            int i = obliged.inOffsets[state];
+            int j = partner.inOffsets[coState];
+            final int iEnd = obliged.inOffsets[state + 1];
+            final int jEnd = partner.inOffsets[coState + 1];
+
+            while (i < iEnd && j < jEnd) {
+                final int t = obliged.incoming[i];
+                final int u = partner.incoming[j];
+                final int labelT = obliged.labels[t];
+                final int labelU = partner.labels[u];
+
+                if (labelT < labelU) {
+                    i++;
+                } else if (labelT > labelU) {
+                    j++;
+                } else {
+                    final int src = obliged.sources[t];
+                    int jj = j;
+                    while (jj < jEnd) {
+                        final int u2 = partner.incoming[jj];
+                        if (partner.labels[u2] != labelT) {
+                            break;
+                        }
+                        final int coSrc = partner.sources[u2];
+                        final int k = swapped ? pairIds.get(pair(coSrc, src)) : pairIds.get(pair(src, coSrc));
+                        if (k >= 0 && alive[k]) {
+                            final int slot = t - obliged.offsets[src];
+                            final int c = counterOffsets[k] + (swapped ? impl.may.degree(coSrc) + slot : slot);
+                            if (--counters[c] == 0) {
+                                alive[k] = false;
+                                numAlive--;
+                                worklist[result++] = k;
+                            }
+                        }
+                        jj++;
+                    }
+                    i++;
+                }
+            }
+
+            return result;
+        }
     }
 
-    public static <AS, BS, I> Set<Pair<AS, BS>> refinementRelation(ModalTransitionSystem<AS, I, ?, ?> implementation,
-                                                                   ModalTransitionSystem<BS, I, ?, ?> specification,
-                                                                   Collection<I> inputs) {
+    /**
+     * A simple open-addressing hash map from (packed) pairs of states to pair IDs.
+     */
+    private static final class PairMap {
 
-        Set<Pair<AS, BS>> refinement = Sets.newHashSetWithExpectedSize(implementation.size() * specification.size());
+        private static final long EMPTY = -1L;
 
-        // lower approximation only correct if automaton is finite (image-finite)
-        for (AS p : implementation.getStates()) {
-            for (BS q : specification.getStates()) {
-                refinement.add(Pair.of(p, q));
-            }
-        }
-
-        Set<ModalEdgeProperty.ModalType> may = Sets.newHashSetWithExpectedSize(2);
-        may.add(ModalType.MAY);
-        may.add(ModalType.MUST);
-
-        Set<ModalType> must = Sets.newHashSetWithExpectedSize(1);
-        must.add(ModalType.MUST);
-
-        boolean update = true;
-        while (update) {
-            update = false;
-
-            Iterator<Pair<AS, BS>> iterator = refinement.iterator();
-            while (iterator.hasNext()) {
-                Pair<AS, BS> pair = iterator.next();
-
-                boolean eligiblePartner = eligiblePartner(implementation,
-                                                          specification,
-                                                          inputs,
-                                                          (s, t) -> refinement.contains(Pair.of(s, t)),
-                                                          pair.getFirst(),
-                                                          pair.getSecond(),
-                                                          may);
-
-                eligiblePartner &= eligiblePartner(specification,
-                                                   implementation,
-                                                   inputs,
-                                                   (s, t) -> refinement.contains(Pair.of(t, s)),
-                                                   pair.getSecond(),
-                                                   pair.getFirst(),
-                                                   must);
-
-                if (!eligiblePartner) {
-                    update = true;
-                    iterator.remove();
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        PairMap() {
+            this.keys = new long[16];
+            this.values = new int[16];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        int get(long key) {
+            final int mask = keys.length - 1;
+            int idx = hash(key) & mask;
+            while (keys[idx] != EMPTY) {
+                if (keys[idx] == key) {
+                    return values[idx];
                 }
+                idx = (idx + 1) & mask;
             }
+            return -1;
         }
 
-        return refinement;
+        void put(long key, int value) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+            }
+            insert(key, value);
+            size++;
+        }
+
+        private void insert(long key, int value) {
+            final int mask = keys.length - 1;
+            int idx = hash(key) & mask;
+            while (keys[idx] != EMPTY) {
+                idx = (idx + 1) & mask;
+            }
+            keys[idx] = key;
+            values[idx] = value;
+        }
+
+        private void grow() {
+            final long[] oldKeys = keys;
+            final int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            Arrays.fill(keys, EMPTY);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 32;
+            return (int) h;
+        }
     }
 }
@@ -17,15 +17,20 @@ package net.automatalib.util.automata.ads;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.graphs.ads.ADSNode;
 import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Factory;
 import org.testng.annotations.Test;
@@ -80,6 +85,43 @@ public class ADSRandomMealyTest extends AbstractADSTest {
         }
     }
 
+    @Test
+    public void testIntLeeYannakakis() {
+        final LYResult<Integer, Integer, Character> expected =
+                LeeYannakakis.compute(target, target.getInputAlphabet());
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            final LYResult<Integer, Integer, Character> actual =
+                    LeeYannakakis.compute(target, target.getInputAlphabet(), parallel);
+
+            Assert.assertEquals(actual.isPresent(), expected.isPresent());
+            if (actual.isPresent()) {
+                super.verifySuccess(target, new HashSet<>(target.getStates()), Optional.of(actual.get()));
+            } else {
+                Assert.assertFalse(actual.getIndistinguishableStates().isEmpty());
+            }
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testTargetWithDeadline() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            final Optional<ADSNode<Integer, Integer, Character>> ads =
+                    BacktrackingSearch.computeOptimal(target,
+                                                      target.getInputAlphabet(),
+                                                      new HashSet<>(target.getStates()),
+                                                      BacktrackingSearch.CostAggregator.MIN_SIZE,
+                                                      parallel,
+                                                      0,
+                                                      TimeUnit.MILLISECONDS);
+
+            // an expired deadline may only yield no or a valid (but not necessarily optimal) ADS
+            if (ads.isPresent()) {
+                super.verifySuccess(target, new HashSet<>(target.getStates()), ads);
+            }
+        }
+    }
+
     @Test
     public void testTargetWithSingleton() {
 
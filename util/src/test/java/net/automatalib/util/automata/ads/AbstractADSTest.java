@@ -20,6 +20,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -77,6 +78,39 @@ public abstract class AbstractADSTest {
         Assert.assertTrue(bfsMinSizeSize <= defaultSize);
         Assert.assertTrue(bfsMinSizeSize <= bestEffortSize);
         Assert.assertTrue(bfsMinSizeSize <= bfsMinLengthSize);
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            final Optional<ADSNode<Integer, I, O>> ads =
+                    ADS.compute(mealy, mealy.getInputAlphabet(), targets, parallel);
+            this.verifySuccess(mealy, targets, ads);
+        }
+
+        // the integer-based search does not memoize trace-restricted results, hence it may find even better ADSs
+        int intMinLength = -1;
+        int intMinSize = -1;
+        for (boolean parallel : new boolean[] {false, true}) {
+            final Optional<ADSNode<Integer, I, O>> intMinLengthADS =
+                    computeOptimal(mealy, targets, BacktrackingSearch.CostAggregator.MIN_LENGTH, parallel);
+            final Optional<ADSNode<Integer, I, O>> intMinSizeADS =
+                    computeOptimal(mealy, targets, BacktrackingSearch.CostAggregator.MIN_SIZE, parallel);
+
+            this.verifySuccess(mealy, targets, intMinLengthADS);
+            this.verifySuccess(mealy, targets, intMinSizeADS);
+
+            final int length = ADSUtil.computeLength(intMinLengthADS.get());
+            final int size = ADSUtil.countSymbolNodes(intMinSizeADS.get());
+
+            Assert.assertTrue(length <= bfsMinLengthLength);
+            Assert.assertTrue(size <= bfsMinSizeSize);
+
+            // both variants compute optimal solutions
+            if (intMinLength >= 0) {
+                Assert.assertEquals(length, intMinLength);
+                Assert.assertEquals(size, intMinSize);
+            }
+            intMinLength = length;
+            intMinSize = size;
+        }
     }
 
     protected <I, O> void verifySuccess(final CompactMealy<I, O> mealy,
@@ -132,5 +166,30 @@ public abstract class AbstractADSTest {
         Assert.assertFalse(bestEffortADS.isPresent());
         Assert.assertFalse(bfsMinLengthADS.isPresent());
         Assert.assertFalse(bfsMinSizeADS.isPresent());
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            Assert.assertFalse(ADS.compute(mealy, mealy.getInputAlphabet(), targets, parallel).isPresent());
+            Assert.assertFalse(computeOptimal(mealy,
+                                              targets,
+                                              BacktrackingSearch.CostAggregator.MIN_LENGTH,
+                                              parallel).isPresent());
+            Assert.assertFalse(computeOptimal(mealy,
+                                              targets,
+                                              BacktrackingSearch.CostAggregator.MIN_SIZE,
+                                              parallel).isPresent());
+        }
+    }
+
+    private static <I, O> Optional<ADSNode<Integer, I, O>> computeOptimal(final CompactMealy<I, O> mealy,
+                                                                         final Set<Integer> targets,
+                                                                         final BacktrackingSearch.CostAggregator costAggregator,
+                                                                         final boolean parallel) {
+        return BacktrackingSearch.computeOptimal(mealy,
+                                                 mealy.getInputAlphabet(),
+                                                 targets,
+                                                 costAggregator,
+                                                 parallel,
+                                                 Long.MAX_VALUE,
+                                                 TimeUnit.NANOSECONDS);
     }
 }
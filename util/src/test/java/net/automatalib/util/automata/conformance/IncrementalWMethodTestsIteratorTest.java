@@ -15,15 +15,23 @@
  */
 package net.automatalib.util.automata.conformance;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.common.collect.Streams;
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
 import net.automatalib.commons.util.collections.CollectionsUtil;
 import net.automatalib.util.automata.Automata;
 import net.automatalib.util.automata.builders.AutomatonBuilders;
+import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
 import net.automatalib.words.impl.Alphabets;
@@ -97,6 +105,98 @@ public class IncrementalWMethodTestsIteratorTest {
         Assert.assertEquals(wMethodTests, iteratorTests);
     }
 
+    @Test
+    public void testSpliterator() {
+        final IncrementalWMethodTestsIterator<Character> iterator = new IncrementalWMethodTestsIterator<>(alphabet);
+        final IncrementalWMethodTestsIterator<Character> splitIterator = new IncrementalWMethodTestsIterator<>(alphabet);
+        iterator.setMaxDepth(MAX_DEPTH);
+        splitIterator.setMaxDepth(MAX_DEPTH);
+
+        iterator.update(mealy);
+        splitIterator.update(mealy);
+
+        // partially consume the tests before splitting
+        final List<Word<Character>> expected = new ArrayList<>();
+        final List<Word<Character>> actual = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            expected.add(iterator.next());
+            actual.add(splitIterator.next());
+        }
+        Streams.stream(iterator).forEach(expected::add);
+
+        final Spliterator<Word<Character>> spliterator = splitIterator.spliterator();
+        Assert.assertFalse(splitIterator.hasNext());
+        Assert.assertEquals(spliterator.estimateSize(), expected.size() - actual.size());
+        actual.addAll(WMethodTestsIteratorTest.collectBySplitting(spliterator, 10));
+
+        expected.sort(Word.canonicalComparator(alphabet));
+        actual.sort(Word.canonicalComparator(alphabet));
+        Assert.assertEquals(actual, expected);
+
+        // a fresh iterator yields the complete W method tests in parallel
+        final IncrementalWMethodTestsIterator<Character> parallelIterator =
+                new IncrementalWMethodTestsIterator<>(alphabet);
+        parallelIterator.setMaxDepth(MAX_DEPTH);
+        parallelIterator.update(mealy);
+
+        final List<Word<Character>> parallelTests =
+                StreamSupport.stream(parallelIterator.spliterator(), true).collect(Collectors.toList());
+        Assert.assertEquals(Sets.newHashSet(parallelTests), computeWMethodTests());
+    }
+
+    /**
+     * Checks that the spliterator yields the same tests as the iterator if the pending tests stem from several updates,
+     * whose (partially consumed) items are merged during the enumeration.
+     */
+    @Test
+    public void testSpliteratorAfterSeveralUpdates() {
+        final Random random = new Random(42);
+        final List<Character> outputs = Arrays.asList('x', 'y');
+
+        for (int run = 0; run < 20; run++) {
+            final CompactMealy<Character, Character> small = randomMealy(random, 3, outputs);
+            final CompactMealy<Character, Character> large = randomMealy(random, 8, outputs);
+
+            final IncrementalWMethodTestsIterator<Character> iterator = new IncrementalWMethodTestsIterator<>(alphabet);
+            final IncrementalWMethodTestsIterator<Character> splitIterator =
+                    new IncrementalWMethodTestsIterator<>(alphabet);
+            iterator.setMaxDepth(MAX_DEPTH);
+            splitIterator.setMaxDepth(MAX_DEPTH);
+
+            iterator.update(small);
+            splitIterator.update(small);
+
+            for (int i = 0; i < 40 && iterator.hasNext(); i++) {
+                Assert.assertEquals(splitIterator.next(), iterator.next());
+            }
+
+            iterator.update(large);
+            splitIterator.update(large);
+
+            final List<Word<Character>> expected = Lists.newArrayList(iterator);
+            final Spliterator<Word<Character>> spliterator = splitIterator.spliterator();
+            Assert.assertEquals(spliterator.estimateSize(), expected.size());
+
+            final List<Word<Character>> actual = WMethodTestsIteratorTest.collectBySplitting(spliterator, 10);
+
+            expected.sort(Word.canonicalComparator(alphabet));
+            actual.sort(Word.canonicalComparator(alphabet));
+            Assert.assertEquals(actual, expected);
+        }
+    }
+
+    /**
+     * Generates a random Mealy machine with at least two (inequivalent) states, since the iterator requires a
+     * non-empty characterizing set.
+     */
+    private CompactMealy<Character, Character> randomMealy(Random random, int size, List<Character> outputs) {
+        CompactMealy<Character, Character> result;
+        do {
+            result = RandomAutomata.randomMealy(random, size, alphabet, outputs);
+        } while (result.size() < 2);
+        return result;
+    }
+
     private Set<Word<Character>> computeWMethodTests() {
 
         final List<Word<Character>> characterizingSet = Automata.characterizingSet(mealy, alphabet);
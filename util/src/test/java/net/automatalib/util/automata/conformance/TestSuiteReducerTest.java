@@ -0,0 +1,143 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.conformance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestSuiteReducerTest {
+
+    private final Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+    private final CompactMealy<Integer, Character> mealy =
+            RandomAutomata.randomMealy(new Random(42), 20, alphabet, Arrays.asList('x', 'y'));
+
+    @Test
+    public void testSimpleSuite() {
+        final Word<Integer> eps = Word.epsilon();
+        final Word<Integer> a = Word.fromSymbols(0);
+        final Word<Integer> ab = Word.fromSymbols(0, 1);
+        final Word<Integer> b = Word.fromSymbols(1);
+
+        final List<Word<Integer>> tests = Arrays.asList(a, ab, a, eps, b, ab);
+
+        final TestSuiteReducer<Integer> reducer = new TestSuiteReducer<>(alphabet);
+        final List<Word<Integer>> scheduled = Lists.newArrayList(reducer.filter(tests.iterator()));
+
+        // a is only detected as redundant once ab has been scheduled
+        Assert.assertEquals(scheduled, Arrays.asList(a, ab, b));
+        Assert.assertEquals(reducer.getNumTests(), 6);
+        Assert.assertEquals(reducer.getNumScheduledTests(), 3);
+        Assert.assertEquals(reducer.getReductionRatio(), 0.5);
+
+        Assert.assertEquals(TestSuiteReducer.reduce(alphabet, tests.iterator()), Arrays.asList(ab, b));
+        Assert.assertEquals(TestSuiteReducer.reduce(alphabet, Arrays.asList(eps, eps).iterator()),
+                            Arrays.asList(eps));
+
+        // without prefix-closure, only duplicates are removed
+        final TestSuiteReducer<Integer> dedup = new TestSuiteReducer<>(alphabet, false, Integer.MAX_VALUE);
+        Assert.assertEquals(Lists.newArrayList(dedup.filter(tests.iterator())), Arrays.asList(a, ab, eps, b));
+    }
+
+    @Test
+    public void testWpMethodSuite() {
+        final List<Word<Integer>> tests = Lists.newArrayList(new WpMethodTestsIterator<>(mealy, alphabet, 2));
+
+        final TestSuiteReducer<Integer> reducer = new TestSuiteReducer<>(alphabet);
+        final List<Word<Integer>> scheduled = Lists.newArrayList(reducer.filter(tests.iterator()));
+        final List<Word<Integer>> reduced = TestSuiteReducer.reduce(alphabet, tests.iterator());
+
+        checkCoverage(tests, scheduled);
+        checkCoverage(tests, reduced);
+
+        Assert.assertEquals(reducer.getNumTests(), tests.size());
+        Assert.assertTrue(reducer.getReductionRatio() > 0);
+        Assert.assertTrue(reduced.size() <= scheduled.size());
+
+        // the reduced test suite consists of maximal tests only
+        final Set<Word<Integer>> properPrefixes = new HashSet<>();
+        for (Word<Integer> test : reduced) {
+            for (int i = 0; i < test.length(); i++) {
+                properPrefixes.add(test.prefix(i));
+            }
+        }
+        for (Word<Integer> test : reduced) {
+            Assert.assertFalse(properPrefixes.contains(test));
+        }
+        Assert.assertEquals(new HashSet<>(reduced).size(), reduced.size());
+
+        // each scheduled test is new w.r.t. the previously scheduled tests
+        final TestSuiteReducer<Integer> verifier = new TestSuiteReducer<>(alphabet);
+        for (Word<Integer> test : scheduled) {
+            Assert.assertTrue(verifier.schedule(test));
+        }
+    }
+
+    @Test
+    public void testBoundedMemory() {
+        final List<Word<Integer>> tests = Lists.newArrayList(new WMethodTestsIterator<>(mealy, alphabet, 2));
+
+        final int maxNodes = 500;
+        final TestSuiteReducer<Integer> reducer = new TestSuiteReducer<>(alphabet, true, maxNodes);
+        final List<Word<Integer>> scheduled = new ArrayList<>();
+
+        for (Word<Integer> test : tests) {
+            if (reducer.schedule(test)) {
+                scheduled.add(test);
+            }
+            Assert.assertTrue(reducer.getNumNodes() <= maxNodes);
+        }
+
+        checkCoverage(tests, scheduled);
+        Assert.assertTrue(reducer.getNumResets() > 0);
+        Assert.assertTrue(reducer.getReductionRatio() > 0);
+
+        final TestSuiteReducer<Integer> unbounded = new TestSuiteReducer<>(alphabet);
+        unbounded.filter(tests.iterator()).forEachRemaining(t -> {});
+        Assert.assertTrue(unbounded.getNumScheduledTests() <= reducer.getNumScheduledTests());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidBound() {
+        new TestSuiteReducer<>(alphabet, true, 0);
+    }
+
+    /**
+     * Checks that every test is a prefix of some test of the reduced test suite.
+     */
+    private static void checkCoverage(Collection<Word<Integer>> tests, Collection<Word<Integer>> reduced) {
+        final Set<Word<Integer>> prefixes = new HashSet<>();
+        for (Word<Integer> test : reduced) {
+            for (int i = 0; i <= test.length(); i++) {
+                prefixes.add(test.prefix(i));
+            }
+        }
+        Assert.assertTrue(prefixes.containsAll(tests));
+    }
+}
@@ -19,7 +19,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.Spliterator;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
@@ -73,6 +75,60 @@ public class WMethodTestsIteratorTest {
         this.verifyIterator(new WMethodTestsIterator<>(dfa, alphabet, lookahead), expectedWords);
     }
 
+    @Test
+    public void testSpliterator() {
+        for (int lookahead = 0; lookahead <= 2; lookahead++) {
+            final List<Word<Integer>> iteratorWords = new ArrayList<>();
+            Iterators.addAll(iteratorWords, new WMethodTestsIterator<>(dfa, alphabet, lookahead));
+
+            final Spliterator<Word<Integer>> spliterator = new WMethodTestsSpliterator<>(dfa, alphabet, lookahead);
+            Assert.assertEquals(spliterator.estimateSize(), iteratorWords.size());
+            Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+
+            // sequential traversals (also of split spliterators) preserve the order of the iterator
+            Assert.assertEquals(collectBySplitting(spliterator, 10), iteratorWords);
+
+            final List<Word<Integer>> parallelWords =
+                    StreamSupport.stream(new WMethodTestsSpliterator<>(dfa, alphabet, lookahead), true)
+                                 .collect(Collectors.toList());
+            Assert.assertEquals(parallelWords, iteratorWords);
+        }
+    }
+
+    /**
+     * Recursively splits the given spliterator (consuming a single element before each split) and collects the elements
+     * of all parts in encounter order. Checks that the size estimates of all parts are exact.
+     */
+    static <T> List<T> collectBySplitting(Spliterator<T> spliterator, int depth) {
+        final List<T> result = new ArrayList<>();
+        final long size = spliterator.estimateSize();
+
+        if (spliterator.tryAdvance(result::add)) {
+            Assert.assertEquals(spliterator.estimateSize(), size - 1);
+        }
+
+        final Spliterator<T> prefix = depth > 0 ? spliterator.trySplit() : null;
+
+        if (prefix != null) {
+            final long prefixSize = prefix.estimateSize();
+            final long suffixSize = spliterator.estimateSize();
+            Assert.assertEquals(prefixSize + suffixSize, size - result.size());
+
+            final List<T> prefixElements = collectBySplitting(prefix, depth - 1);
+            final List<T> suffixElements = collectBySplitting(spliterator, depth - 1);
+            Assert.assertEquals(prefixElements.size(), prefixSize);
+            Assert.assertEquals(suffixElements.size(), suffixSize);
+
+            result.addAll(prefixElements);
+            result.addAll(suffixElements);
+        } else {
+            spliterator.forEachRemaining(result::add);
+            Assert.assertEquals(result.size(), size);
+        }
+
+        return result;
+    }
+
     private void verifyIterator(WMethodTestsIterator<Integer> iter, Collection<Word<Integer>> expectedTests) {
         final List<Word<Integer>> expectedWMethodWords = new ArrayList<>(expectedTests);
         final List<Word<Integer>> wMethodWords = new ArrayList<>(expectedTests.size());
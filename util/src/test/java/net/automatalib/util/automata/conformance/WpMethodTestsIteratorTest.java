@@ -20,7 +20,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.Spliterator;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
@@ -71,6 +73,26 @@ public class WpMethodTestsIteratorTest {
         checkTestWords(iteratorWords, wpMethodWords);
     }
 
+    @Test
+    public void testSpliterator() {
+        for (int depth = 0; depth <= 3; depth++) {
+            final List<Word<Integer>> iteratorWords = Lists.newArrayList(new WpMethodTestsIterator<>(dfa, alphabet, depth));
+
+            final Spliterator<Word<Integer>> spliterator = new WpMethodTestsSpliterator<>(dfa, alphabet, depth);
+            Assert.assertEquals(spliterator.estimateSize(), iteratorWords.size());
+            Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+
+            final List<Word<Integer>> splitWords = WMethodTestsIteratorTest.collectBySplitting(spliterator, 12);
+            final List<Word<Integer>> parallelWords =
+                    StreamSupport.stream(new WpMethodTestsSpliterator<>(dfa, alphabet, depth), true)
+                                 .collect(Collectors.toList());
+
+            // encounter order is preserved by splitting
+            Assert.assertEquals(parallelWords, splitWords);
+            checkTestWords(splitWords, iteratorWords);
+        }
+    }
+
     private <I extends Comparable<I>> void checkTestWords(List<Word<I>> actual, List<Word<I>> expected) {
         actual.sort(CmpUtil.lexComparator());
         expected.sort(CmpUtil.lexComparator());
@@ -17,10 +17,15 @@ package net.automatalib.util.automata.cover;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.function.BiFunction;
+
+import com.google.common.collect.Lists;
 
 import net.automatalib.automata.UniversalDeterministicAutomaton;
 import net.automatalib.automata.fsa.DFA;
@@ -30,6 +35,7 @@ import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
 import net.automatalib.words.impl.Alphabets;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -146,6 +152,129 @@ public class CoversTest {
         testTransitionCover(dfa, alphabet, Automata.transitionCover(dfa, alphabet));
     }
 
+    /**
+     * Compares the array-based cover computation (used for automata with native state IDs) with the mapping-based cover
+     * computation (used for all other automata).
+     */
+    @Test
+    public void testIntCovers() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, 50, alphabet, false);
+        final DFA<Integer, Integer> view = new StateIDsHidingView<>(dfa);
+
+        // make the automaton partial
+        for (int i = 0; i < 20; i++) {
+            dfa.removeAllTransitions(random.nextInt(dfa.size()), random.nextInt(alphabet.size()));
+        }
+
+        final List<Word<Integer>> stateCover = checkCovers(dfa, view, (a, in) -> {
+            final List<Word<Integer>> result = new ArrayList<>();
+            Covers.stateCover(a, in, result);
+            return result;
+        });
+        final List<Word<Integer>> transCover = checkCovers(dfa, view, (a, in) -> {
+            final List<Word<Integer>> result = new ArrayList<>();
+            Covers.transitionCover(a, in, result);
+            return result;
+        });
+        final List<Word<Integer>> structuralCover = checkCovers(dfa, view, (a, in) -> {
+            final List<Word<Integer>> result = new ArrayList<>();
+            Covers.structuralCover(a, in, result);
+            return result;
+        });
+        checkCovers(dfa, view, (a, in) -> Lists.newArrayList(Covers.stateCoverIterator(a, in)));
+        checkCovers(dfa, view, (a, in) -> Lists.newArrayList(Covers.transitionCoverIterator(a, in)));
+
+        // modify the automaton and compare the incremental covers
+        final int newState = dfa.addState(true);
+        for (int i = 0; i < 10; i++) {
+            dfa.setTransition(random.nextInt(dfa.size()), random.nextInt(alphabet.size()), newState);
+            dfa.setTransition(newState, random.nextInt(alphabet.size()), random.nextInt(dfa.size()));
+        }
+
+        checkCovers(dfa, view, (a, in) -> {
+            final List<Word<Integer>> result = new ArrayList<>();
+            Covers.incrementalStateCover(a, in, stateCover, result);
+            return result;
+        });
+        checkCovers(dfa, view, (a, in) -> {
+            final List<Word<Integer>> result = new ArrayList<>();
+            Covers.incrementalTransitionCover(a, in, transCover, result);
+            return result;
+        });
+        checkCovers(dfa, view, (a, in) -> {
+            final List<Word<Integer>> result = new ArrayList<>();
+            Covers.incrementalStructuralCover(a, in, structuralCover, result);
+            return result;
+        });
+        checkCovers(dfa, view, (a, in) -> {
+            final List<Word<Integer>> result = new ArrayList<>();
+            Covers.incrementalCover(a, in, stateCover, transCover, result, result);
+            return result;
+        });
+        checkCovers(dfa, view, (a, in) -> Lists.newArrayList(Covers.incrementalStateCoverIterator(a, in, stateCover)));
+        checkCovers(dfa,
+                    view,
+                    (a, in) -> Lists.newArrayList(Covers.incrementalTransitionCoverIterator(a, in, transCover)));
+    }
+
+    /**
+     * Compares the incremental covers of the array-based and the mapping-based cover computation for randomly modified
+     * automata, whose previous transition covers may contain transitions of states that are not (yet) reached.
+     */
+    @Test
+    public void testRandomIncrementalCovers() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+
+        for (int run = 0; run < 100; run++) {
+            final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, 10, alphabet, false);
+            final DFA<Integer, Integer> view = new StateIDsHidingView<>(dfa);
+
+            final List<Word<Integer>> transCover = new ArrayList<>();
+            Covers.transitionCover(dfa, alphabet, transCover);
+
+            // old covers are not necessarily ordered (or complete)
+            Collections.shuffle(transCover, random);
+            transCover.subList(0, random.nextInt(transCover.size() / 2)).clear();
+
+            for (int i = 0; i < 5; i++) {
+                dfa.setTransition(random.nextInt(dfa.size()),
+                                  random.nextInt(alphabet.size()),
+                                  random.nextInt(dfa.size()));
+            }
+
+            final List<Word<Integer>> newTransCover = checkCovers(dfa, view, (a, in) -> {
+                final List<Word<Integer>> result = new ArrayList<>();
+                Covers.incrementalTransitionCover(a, in, transCover, result);
+                return result;
+            });
+            Assert.assertEquals(new HashSet<>(newTransCover).size(), newTransCover.size());
+
+            checkCovers(dfa, view, (a, in) -> {
+                final List<Word<Integer>> newStates = new ArrayList<>();
+                final List<Word<Integer>> newTransitions = new ArrayList<>();
+                Covers.incrementalCover(a, in, Collections.emptyList(), transCover, newStates, newTransitions);
+                Assert.assertEquals(new HashSet<>(newStates).size(), newStates.size());
+                Assert.assertEquals(new HashSet<>(newTransitions).size(), newTransitions.size());
+
+                final List<Word<Integer>> result = new ArrayList<>(newStates);
+                result.addAll(newTransitions);
+                return result;
+            });
+        }
+    }
+
+    private static <I> List<Word<I>> checkCovers(DFA<Integer, I> dfa,
+                                                 DFA<Integer, I> view,
+                                                 BiFunction<DFA<Integer, I>, Alphabet<I>, List<Word<I>>> cover) {
+        final Alphabet<I> alphabet = ((CompactDFA<I>) dfa).getInputAlphabet();
+        final List<Word<I>> result = cover.apply(dfa, alphabet);
+        Assert.assertEquals(result, cover.apply(view, alphabet));
+        return result;
+    }
+
     private static <S, I> void testStateCover(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,
                                               Collection<Word<I>> cover) {
 
@@ -177,4 +306,41 @@ public class CoversTest {
 
         Assert.assertTrue(transitions.isEmpty());
     }
+
+    /**
+     * A view on a {@link CompactDFA} that does not expose its (native) state IDs.
+     */
+    private static final class StateIDsHidingView<I> implements DFA<Integer, I> {
+
+        private final CompactDFA<I> delegate;
+
+        StateIDsHidingView(CompactDFA<I> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Collection<Integer> getStates() {
+            return delegate.getStates();
+        }
+
+        @Override
+        public @Nullable Integer getInitialState() {
+            return delegate.getInitialState();
+        }
+
+        @Override
+        public boolean isAccepting(Integer state) {
+            return delegate.isAccepting(state);
+        }
+
+        @Override
+        public @Nullable Integer getTransition(Integer state, I input) {
+            return delegate.getTransition(state, input);
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return delegate.iterator();
+        }
+    }
 }
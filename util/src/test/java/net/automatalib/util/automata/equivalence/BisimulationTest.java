@@ -17,9 +17,11 @@ package net.automatalib.util.automata.equivalence;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 import net.automatalib.automata.Automaton;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
 import net.automatalib.commons.util.Pair;
 import net.automatalib.ts.modal.CompactMTS;
 import net.automatalib.words.Alphabet;
@@ -79,6 +81,156 @@ public class BisimulationTest {
         Assert.assertFalse(equivalentStates.contains(Pair.of(as0, bs0)));
     }
 
+    /**
+     * The classic example of two trace-equivalent but non-bisimilar systems: a.(b + c) vs. a.b + a.c.
+     */
+    @Test
+    public void bisimTestBranching() {
+
+        final Alphabet<String> alphabet = Alphabets.closedCharStringRange('a', 'c');
+        final CompactMTS<String> a = new CompactMTS<>(alphabet);
+        final CompactMTS<String> b = new CompactMTS<>(alphabet);
+
+        final Integer as0 = a.addInitialState();
+        final Integer as1 = a.addState();
+        final Integer as2 = a.addState();
+
+        a.addTransition(as0, "a", as1, null);
+        a.addTransition(as1, "b", as2, null);
+        a.addTransition(as1, "c", as2, null);
+
+        final Integer bs0 = b.addInitialState();
+        final Integer bs1 = b.addState();
+        final Integer bs2 = b.addState();
+        final Integer bs3 = b.addState();
+
+        b.addTransition(bs0, "a", bs1, null);
+        b.addTransition(bs0, "a", bs2, null);
+        b.addTransition(bs1, "b", bs3, null);
+        b.addTransition(bs2, "c", bs3, null);
+
+        final Set<Pair<Integer, Integer>> equivalentStates =
+                Bisimulation.bisimulationEquivalenceRelation(a, b, alphabet);
+
+        Assert.assertFalse(equivalentStates.contains(Pair.of(as0, bs0)));
+        Assert.assertFalse(equivalentStates.contains(Pair.of(as1, bs1)));
+        Assert.assertFalse(equivalentStates.contains(Pair.of(as1, bs2)));
+        Assert.assertTrue(equivalentStates.contains(Pair.of(as2, bs3)));
+        Assert.assertEquals(equivalentStates.size(), 1);
+    }
+
+    /**
+     * Checks that an unfolding of a random nondeterministic system (in which each state is duplicated and each
+     * transition targets a random copy of its original target) is bisimilar to the original system.
+     */
+    @Test
+    public void bisimTestUnfolding() {
+
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final int size = 1000;
+        final int copies = 3;
+
+        final CompactNFA<Integer> a = new CompactNFA<>(alphabet, size);
+        final CompactNFA<Integer> b = new CompactNFA<>(alphabet, size * copies);
+
+        for (int i = 0; i < size; i++) {
+            a.addIntState(false);
+        }
+        for (int i = 0; i < size * copies; i++) {
+            b.addIntState(false);
+        }
+
+        for (int s = 0; s < size; s++) {
+            for (int i = 0; i < alphabet.size(); i++) {
+                final int numSuccs = random.nextInt(3);
+                for (int j = 0; j < numSuccs; j++) {
+                    final int succ = random.nextInt(size);
+                    a.addTransition(s, i, succ);
+                    for (int c = 0; c < copies; c++) {
+                        b.addTransition(c * size + s, i, random.nextInt(copies) * size + succ);
+                    }
+                }
+            }
+        }
+
+        final Set<Pair<Integer, Integer>> equivalentStates =
+                Bisimulation.bisimulationEquivalenceRelation(a, b, alphabet);
+
+        for (int s = 0; s < size; s++) {
+            for (int c = 0; c < copies; c++) {
+                Assert.assertTrue(equivalentStates.contains(Pair.of(s, c * size + s)));
+            }
+        }
+
+        Assert.assertTrue(isBisimulation(equivalentStates, a, b, alphabet));
+
+        // additional transitions of a single copy may destroy the bisimilarity of (some of) its predecessors
+        final int state = random.nextInt(size);
+        b.addTransition(state, 0, size - 1);
+        b.addTransition(state, 1, size - 1);
+        b.addTransition(state, 2, size - 1);
+
+        final Set<Pair<Integer, Integer>> newEquivalentStates =
+                Bisimulation.bisimulationEquivalenceRelation(a, b, alphabet);
+
+        Assert.assertTrue(isBisimulation(newEquivalentStates, a, b, alphabet));
+        Assert.assertTrue(equivalentStates.containsAll(newEquivalentStates));
+    }
+
+    /**
+     * Checks that long chains, which require a linear number of refinement steps, are handled efficiently.
+     */
+    @Test(timeOut = 30000)
+    public void bisimTestLongChain() {
+
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 0);
+        final int size = 200_000;
+
+        final CompactNFA<Integer> a = new CompactNFA<>(alphabet, size);
+        final CompactNFA<Integer> b = new CompactNFA<>(alphabet, size);
+
+        for (int i = 0; i < size; i++) {
+            a.addIntState(false);
+            b.addIntState(false);
+        }
+        for (int i = 0; i < size - 1; i++) {
+            a.addTransition(i, 0, i + 1);
+            b.addTransition(i, 0, i + 1);
+        }
+
+        final Set<Pair<Integer, Integer>> equivalentStates =
+                Bisimulation.bisimulationEquivalenceRelation(a, b, alphabet);
+
+        Assert.assertEquals(equivalentStates.size(), size);
+        for (int i = 0; i < size; i++) {
+            Assert.assertTrue(equivalentStates.contains(Pair.of(i, i)));
+        }
+    }
+
+    private static <I> boolean isBisimulation(Set<Pair<Integer, Integer>> relation,
+                                              CompactNFA<I> a,
+                                              CompactNFA<I> b,
+                                              Collection<I> inputs) {
+        for (Pair<Integer, Integer> p : relation) {
+            final Integer s1 = p.getFirst();
+            final Integer s2 = p.getSecond();
+            for (I i : inputs) {
+                for (Integer succ1 : a.getSuccessors(s1, i)) {
+                    if (b.getSuccessors(s2, i).stream().noneMatch(succ2 -> relation.contains(Pair.of(succ1, succ2)))) {
+                        return false;
+                    }
+                }
+                for (Integer succ2 : b.getSuccessors(s2, i)) {
+                    if (a.getSuccessors(s1, i).stream().noneMatch(succ1 -> relation.contains(Pair.of(succ1, succ2)))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
     private static <AS, I, AT, A extends Automaton<AS, I, AT>, BS, BT, B extends Automaton<BS, I, BT>> boolean testBisimulationEquivalence(
             A a,
             B b,
@@ -17,12 +17,15 @@ package net.automatalib.util.automata.equivalence;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
+import java.util.Set;
 
 import net.automatalib.automata.UniversalDeterministicAutomaton;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
 import net.automatalib.util.automata.Automata;
 import net.automatalib.util.automata.builders.AutomatonBuilders;
@@ -79,6 +82,66 @@ public class CharacterizingSetsTest {
         checkCharacterizingSet(MEALY, state, characterizingSet);
     }
 
+    @Test
+    public void splittingTreeDFATest() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            final List<Word<Integer>> characterizingSet = new ArrayList<>();
+            SplittingTreeCharacterizingSets.findCharacterizingSet(DFA, INPUT_ALPHABET, characterizingSet, parallel);
+
+            checkCharacterizingSet(DFA, characterizingSet);
+        }
+    }
+
+    @Test
+    public void splittingTreeMealyTest() {
+        for (boolean parallel : new boolean[] {false, true}) {
+            final List<Word<Integer>> characterizingSet = new ArrayList<>();
+            SplittingTreeCharacterizingSets.findCharacterizingSet(MEALY, INPUT_ALPHABET, characterizingSet, parallel);
+
+            checkCharacterizingSet(MEALY, characterizingSet);
+        }
+    }
+
+    @Test
+    public void splittingTreeLargeMealyTest() {
+        final Random random = new Random(42);
+        final CompactMealy<Integer, Character> mealy =
+                RandomAutomata.randomMealy(random, 300, INPUT_ALPHABET, Alphabets.characters('a', 'b'));
+
+        final List<Word<Integer>> sequential = new ArrayList<>();
+        final List<Word<Integer>> parallel = new ArrayList<>();
+        SplittingTreeCharacterizingSets.findCharacterizingSet(mealy, INPUT_ALPHABET, sequential, false);
+        SplittingTreeCharacterizingSets.findCharacterizingSet(mealy, INPUT_ALPHABET, parallel, true);
+
+        Assert.assertEquals(parallel, sequential);
+        checkCharacterizingSet(mealy, sequential);
+    }
+
+    /**
+     * Uses an automaton that is large enough for the parallel computation to be used (instead of its sequential
+     * fallback) and compares its result with the sequential computation and the regular characterizing set.
+     */
+    @Test
+    public void splittingTreeParallelTest() {
+        final Random random = new Random(42);
+        final CompactMealy<Integer, Character> mealy =
+                RandomAutomata.randomMealy(random, 5000, INPUT_ALPHABET, Alphabets.characters('a', 'b'));
+        Assert.assertTrue(mealy.size() > 4096);
+
+        final List<Word<Integer>> sequential = new ArrayList<>();
+        final List<Word<Integer>> parallel = new ArrayList<>();
+        final List<Word<Integer>> regular = new ArrayList<>();
+        SplittingTreeCharacterizingSets.findCharacterizingSet(mealy, INPUT_ALPHABET, sequential, false);
+        SplittingTreeCharacterizingSets.findCharacterizingSet(mealy, INPUT_ALPHABET, parallel, true);
+        CharacterizingSets.findCharacterizingSet(mealy, INPUT_ALPHABET, regular);
+
+        Assert.assertEquals(parallel, sequential);
+
+        // both characterizing sets need to distinguish all states of the (minimal) automaton
+        Assert.assertEquals(countSignatures(mealy, parallel), mealy.size());
+        Assert.assertEquals(countSignatures(mealy, regular), mealy.size());
+    }
+
     /*
      * See https://github.com/LearnLib/automatalib/issues/36
      */
@@ -106,6 +169,22 @@ public class CharacterizingSetsTest {
 
         final List<Word<String>> characterizingSet = Automata.characterizingSet(machine, inputs);
         checkCharacterizingSet(machine, characterizingSet);
+
+        final List<Word<String>> splittingTreeSet = new ArrayList<>();
+        SplittingTreeCharacterizingSets.findCharacterizingSet(machine, inputs, splittingTreeSet);
+        checkCharacterizingSet(machine, splittingTreeSet);
+    }
+
+    private static <S, I, O> int countSignatures(MealyMachine<S, I, ?, O> mealy, Collection<Word<I>> words) {
+        final Set<List<Word<O>>> signatures = new HashSet<>();
+        for (final S s : mealy) {
+            final List<Word<O>> signature = new ArrayList<>(words.size());
+            for (final Word<I> w : words) {
+                signature.add(mealy.computeStateOutput(s, w));
+            }
+            signatures.add(signature);
+        }
+        return signatures.size();
     }
 
     private <S, I> void checkCharacterizingSet(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,
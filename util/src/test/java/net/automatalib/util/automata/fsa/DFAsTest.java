@@ -15,10 +15,20 @@
  */
 package net.automatalib.util.automata.fsa;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.util.automata.Automata;
+import net.automatalib.util.ts.acceptors.AcceptanceCombiner;
+import net.automatalib.util.ts.acceptors.Acceptors;
+import net.automatalib.util.ts.copy.TSCopy;
+import net.automatalib.util.ts.traversal.TSTraversal;
+import net.automatalib.util.ts.traversal.TSTraversalMethod;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
 import net.automatalib.words.impl.Alphabets;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
@@ -133,6 +143,70 @@ public class DFAsTest {
         Assert.assertTrue(DFAs.isPrefixClosed(forVector(false, false, false, false), testAlphabet));
     }
 
+    /**
+     * Compares the products of random partial DFAs (which exceed a single block of the product exploration) with the
+     * (explicitly copied) composition of both DFAs.
+     */
+    @Test
+    public void testRandomProducts() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final CompactDFA<Integer> dfa1 = randomPartialDFA(random, alphabet, 300);
+        final CompactDFA<Integer> dfa2 = randomPartialDFA(random, alphabet, 200);
+
+        for (AcceptanceCombiner combiner : Arrays.asList(AcceptanceCombiner.AND,
+                                                            AcceptanceCombiner.OR,
+                                                            AcceptanceCombiner.XOR,
+                                                            AcceptanceCombiner.EQUIV,
+                                                            AcceptanceCombiner.IMPL)) {
+            final CompactDFA<Integer> expected = new CompactDFA<>(alphabet);
+            TSCopy.copy(TSTraversalMethod.BREADTH_FIRST,
+                        Acceptors.combine(dfa1, dfa2, combiner),
+                        TSTraversal.NO_LIMIT,
+                        alphabet,
+                        expected);
+
+            final CompactDFA<Integer> sequential = DFAs.combine(dfa1, dfa2, alphabet, combiner);
+            final CompactDFA<Integer> parallel =
+                    DFAs.combine(dfa1, dfa2, alphabet, new CompactDFA<>(alphabet), combiner, true);
+
+            Assert.assertTrue(expected.size() > 1 << 14);
+            Assert.assertEquals(sequential.size(), expected.size());
+            Assert.assertEquals(parallel.size(), expected.size());
+
+            final WordBuilder<Integer> wb = new WordBuilder<>();
+            for (int i = 0; i < 1000; i++) {
+                wb.clear();
+                final int length = random.nextInt(20);
+                for (int j = 0; j < length; j++) {
+                    wb.append(random.nextInt(alphabet.size()));
+                }
+                final Word<Integer> word = wb.toWord();
+                Assert.assertEquals(sequential.accepts(word), expected.accepts(word));
+                Assert.assertEquals(parallel.accepts(word), expected.accepts(word));
+            }
+        }
+    }
+
+    private static CompactDFA<Integer> randomPartialDFA(Random random, Alphabet<Integer> alphabet, int size) {
+        final CompactDFA<Integer> result = new CompactDFA<>(alphabet, size);
+
+        result.addInitialState(random.nextBoolean());
+        for (int i = 1; i < size; i++) {
+            result.addState(random.nextBoolean());
+        }
+
+        for (int s = 0; s < size; s++) {
+            for (int i = 0; i < alphabet.size(); i++) {
+                if (random.nextInt(10) > 0) {
+                    result.setTransition(s, i, random.nextInt(size));
+                }
+            }
+        }
+
+        return result;
+    }
+
     @Test
     public void testAcceptsEmptyLanguage() {
         Assert.assertTrue(DFAs.acceptsEmptyLanguage(forVector(false)));
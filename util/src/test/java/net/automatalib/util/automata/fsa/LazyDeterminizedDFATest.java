@@ -0,0 +1,141 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.fsa;
+
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.util.automata.fsa.LazyDeterminizedDFA.CacheStatistics;
+import net.automatalib.util.automata.fsa.LazyDeterminizedDFA.Subset;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class LazyDeterminizedDFATest {
+
+    private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 2);
+
+    public void testAgainstDeterminize() {
+        final Random random = new Random(42);
+
+        for (int capacity : new int[] {2, 10, 1000}) {
+            final CompactNFA<Integer> nfa = RandomAutomata.randomNFA(random, 20, ALPHABET, 1.25, 0.3);
+            final CompactDFA<Integer> dfa = NFAs.determinize(nfa, ALPHABET, false, false);
+            final LazyDeterminizedDFA<Integer> lazy = new LazyDeterminizedDFA<>(nfa, ALPHABET, capacity);
+
+            for (int i = 0; i < 500; i++) {
+                final Word<Integer> word = randomWord(random, random.nextInt(20));
+                Assert.assertEquals(lazy.accepts(word), dfa.accepts(word));
+            }
+
+            Assert.assertEquals(lazy.getStates().size(), dfa.size());
+
+            final CacheStatistics stats = lazy.getCacheStatistics();
+            Assert.assertTrue(stats.getSize() <= capacity);
+            Assert.assertEquals(stats.getMaterializations() - stats.getEvictions(), stats.getSize());
+            Assert.assertTrue(stats.getHits() > 0);
+        }
+    }
+
+    public void testEviction() {
+        final CompactNFA<Integer> nfa = kthLastSymbol(10);
+        final LazyDeterminizedDFA<Integer> lazy = new LazyDeterminizedDFA<>(nfa, ALPHABET, 4);
+
+        final Word<Integer> word = Word.fromSymbols(1, 0, 1, 1, 0, 0, 1, 0, 1, 1, 1);
+        final Subset pred = lazy.getState(word);
+        Assert.assertNotNull(pred);
+        final Subset state = lazy.getSuccessor(pred, 0);
+
+        CacheStatistics stats = lazy.getCacheStatistics();
+        Assert.assertEquals(stats.getSize(), 4);
+        Assert.assertTrue(stats.getEvictions() > 0);
+        Assert.assertEquals(stats.getHits(), 0);
+
+        // repeating the last step is answered by the cache
+        lazy.resetCacheStatistics();
+        Assert.assertEquals(lazy.getSuccessor(pred, 0), state);
+        Assert.assertEquals(lazy.getCacheStatistics().getHits(), 1);
+
+        // the initial state has been evicted, but can still be used
+        final Subset init = lazy.getInitialState();
+        final Subset succ = lazy.getSuccessor(init, 1);
+        Assert.assertEquals(succ.getStateIds(), new int[] {0, 1});
+        Assert.assertEquals(lazy.getSuccessor(succ, 0), lazy.getState(Word.fromSymbols(1, 0)));
+
+        stats = lazy.getCacheStatistics();
+        Assert.assertEquals(stats.getMaterializations() - stats.getEvictions(), stats.getSize() - 4);
+        Assert.assertEquals(stats.getSize(), 4);
+    }
+
+    public void testLargeNFA() {
+        final Random random = new Random(42);
+        final int k = 40;
+        final CompactNFA<Integer> nfa = kthLastSymbol(k);
+        final LazyDeterminizedDFA<Integer> lazy = new LazyDeterminizedDFA<>(nfa, ALPHABET, 1000);
+
+        for (int i = 0; i < 1000; i++) {
+            final Word<Integer> word = randomWord(random, k + random.nextInt(20));
+            Assert.assertEquals(lazy.accepts(word), word.getSymbol(word.length() - k) == 1);
+        }
+
+        Assert.assertEquals(lazy.getCacheStatistics().getSize(), 1000);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new LazyDeterminizedDFA<>(kthLastSymbol(2), ALPHABET, 1);
+    }
+
+    /**
+     * Returns an NFA accepting all words whose {@code k}-th last symbol is 1.
+     */
+    private static CompactNFA<Integer> kthLastSymbol(int k) {
+        final CompactNFA<Integer> nfa = new CompactNFA<>(ALPHABET);
+
+        final int init = nfa.addIntState(false);
+        nfa.setInitial(init, true);
+        for (int i = 0; i < ALPHABET.size(); i++) {
+            nfa.addTransition(init, i, init);
+        }
+
+        int prev = nfa.addIntState(k == 1);
+        nfa.addTransition(init, 1, prev);
+
+        for (int j = 2; j <= k; j++) {
+            final int next = nfa.addIntState(j == k);
+            for (int i = 0; i < ALPHABET.size(); i++) {
+                nfa.addTransition(prev, i, next);
+            }
+            prev = next;
+        }
+
+        return nfa;
+    }
+
+    private static Word<Integer> randomWord(Random random, int length) {
+        final WordBuilder<Integer> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(random.nextInt(ALPHABET.size()));
+        }
+        return wb.toWord();
+    }
+}
@@ -15,10 +15,16 @@
  */
 package net.automatalib.util.automata.fsa;
 
+import java.util.Random;
+
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.minimizer.bisimulation.BisimulationMinimization;
+import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
 import net.automatalib.words.impl.Alphabets;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -45,4 +51,260 @@ public class NFAsTest {
 
         Assert.assertEquals(dfa.size(), 2);
     }
+
+    public void testDeterminizeKthLastSymbol() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+        final int k = 10;
+        final CompactNFA<Integer> nfa = kthLastSymbol(alphabet, k, false);
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            // all 2^k subsets containing the initial state are reachable, and pairwise inequivalent
+            final CompactDFA<Integer> dfa = NFAs.determinize(nfa, alphabet, true, false, parallel);
+            Assert.assertEquals(dfa.size(), 1 << k);
+            Assert.assertEquals(NFAs.determinize(nfa, alphabet, false, true, parallel).size(), 1 << k);
+        }
+    }
+
+    public void testDeterminizeRandom() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+
+        for (int i = 0; i < 20; i++) {
+            final CompactNFA<Integer> nfa = RandomAutomata.randomNFA(random, 15, alphabet, 1.25, 0.3);
+
+            final CompactDFA<Integer> sequential = NFAs.determinize(nfa, alphabet, i % 2 == 0, false, false);
+            final CompactDFA<Integer> parallel = NFAs.determinize(nfa, alphabet, i % 2 == 0, false, true);
+
+            // both variants explore the subsets in the same order
+            Assert.assertEquals(parallel.size(), sequential.size());
+            for (int s = 0; s < sequential.size(); s++) {
+                Assert.assertEquals(parallel.isAccepting(s), sequential.isAccepting(s));
+                for (Integer in : alphabet) {
+                    Assert.assertEquals(parallel.getSuccessor(s, in), sequential.getSuccessor(s, in));
+                }
+            }
+
+            for (int j = 0; j < 100; j++) {
+                final Word<Integer> word = randomWord(random, alphabet, random.nextInt(15));
+                Assert.assertEquals(sequential.accepts(word), nfa.accepts(word));
+            }
+        }
+    }
+
+    public void testReduce() {
+        Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+
+        CompactNFA<Integer> nfa = new CompactNFA<>(alphabet);
+
+        // q1 and q2 are not bisimilar, but q2 simulates q1
+        int q0 = nfa.addInitialState(false);
+        int q1 = nfa.addState(false);
+        int q2 = nfa.addState(false);
+        int q3 = nfa.addState(true);
+
+        nfa.addTransition(q0, 0, q1);
+        nfa.addTransition(q0, 0, q2);
+        nfa.addTransition(q1, 1, q3);
+        nfa.addTransition(q2, 1, q3);
+        nfa.addTransition(q2, 0, q3);
+        nfa.addTransition(q3, 0, q3);
+
+        CompactNFA<Integer> reduced = NFAs.reduce(nfa);
+
+        Assert.assertEquals(BisimulationMinimization.minimizeNFA(nfa, alphabet).size(), 4);
+        Assert.assertEquals(reduced.size(), 3);
+        Assert.assertTrue(Automata.testEquivalence(NFAs.determinize(nfa), NFAs.determinize(reduced), alphabet));
+    }
+
+    public void testReduceRandom() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+
+        for (int i = 0; i < 30; i++) {
+            final double transitionDensity = 1.0 + random.nextDouble();
+            final CompactNFA<Integer> nfa = RandomAutomata.randomNFA(random, 30, alphabet, transitionDensity, 0.5);
+            final CompactNFA<Integer> reduced = NFAs.reduce(nfa);
+
+            Assert.assertTrue(reduced.size() <= nfa.size());
+            Assert.assertTrue(Automata.testEquivalence(NFAs.determinize(nfa),
+                                                       NFAs.determinize(reduced),
+                                                       alphabet));
+        }
+    }
+
+    public void testInclusion() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+        final int k = 12;
+
+        // words whose k-th last symbol is 1 vs. words of length at least k
+        final CompactNFA<Integer> kthLast = kthLastSymbol(alphabet, k, false);
+        final CompactNFA<Integer> atLeastK = kthLastSymbol(alphabet, k, true);
+
+        for (boolean useSimulation : new boolean[] {false, true}) {
+            Assert.assertNull(NFAs.findInclusionCounterexample(kthLast, atLeastK, alphabet, useSimulation));
+
+            final Word<Integer> ce = NFAs.findInclusionCounterexample(atLeastK, kthLast, alphabet, useSimulation);
+            Assert.assertNotNull(ce);
+            Assert.assertTrue(atLeastK.accepts(ce));
+            Assert.assertFalse(kthLast.accepts(ce));
+
+            final Word<Integer> sep = NFAs.findSeparatingWord(kthLast, atLeastK, alphabet, useSimulation);
+            Assert.assertNotNull(sep);
+            Assert.assertNotEquals(kthLast.accepts(sep), atLeastK.accepts(sep));
+
+            Assert.assertNull(NFAs.findSeparatingWord(kthLast, NFAs.reduce(kthLast), alphabet, useSimulation));
+        }
+
+        Assert.assertTrue(NFAs.testInclusion(kthLast, atLeastK, alphabet));
+        Assert.assertFalse(NFAs.testInclusion(atLeastK, kthLast, alphabet));
+        Assert.assertFalse(NFAs.testEquivalence(kthLast, atLeastK, alphabet));
+    }
+
+    public void testUniversality() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+        final int k = 8;
+
+        // words whose k-th last symbol is 1, words of length at least k, and words of length less than k
+        final CompactNFA<Integer> nfa = kthLastSymbol(alphabet, k, false);
+        final int init = nfa.addIntState(true);
+        nfa.setInitial(init, true);
+        int prev = init;
+        for (int i = 1; i < k; i++) {
+            final int next = nfa.addIntState(true);
+            nfa.addTransition(prev, 0, next);
+            nfa.addTransition(prev, 1, next);
+            prev = next;
+        }
+
+        for (boolean useSimulation : new boolean[] {false, true}) {
+            final Word<Integer> ce = NFAs.findRejectedWord(nfa, alphabet, useSimulation);
+            Assert.assertNotNull(ce);
+            Assert.assertFalse(nfa.accepts(ce));
+        }
+
+        // additionally accept words whose k-th last symbol is 0
+        final int zero = nfa.addIntState(false);
+        nfa.addTransition(0, 0, zero);
+        final int[] chain = new int[k];
+        chain[0] = zero;
+        for (int i = 1; i < k; i++) {
+            chain[i] = nfa.addIntState(i == k - 1);
+            nfa.addTransition(chain[i - 1], 0, chain[i]);
+            nfa.addTransition(chain[i - 1], 1, chain[i]);
+        }
+
+        for (boolean useSimulation : new boolean[] {false, true}) {
+            Assert.assertNull(NFAs.findRejectedWord(nfa, alphabet, useSimulation));
+        }
+        Assert.assertTrue(NFAs.isUniversal(nfa, alphabet));
+    }
+
+    public void testAntichainsRandom() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+
+        for (int i = 0; i < 50; i++) {
+            final CompactNFA<Integer> nfa1 = RandomAutomata.randomNFA(random, 10, alphabet, 1.5, 0.3);
+            final CompactNFA<Integer> nfa2 = RandomAutomata.randomNFA(random, 10, alphabet, 1.5, 0.3);
+
+            // a super-set of the language of nfa1
+            final CompactNFA<Integer> nfa3 = nfa1.translate(alphabet);
+            for (int j = 0; j < 5; j++) {
+                nfa3.addTransition(random.nextInt(nfa3.size()), random.nextInt(2), random.nextInt(nfa3.size()));
+            }
+
+            final CompactDFA<Integer> dfa1 = NFAs.determinize(nfa1);
+            final CompactDFA<Integer> dfa2 = NFAs.determinize(nfa2);
+            final CompactDFA<Integer> dfa3 = NFAs.determinize(nfa3);
+
+            for (boolean useSimulation : new boolean[] {false, true}) {
+                final Word<Integer> inclusionCE = NFAs.findInclusionCounterexample(nfa1, nfa2, alphabet, useSimulation);
+                if (inclusionCE == null) {
+                    Assert.assertTrue(Automata.testEquivalence(dfa1, DFAs.and(dfa1, dfa2, alphabet), alphabet));
+                } else {
+                    Assert.assertTrue(nfa1.accepts(inclusionCE));
+                    Assert.assertFalse(nfa2.accepts(inclusionCE));
+                }
+
+                Assert.assertNull(NFAs.findInclusionCounterexample(nfa1, nfa3, alphabet, useSimulation));
+
+                final Word<Integer> sepWord = NFAs.findSeparatingWord(nfa2, nfa3, alphabet, useSimulation);
+                if (sepWord == null) {
+                    Assert.assertTrue(Automata.testEquivalence(dfa2, dfa3, alphabet));
+                } else {
+                    Assert.assertNotEquals(nfa2.accepts(sepWord), nfa3.accepts(sepWord));
+                }
+
+                final Word<Integer> rejected = NFAs.findRejectedWord(nfa3, alphabet, useSimulation);
+                if (rejected == null) {
+                    Assert.assertTrue(dfa3.getStates().stream().allMatch(dfa3::isAccepting));
+                } else {
+                    Assert.assertFalse(nfa3.accepts(rejected));
+                }
+            }
+        }
+    }
+
+    /**
+     * Simulation-based subsumption allows to check the equivalence of structurally similar NFAs without exploring
+     * their (exponential) subset constructions.
+     */
+    @Test(timeOut = 30000)
+    public void testAntichainsWithSimulation() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+        final int k = 200;
+
+        final CompactNFA<Integer> nfa1 = kthLastSymbol(alphabet, k, false);
+        final CompactNFA<Integer> nfa2 = kthLastSymbol(alphabet, k, false);
+
+        // add a redundant copy of the initial state to nfa2
+        final int copy = nfa2.addIntState(false);
+        nfa2.setInitial(copy, true);
+        nfa2.addTransition(copy, 0, copy);
+        nfa2.addTransition(copy, 1, copy);
+        nfa2.addTransition(copy, 1, 1);
+
+        Assert.assertNull(NFAs.findSeparatingWord(nfa1, nfa2, alphabet, true));
+
+        nfa2.setAccepting(k - 1, true);
+        final Word<Integer> ce = NFAs.findSeparatingWord(nfa1, nfa2, alphabet, true);
+        Assert.assertNotNull(ce);
+        Assert.assertNotEquals(nfa1.accepts(ce), nfa2.accepts(ce));
+    }
+
+    /**
+     * Returns an NFA accepting all words whose {@code k}-th last symbol is 1 (or an arbitrary symbol, if {@code
+     * anySymbol} is set), whose minimal DFA has exponentially many states.
+     */
+    private static CompactNFA<Integer> kthLastSymbol(Alphabet<Integer> alphabet, int k, boolean anySymbol) {
+        final CompactNFA<Integer> nfa = new CompactNFA<>(alphabet);
+
+        final int init = nfa.addIntState(false);
+        nfa.setInitial(init, true);
+        nfa.addTransition(init, 0, init);
+        nfa.addTransition(init, 1, init);
+
+        int prev = nfa.addIntState(k == 1);
+        nfa.addTransition(init, 1, prev);
+        if (anySymbol) {
+            nfa.addTransition(init, 0, prev);
+        }
+
+        for (int i = 2; i <= k; i++) {
+            final int next = nfa.addIntState(i == k);
+            nfa.addTransition(prev, 0, next);
+            nfa.addTransition(prev, 1, next);
+            prev = next;
+        }
+
+        return nfa;
+    }
+
+    private static <I> Word<I> randomWord(Random random, Alphabet<I> alphabet, int length) {
+        final WordBuilder<I> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+        }
+        return wb.toWord();
+    }
 }
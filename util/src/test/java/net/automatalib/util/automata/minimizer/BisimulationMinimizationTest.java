@@ -0,0 +1,142 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.minimizer;
+
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.ts.modal.CompactMTS;
+import net.automatalib.ts.modal.transition.ModalEdgeProperty.ModalType;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.fsa.NFAs;
+import net.automatalib.util.automata.minimizer.bisimulation.BisimulationMinimization;
+import net.automatalib.util.ts.modal.MTSUtil;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BisimulationMinimizationTest {
+
+    private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 2);
+
+    @Test
+    public void testRandomNFAs() {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 20; i++) {
+            final CompactNFA<Integer> nfa = randomNFA(random, 20 + random.nextInt(30));
+            final CompactNFA<Integer> minimized = BisimulationMinimization.minimizeNFA(nfa, ALPHABET);
+
+            Assert.assertTrue(minimized.size() <= nfa.size());
+            assertLanguageEquivalent(nfa, minimized);
+
+            // the quotient is already minimal w.r.t. bisimulation
+            Assert.assertEquals(BisimulationMinimization.minimizeNFA(minimized, ALPHABET).size(), minimized.size());
+        }
+    }
+
+    @Test
+    public void testUnfoldedNFA() {
+        final Random random = new Random(1337);
+        final int size = 50;
+        final int copies = 4;
+
+        final CompactNFA<Integer> nfa = randomNFA(random, size);
+        final CompactNFA<Integer> minimized = BisimulationMinimization.minimizeNFA(nfa, ALPHABET);
+
+        // each state is duplicated, and each transition targets a random copy of its original target
+        final CompactNFA<Integer> unfolded = new CompactNFA<>(ALPHABET, size * copies);
+        for (int c = 0; c < copies; c++) {
+            for (int s = 0; s < size; s++) {
+                unfolded.addIntState(nfa.isAccepting(s));
+            }
+        }
+        for (Integer init : nfa.getInitialStates()) {
+            unfolded.setInitial(init, true);
+        }
+        for (int c = 0; c < copies; c++) {
+            for (int s = 0; s < size; s++) {
+                for (int i = 0; i < ALPHABET.size(); i++) {
+                    for (Integer succ : nfa.getSuccessors(s, i)) {
+                        unfolded.addTransition(c * size + s, i, random.nextInt(copies) * size + succ);
+                    }
+                }
+            }
+        }
+
+        final CompactNFA<Integer> unfoldedMinimized = BisimulationMinimization.minimizeNFA(unfolded, ALPHABET);
+
+        Assert.assertEquals(unfoldedMinimized.size(), minimized.size());
+        assertLanguageEquivalent(unfolded, unfoldedMinimized);
+    }
+
+    @Test
+    public void testMTS() {
+        final Alphabet<String> alphabet = Alphabets.closedCharStringRange('a', 'b');
+        final CompactMTS<String> mts = new CompactMTS<>(alphabet);
+
+        final Integer s0 = mts.addInitialState();
+        final Integer s1 = mts.addState();
+        final Integer s2 = mts.addState();
+        final Integer s3 = mts.addState();
+        final Integer s4 = mts.addState();
+
+        // s1 and s2 are bisimilar, s3 and s4 are not (due to their modalities)
+        mts.addModalTransition(s0, "a", s1, ModalType.MUST);
+        mts.addModalTransition(s0, "a", s2, ModalType.MUST);
+        mts.addModalTransition(s1, "b", s3, ModalType.MAY);
+        mts.addModalTransition(s2, "b", s3, ModalType.MAY);
+        mts.addModalTransition(s0, "b", s4, ModalType.MAY);
+        mts.addModalTransition(s3, "a", s3, ModalType.MAY);
+        mts.addModalTransition(s4, "a", s4, ModalType.MUST);
+
+        final CompactMTS<String> minimized =
+                BisimulationMinimization.minimizeUniversal(mts, alphabet, new CompactMTS.Creator<>());
+
+        Assert.assertEquals(minimized.size(), 4);
+        Assert.assertTrue(MTSUtil.isRefinementOf(mts, minimized, alphabet));
+        Assert.assertTrue(MTSUtil.isRefinementOf(minimized, mts, alphabet));
+    }
+
+    private static CompactNFA<Integer> randomNFA(Random random, int size) {
+        final CompactNFA<Integer> nfa = new CompactNFA<>(ALPHABET, size);
+
+        nfa.addInitialState(random.nextBoolean());
+        for (int s = 1; s < size; s++) {
+            nfa.addIntState(random.nextInt(4) == 0);
+        }
+
+        for (int s = 0; s < size; s++) {
+            for (int i = 0; i < ALPHABET.size(); i++) {
+                final int numSuccs = random.nextInt(3);
+                for (int j = 0; j < numSuccs; j++) {
+                    // keep the automaton small to obtain equivalent states
+                    nfa.addTransition(s, i, random.nextInt(Math.min(size, 10)));
+                }
+            }
+        }
+
+        return nfa;
+    }
+
+    private static void assertLanguageEquivalent(CompactNFA<Integer> nfa1, CompactNFA<Integer> nfa2) {
+        final CompactDFA<Integer> dfa1 = NFAs.determinize(nfa1, ALPHABET);
+        final CompactDFA<Integer> dfa2 = NFAs.determinize(nfa2, ALPHABET);
+        Assert.assertTrue(Automata.testEquivalence(dfa1, dfa2, ALPHABET));
+    }
+}
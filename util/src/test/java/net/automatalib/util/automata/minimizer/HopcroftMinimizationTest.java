@@ -21,6 +21,7 @@ import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.automata.transducers.MutableMealyMachine;
 import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
 import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization.PruningMode;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization.RefinementMode;
 import net.automatalib.words.Alphabet;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Factory;
@@ -28,26 +29,39 @@ import org.testng.annotations.Factory;
 public class HopcroftMinimizationTest extends AbstractMinimizationTest {
 
     private final PruningMode pruningMode;
+    private final RefinementMode refinementMode;
 
-    @Factory(dataProvider = "pruningModes")
-    public HopcroftMinimizationTest(PruningMode pruningMode) {
+    @Factory(dataProvider = "modes")
+    public HopcroftMinimizationTest(PruningMode pruningMode, RefinementMode refinementMode) {
         this.pruningMode = pruningMode;
+        this.refinementMode = refinementMode;
     }
 
-    @DataProvider(name = "pruningModes")
-    public static Object[][] pruningModes() {
-        return new Object[][] {{PruningMode.PRUNE_BEFORE}, {PruningMode.PRUNE_AFTER}, {PruningMode.DONT_PRUNE}};
+    @DataProvider(name = "modes")
+    public static Object[][] modes() {
+        final PruningMode[] pruningModes = PruningMode.values();
+        final RefinementMode[] refinementModes = RefinementMode.values();
+        final Object[][] result = new Object[pruningModes.length * refinementModes.length][];
+
+        int i = 0;
+        for (PruningMode pm : pruningModes) {
+            for (RefinementMode rm : refinementModes) {
+                result[i++] = new Object[] {pm, rm};
+            }
+        }
+
+        return result;
     }
 
     @Override
     protected <I> DFA<?, I> minimizeDFA(MutableDFA<?, I> dfa, Alphabet<I> alphabet) {
-        return HopcroftMinimization.minimizeDFA(dfa, alphabet, this.pruningMode);
+        return HopcroftMinimization.minimizeDFA(dfa, alphabet, this.pruningMode, this.refinementMode);
     }
 
     @Override
     protected <I, O> MealyMachine<?, I, ?, O> minimizeMealy(MutableMealyMachine<?, I, ?, O> mealy,
                                                             Alphabet<I> alphabet) {
-        return HopcroftMinimization.minimizeMealy(mealy, alphabet, this.pruningMode);
+        return HopcroftMinimization.minimizeMealy(mealy, alphabet, this.pruningMode, this.refinementMode);
     }
 
     @Override
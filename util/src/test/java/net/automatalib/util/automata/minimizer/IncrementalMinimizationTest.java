@@ -0,0 +1,216 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.minimizer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.MutableDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.automata.transducers.MutableMealyMachine;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization.PruningMode;
+import net.automatalib.util.automata.minimizer.incremental.IncrementalMinimizer;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class IncrementalMinimizationTest extends AbstractMinimizationTest {
+
+    @Override
+    protected <I> DFA<?, I> minimizeDFA(MutableDFA<?, I> dfa, Alphabet<I> alphabet) {
+        return new IncrementalMinimizer<>(dfa, alphabet).getMinimized(new CompactDFA.Creator<>());
+    }
+
+    @Override
+    protected <I, O> MealyMachine<?, I, ?, O> minimizeMealy(MutableMealyMachine<?, I, ?, O> mealy,
+                                                            Alphabet<I> alphabet) {
+        return new IncrementalMinimizer<>(mealy, alphabet).getMinimized(new CompactMealy.Creator<>());
+    }
+
+    @Override
+    protected boolean isPruned() {
+        return true;
+    }
+
+    @Override
+    protected boolean supportsPartial() {
+        return true;
+    }
+
+    /**
+     * Simulates the growth of a hypothesis by adding new states and redirecting existing transitions, and compares the
+     * incrementally minimized automaton with a minimization from scratch after each modification.
+     */
+    @Test
+    public void testGrowingMealy() {
+        final Random random = new Random(42);
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final List<Character> outputs = Arrays.asList('x', 'y');
+        final CompactMealy<Character, Character> mealy = RandomAutomata.randomMealy(random, 10, alphabet, outputs);
+
+        final IncrementalMinimizer<Integer, Character, Void, Character> minimizer =
+                new IncrementalMinimizer<>(mealy, alphabet);
+
+        for (int round = 0; round < 100; round++) {
+            if (random.nextBoolean()) {
+                // add a new state reached from an existing one
+                final int newState = mealy.addIntState();
+                for (int i = 0; i < alphabet.size(); i++) {
+                    mealy.setTransition(newState,
+                                        i,
+                                        random.nextInt(mealy.size()),
+                                        outputs.get(random.nextInt(outputs.size())));
+                }
+                final int pred = random.nextInt(newState);
+                final int input = random.nextInt(alphabet.size());
+                mealy.setTransition(pred, input, newState, outputs.get(random.nextInt(outputs.size())));
+                minimizer.stateChanged(pred);
+            } else {
+                // redirect an existing transition
+                final int state = random.nextInt(mealy.size());
+                final int input = random.nextInt(alphabet.size());
+                mealy.setTransition(state,
+                                    input,
+                                    random.nextInt(mealy.size()),
+                                    outputs.get(random.nextInt(outputs.size())));
+                minimizer.stateChanged(state);
+            }
+
+            final CompactMealy<Character, Character> incremental = minimizer.getMinimized(new CompactMealy.Creator<>());
+            final CompactMealy<Character, Character> expected = HopcroftMinimization.minimizeMealy(mealy, alphabet);
+
+            Assert.assertEquals(incremental.size(), expected.size());
+            Assert.assertTrue(Automata.testEquivalence(incremental, expected, alphabet));
+        }
+    }
+
+    /**
+     * Repeatedly changes the state properties of existing states, which dissolves equivalence classes whose IDs are
+     * then reclaimed for new classes, and compares the (unpruned) number of classes with a minimization from scratch.
+     */
+    @Test
+    public void testReclaimedClasses() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, 30, alphabet, false);
+
+        final IncrementalMinimizer<Integer, Integer, Boolean, Void> minimizer =
+                new IncrementalMinimizer<>(dfa, alphabet);
+
+        for (int round = 0; round < 500; round++) {
+            final int state = random.nextInt(dfa.size());
+            if (random.nextBoolean()) {
+                dfa.setAccepting(state, !dfa.isAccepting(state));
+            } else {
+                dfa.setTransition(state, random.nextInt(alphabet.size()), random.nextInt(dfa.size()));
+            }
+            minimizer.stateChanged(state);
+
+            final CompactDFA<Integer> expected = HopcroftMinimization.minimizeDFA(dfa, PruningMode.DONT_PRUNE);
+            Assert.assertEquals(minimizer.getNumberOfClasses(), expected.size());
+
+            final CompactDFA<Integer> incremental = minimizer.getMinimized(new CompactDFA.Creator<>());
+            Assert.assertTrue(Automata.testEquivalence(incremental, dfa, alphabet));
+        }
+    }
+
+    /**
+     * Checks that new states are merged with each other if they are equivalent only because their successors have been
+     * identified with the same existing class.
+     */
+    @Test
+    public void testMergeNewBlocks() {
+        final Alphabet<Character> alphabet = Alphabets.singleton('a');
+        final CompactDFA<Character> dfa = new CompactDFA<>(alphabet);
+
+        final Integer init = dfa.addInitialState(true);
+        dfa.addTransition(init, 'a', init);
+
+        final IncrementalMinimizer<Integer, Character, Boolean, Void> minimizer =
+                new IncrementalMinimizer<>(dfa, alphabet);
+        minimizer.update();
+
+        final Integer a1 = dfa.addState(false);
+        final Integer a2 = dfa.addState(true);
+        final Integer a3 = dfa.addState(false);
+        final Integer u = dfa.addState(true);
+
+        dfa.addTransition(a1, 'a', a2);
+        dfa.addTransition(a2, 'a', init);
+        dfa.addTransition(a3, 'a', u);
+        dfa.addTransition(u, 'a', u);
+
+        Assert.assertTrue(minimizer.areEquivalent(a1, a3));
+        Assert.assertTrue(minimizer.areEquivalent(a2, init));
+        Assert.assertTrue(minimizer.areEquivalent(u, init));
+        Assert.assertEquals(minimizer.getNumberOfClasses(), 2);
+    }
+
+    /**
+     * Checks that newly added (tree-shaped) states, as they are added by typical learning algorithms, are identified
+     * with the existing equivalence classes.
+     */
+    @Test
+    public void testGrowingPartialDFA() {
+        final Random random = new Random(1337);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, 20, alphabet);
+        final CompactDFA<Integer> target = new CompactDFA<>(dfa);
+
+        final IncrementalMinimizer<Integer, Integer, Boolean, Void> minimizer =
+                new IncrementalMinimizer<>(dfa, alphabet);
+        final int expectedSize = HopcroftMinimization.minimizeDFA(target, alphabet).size();
+
+        Assert.assertEquals(minimizer.getNumberOfClasses(), expectedSize);
+
+        // unfold the target into additional copies of existing states, which must not change the minimal automaton
+        for (int round = 0; round < 50; round++) {
+            final int original = random.nextInt(target.size());
+            final int copy = dfa.addIntState(target.isAccepting(original));
+            for (int i = 0; i < alphabet.size(); i++) {
+                dfa.setTransition(copy, i, target.getSuccessor(original, i));
+            }
+
+            final int pred = random.nextInt(dfa.size() - 1);
+            final int input = random.nextInt(alphabet.size());
+            final int oldSucc = dfa.getSuccessor(pred, input);
+            if (!minimizer.areEquivalent(oldSucc, original)) {
+                continue;
+            }
+            dfa.setTransition(pred, input, copy);
+            minimizer.stateChanged(pred);
+
+            Assert.assertTrue(minimizer.areEquivalent(copy, original));
+            Assert.assertEquals(minimizer.getNumberOfClasses(), expectedSize);
+        }
+
+        // cut a transition of a copied state, which makes the automaton partial
+        final int state = dfa.size() - 1;
+        dfa.removeAllTransitions(state);
+        minimizer.stateChanged(state);
+
+        final CompactDFA<Integer> incremental = minimizer.getMinimized(new CompactDFA.Creator<>());
+        Assert.assertTrue(Automata.testEquivalence(incremental, dfa, alphabet));
+    }
+}
@@ -16,12 +16,18 @@
 package net.automatalib.util.automata.transducers;
 
 import java.util.Objects;
+import java.util.Random;
 
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
 import net.automatalib.commons.util.Pair;
 import net.automatalib.util.automata.builders.AutomatonBuilders;
+import net.automatalib.util.ts.copy.TSCopy;
+import net.automatalib.util.ts.transducers.Transducers;
+import net.automatalib.util.ts.traversal.TSTraversal;
+import net.automatalib.util.ts.traversal.TSTraversalMethod;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
 import net.automatalib.words.impl.Alphabets;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
@@ -74,6 +80,64 @@ public class MealyMachinesTest {
         Assert.assertEquals(undefinedOutput.size(), 2);
     }
 
+    /**
+     * Compares the products of random partial Mealy machines (which exceed a single block of the product exploration)
+     * with the (explicitly copied) composition of both machines.
+     */
+    @Test
+    public void testRandomProducts() {
+        final Random random = new Random(42);
+        final CompactMealy<Character, Integer> m1 = randomPartialMealy(random, 500);
+        final CompactMealy<Character, Integer> m2 = randomPartialMealy(random, 400);
+
+        final CompactMealy<Character, Pair<Integer, Integer>> expected = new CompactMealy<>(alphabet);
+        TSCopy.copy(TSTraversalMethod.BREADTH_FIRST,
+                    Transducers.combine(m1, m2),
+                    TSTraversal.NO_LIMIT,
+                    alphabet,
+                    expected);
+
+        final CompactMealy<Character, Pair<Integer, Integer>> sequential = MealyMachines.combine(m1, m2, alphabet);
+        final CompactMealy<Character, Pair<Integer, Integer>> parallel =
+                MealyMachines.combine(m1, m2, alphabet, new CompactMealy<>(alphabet), true);
+
+        Assert.assertTrue(expected.size() > 1 << 14);
+        Assert.assertEquals(sequential.size(), expected.size());
+        Assert.assertEquals(parallel.size(), expected.size());
+
+        final WordBuilder<Character> wb = new WordBuilder<>();
+        for (int i = 0; i < 1000; i++) {
+            wb.clear();
+            final int length = random.nextInt(20);
+            for (int j = 0; j < length; j++) {
+                wb.append(alphabet.getSymbol(random.nextInt(alphabet.size())));
+            }
+            final Word<Character> word = wb.toWord();
+            final Word<Pair<Integer, Integer>> output = expected.computeOutput(word);
+            Assert.assertEquals(sequential.computeOutput(word), output);
+            Assert.assertEquals(parallel.computeOutput(word), output);
+        }
+    }
+
+    private CompactMealy<Character, Integer> randomPartialMealy(Random random, int size) {
+        final CompactMealy<Character, Integer> result = new CompactMealy<>(alphabet, size);
+
+        result.addInitialState();
+        for (int i = 1; i < size; i++) {
+            result.addState();
+        }
+
+        for (int s = 0; s < size; s++) {
+            for (int i = 0; i < alphabet.size(); i++) {
+                if (random.nextInt(10) > 0) {
+                    result.setTransition(s, i, random.nextInt(size), random.nextInt(5));
+                }
+            }
+        }
+
+        return result;
+    }
+
     @Test
     public void testCompletion() {
         final CompactMealy<Character, Integer> completed = MealyMachines.complete(mealy1, alphabet, -1);
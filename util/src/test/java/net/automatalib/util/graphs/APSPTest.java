@@ -17,11 +17,15 @@ package net.automatalib.util.graphs;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import net.automatalib.graphs.base.compact.CompactEdge;
 import net.automatalib.graphs.base.compact.CompactSimpleGraph;
 import net.automatalib.graphs.concepts.EdgeWeights;
 import net.automatalib.util.graphs.apsp.APSPResult;
+import net.automatalib.util.graphs.apsp.BlockedFloydWarshallAPSP;
+import net.automatalib.util.graphs.apsp.FloydWarshallAPSP;
+import net.automatalib.util.graphs.apsp.JohnsonAPSP;
 import net.automatalib.util.graphs.concepts.PropertyEdgeWeights;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
@@ -59,8 +63,104 @@ public class APSPTest {
 
     @Test
     public void testAPSP() {
-        APSPResult<Integer, CompactEdge<Float>> apsp = Graphs.findAPSP(graph, weights);
+        checkAPSP(Graphs.findAPSP(graph, weights));
+    }
+
+    @Test
+    public void testFloydWarshallAPSP() {
+        checkAPSP(FloydWarshallAPSP.findAPSP(graph, weights));
+    }
+
+    @Test
+    public void testBlockedFloydWarshallAPSP() {
+        checkAPSP(BlockedFloydWarshallAPSP.findAPSP(graph, weights, false));
+        checkAPSP(BlockedFloydWarshallAPSP.findAPSP(graph, weights, true));
+    }
+
+    @Test
+    public void testJohnsonAPSP() {
+        checkAPSP(JohnsonAPSP.findAPSP(graph, weights, false));
+        checkAPSP(JohnsonAPSP.findAPSP(graph, weights, true));
+    }
+
+    /**
+     * Compares the different implementations on random graphs that span several blocks of the blocked Floyd-Warshall
+     * algorithm and contain negative edge weights (but no negative cycles). All weights are integers, so that the
+     * computed distances are exact.
+     */
+    @Test
+    public void testRandomGraphs() {
+        final Random random = new Random(42);
+
+        for (int size : new int[] {1, 2, 63, 64, 65, 150}) {
+            final CompactSimpleGraph<Float> g = new CompactSimpleGraph<>(size);
+            final int[] potential = new int[size];
+
+            for (int i = 0; i < size; i++) {
+                g.addIntNode();
+                potential[i] = random.nextInt(20);
+            }
+
+            for (int i = 0; i < 3 * size; i++) {
+                final int src = random.nextInt(size);
+                final int tgt = random.nextInt(size);
+                // the potential keeps the weight sums of all cycles non-negative
+                g.connect(src, tgt, Float.valueOf(random.nextInt(10) + potential[src] - potential[tgt]));
+            }
+
+            final EdgeWeights<CompactEdge<Float>> ew = new PropertyEdgeWeights<>(g);
+            final APSPResult<Integer, CompactEdge<Float>> expected = FloydWarshallAPSP.findAPSP(g, ew);
+
+            final List<APSPResult<Integer, CompactEdge<Float>>> results =
+                    Arrays.asList(BlockedFloydWarshallAPSP.findAPSP(g, ew, false),
+                                  BlockedFloydWarshallAPSP.findAPSP(g, ew, true),
+                                  JohnsonAPSP.findAPSP(g, ew, false),
+                                  JohnsonAPSP.findAPSP(g, ew, true));
+
+            for (APSPResult<Integer, CompactEdge<Float>> actual : results) {
+                for (int src = 0; src < size; src++) {
+                    for (int tgt = 0; tgt < size; tgt++) {
+                        final float dist = expected.getShortestPathDistance(src, tgt);
+                        Assert.assertEquals(actual.getShortestPathDistance(src, tgt), dist);
+
+                        final List<CompactEdge<Float>> path = actual.getShortestPath(src, tgt);
+                        if (dist == Graphs.INVALID_DISTANCE) {
+                            Assert.assertNull(path);
+                        } else {
+                            Assert.assertNotNull(path);
+                            final List<Integer> nodes = Graphs.toNodeList(path, g, src);
+                            Assert.assertEquals(nodes.get(nodes.size() - 1).intValue(), tgt);
+
+                            float sum = 0;
+                            int curr = src;
+                            for (CompactEdge<Float> e : path) {
+                                Assert.assertTrue(g.getOutgoingEdges(curr).contains(e));
+                                sum += ew.getEdgeWeight(e);
+                                curr = g.getTarget(e);
+                            }
+                            Assert.assertEquals(sum, dist);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testJohnsonNegativeCycle() {
+        final CompactSimpleGraph<Float> g = new CompactSimpleGraph<>();
+        final int n0 = g.addIntNode();
+        final int n1 = g.addIntNode();
+        final int n2 = g.addIntNode();
+
+        g.connect(n0, n1, Float.valueOf(1.0f));
+        g.connect(n1, n2, Float.valueOf(-3.0f));
+        g.connect(n2, n1, Float.valueOf(2.0f));
+
+        JohnsonAPSP.findAPSP(g, new PropertyEdgeWeights<>(g));
+    }
 
+    private void checkAPSP(APSPResult<Integer, CompactEdge<Float>> apsp) {
         assertSPDist(apsp, n0, n1, 2.3f); // n0 -> n1
         assertSPNodes(apsp, n0, n1, n0, n1);
         assertSPDist(apsp, n0, n2, 5.3f); // n0 -> n1 -> n2
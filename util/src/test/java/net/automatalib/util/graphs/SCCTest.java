@@ -15,12 +15,19 @@
  */
 package net.automatalib.util.graphs;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Sets;
+import net.automatalib.graphs.base.compact.CompactEdge;
 import net.automatalib.graphs.base.compact.CompactSimpleGraph;
+import net.automatalib.util.graphs.scc.SCCCollector;
+import net.automatalib.util.graphs.scc.TarjanSCCVisitor;
+import net.automatalib.util.graphs.traversal.GraphTraversal;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -279,7 +286,132 @@ public class SCCTest {
         Assert.assertEquals(computedSCCs, expectedSCCs);
     }
 
+    /**
+     * Compares the different algorithms on random graphs that are large enough to be decomposed by the parallel
+     * algorithm (instead of being delegated to its sequential fallback) and checks that the sequential algorithm
+     * reports the SCCs in reverse topological order.
+     */
+    @Test
+    public void testRandomGraphs() {
+        final Random random = new Random(42);
+
+        for (int size : new int[] {1, 10, 100, 5000, 20000}) {
+            for (int degree = 1; degree <= 3; degree++) {
+                final CompactSimpleGraph<Void> graph = new CompactSimpleGraph<>(size);
+
+                for (int i = 0; i < size; i++) {
+                    graph.addIntNode();
+                }
+                for (int i = 0; i < degree * size; i++) {
+                    // prefer edges to nearby nodes, which yields a mix of small and large SCCs
+                    final int src = random.nextInt(size);
+                    final int tgt = random.nextBoolean() ? random.nextInt(size) : (src + random.nextInt(3)) % size;
+                    graph.connect(src, tgt);
+                }
+
+                final Set<Set<Integer>> expected = computeTarjanSCCs(graph);
+                Assert.assertEquals(computeSCCs(graph), expected);
+
+                // reverse topological order: every edge leads to the same or an earlier SCC
+                final List<List<Integer>> sccs = Graphs.collectSCCs(graph);
+                final int[] position = new int[size];
+                for (int i = 0; i < sccs.size(); i++) {
+                    for (Integer n : sccs.get(i)) {
+                        position[n] = i;
+                    }
+                }
+                for (int n = 0; n < size; n++) {
+                    for (CompactEdge<Void> e : graph.getOutgoingEdges(n)) {
+                        Assert.assertTrue(position[graph.getTarget(e)] <= position[n]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that (very) deep graphs do not exhaust the call stack.
+     */
+    @Test
+    public void testLongCycle() {
+        final int size = 1_000_000;
+        final CompactSimpleGraph<Void> graph = new CompactSimpleGraph<>(size);
+
+        for (int i = 0; i < size; i++) {
+            graph.addIntNode();
+        }
+        for (int i = 0; i < size; i++) {
+            graph.connect(i, (i + 1) % size);
+        }
+        // an additional tail, which is not part of the cycle
+        final int tail = graph.addIntNode();
+        graph.connect(tail, 0);
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            final List<List<Integer>> sccs = Graphs.collectSCCs(graph, parallel);
+            Assert.assertEquals(sccs.size(), 2);
+            Assert.assertEquals(sccs.stream().mapToInt(List::size).sum(), size + 1);
+            Assert.assertTrue(sccs.contains(Collections.singletonList(tail)));
+        }
+    }
+
+    /**
+     * Checks that graphs with many small SCCs (which each pivot search of the parallel algorithm only removes a few
+     * nodes of) are still processed in linear time.
+     */
+    @Test(timeOut = 10000)
+    public void testManySmallSCCs() {
+        final int numCycles = 100_000;
+        final CompactSimpleGraph<Void> graph = new CompactSimpleGraph<>(2 * numCycles);
+
+        for (int i = 0; i < 2 * numCycles; i++) {
+            graph.addIntNode();
+        }
+        for (int i = 0; i < numCycles; i++) {
+            graph.connect(2 * i, 2 * i + 1);
+            graph.connect(2 * i + 1, 2 * i);
+            // connect the 2-cycles in a chain, so that they are not removed by trimming
+            if (i > 0) {
+                graph.connect(2 * i, 2 * i - 1);
+            }
+        }
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            final List<List<Integer>> sccs = Graphs.collectSCCs(graph, parallel);
+            Assert.assertEquals(sccs.size(), numCycles);
+            for (List<Integer> scc : sccs) {
+                Assert.assertEquals(scc.size(), 2);
+                Assert.assertEquals(Math.min(scc.get(0), scc.get(1)) % 2, 0);
+                Assert.assertEquals(Math.abs(scc.get(0) - scc.get(1)), 1);
+            }
+        }
+    }
+
     private Set<Set<Integer>> computeSCCs(CompactSimpleGraph<Void> graph) {
-        return Graphs.collectSCCs(graph).stream().map(HashSet::new).collect(Collectors.toSet());
+        final Set<Set<Integer>> sequential = toSets(Graphs.collectSCCs(graph));
+        final Set<Set<Integer>> parallel = toSets(Graphs.collectSCCs(graph, true));
+
+        Assert.assertEquals(parallel, sequential);
+        Assert.assertEquals(computeTarjanSCCs(graph), sequential);
+
+        return sequential;
+    }
+
+    private static Set<Set<Integer>> computeTarjanSCCs(CompactSimpleGraph<Void> graph) {
+        final SCCCollector<Integer> collector = new SCCCollector<>();
+        final TarjanSCCVisitor<Integer, CompactEdge<Void>> vis = new TarjanSCCVisitor<>(graph, collector);
+        for (Integer node : graph) {
+            if (!vis.hasVisited(node)) {
+                GraphTraversal.depthFirst(graph, node, vis);
+            }
+        }
+        return toSets(collector.getSCCList());
+    }
+
+    private static Set<Set<Integer>> toSets(List<List<Integer>> sccs) {
+        final Set<Set<Integer>> result = sccs.stream().map(HashSet::new).collect(Collectors.toSet());
+        // every node must be contained in exactly one SCC
+        Assert.assertEquals(result.size(), sccs.size());
+        return result;
     }
 }
@@ -17,12 +17,20 @@ package net.automatalib.util.graphs;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
+import net.automatalib.graphs.Graph;
+import net.automatalib.graphs.base.compact.CompactBidiEdge;
 import net.automatalib.graphs.base.compact.CompactEdge;
+import net.automatalib.graphs.base.compact.CompactSimpleBidiGraph;
 import net.automatalib.graphs.base.compact.CompactSimpleGraph;
 import net.automatalib.graphs.concepts.EdgeWeights;
 import net.automatalib.util.graphs.concepts.PropertyEdgeWeights;
+import net.automatalib.util.graphs.sssp.DialSSSP;
+import net.automatalib.util.graphs.sssp.DijkstraSSSP;
+import net.automatalib.util.graphs.sssp.IntDijkstraSSSP;
 import net.automatalib.util.graphs.sssp.SSSPResult;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -61,8 +69,118 @@ public class SSSPTest {
 
     @Test
     public void testSSSP() {
-        SSSPResult<Integer, CompactEdge<Float>> sssp = Graphs.findSSSP(graph, n0, weights);
+        checkSSSP(Graphs.findSSSP(graph, n0, weights));
+    }
+
+    @Test
+    public void testDijkstraSSSP() {
+        checkSSSP(DijkstraSSSP.findSSSP(graph, n0, weights));
+    }
+
+    @Test
+    public void testIntDijkstraSSSP() {
+        checkSSSP(IntDijkstraSSSP.findSSSP(graph, n0, weights));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDialSSSPNonIntegerWeights() {
+        DialSSSP.findSSSP(graph, n0, weights);
+    }
+
+    @Test
+    public void testPointToPoint() {
+        final Path<Integer, CompactEdge<Float>> path = Graphs.findShortestPath(graph, n0, n4, weights);
+        Assert.assertNotNull(path);
+        Assert.assertEquals(path.nodeList(), Arrays.asList(n0, n1, n3, n4));
+
+        final Path<Integer, CompactEdge<Float>> aStar = Graphs.findShortestPath(graph, n0, n4, weights, n -> 0);
+        Assert.assertNotNull(aStar);
+        Assert.assertEquals(aStar.nodeList(), Arrays.asList(n0, n1, n3, n4));
+
+        final Path<Integer, CompactEdge<Float>> empty = Graphs.findShortestPath(graph, n2, n2, weights);
+        Assert.assertNotNull(empty);
+        Assert.assertTrue(empty.isEmpty());
+
+        Assert.assertNull(Graphs.findShortestPath(graph, n0, n5, weights));
+        Assert.assertNull(Graphs.findShortestPath(graph, n0, n5, weights, n -> 0));
+    }
+
+    /**
+     * Compares the different implementations on random graphs with integer weights (including zero-weight edges), so
+     * that the computed distances are exact.
+     */
+    @Test
+    public void testRandomGraphs() {
+        final Random random = new Random(42);
+
+        for (int size : new int[] {1, 2, 10, 100, 500}) {
+            final CompactSimpleGraph<Float> g = new CompactSimpleGraph<>(size);
+            final CompactSimpleBidiGraph<Float> bidi = new CompactSimpleBidiGraph<>(size);
+
+            for (int i = 0; i < size; i++) {
+                g.addIntNode();
+                bidi.addIntNode();
+            }
+
+            for (int i = 0; i < 3 * size; i++) {
+                final int src = random.nextInt(size);
+                final int tgt = random.nextInt(size);
+                final Float weight = Float.valueOf(random.nextInt(20));
+                g.connect(src, tgt, weight);
+                bidi.connect(src, tgt, weight);
+            }
+
+            final EdgeWeights<CompactEdge<Float>> ew = new PropertyEdgeWeights<>(g);
+            final EdgeWeights<CompactBidiEdge<Float>> bidiEw = new PropertyEdgeWeights<>(bidi);
+
+            for (int i = 0; i < 5; i++) {
+                final int src = random.nextInt(size);
+                final SSSPResult<Integer, CompactEdge<Float>> expected = DijkstraSSSP.findSSSP(g, src, ew);
+                final List<SSSPResult<Integer, CompactEdge<Float>>> results =
+                        Arrays.asList(IntDijkstraSSSP.findSSSP(g, src, ew), DialSSSP.findSSSP(g, src, ew));
+
+                for (int tgt = 0; tgt < size; tgt++) {
+                    final float dist = expected.getShortestPathDistance(tgt);
+
+                    for (SSSPResult<Integer, CompactEdge<Float>> actual : results) {
+                        Assert.assertEquals(actual.getShortestPathDistance(tgt), dist);
+                        checkPath(g, ew, src, tgt, actual.getShortestPath(tgt), dist);
+                    }
+
+                    checkPath(g, ew, src, tgt, Graphs.findShortestPath(g, src, tgt, ew), dist);
+                    checkPath(g, ew, src, tgt, Graphs.findShortestPath(g, src, tgt, ew, n -> 0), dist);
+                    checkPath(bidi, bidiEw, src, tgt, Graphs.findShortestPath(bidi, src, tgt, bidiEw), dist);
+                }
+            }
+        }
+    }
+
+    private static <E> void checkPath(Graph<Integer, E> g,
+                                      EdgeWeights<E> ew,
+                                      int src,
+                                      int tgt,
+                                      @Nullable List<E> path,
+                                      float dist) {
+        if (dist == Graphs.INVALID_DISTANCE) {
+            Assert.assertNull(path);
+        } else {
+            Assert.assertNotNull(path);
+
+            float sum = 0;
+            int curr = src;
+            for (E e : path) {
+                Assert.assertTrue(g.getOutgoingEdges(curr).contains(e));
+                sum += ew.getEdgeWeight(e);
+                curr = g.getTarget(e);
+            }
+            Assert.assertEquals(curr, tgt);
+            Assert.assertEquals(sum, dist);
+        }
+    }
 
+    private void checkSSSP(SSSPResult<Integer, CompactEdge<Float>> sssp) {
+        assertSPDist(sssp, n0, 0.0f);
+        assertSPNodes(sssp, n0, n0);
         assertSPDist(sssp, n1, 2.3f); // n0 -> n1
         assertSPNodes(sssp, n1, n0, n1);
         assertSPDist(sssp, n2, 5.3f); // n0 -> n1 -> n2
@@ -72,6 +190,7 @@ public class SSSPTest {
         assertSPDist(sssp, n4, 10.3f); // n0 -> n1 -> n3 -> n4
         assertSPNodes(sssp, n4, n0, n1, n3, n4);
         assertSPDist(sssp, n5, Graphs.INVALID_DISTANCE);
+        Assert.assertNull(sssp.getShortestPath(n5));
     }
 
     private static <N> void assertSPDist(SSSPResult<N, ?> res, N tgt, float dist) {
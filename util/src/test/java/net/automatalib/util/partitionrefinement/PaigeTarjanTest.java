@@ -15,12 +15,17 @@
  */
 package net.automatalib.util.partitionrefinement;
 
+import java.util.Arrays;
+import java.util.Random;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
 import net.automatalib.util.automata.Automata;
 import net.automatalib.util.automata.builders.AutomatonBuilders;
 import net.automatalib.util.automata.equivalence.NearLinearEquivalenceTest;
 import net.automatalib.util.automata.minimizer.paigetarjan.PaigeTarjanMinimization;
+import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.impl.Alphabets;
 import org.testng.Assert;
@@ -163,4 +168,84 @@ public class PaigeTarjanTest {
         Assert.assertEquals(minimized.size(), expectedSize);
         Assert.assertEquals(Automata.testEquivalence(mealy, minimized, mealy.getInputAlphabet()), equivalent);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParallelRefinement() {
+        final Random random = new Random(42);
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+
+        final CompactDFA<Character> dfa = RandomAutomata.randomDFA(random, 2000, alphabet);
+        final CompactMealy<Character, Integer> mealy =
+                RandomAutomata.randomMealy(random, 2000, alphabet, Arrays.asList(0, 1));
+
+        // a chain of distinct states, which requires a linear number of refinement rounds
+        final CompactDFA<Character> chain = new CompactDFA<>(alphabet);
+        Integer prev = chain.addInitialState(false);
+        for (int i = 0; i < 200; i++) {
+            final Integer next = chain.addState(i == 199);
+            chain.addTransition(prev, 'a', next);
+            chain.addTransition(prev, 'b', prev);
+            chain.addTransition(prev, 'c', prev);
+            prev = next;
+        }
+        chain.addTransition(prev, 'a', prev);
+        chain.addTransition(prev, 'b', prev);
+        chain.addTransition(prev, 'c', prev);
+
+        for (boolean prune : new boolean[] {false, true}) {
+            testParallelRefinement(dfa, alphabet, AutomatonInitialPartitioning.BY_STATE_PROPERTY, prune);
+            testParallelRefinement(mealy, alphabet, AutomatonInitialPartitioning.BY_TRANSITION_PROPERTIES, prune);
+            testParallelRefinement(chain, alphabet, AutomatonInitialPartitioning.BY_STATE_PROPERTY, prune);
+        }
+    }
+
+    private static <I> void testParallelRefinement(UniversalDeterministicAutomaton<?, I, ?, ?, ?> automaton,
+                                                   Alphabet<I> alphabet,
+                                                   AutomatonInitialPartitioning ap,
+                                                   boolean prune) {
+        final PaigeTarjan sequential = new PaigeTarjan();
+        PaigeTarjanInitializers.initCompleteDeterministic(sequential,
+                                                          automaton.fullIntAbstraction(alphabet),
+                                                          ap,
+                                                          prune);
+        sequential.initWorklist(false);
+        sequential.computeCoarsestStablePartition();
+
+        final PaigeTarjan parallel = new PaigeTarjan();
+        PaigeTarjanInitializers.initCompleteDeterministic(parallel,
+                                                          automaton.fullIntAbstraction(alphabet),
+                                                          ap,
+                                                          prune);
+        parallel.computeCoarsestStablePartitionInParallel();
+
+        Assert.assertEquals(parallel.getNumBlocks(), sequential.getNumBlocks());
+
+        // the partitions must be equal up to the IDs of the blocks
+        final int[] blockMap = new int[sequential.getNumBlocks()];
+        Arrays.fill(blockMap, -1);
+
+        int numBlockStates = 0;
+        for (Block b : parallel.blockList()) {
+            Assert.assertFalse(b.isEmpty());
+            numBlockStates += b.size();
+
+            for (int i = b.low; i < b.high; i++) {
+                final int state = parallel.blockData[i];
+                Assert.assertEquals(parallel.posData[parallel.posDataLow + state], i);
+                Assert.assertSame(parallel.getBlockForState(state), b);
+
+                final int seqId = sequential.getBlockForState(state).id;
+                if (blockMap[seqId] < 0) {
+                    blockMap[seqId] = b.id;
+                }
+                Assert.assertEquals(blockMap[seqId], b.id);
+            }
+        }
+
+        int expectedStates = 0;
+        for (Block b : sequential.blockList()) {
+            expectedStates += b.size();
+        }
+        Assert.assertEquals(numBlockStates, expectedStates);
+    }
+}
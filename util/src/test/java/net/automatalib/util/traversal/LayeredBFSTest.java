@@ -0,0 +1,178 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.traversal;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.commons.util.Pair;
+import net.automatalib.graphs.base.compact.CompactEdge;
+import net.automatalib.graphs.base.compact.CompactSimpleGraph;
+import net.automatalib.ts.comp.DTSComposition;
+import net.automatalib.ts.comp.TSCompositions;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.util.graphs.Graphs;
+import net.automatalib.util.graphs.sssp.SSSPResult;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LayeredBFSTest {
+
+    private static final boolean[] MODES = {false, true};
+
+    /**
+     * Compares the depths of a (sparse) random graph with the distances of a single-source shortest path search with
+     * unit weights. The graph is large enough to split the frontiers into several chunks.
+     */
+    @Test
+    public void testGraph() {
+        final Random random = new Random(42);
+        final int size = 20_000;
+        final CompactSimpleGraph<Void> graph = new CompactSimpleGraph<>(size);
+
+        for (int i = 0; i < size; i++) {
+            graph.addIntNode();
+        }
+        for (int i = 0; i < 2 * size; i++) {
+            graph.connect(random.nextInt(size), random.nextInt(size));
+        }
+
+        final SSSPResult<Integer, CompactEdge<Void>> sssp = Graphs.findSSSP(graph, 0, e -> 1);
+
+        for (boolean parallel : MODES) {
+            final BFSResult<Integer, CompactEdge<Void>> bfs =
+                    LayeredBFS.search(graph, Collections.singleton(0), parallel);
+
+            checkLayers(bfs);
+
+            int reached = 0;
+            for (int n = 0; n < size; n++) {
+                final float dist = sssp.getShortestPathDistance(n);
+                final List<CompactEdge<Void>> path = bfs.getPath(n);
+
+                if (dist == Graphs.INVALID_DISTANCE) {
+                    Assert.assertFalse(bfs.isReachable(n));
+                    Assert.assertEquals(bfs.getDepth(n), BFSResult.UNREACHABLE);
+                    Assert.assertNull(path);
+                } else {
+                    reached++;
+                    Assert.assertTrue(bfs.isReachable(n));
+                    Assert.assertEquals(bfs.getDepth(n), (int) dist);
+                    Assert.assertNotNull(path);
+                    Assert.assertEquals(path.size(), (int) dist);
+
+                    final List<Integer> nodes = Graphs.toNodeList(path, graph, 0);
+                    Assert.assertEquals(nodes.get(nodes.size() - 1).intValue(), n);
+                    for (int i = 0; i < path.size(); i++) {
+                        Assert.assertTrue(graph.getOutgoingEdges(nodes.get(i)).contains(path.get(i)));
+                    }
+                }
+            }
+
+            Assert.assertEquals(bfs.size(), reached);
+        }
+    }
+
+    /**
+     * Checks that the ID-based search on an automaton and the hash-based search on a general transition system compute
+     * the same layers and valid (shortest) access sequences.
+     */
+    @Test
+    public void testAutomaton() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(new Random(42), 5_000, alphabet);
+
+        for (boolean parallel : MODES) {
+            final BFSResult<Integer, Integer> bfs = LayeredBFS.search(dfa, alphabet, parallel);
+            final BFSResult<Integer, Integer> hashBfs =
+                    LayeredBFS.search(dfa, LayeredBFS.NO_LIMIT, alphabet, parallel);
+
+            checkLayers(bfs);
+            checkLayers(hashBfs);
+            Assert.assertEquals(hashBfs.size(), bfs.size());
+
+            for (Integer s : dfa) {
+                Assert.assertEquals(hashBfs.getDepth(s), bfs.getDepth(s));
+
+                final List<Integer> as = bfs.getPath(s);
+                if (as != null) {
+                    Assert.assertEquals(dfa.getState(Word.fromList(as)), s);
+                    Assert.assertEquals(as.size(), bfs.getDepth(s));
+
+                    final List<Integer> hashAs = hashBfs.getPath(s);
+                    Assert.assertNotNull(hashAs);
+                    Assert.assertEquals(dfa.getState(Word.fromList(hashAs)), s);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testComposition() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 1);
+        final CompactDFA<Integer> dfa1 = RandomAutomata.randomDFA(random, 200, alphabet);
+        final CompactDFA<Integer> dfa2 = RandomAutomata.randomDFA(random, 300, alphabet);
+
+        final DTSComposition<Integer, Integer, Integer, Integer, Integer, CompactDFA<Integer>, CompactDFA<Integer>>
+                composition = TSCompositions.compose(dfa1, dfa2);
+
+        final BFSResult<Pair<Integer, Integer>, Integer> sequential =
+                LayeredBFS.search(composition, LayeredBFS.NO_LIMIT, alphabet, false);
+        final BFSResult<Pair<Integer, Integer>, Integer> parallel =
+                LayeredBFS.search(composition, LayeredBFS.NO_LIMIT, alphabet, true);
+
+        checkLayers(sequential);
+        checkLayers(parallel);
+        Assert.assertEquals(parallel.size(), sequential.size());
+
+        for (List<Pair<Integer, Integer>> layer : sequential.getLayers()) {
+            for (Pair<Integer, Integer> s : layer) {
+                Assert.assertEquals(parallel.getDepth(s), sequential.getDepth(s));
+
+                final List<Integer> as = parallel.getPath(s);
+                Assert.assertNotNull(as);
+                Assert.assertEquals(composition.getState(Word.fromList(as)), s);
+            }
+        }
+
+        // limited search (sequentially, so that the order within the layers is deterministic)
+        final BFSResult<Pair<Integer, Integer>, Integer> limited =
+                LayeredBFS.search(composition, 3, alphabet, false);
+        Assert.assertEquals(limited.getLayers(), sequential.getLayers().subList(0, 4));
+    }
+
+    private static <S> void checkLayers(BFSResult<S, ?> bfs) {
+        final Set<S> seen = new HashSet<>();
+        final List<List<S>> layers = bfs.getLayers();
+
+        for (int i = 0; i < layers.size(); i++) {
+            for (S s : layers.get(i)) {
+                Assert.assertTrue(seen.add(s));
+                Assert.assertEquals(bfs.getDepth(s), i);
+            }
+        }
+
+        Assert.assertEquals(seen.size(), bfs.size());
+    }
+}
@@ -15,9 +15,15 @@
  */
 package net.automatalib.util.ts.modal;
 
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
 import net.automatalib.commons.util.Pair;
 import net.automatalib.ts.modal.CompactMTS;
+import net.automatalib.ts.modal.MTSTransition;
 import net.automatalib.ts.modal.transition.ModalEdgeProperty.ModalType;
+import net.automatalib.ts.modal.transition.MutableModalEdgeProperty;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.impl.Alphabets;
 import org.assertj.core.api.Assertions;
@@ -268,4 +274,117 @@ public class ModalRefinementTest {
         Assert.assertTrue(MTSUtil.isRefinementOf(s, t, alphabet));
     }
 
-}
\ No newline at end of file
+
+    @Test(description = "Compare the worklist algorithm with a naive fixed-point computation on random MTSs")
+    public void randomTest() {
+        final Random random = new Random(42);
+        final Alphabet<String> alphabet = Alphabets.closedCharStringRange('a', 'b');
+
+        for (int i = 0; i < 50; i++) {
+            final CompactMTS<String> a = randomMTS(random, alphabet, 2 + random.nextInt(5));
+            final CompactMTS<String> b = randomMTS(random, alphabet, 2 + random.nextInt(5));
+
+            final Set<Pair<Integer, Integer>> expected = naiveRefinementRelation(a, b, alphabet);
+            Assert.assertEquals(ModalRefinement.refinementRelation(a, b, alphabet), expected);
+
+            final boolean refines = expected.stream().anyMatch(p -> a.getInitialStates().contains(p.getFirst())) &&
+                                    expected.stream().anyMatch(p -> b.getInitialStates().contains(p.getSecond()));
+            Assert.assertEquals(MTSUtil.isRefinementOf(a, b, alphabet), refines);
+        }
+    }
+
+    @Test(description = "Ensure that large systems can be checked efficiently", timeOut = 30000)
+    public void largeSystemTest() {
+        final Alphabet<String> alphabet = Alphabets.closedCharStringRange('a', 'b');
+        final int size = 50_000;
+
+        // a long chain of may/must transitions refines a two-state specification
+        final CompactMTS<String> impl = new CompactMTS<>(alphabet);
+        impl.addInitialState();
+        for (int i = 1; i < size; i++) {
+            impl.addState();
+            impl.addModalTransition(i - 1, "a", i, ModalType.MUST);
+            if (i % 2 == 0) {
+                impl.addModalTransition(i - 1, "b", i - 1, ModalType.MAY);
+            }
+        }
+        impl.addModalTransition(size - 1, "a", 0, ModalType.MUST);
+
+        final CompactMTS<String> spec = new CompactMTS<>(alphabet);
+        final Integer s0 = spec.addInitialState();
+        final Integer s1 = spec.addState();
+        spec.addModalTransition(s0, "a", s1, ModalType.MUST);
+        spec.addModalTransition(s0, "b", s0, ModalType.MAY);
+        spec.addModalTransition(s1, "a", s0, ModalType.MUST);
+        spec.addModalTransition(s1, "b", s1, ModalType.MAY);
+
+        Assert.assertTrue(MTSUtil.isRefinementOf(impl, spec, alphabet));
+
+        // a may transition in the specification that is a must transition in the implementation breaks refinement
+        spec.addModalTransition(s0, "b", s0, ModalType.MUST);
+        Assert.assertFalse(MTSUtil.isRefinementOf(impl, spec, alphabet));
+    }
+
+    private static CompactMTS<String> randomMTS(Random random, Alphabet<String> alphabet, int size) {
+        final CompactMTS<String> result = new CompactMTS<>(alphabet);
+        result.addInitialState();
+        for (int i = 1; i < size; i++) {
+            result.addState();
+        }
+
+        final int numTransitions = random.nextInt(3 * size);
+        for (int i = 0; i < numTransitions; i++) {
+            result.addModalTransition(random.nextInt(size),
+                                      alphabet.getSymbol(random.nextInt(alphabet.size())),
+                                      random.nextInt(size),
+                                      random.nextBoolean() ? ModalType.MAY : ModalType.MUST);
+        }
+
+        return result;
+    }
+
+    private static Set<Pair<Integer, Integer>> naiveRefinementRelation(CompactMTS<String> a,
+                                                                       CompactMTS<String> b,
+                                                                       Alphabet<String> alphabet) {
+        final Set<Pair<Integer, Integer>> relation = new HashSet<>();
+        for (Integer p : a.getStates()) {
+            for (Integer q : b.getStates()) {
+                relation.add(Pair.of(p, q));
+            }
+        }
+
+        boolean update = true;
+        while (update) {
+            update = relation.removeIf(pair -> !isMatched(a, b, alphabet, relation, pair.getFirst(), pair.getSecond()));
+        }
+
+        return relation;
+    }
+
+    private static boolean isMatched(CompactMTS<String> a,
+                                     CompactMTS<String> b,
+                                     Alphabet<String> alphabet,
+                                     Set<Pair<Integer, Integer>> relation,
+                                     Integer p,
+                                     Integer q) {
+        for (String i : alphabet) {
+            for (MTSTransition<String, MutableModalEdgeProperty> t : a.getTransitions(p, i)) {
+                if (b.getTransitions(q, i)
+                     .stream()
+                     .noneMatch(u -> relation.contains(Pair.of(a.getSuccessor(t), b.getSuccessor(u))))) {
+                    return false;
+                }
+            }
+            for (MTSTransition<String, MutableModalEdgeProperty> u : b.getTransitions(q, i)) {
+                if (u.getProperty().isMust() && a.getTransitions(p, i)
+                                                 .stream()
+                                                 .noneMatch(t -> t.getProperty().isMust() &&
+                                                                 relation.contains(Pair.of(a.getSuccessor(t),
+                                                                                           b.getSuccessor(u))))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}